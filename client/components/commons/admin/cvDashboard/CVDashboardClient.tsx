@@ -23,6 +23,8 @@ export type CvFilterType = "visibility";
 export default function CVDashboardClient() {
   const {
     CVsTable,
+    CVsTableCursor,
+    loadMoreCVs,
     fetchAllCVsInBackground,
     createCV,
     deleteCV,
@@ -64,12 +66,16 @@ export default function CVDashboardClient() {
     totalPages: totalPages,
     currentPage: currentPage,
     pageSize: pageSize,
-    hasNext: currentPage < totalPages,
+    hasNext: currentPage < totalPages || !!CVsTableCursor,
     hasPrevious: currentPage > 1,
   };
 
   const setPage = (page: number) => {
     setCurrentPage(page);
+    // Request the next server page once the last loaded page is reached
+    if (page >= totalPages) {
+      loadMoreCVs();
+    }
   };
 
   useEffect(() => {
@@ -331,7 +337,7 @@ export default function CVDashboardClient() {
             onUpdate={onUpdate}
             onDownload={onDownload}
             onDelete={onDelete}
-            showPagination={filteredCVs.length > 10}
+            showPagination={filteredCVs.length > 10 || !!CVsTableCursor}
             paginationData={paginationData}
             onPageChange={setPage}
           />
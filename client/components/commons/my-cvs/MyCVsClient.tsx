@@ -19,11 +19,13 @@ export default function MyCVsClient() {
     deleteCV,
     duplicateCV,
     fetchUserCVsInBackground,
-    fetchAllCVsInBackground,
+    getPublicCVs,
+    loadMorePublicCVs,
     handleGeneratePDF,
     handleSetCurrentCV,
     userCVs,
-    CVsTable,
+    publicCVs,
+    publicCVsCursor,
     isLoadingUserCVs,
     importCV,
   } = useCVStore();
@@ -72,10 +74,16 @@ export default function MyCVsClient() {
       totalPages: templateCVsTotalPages,
       currentPage: templateCVsPage,
       pageSize: templateCVsPageSize,
-      hasNext: templateCVsPage < templateCVsTotalPages,
+      hasNext: templateCVsPage < templateCVsTotalPages || !!publicCVsCursor,
       hasPrevious: templateCVsPage > 1,
     },
-    setPage: setTemplateCVsPage,
+    setPage: (page: number) => {
+      setTemplateCVsPage(page);
+      // Request the next server page once the last loaded page is reached
+      if (page >= templateCVsTotalPages) {
+        loadMorePublicCVs();
+      }
+    },
   };
 
   // Paginate user CVs in memory
@@ -92,14 +100,13 @@ export default function MyCVsClient() {
       fetchUserCVsInBackground(userAuth.id);
       console.log("Fetching user CVs for user:", userAuth.id);
     }
-    fetchAllCVsInBackground();
+    getPublicCVs();
   }, [userAuth]);
 
   useEffect(() => {
-    // Filter public CVs from CVsTable
-    const publicCvs = CVsTable.filter((cv) => cv.isVisibility === true);
-    setTemplateCVs(publicCvs);
-  }, [CVsTable]);
+    // Public CVs come from their own keyset listing, one page at a time
+    setTemplateCVs(publicCVs);
+  }, [publicCVs]);
 
   const handleCreate = async () => {
     try {
@@ -255,7 +262,7 @@ export default function MyCVsClient() {
             templateCVs={paginatedTemplateCVs}
             handleDuplicate={handleDuplicate}
             onDownload={handleGeneratePDF}
-            showPagination={templateCVs.length > 12}
+            showPagination={templateCVs.length > 12 || !!publicCVsCursor}
             paginationData={templateCVsPagination.paginationData}
             onPageChange={(page) => {
               templateCVsPagination.setPage(page);
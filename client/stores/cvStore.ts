@@ -9,6 +9,11 @@ import { EPlanType } from "@/types/enum";
 interface ICVDataResponse {
 	cv: ICV,
 	cvs: ICV[],
+	pagination?: {
+		nextCursor: string | null,
+		hasNext: boolean,
+		limit: number,
+	},
 }
 
 export interface ICVStore extends IBaseStore {
@@ -17,14 +22,21 @@ export interface ICVStore extends IBaseStore {
 	cvList: ICV[]
 	userCVs: ICV[]
 	CVsTable: ICV[]
+	CVsTableCursor: string | null
+	publicCVs: ICV[]
+	publicCVsCursor: string | null
 	currentStep: number
 	lastFetchTimeAllCVs: number | null
 	lastFetchTimeUserCVs: number | null
 	isLoadingAllCVs: boolean
 	isLoadingUserCVs: boolean
+	isLoadingPublicCVs: boolean
 
 	getAllCVs: () => Promise<IApiResponse<ICVDataResponse>>;
+	loadMoreCVs: () => Promise<void>;
 	fetchAllCVsInBackground: () => Promise<void>;
+	getPublicCVs: () => Promise<IApiResponse<ICVDataResponse>>;
+	loadMorePublicCVs: () => Promise<void>;
 	getUserCVs: (userId: string) => Promise<IApiResponse<ICVDataResponse>>;
 	fetchUserCVsInBackground: (userId: string) => Promise<void>;
 	getCV: (
@@ -74,11 +86,15 @@ const initialState = {
 	cvList: [],
 	userCVs: [],
 	CVsTable: [],
+	CVsTableCursor: null as string | null,
+	publicCVs: [],
+	publicCVsCursor: null as string | null,
 	currentStep: 0,
 	lastFetchTimeAllCVs: null as number | null,
 	lastFetchTimeUserCVs: null as number | null,
 	isLoadingAllCVs: false,
 	isLoadingUserCVs: false,
+	isLoadingPublicCVs: false,
 
 	initialCV: {
 		id: '',
@@ -129,6 +145,15 @@ const initialState = {
 // Cache expiration time: 3 minutes
 const CACHE_DURATION = 3 * 60 * 1000;
 
+// Rows per keyset page; the next page is only requested when the user asks for it
+const PAGE_LIMIT = 50;
+
+const pageUrl = (path: string, cursor: string | null) =>
+	`${path}?limit=${PAGE_LIMIT}${cursor ? `&cursor=${encodeURIComponent(cursor)}` : ""}`;
+
+const nextCursorOf = (data?: ICVDataResponse) =>
+	data?.pagination?.hasNext ? data.pagination.nextCursor : null;
+
 export const useCVStore = createStore<ICVStore>(
 	storeName,
 	initialState,
@@ -138,11 +163,13 @@ export const useCVStore = createStore<ICVStore>(
 				set({ isLoadingAllCVs: true });
 
 				try {
-					const res = await handleRequest<ICVDataResponse>(EHttpType.GET, `/cvs`);
+					// First keyset page only; loadMoreCVs follows nextCursor on demand
+					const res = await handleRequest<ICVDataResponse>(EHttpType.GET, pageUrl(`/cvs`, null));
 
 					if (res.data && res.data.success && res.data.cvs) {
 						set({
 							CVsTable: res.data.cvs,
+							CVsTableCursor: nextCursorOf(res.data),
 							lastFetchTimeAllCVs: Date.now(),
 							isLoadingAllCVs: false
 						});
@@ -158,6 +185,91 @@ export const useCVStore = createStore<ICVStore>(
 			});
 		},
 
+		loadMoreCVs: async (): Promise<void> => {
+			const { CVsTableCursor, isLoadingAllCVs } = get();
+			if (!CVsTableCursor || isLoadingAllCVs) {
+				return;
+			}
+
+			await get().handleRequest(async () => {
+				set({ isLoadingAllCVs: true });
+
+				try {
+					const res = await handleRequest<ICVDataResponse>(EHttpType.GET, pageUrl(`/cvs`, CVsTableCursor));
+
+					if (res.data && res.data.success && res.data.cvs) {
+						set({
+							CVsTable: [...get().CVsTable, ...res.data.cvs],
+							CVsTableCursor: nextCursorOf(res.data),
+							isLoadingAllCVs: false
+						});
+					} else {
+						set({ isLoadingAllCVs: false });
+					}
+
+					return res;
+				} catch (error) {
+					set({ isLoadingAllCVs: false });
+					throw error;
+				}
+			});
+		},
+
+		getPublicCVs: async (): Promise<IApiResponse<ICVDataResponse>> => {
+			return await get().handleRequest(async () => {
+				set({ isLoadingPublicCVs: true });
+
+				try {
+					const res = await handleRequest<ICVDataResponse>(EHttpType.GET, pageUrl(`/cvs/public`, null));
+
+					if (res.data && res.data.success && res.data.cvs) {
+						set({
+							publicCVs: res.data.cvs,
+							publicCVsCursor: nextCursorOf(res.data),
+							isLoadingPublicCVs: false
+						});
+					} else {
+						set({ isLoadingPublicCVs: false });
+					}
+
+					return res;
+				} catch (error) {
+					set({ isLoadingPublicCVs: false });
+					throw error;
+				}
+			});
+		},
+
+		loadMorePublicCVs: async (): Promise<void> => {
+			const { publicCVsCursor, isLoadingPublicCVs } = get();
+			if (!publicCVsCursor || isLoadingPublicCVs) {
+				return;
+			}
+
+			await get().handleRequest(async () => {
+				set({ isLoadingPublicCVs: true });
+
+				try {
+					const res = await handleRequest<ICVDataResponse>(EHttpType.GET, pageUrl(`/cvs/public`, publicCVsCursor));
+
+					if (res.data && res.data.success && res.data.cvs) {
+						set({
+							publicCVs: [...get().publicCVs, ...res.data.cvs],
+							publicCVsCursor: nextCursorOf(res.data),
+							isLoadingPublicCVs: false
+						});
+					} else {
+						set({ isLoadingPublicCVs: false });
+					}
+
+					return res;
+				} catch (error) {
+					set({ isLoadingPublicCVs: false });
+					throw error;
+				}
+			});
+		},
+
 		fetchAllCVsInBackground: async (): Promise<void> => {
 			const state = get();
 			const now = Date.now();
@@ -448,6 +560,7 @@ export const useCVStore = createStore<ICVStore>(
 		handleRemoveCVFromTable: (cvId: string): void => {
 			set({
 				CVsTable: get().CVsTable.filter((cv) => cv.id !== cvId),
+				publicCVs: get().publicCVs.filter((cv) => cv.id !== cvId),
 			});
 		},
 
@@ -1,9 +1,8 @@
-import { EHttpType, handleRequest, IApiResponse } from "@/lib/axiosInstance";
+import axiosInstance, { EHttpType, handleRequest, IApiResponse } from "@/lib/axiosInstance";
 import { createStore, EStorageType, IBaseStore } from "@/lib/initialStore";
 
 export interface IStatsResponse {
 	dashboardStats?: IDashboardStats;
-	statsReport?: string | Uint8Array; // Can be Base64 string or byte array
 }
 
 export interface IStatsStore extends IBaseStore {
@@ -19,7 +18,7 @@ export interface IStatsStore extends IBaseStore {
 	fetchDashboardStatsInBackground: () => Promise<void>;
 	fetchReportInBackground: () => Promise<void>;
 
-	handleGetStatsReport: (statsReport?: string | Uint8Array) => Promise<Blob | null>;
+	handleGetStatsReport: (statsReport?: Blob) => Promise<Blob | null>;
 }
 
 const storeName = "stats";
@@ -63,10 +62,14 @@ export const useStatsStore = createStore<IStatsStore>(
 				}
 			}
 
-			// Use handleRequest to get the report data
-			const res = await handleRequest<IStatsResponse>(EHttpType.GET, `/stats/report`);
-
-			return get().handleGetStatsReport(res.data?.statsReport);
+			// The report is streamed as application/pdf, not wrapped in the JSON response
+			try {
+				const res = await axiosInstance.get<Blob>(`/stats/report`, { responseType: "blob" });
+				return get().handleGetStatsReport(res.data);
+			} catch (error) {
+				console.error("Failed to fetch stats report", error);
+				return null;
+			}
 		},
 
 		fetchDashboardStatsInBackground: async (): Promise<void> => {
@@ -114,26 +117,11 @@ export const useStatsStore = createStore<IStatsStore>(
 			set({ ...initialState });
 		},
 
-		handleGetStatsReport: async (statsReport?: string | Uint8Array): Promise<Blob | null> => {
-			if (statsReport) {
-				let blob: Blob;
-
-				// Check if statsReport is a Base64 string or byte array
-				if (typeof statsReport === 'string') {
-					// Decode Base64 string to binary
-					const binaryString = atob(statsReport);
-					const bytes = new Uint8Array(binaryString.length);
-					for (let i = 0; i < binaryString.length; i++) {
-						bytes[i] = binaryString.charCodeAt(i);
-					}
-					blob = new Blob([bytes], { type: 'application/pdf' });
-				} else if (Array.isArray(statsReport)) {
-					// Convert byte array to Blob
-					const uint8Array = new Uint8Array(statsReport);
-					blob = new Blob([uint8Array], { type: 'application/pdf' });
-				} else {
-					return null;
-				}
+		handleGetStatsReport: async (statsReport?: Blob): Promise<Blob | null> => {
+			if (statsReport && statsReport.size > 0) {
+				const blob = statsReport.type === 'application/pdf'
+					? statsReport
+					: new Blob([statsReport], { type: 'application/pdf' });
 
 				set({
 					statsReport: blob,
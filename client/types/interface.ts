@@ -192,6 +192,9 @@ declare global {
         cvsCreatedThisMonth: number;
         recentActivities: IActivityInfo[];
         revenueStats: IRevenueStats | null;
+        usersByPlan?: Record<string, number>;
+        degraded?: boolean;
+        degradedSources?: string[];
     }
 
     export interface IActivityInfo {
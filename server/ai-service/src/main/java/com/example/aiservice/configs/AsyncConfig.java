@@ -1,26 +1,64 @@
 package com.example.aiservice.configs;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
-import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    /**
+     * Bounded executor for RAG fan-out (blocking pgvector + Gemini embedding I/O).
+     * With rag.executor.virtual-threads=true the workers are virtual threads;
+     * the pool and queue bounds still cap concurrent searches.
+     *
+     * Metrics: executor.* gauges (queued, active, pool size) tagged name=ragExecutor,
+     * rag.executor.queue.wait and rag.executor.execution timers.
+     */
     @Bean(name = "ragExecutor")
-    public Executor ragExecutor() {
+    public ThreadPoolTaskExecutor ragExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${rag.executor.core-pool-size:4}") int corePoolSize,
+            @Value("${rag.executor.max-pool-size:8}") int maxPoolSize,
+            @Value("${rag.executor.queue-capacity:100}") int queueCapacity,
+            @Value("${rag.executor.virtual-threads:false}") boolean virtualThreads) {
+        Timer queueWait = Timer.builder("rag.executor.queue.wait")
+                .description("Time RAG tasks spend queued before a worker picks them up")
+                .register(meterRegistry);
+        Timer execution = Timer.builder("rag.executor.execution")
+                .description("RAG task execution time")
+                .register(meterRegistry);
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(4);
-        executor.setMaxPoolSize(8);
-        executor.setQueueCapacity(100);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
         executor.setThreadNamePrefix("rag-async-");
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name("rag-async-", 1).factory());
+        }
+        executor.setTaskDecorator(task -> {
+            long queuedAt = System.nanoTime();
+            return () -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                execution.record(task);
+            };
+        });
         executor.setWaitForTasksToCompleteOnShutdown(true);
         executor.setAwaitTerminationSeconds(60);
         executor.initialize();
+
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "ragExecutor", Tags.empty())
+                .bindTo(meterRegistry);
         return executor;
     }
 }
@@ -15,24 +15,17 @@ public class CacheConfig {
 
     /**
      * Cache Manager with 2 caches:
-     * 1. embeddingCache: For embedding vectors (5min TTL)
-     * 2. searchCache: For vector search results (3min TTL)
+     * 1. searchCache: For vector search results (3min TTL)
+     * 2. jdMatchCache: Local tier of JdMatchCacheService (10min TTL)
+     *
+     * Embedding vectors are cached by EmbeddingCacheService (Caffeine + Redis)
      */
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "embeddingCache", 
                 "searchCache",
                 "jdMatchCache");
         
-        // Embedding cache: longer TTL, smaller size
-        cacheManager.registerCustomCache("embeddingCache",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(5, TimeUnit.MINUTES)
-                        .maximumSize(100)
-                        .recordStats()
-                        .build());
-        
         // Search cache: shorter TTL, larger size
         cacheManager.registerCustomCache("searchCache",
                 Caffeine.newBuilder()
@@ -1,5 +1,9 @@
 package com.example.aiservice.configs;
 
+import com.example.aiservice.services.CachingEmbeddingModel;
+import com.example.aiservice.services.EmbeddingCacheService;
+import com.example.aiservice.services.GeminiEmbeddingModel;
+import com.example.aiservice.services.GeminiService;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,15 +13,25 @@ import org.springframework.context.annotation.Primary;
 @Configuration
 public class EmbeddingConfig {
 
-    @Value("${GEMINI_API_KEY}")
-    private String geminiApiKey;
+    @Value("${GEMINI_EMBEDDING_MODEL}")
+    private String embeddingModelName;
 
-    @Value("${EMBEDDING_API_URL}")
-    private String embeddingApiUrl;
+    @Value("${gemini.embedding.batch-size:100}")
+    private int batchSize;
 
+    @Value("${gemini.embedding.max-concurrency:4}")
+    private int maxConcurrency;
+
+    /**
+     * Batched embedding model: one batchEmbedContents call per chunk instead of
+     * one embedContent call per text, behind the two-tier embedding cache.
+     */
     @Bean
     @Primary
-    public EmbeddingModel embeddingModel() {
-        return new GeminiEmbeddingModelConfig(geminiApiKey, embeddingApiUrl);
+    public EmbeddingModel embeddingModel(GeminiService geminiService, EmbeddingCacheService embeddingCacheService) {
+        return new CachingEmbeddingModel(
+                new GeminiEmbeddingModel(geminiService, batchSize, maxConcurrency),
+                embeddingCacheService,
+                embeddingModelName);
     }
 }
@@ -1,6 +1,7 @@
 package com.example.aiservice.configs;
 
 import com.example.aiservice.services.GeminiChatModel;
+import com.example.aiservice.services.GeminiContextCacheService;
 import com.example.aiservice.services.GeminiService;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
@@ -34,9 +35,9 @@ public class RAGConfig {
      * GeminiChatModel Bean - Custom ChatModel implementation for Gemini API
      */
     @Bean
-    public ChatModel geminiChatModel(GeminiService geminiService) {
+    public ChatModel geminiChatModel(GeminiService geminiService, GeminiContextCacheService contextCache) {
         log.info("Creating GeminiChatModel bean");
-        return new GeminiChatModel(geminiService);
+        return new GeminiChatModel(geminiService, contextCache);
     }
 
     /**
@@ -1,8 +1,10 @@
 package com.example.aiservice.configs;
 
+import com.example.aiservice.services.InMemoryTemplateVectorStore;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -37,6 +39,17 @@ public class VectorStoreConfig {
             .build();
     }
 
+    /**
+     * In-process template index; replaces pgvector for searches when
+     * rag.vector-store=memory. Rebuilt from cv_templates on every startup.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "rag.vector-store", havingValue = "memory")
+    public VectorStore inMemoryVectorStore(EmbeddingModel embeddingModel) {
+        return new InMemoryTemplateVectorStore(embeddingModel);
+    }
+
     @Bean
     @Primary
     public ChatModel chatModel(ChatModel openAiChatModel) {
@@ -3,7 +3,9 @@ package com.example.aiservice.controllers;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -11,6 +13,8 @@ import org.springframework.web.multipart.MultipartFile;
 import com.example.aiservice.dtos.responses.Response;
 import com.example.aiservice.services.apis.AIApi;
 
+import reactor.core.publisher.Flux;
+
 @RestController
 @RequestMapping("/api/v1/ai")
 public class AIController {
@@ -34,6 +38,18 @@ public class AIController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('admin','user')")
+    public Flux<ServerSentEvent<String>> analyzeCVStream(@RequestPart("data") String dataJson) {
+        return aiService.analyzeCVStream(dataJson);
+    }
+
+    @PostMapping(value = "/improve/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('admin','user')")
+    public Flux<ServerSentEvent<String>> improveCVStream(@RequestPart("data") String dataJson) {
+        return aiService.improveCVStream(dataJson);
+    }
+
     @PostMapping("/analyze-with-jd")
     @PreAuthorize("hasAnyAuthority('admin','user')")
     public ResponseEntity<Response> analyzeCVWithJobDescription(@RequestPart("data") String dataJson,
@@ -0,0 +1,19 @@
+package com.example.aiservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Handle of a Gemini cachedContents resource
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeminiCachedContent {
+    private String name; // cachedContents/{id}
+    private int tokenCount;
+    private Instant expireTime;
+}
@@ -49,6 +49,12 @@ public class CVTemplateEntity {
     
     @Column(nullable = false)
     private Boolean isActive = true;
+
+    @Column(length = 64)
+    private String contentHash; // SHA-256 of what is in the vector store; null = not indexed
+
+    @Column(columnDefinition = "bytea")
+    private byte[] embedding; // packed little-endian floats, reused at startup
     
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
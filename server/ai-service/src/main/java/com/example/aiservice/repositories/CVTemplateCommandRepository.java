@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -49,6 +50,14 @@ public interface CVTemplateCommandRepository extends JpaRepository<CVTemplateEnt
             @Param("keywords") List<String> keywords,
             @Param("updatedAt") LocalDateTime updatedAt);
 
+    @Modifying
+    @Transactional
+    @Query("UPDATE CVTemplateEntity t SET t.contentHash = :contentHash, t.embedding = :embedding WHERE t.id = :id")
+    int updateIndexState(
+            @Param("id") String id,
+            @Param("contentHash") String contentHash,
+            @Param("embedding") byte[] embedding);
+
     @Modifying
     @Query("UPDATE CVTemplateEntity t SET t.isActive = false, t.updatedAt = :updatedAt WHERE t.id = :id")
     int softDeleteTemplate(@Param("id") String id, @Param("updatedAt") LocalDateTime updatedAt);
@@ -5,6 +5,7 @@ import com.example.aiservice.entities.CVTemplateEntity;
 import com.example.aiservice.repositories.CVTemplateCommandRepository;
 import com.example.aiservice.repositories.CVTemplateQueryRepository;
 import com.example.aiservice.repositories.SimpleCVTemplateRepository;
+import com.example.aiservice.services.utils.DigestUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -12,12 +13,13 @@ import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.UUID;
 
 @Service
@@ -30,14 +32,20 @@ public class CVKnowledgeBaseService {
     private final SimpleCVTemplateRepository simpleTemplateRepository;
     private final EmbeddingService embeddingService;
     private final CVTemplateDataProvider templateDataProvider;
+    private final KnowledgeBaseHealthIndicator healthIndicator;
+    private final TransactionTemplate transactionTemplate;
 
-    private boolean initialized = false;
+    private volatile boolean initialized = false;
 
     /**
-     * Initialize knowledge base khi application startup
+     * Initialize knowledge base khi application startup.
+     * Runs off the startup thread; readiness is reported by
+     * KnowledgeBaseHealthIndicator until the vector store is in sync.
+     * Not transactional: embedding calls can take minutes, so each database
+     * write commits on its own instead of pinning a connection meanwhile.
      */
+    @Async("ragExecutor")
     @EventListener(ApplicationReadyEvent.class)
-    @Transactional
     @Retryable(maxAttempts = 3, backoff = @Backoff(delay = 2000))
     public void initializeKnowledgeBase() {
         if (initialized) {
@@ -46,74 +54,130 @@ public class CVKnowledgeBaseService {
         }
 
         log.info("Starting knowledge base initialization...");
+        healthIndicator.syncing();
+        long startTime = System.currentTimeMillis();
 
         try {
             // 1. Check PostgreSQL templates
             long templateCount = templateQueryRepository.countAllTemplates();
             if (templateCount == 0) {
                 log.info("📝 No templates in DB, creating defaults...");
-                createDefaultTemplates();
-                templateCount = templateQueryRepository.countAllTemplates();
+                transactionTemplate.executeWithoutResult(status -> createDefaultTemplates());
             }
 
-            // 2. Check vector store status
-            boolean vectorStoreEmpty = isVectorStoreEmpty();
-
-            if (vectorStoreEmpty) {
-                log.info("Vector store is empty, ingesting {} templates...", templateCount);
+            // 2. Bring the vector store in line with cv_templates
+            Map<String, Object> stats = syncVectorStore();
+            stats.put("durationMs", System.currentTimeMillis() - startTime);
 
-                List<CVTemplateEntity> templates = templateQueryRepository
-                        .findByRatingGreaterThanEqualAndIsActiveTrue(4);
+            initialized = true;
+            healthIndicator.ready(stats);
+            log.info("Knowledge base initialization completed: {}", stats);
 
-                List<Document> documents = templates.stream()
-                        .map(this::convertToDocument)
-                        .collect(Collectors.toList());
+        } catch (Exception e) {
+            log.error("Knowledge base initialization failed", e);
+            healthIndicator.failed(e);
+            throw new RuntimeException("Knowledge base initialization failed", e);
+        }
+    }
 
-                if (!documents.isEmpty()) {
-                    embeddingService.batchIngestTemplates(documents);
-                    log.info("Ingested {} templates into vector store", documents.size());
+    /**
+     * Diff cv_templates against the vector store using the persisted content
+     * hash. Only new or changed templates are embedded; unchanged ones missing
+     * from the store are re-added from their persisted embedding; templates no
+     * longer eligible are removed.
+     */
+    private Map<String, Object> syncVectorStore() {
+        List<CVTemplateEntity> templates = templateQueryRepository.findAll();
+        Set<String> indexedIds = embeddingService.indexedTemplateIds();
+
+        List<CVTemplateEntity> toEmbed = new ArrayList<>();
+        List<CVTemplateEntity> toRestore = new ArrayList<>();
+        Set<String> eligibleIds = new HashSet<>();
+        int unchanged = 0;
+
+        for (CVTemplateEntity template : templates) {
+            if (!isIndexable(template)) {
+                if (template.getContentHash() != null) {
+                    templateCommandRepository.updateIndexState(template.getId(), null, null);
                 }
-            } else {
-                log.info("Vector store already has data, skipping ingestion");
+                continue;
             }
 
-            initialized = true;
-            log.info("Knowledge base initialization completed");
+            eligibleIds.add(template.getId());
+            boolean current = indexHash(template).equals(template.getContentHash()) && template.getEmbedding() != null;
+            if (!current) {
+                toEmbed.add(template);
+            } else if (!indexedIds.contains(template.getId())) {
+                toRestore.add(template);
+            } else {
+                unchanged++;
+            }
+        }
 
-        } catch (Exception e) {
-            log.error("Knowledge base initialization failed", e);
-            throw new RuntimeException("Knowledge base initialization failed", e);
+        if (!toRestore.isEmpty()) {
+            embeddingService.ingestWithEmbeddings(
+                    toRestore.stream().map(this::convertToDocument).toList(),
+                    toRestore.stream().map(t -> EmbeddingCacheService.decode(t.getEmbedding())).toList());
         }
+
+        indexTemplates(toEmbed);
+
+        List<String> orphans = indexedIds.stream().filter(id -> !eligibleIds.contains(id)).toList();
+        embeddingService.deleteTemplates(orphans);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("indexed", eligibleIds.size());
+        stats.put("unchanged", unchanged);
+        stats.put("restored", toRestore.size());
+        stats.put("embedded", toEmbed.size());
+        stats.put("removed", orphans.size());
+        return stats;
     }
 
     /**
-     * Check if vector store is empty by doing a test query
+     * Embed templates in batches, upsert them into the vector store and
+     * persist hash + embedding so the next startup can skip them.
      */
-    private boolean isVectorStoreEmpty() {
-        try {
-            // Do a simple search to check if data exists
-            List<Document> testResults = embeddingService.searchRelevantTemplates(
-                    "test query",
-                    "summary",
-                    null,
-                    null,
-                    1);
-
-            boolean isEmpty = testResults.isEmpty();
-            log.debug("Vector store empty check: {}", isEmpty);
-            return isEmpty;
+    private void indexTemplates(List<CVTemplateEntity> templates) {
+        if (templates.isEmpty()) {
+            return;
+        }
 
-        } catch (Exception e) {
-            // If search fails, assume empty and try to ingest
-            log.warn("⚠️ Cannot check vector store status, assuming empty: {}", e.getMessage());
-            return true;
+        List<Document> documents = templates.stream().map(this::convertToDocument).toList();
+        List<float[]> embeddings = embeddingService.embedAll(documents.stream().map(Document::getText).toList());
+        embeddingService.ingestWithEmbeddings(documents, embeddings);
+
+        for (int i = 0; i < templates.size(); i++) {
+            CVTemplateEntity template = templates.get(i);
+            templateCommandRepository.updateIndexState(
+                    template.getId(),
+                    indexHash(template),
+                    EmbeddingCacheService.encode(embeddings.get(i)));
         }
+        log.info("Embedded and indexed {} templates", templates.size());
+    }
+
+    private static boolean isIndexable(CVTemplateEntity template) {
+        return Boolean.TRUE.equals(template.getIsActive())
+                && template.getRating() != null
+                && template.getRating() >= 4;
+    }
+
+    // Covers everything written to the vector store: content and filter metadata
+    static String indexHash(CVTemplateEntity template) {
+        List<String> keywords = template.getKeywords() != null ? template.getKeywords() : List.of();
+        return DigestUtil.sha256Hex(String.join("\u0000",
+                template.getContent(),
+                String.valueOf(template.getCategory()),
+                String.valueOf(template.getLevel()),
+                String.valueOf(template.getSection()),
+                String.valueOf(template.getRating()),
+                String.join(",", keywords)));
     }
 
     /**
      * Manually reinitialize
      */
-    @Transactional
     public void reinitializeKnowledgeBase() {
         log.info("Manual re-initialization triggered");
         initialized = false;
@@ -121,10 +185,22 @@ public class CVKnowledgeBaseService {
     }
 
     /**
-     * Add new template
+     * Add new template. The row commits first; embedding runs after, outside
+     * the transaction.
      */
-    @Transactional
     public CVTemplateEntity addTemplate(CVTemplateEntity template) {
+        CVTemplateEntity saved = transactionTemplate.execute(status -> insertTemplate(template));
+
+        // Ingest if high quality
+        if (isIndexable(saved)) {
+            indexTemplates(List.of(saved));
+            log.info("Template {} added and ingested", saved.getId());
+        }
+
+        return saved;
+    }
+
+    private CVTemplateEntity insertTemplate(CVTemplateEntity template) {
         LocalDateTime now = LocalDateTime.now();
         template.setCreatedAt(now);
         template.setUpdatedAt(now);
@@ -149,27 +225,29 @@ public class CVKnowledgeBaseService {
                 template.getUpdatedAt());
 
         // Get the saved template
-        CVTemplateEntity saved = templateQueryRepository.findTemplateById(template.getId())
+        return templateQueryRepository.findTemplateById(template.getId())
                 .orElseThrow(() -> new RuntimeException("Failed to retrieve saved template"));
+    }
 
-        // Ingest if high quality
-        if (saved.getRating() >= 4) {
-            Document document = convertToDocument(saved);
-            embeddingService.ingestTemplate(
-                    saved.getId(),
-                    document.getText(),
-                    document.getMetadata());
-            log.info("Template {} added and ingested", saved.getId());
+    /**
+     * Update template. Like addTemplate, re-embedding happens after the update
+     * has committed.
+     */
+    public CVTemplateEntity updateTemplate(String id, CVTemplateEntity updatedTemplate) {
+        CVTemplateEntity saved = transactionTemplate.execute(status -> applyTemplateUpdate(id, updatedTemplate));
+
+        // Update in vector store (upsert by id)
+        if (isIndexable(saved)) {
+            indexTemplates(List.of(saved));
+        } else {
+            embeddingService.deleteTemplate(saved.getId());
+            templateCommandRepository.updateIndexState(saved.getId(), null, null);
         }
 
         return saved;
     }
 
-    /**
-     * Update template
-     */
-    @Transactional
-    public CVTemplateEntity updateTemplate(String id, CVTemplateEntity updatedTemplate) {
+    private CVTemplateEntity applyTemplateUpdate(String id, CVTemplateEntity updatedTemplate) {
         CVTemplateEntity existing = templateQueryRepository.findTemplateById(id)
                 .orElseThrow(() -> new RuntimeException("Template not found: " + id));
 
@@ -191,21 +269,8 @@ public class CVKnowledgeBaseService {
         }
 
         // Get updated template
-        CVTemplateEntity saved = templateQueryRepository.findTemplateById(id)
+        return templateQueryRepository.findTemplateById(id)
                 .orElseThrow(() -> new RuntimeException("Failed to retrieve updated template"));
-
-        // Update in vector store
-        if (saved.getRating() >= 4 && saved.getIsActive()) {
-            Document document = convertToDocument(saved);
-            embeddingService.updateTemplate(
-                    saved.getId(),
-                    document.getText(),
-                    document.getMetadata());
-        } else {
-            embeddingService.deleteTemplate(saved.getId());
-        }
-
-        return saved;
     }
 
     /**
@@ -226,6 +291,7 @@ public class CVKnowledgeBaseService {
         }
 
         embeddingService.deleteTemplate(id);
+        templateCommandRepository.updateIndexState(id, null, null);
         log.info("Template {} soft deleted", id);
     }
 
@@ -247,9 +313,8 @@ public class CVKnowledgeBaseService {
     }
 
     /**
-     * Create default templates
+     * Create default templates; runs inside transactionTemplate
      */
-    @Transactional
     protected void createDefaultTemplates() {
         List<CVTemplateDTO> dtos = templateDataProvider.getAllDefaultTemplates();
         LocalDateTime now = LocalDateTime.now();
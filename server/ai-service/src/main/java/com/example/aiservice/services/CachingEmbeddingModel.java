@@ -0,0 +1,96 @@
+package com.example.aiservice.services;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * EmbeddingModel decorator that serves vectors from {@link EmbeddingCacheService}
+ * and only sends cache misses to the delegate. Because PgVectorStore embeds
+ * both documents and search queries through the EmbeddingModel bean, repeated
+ * searches make no Gemini calls.
+ */
+// Bean is created in EmbeddingConfig with @Primary
+public class CachingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final EmbeddingCacheService cache;
+    private final String modelName;
+
+    public CachingEmbeddingModel(EmbeddingModel delegate, EmbeddingCacheService cache, String modelName) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.modelName = modelName;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        List<String> keys = texts.stream().map(text -> cache.key(modelName, text)).toList();
+        List<float[]> vectors = new ArrayList<>(cache.getAll(keys));
+
+        List<Integer> missIndexes = new ArrayList<>();
+        List<String> missTexts = new ArrayList<>();
+        for (int i = 0; i < vectors.size(); i++) {
+            if (vectors.get(i) == null) {
+                missIndexes.add(i);
+                missTexts.add(texts.get(i));
+            }
+        }
+
+        if (!missTexts.isEmpty()) {
+            List<Embedding> fresh = delegate.call(new EmbeddingRequest(missTexts, request.getOptions())).getResults();
+            for (int j = 0; j < fresh.size(); j++) {
+                int index = missIndexes.get(j);
+                float[] vector = fresh.get(j).getOutput();
+                cache.put(keys.get(index), vector);
+                vectors.set(index, vector);
+            }
+        }
+
+        List<Embedding> embeddings = new ArrayList<>(vectors.size());
+        for (int i = 0; i < vectors.size(); i++) {
+            embeddings.add(new Embedding(vectors.get(i), i));
+        }
+
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(String text) {
+        String key = cache.key(modelName, text);
+        float[] cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        float[] vector = delegate.embed(text);
+        cache.put(key, vector);
+        return vector;
+    }
+
+    /**
+     * Store vectors that are already known (e.g. persisted with the template),
+     * so a later embed of the same texts is served from the cache
+     */
+    public void seed(List<String> texts, List<float[]> vectors) {
+        for (int i = 0; i < texts.size(); i++) {
+            cache.put(cache.key(modelName, texts.get(i)), vectors.get(i));
+        }
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public int dimensions() {
+        return delegate.dimensions();
+    }
+}
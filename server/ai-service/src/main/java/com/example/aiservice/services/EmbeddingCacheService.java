@@ -0,0 +1,158 @@
+package com.example.aiservice.services;
+
+import com.example.aiservice.services.utils.DigestUtil;
+import com.example.rediscommon.services.RedisService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-tier, content-addressed embedding cache.
+ *
+ * Tier 1: in-process Caffeine cache.
+ * Tier 2: Redis (redis-common), vectors stored as packed little-endian floats.
+ *
+ * Keys are SHA-256 of the text, prefixed with the embedding model name so a
+ * model change never serves stale vectors. Redis failures degrade to a miss.
+ */
+@Service
+@Slf4j
+public class EmbeddingCacheService {
+
+    private static final String KEY_PREFIX = "embedding:";
+
+    private final RedisService redisService;
+    private final Cache<String, float[]> localCache;
+    private final long redisTtlDays;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public EmbeddingCacheService(
+            RedisService redisService,
+            MeterRegistry meterRegistry,
+            @Value("${embedding.cache.local-max-size:5000}") long localMaxSize,
+            @Value("${embedding.cache.redis-ttl-days:30}") long redisTtlDays) {
+        this.redisService = redisService;
+        this.redisTtlDays = redisTtlDays;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterAccess(6, TimeUnit.HOURS)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "embeddingLocalCache");
+        this.localHits = lookupCounter(meterRegistry, "local", "hit");
+        this.redisHits = lookupCounter(meterRegistry, "redis", "hit");
+        this.misses = lookupCounter(meterRegistry, "none", "miss");
+    }
+
+    /**
+     * Cache key for a text embedded with the given model
+     */
+    public String key(String model, String text) {
+        return KEY_PREFIX + model + ":" + DigestUtil.sha256Hex(text);
+    }
+
+    /**
+     * Look up one vector; null on miss
+     */
+    public float[] get(String key) {
+        return getAll(List.of(key)).get(0);
+    }
+
+    /**
+     * Look up many vectors, going to Redis once for all local misses.
+     * The result has the same size and order as the keys; misses are null.
+     */
+    public List<float[]> getAll(List<String> keys) {
+        List<float[]> result = new ArrayList<>(keys.size());
+        List<Integer> localMisses = new ArrayList<>();
+
+        for (int i = 0; i < keys.size(); i++) {
+            float[] vector = localCache.getIfPresent(keys.get(i));
+            result.add(vector);
+            if (vector == null) {
+                localMisses.add(i);
+            } else {
+                localHits.increment();
+            }
+        }
+
+        if (localMisses.isEmpty()) {
+            return result;
+        }
+
+        List<byte[]> remote = fetchFromRedis(localMisses.stream().map(keys::get).toList());
+        for (int j = 0; j < localMisses.size(); j++) {
+            byte[] bytes = remote.get(j);
+            if (bytes == null) {
+                misses.increment();
+                continue;
+            }
+
+            int index = localMisses.get(j);
+            float[] vector = decode(bytes);
+            localCache.put(keys.get(index), vector);
+            result.set(index, vector);
+            redisHits.increment();
+        }
+
+        return result;
+    }
+
+    /**
+     * Store a vector in both tiers
+     */
+    public void put(String key, float[] vector) {
+        localCache.put(key, vector);
+        try {
+            redisService.setBytes(key, encode(vector), redisTtlDays, TimeUnit.DAYS);
+        } catch (Exception e) {
+            log.warn("Failed to write embedding to Redis, keeping local copy only: {}", e.getMessage());
+        }
+    }
+
+    private List<byte[]> fetchFromRedis(List<String> keys) {
+        try {
+            return redisService.multiGetBytes(keys);
+        } catch (Exception e) {
+            log.warn("Redis embedding lookup failed, treating as miss: {}", e.getMessage());
+            List<byte[]> empty = new ArrayList<>(keys.size());
+            keys.forEach(k -> empty.add(null));
+            return empty;
+        }
+    }
+
+    static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("embedding.cache.lookups")
+                .description("Embedding cache lookups by serving tier")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+}
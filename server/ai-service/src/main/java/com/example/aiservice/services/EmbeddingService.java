@@ -1,18 +1,31 @@
 package com.example.aiservice.services;
 
-import lombok.RequiredArgsConstructor;
+import com.example.aiservice.services.utils.DigestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.ArrayList;
 
@@ -20,12 +33,45 @@ import java.util.ArrayList;
  * Enhanced Embedding Service with Gemini Embeddings + PGVector
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmbeddingService {
 
     private final VectorStore vectorStore;
     private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache searchCache;
+    private final Executor ragExecutor;
+    private final long sectionTimeoutMs;
+    private final ConcurrentHashMap<String, CompletableFuture<List<Document>>> inFlightSearches = new ConcurrentHashMap<>();
+
+    private final Counter cachedSearches;
+    private final Counter coalescedSearches;
+    private final Counter executedSearches;
+    private final Counter sectionTimeouts;
+
+    public EmbeddingService(
+            VectorStore vectorStore,
+            EmbeddingModel embeddingModel,
+            JdbcTemplate jdbcTemplate,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Qualifier("ragExecutor") Executor ragExecutor,
+            @Value("${rag.search.section-timeout-ms:3000}") long sectionTimeoutMs) {
+        this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchCache = cacheManager.getCache("searchCache");
+        this.ragExecutor = ragExecutor;
+        this.sectionTimeoutMs = sectionTimeoutMs;
+
+        this.cachedSearches = searchCounter(meterRegistry, "cached");
+        this.coalescedSearches = searchCounter(meterRegistry, "coalesced");
+        this.executedSearches = searchCounter(meterRegistry, "executed");
+        this.sectionTimeouts = Counter.builder("rag.search.section.timeouts")
+                .description("Sections that fell back to no examples because the search exceeded its deadline")
+                .register(meterRegistry);
+        meterRegistry.gauge("rag.search.inflight", inFlightSearches, Map::size);
+    }
 
     /**
      * Test embedding - verify Gemini embedding works
@@ -63,15 +109,16 @@ public class EmbeddingService {
         }
     }
 
-    // Cache configuration: 5 minutes TTL, max 100 entries
-    @Cacheable(value = "embeddingCache", key = "#text.hashCode()")
+    // Cached by content hash + model in EmbeddingCacheService (via CachingEmbeddingModel)
     public float[] embedWithCache(String text) {
         return embeddingModel.embed(text);
     }
 
     /**
-     * OPTIMIZED: Parallel search for multiple sections
-     * Reduces latency from sequential to concurrent execution
+     * OPTIMIZED: Parallel search for multiple sections on ragExecutor
+     * Reduces latency from sequential to concurrent execution. Each section has
+     * its own deadline; a section that misses it gets no examples instead of
+     * stalling the whole analysis.
      */
     public Map<String, List<Document>> searchMultipleSectionsParallel(
             Map<String, String> sectionQueries,
@@ -82,20 +129,20 @@ public class EmbeddingService {
         log.info("Starting parallel search for {} sections", sectionQueries.size());
         long startTime = System.currentTimeMillis();
 
-        // Execute all searches in parallel
+        // Execute all searches in parallel; identical in-flight searches are shared
         Map<String, CompletableFuture<List<Document>>> futures = sectionQueries.entrySet()
                 .stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
-                        entry -> CompletableFuture.supplyAsync(() ->
-                                searchRelevantTemplates(
-                                        entry.getValue(),
-                                        entry.getKey(),
-                                        category,
-                                        level,
-                                        topK))));
-
-        // Wait for all to complete and collect results
+                        entry -> withSectionTimeout(entry.getKey(), searchRelevantTemplatesAsync(
+                                entry.getValue(),
+                                entry.getKey(),
+                                category,
+                                level,
+                                topK,
+                                ragExecutor))));
+
+        // Wait for all to complete or time out and collect results
         Map<String, List<Document>> results = futures.entrySet()
                 .stream()
                 .collect(Collectors.toMap(
@@ -111,47 +158,134 @@ public class EmbeddingService {
     /**
      * OPTIMIZED: Search with relaxed threshold and caching
      */
-    @Cacheable(value = "searchCache", key = "#query.hashCode() + '-' + #section + '-' + #category + '-' + #level")
     public List<Document> searchRelevantTemplates(
             String query,
             String section,
             String category,
             String level,
             int topK) {
+        // Runs on the caller thread when this caller is the one doing the search
+        return searchRelevantTemplatesAsync(query, section, category, level, topK, Runnable::run).join();
+    }
+
+    /**
+     * Cached, single-flight search: concurrent callers with the same
+     * query/section/category/level/topK share one vector store round trip.
+     * Failed searches resolve to an empty list and are not cached.
+     */
+    public CompletableFuture<List<Document>> searchRelevantTemplatesAsync(
+            String query,
+            String section,
+            String category,
+            String level,
+            int topK,
+            Executor executor) {
 
         if (query == null || query.trim().isEmpty()) {
-            return List.of();
+            return CompletableFuture.completedFuture(List.of());
         }
 
-        try {
-            // Build minimal filter - only essential criteria
-            StringBuilder filterExpr = new StringBuilder();
-            filterExpr.append(String.format("section == '%s'", section));
-
-            // Only add category if specified
-            if (category != null && !category.isEmpty() && !"general".equals(category)) {
-                filterExpr.append(String.format(" AND category == '%s'", category));
-            }
+        String key = searchKey(query, section, category, level, topK);
+        List<Document> cached = cachedSearch(key);
+        if (cached != null) {
+            cachedSearches.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
 
-            // OPTIMIZATION: Relaxed rating threshold
-            filterExpr.append(" AND rating >= 3"); // Changed from 4 to 3
+        CompletableFuture<List<Document>> own = new CompletableFuture<>();
+        CompletableFuture<List<Document>> existing = inFlightSearches.putIfAbsent(key, own);
+        if (existing != null) {
+            coalescedSearches.increment();
+            log.debug("Joining in-flight search for section: {}", section);
+            return existing;
+        }
 
-            SearchRequest searchRequest = SearchRequest.builder()
-                    .query(query)
-                    .topK(topK)
-                    .similarityThreshold(0.3) // OPTIMIZATION: Lowered from 0.5 to 0.3
-                    .filterExpression(filterExpr.toString())
-                    .build();
+        // Another leader may have finished between the cache check and registration
+        cached = cachedSearch(key);
+        if (cached != null) {
+            cachedSearches.increment();
+            inFlightSearches.remove(key, own);
+            own.complete(cached);
+            return own;
+        }
 
-            List<Document> results = vectorStore.similaritySearch(searchRequest);
+        executedSearches.increment();
+        try {
+            executor.execute(() -> runSearch(key, own, query, section, category, level, topK));
+        } catch (RejectedExecutionException e) {
+            log.error("Search rejected for section {}: {}", section, e.getMessage());
+            inFlightSearches.remove(key, own);
+            own.complete(List.of());
+        }
+        return own;
+    }
 
-            log.debug("Found {} results for section: {}", results.size(), section);
-            return results;
+    // Times out a copy so the shared in-flight search still completes (and is
+    // cached) for other callers
+    private CompletableFuture<List<Document>> withSectionTimeout(
+            String section, CompletableFuture<List<Document>> search) {
+        CompletableFuture<List<Document>> bounded = search.copy();
+        bounded.orTimeout(sectionTimeoutMs, TimeUnit.MILLISECONDS);
+        return bounded.exceptionally(e -> {
+            sectionTimeouts.increment();
+            log.warn("Search for section {} exceeded {}ms, continuing without examples", section, sectionTimeoutMs);
+            return List.of();
+        });
+    }
 
+    private void runSearch(
+            String key,
+            CompletableFuture<List<Document>> own,
+            String query,
+            String section,
+            String category,
+            String level,
+            int topK) {
+        try {
+            List<Document> results = doSearch(query, section, category, topK);
+            searchCache.put(key, results);
+            own.complete(results);
         } catch (Exception e) {
             log.error("Search failed for section {}: {}", section, e.getMessage());
-            return List.of();
+            own.complete(List.of());
+        } finally {
+            inFlightSearches.remove(key, own);
+        }
+    }
+
+    private List<Document> doSearch(String query, String section, String category, int topK) {
+        // Build minimal filter - only essential criteria
+        StringBuilder filterExpr = new StringBuilder();
+        filterExpr.append(String.format("section == '%s'", section));
+
+        // Only add category if specified
+        if (category != null && !category.isEmpty() && !"general".equals(category)) {
+            filterExpr.append(String.format(" AND category == '%s'", category));
         }
+
+        // OPTIMIZATION: Relaxed rating threshold
+        filterExpr.append(" AND rating >= 3"); // Changed from 4 to 3
+
+        SearchRequest searchRequest = SearchRequest.builder()
+                .query(query)
+                .topK(topK)
+                .similarityThreshold(0.3) // OPTIMIZATION: Lowered from 0.5 to 0.3
+                .filterExpression(filterExpr.toString())
+                .build();
+
+        List<Document> results = vectorStore.similaritySearch(searchRequest);
+
+        log.debug("Found {} results for section: {}", results.size(), section);
+        return results;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Document> cachedSearch(String key) {
+        return searchCache.get(key, List.class);
+    }
+
+    private static String searchKey(String query, String section, String category, String level, int topK) {
+        return section + '|' + category + '|' + level + '|' + topK + '|' + DigestUtil.sha256Hex(query);
     }
 
     /**
@@ -183,6 +317,47 @@ public class EmbeddingService {
         }
     }
 
+    /**
+     * Embed many texts with batched calls; cached vectors are not re-requested
+     */
+    public List<float[]> embedAll(List<String> texts) {
+        return embeddingModel.embed(texts);
+    }
+
+    /**
+     * Ingest documents whose embeddings are already known. The in-memory store
+     * takes the vectors as-is; PgVectorStore embeds Document#getText through the
+     * EmbeddingModel, so the cache is seeded first and that call costs no Gemini
+     * request even after the cache entries have expired.
+     */
+    public void ingestWithEmbeddings(List<Document> documents, List<float[]> embeddings) {
+        if (vectorStore instanceof InMemoryTemplateVectorStore memoryStore) {
+            memoryStore.add(documents, embeddings);
+            log.info("Loaded {} templates into in-memory index", documents.size());
+            return;
+        }
+        if (embeddingModel instanceof CachingEmbeddingModel cachingModel) {
+            cachingModel.seed(documents.stream().map(Document::getText).toList(), embeddings);
+        }
+        batchIngestTemplates(documents);
+    }
+
+    /**
+     * Ids of templates currently in the vector store. Read from the pgvector
+     * table directly, so no embedding call is needed; empty if unavailable.
+     */
+    public Set<String> indexedTemplateIds() {
+        if (vectorStore instanceof InMemoryTemplateVectorStore memoryStore) {
+            return memoryStore.ids();
+        }
+        try {
+            return new HashSet<>(jdbcTemplate.queryForList("SELECT id::text FROM vector_store", String.class));
+        } catch (DataAccessException e) {
+            log.warn("Cannot read vector store ids, treating as empty: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
     /**
      * Simple ingest without caching
      */
@@ -191,6 +366,20 @@ public class EmbeddingService {
         vectorStore.add(List.of(document));
     }
 
+    /**
+     * Delete templates
+     */
+    public void deleteTemplates(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            vectorStore.delete(ids);
+        } catch (Exception e) {
+            log.error("Failed to delete {} templates: {}", ids.size(), e.getMessage());
+        }
+    }
+
     /**
      * Delete template
      */
@@ -254,6 +443,13 @@ public class EmbeddingService {
         }
     }
 
+    private static Counter searchCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("rag.search.requests")
+                .description("Template searches by outcome: served from cache, joined in-flight, or executed")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
     /**
      * Ingest template into vector store
      */
@@ -1,6 +1,7 @@
 package com.example.aiservice.services;
 
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -9,23 +10,31 @@ import com.example.aiservice.dtos.PersonalInfoDto;
 import com.example.aiservice.dtos.ExperienceDto;
 import com.example.aiservice.dtos.EducationDto;
 import com.example.aiservice.exceptions.OurException;
+import com.example.aiservice.services.utils.CleanTextWriter;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 
 import java.io.InputStream;
-import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -33,12 +42,25 @@ import java.util.List;
  * FileParserService - Using Gemini ChatClient for CV parsing
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FileParserService {
 
     private final ChatClient chatClient; // Use Gemini instead of OpenRouter
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int maxPages;
+    private final int maxChars;
+    private final long pdfMaxMainMemoryBytes;
+
+    public FileParserService(
+            ChatClient chatClient,
+            @Value("${file-parser.max-pages:20}") int maxPages,
+            @Value("${file-parser.max-chars:50000}") int maxChars,
+            @Value("${file-parser.pdf-max-main-memory-bytes:4194304}") long pdfMaxMainMemoryBytes) {
+        this.chatClient = chatClient;
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.pdfMaxMainMemoryBytes = pdfMaxMainMemoryBytes;
+    }
 
     /**
      * Validate PDF file for Import CV
@@ -105,11 +127,11 @@ public class FileParserService {
         String lower = filename.toLowerCase();
 
         if (lower.endsWith(".pdf")) {
-            return extractTextFromPdf(file.getInputStream());
+            return extractTextFromPdf(file);
         } else if (lower.endsWith(".docx")) {
-            return extractTextFromDocx(file.getInputStream());
+            return extractTextFromDocx(file);
         } else {
-            return readAsText(file.getInputStream());
+            return readAsText(file);
         }
     }
 
@@ -384,53 +406,80 @@ public class FileParserService {
     // Text Extraction Methods
     // ========================================
 
-    private String extractTextFromPdf(InputStream in) throws Exception {
-        try (PDDocument document = Loader.loadPDF(in.readAllBytes())) {
+    private String extractTextFromPdf(MultipartFile file) throws Exception {
+        Path tempFile = spoolToTempFile(file);
+        try (RandomAccessRead source = new RandomAccessReadBufferedFile(tempFile);
+                PDDocument document = Loader.loadPDF(source,
+                        MemoryUsageSetting.setupMixed(pdfMaxMainMemoryBytes).streamCache)) {
+            CleanTextWriter writer = new CleanTextWriter(maxChars);
             PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
-            return cleanText(text);
+            int lastPage = Math.min(document.getNumberOfPages(), maxPages);
+
+            // Page by page so extraction stops as soon as the character cap is hit
+            for (int page = 1; page <= lastPage && !writer.isFull(); page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                stripper.writeText(document, writer);
+            }
+            logIfTruncated(file, writer, document.getNumberOfPages() > maxPages);
+            return writer.toString();
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
-    private String extractTextFromDocx(InputStream in) throws Exception {
-        try (XWPFDocument doc = new XWPFDocument(in)) {
-            StringBuilder sb = new StringBuilder();
+    private String extractTextFromDocx(MultipartFile file) throws Exception {
+        Path tempFile = spoolToTempFile(file);
+        // Opening from a file reads zip entries on demand instead of inflating the whole package
+        try (OPCPackage pkg = OPCPackage.open(tempFile.toFile(), PackageAccess.READ);
+                XWPFDocument doc = new XWPFDocument(pkg)) {
+            CleanTextWriter writer = new CleanTextWriter(maxChars);
             for (XWPFParagraph p : doc.getParagraphs()) {
-                sb.append(p.getText()).append("\n");
+                if (writer.isFull()) {
+                    break;
+                }
+                writer.write(p.getText());
+                writer.newLine();
             }
-            return cleanText(sb.toString());
+            logIfTruncated(file, writer, false);
+            return writer.toString();
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
     }
 
-    private String readAsText(InputStream in) throws Exception {
-        StringBuilder sb = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(in, StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append('\n');
+    private String readAsText(MultipartFile file) throws Exception {
+        CleanTextWriter writer = new CleanTextWriter(maxChars);
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            int read;
+            while (!writer.isFull() && (read = reader.read(buffer)) != -1) {
+                writer.write(buffer, 0, read);
             }
         }
-        return cleanText(sb.toString());
+        logIfTruncated(file, writer, false);
+        return writer.toString();
     }
 
-    private String cleanText(String input) {
-        if (input == null) {
-            return null;
+    /**
+     * Copy the upload to a temp file so parsers can seek it without holding
+     * the whole upload on the heap
+     */
+    private Path spoolToTempFile(MultipartFile file) throws Exception {
+        Path tempFile = Files.createTempFile("upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (Exception e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
         }
+        return tempFile;
+    }
 
-        // Collapse multiple blank lines
-        String cleaned = input.replaceAll("\r", "\n");
-        cleaned = cleaned.replaceAll("\n{2,}", "\n\n");
-
-        // Trim each line
-        StringBuilder out = new StringBuilder();
-        for (String line : cleaned.split("\n")) {
-            String t = line.trim();
-            if (!t.isEmpty()) {
-                out.append(t).append('\n');
-            }
+    private void logIfTruncated(MultipartFile file, CleanTextWriter writer, boolean pagesSkipped) {
+        if (writer.isFull() || pagesSkipped) {
+            log.info("Text extraction of {} capped at {} pages / {} chars",
+                    file.getOriginalFilename(), maxPages, maxChars);
         }
-        return out.toString().trim();
     }
-}
\ No newline at end of file
+}
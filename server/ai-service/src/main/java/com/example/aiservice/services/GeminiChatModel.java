@@ -2,11 +2,11 @@ package com.example.aiservice.services;
 
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
@@ -15,31 +15,75 @@ import java.util.List;
 public class GeminiChatModel implements ChatModel {
 
     private final GeminiService geminiService;
+    private final GeminiContextCacheService contextCache;
 
     public GeminiChatModel(GeminiService geminiService) {
+        this(geminiService, null);
+    }
+
+    public GeminiChatModel(GeminiService geminiService, GeminiContextCacheService contextCache) {
         this.geminiService = geminiService;
+        this.contextCache = contextCache;
     }
 
+    /**
+     * System messages go to Gemini as a cached context handle when one is
+     * available (inline systemInstruction otherwise); only the user messages
+     * are sent as request contents.
+     */
     @Override
     public ChatResponse call(Prompt prompt) {
+        String system = systemText(prompt);
+        String handle = cacheHandle(system);
+
+        // Call Gemini
+        String response = geminiService.generateContent(
+                userText(prompt),
+                handle == null ? system : null,
+                handle);
+
+        return toChatResponse(response);
+    }
+
+    /**
+     * Streams one ChatResponse per partial Gemini response (token chunk).
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        String system = systemText(prompt);
+        String handle = cacheHandle(system);
+
+        return geminiService.streamGenerateContent(userText(prompt), handle == null ? system : null, handle)
+                .map(this::toChatResponse);
+    }
+
+    private String cacheHandle(String system) {
+        return contextCache == null || system.isEmpty() ? null : contextCache.handleFor(system);
+    }
+
+    private static String systemText(Prompt prompt) {
+        return joinText(prompt, true);
+    }
+
+    private static String userText(Prompt prompt) {
+        return joinText(prompt, false);
+    }
+
+    private static String joinText(Prompt prompt, boolean system) {
         // Extract text from prompt
         StringBuilder promptText = new StringBuilder();
         for (Message message : prompt.getInstructions()) {
-            promptText.append(message.getText()).append("\n");
+            if ((message.getMessageType() == MessageType.SYSTEM) == system) {
+                promptText.append(message.getText()).append("\n");
+            }
         }
+        return promptText.toString().strip();
+    }
 
-        // Call Gemini
-        String response = geminiService.generateContent(promptText.toString());
-
+    private ChatResponse toChatResponse(String text) {
         // Build ChatResponse
-        AssistantMessage assistantMessage = new AssistantMessage(response);
+        AssistantMessage assistantMessage = new AssistantMessage(text);
         Generation generation = new Generation(assistantMessage);
         return new ChatResponse(List.of(generation));
     }
-
-    @Override
-    public Flux<ChatResponse> stream(Prompt prompt) {
-        // For simplicity, just return a single response
-        return Flux.just(call(prompt));
-    }
 }
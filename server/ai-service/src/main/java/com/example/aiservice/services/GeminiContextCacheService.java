@@ -0,0 +1,167 @@
+package com.example.aiservice.services;
+
+import com.example.aiservice.dtos.GeminiCachedContent;
+import com.example.aiservice.services.utils.DigestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gemini context caching for the static CompactPromptBuilder system prompts.
+ *
+ * Each distinct system prompt (per language / prompt type) is registered once
+ * as a cachedContents resource; requests then send only the handle plus the
+ * CV-specific user prompt. Handles are renewed shortly before they expire.
+ * If Gemini refuses to cache a prompt (e.g. below the model's minimum token
+ * count) it is sent inline and creation is not retried for a while.
+ */
+@Service
+@Slf4j
+public class GeminiContextCacheService {
+
+    private static final Duration RENEW_BEFORE_EXPIRY = Duration.ofMinutes(5);
+    private static final Duration RETRY_AFTER_FAILURE = Duration.ofMinutes(10);
+
+    private final GeminiService geminiService;
+    private final CompactPromptBuilder promptBuilder;
+    private final boolean enabled;
+    private final Duration ttl;
+    // One future per prompt: concurrent callers wait on the same creation without holding a map lock
+    private final ConcurrentHashMap<String, CompletableFuture<GeminiCachedContent>> handles = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Instant> unavailableUntil = new ConcurrentHashMap<>();
+
+    private final Counter cachedRequests;
+    private final Counter inlineRequests;
+    private final Counter tokensSaved;
+
+    public GeminiContextCacheService(
+            GeminiService geminiService,
+            CompactPromptBuilder promptBuilder,
+            MeterRegistry meterRegistry,
+            @Value("${gemini.context-cache.enabled:true}") boolean enabled,
+            @Value("${gemini.context-cache.ttl-minutes:60}") long ttlMinutes) {
+        this.geminiService = geminiService;
+        this.promptBuilder = promptBuilder;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+
+        this.cachedRequests = requestCounter(meterRegistry, "cached");
+        this.inlineRequests = requestCounter(meterRegistry, "inline");
+        this.tokensSaved = Counter.builder("gemini.context.cache.tokens.saved")
+                .description("Input tokens served from Gemini cached context instead of being re-sent")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register the static prompts up front so the first user request already
+     * gets a cache handle.
+     */
+    @Async("ragExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerStaticPrompts() {
+        if (!enabled) {
+            return;
+        }
+
+        List<String> prompts = List.of(
+                promptBuilder.buildCompactAnalysisPrompt("en"),
+                promptBuilder.buildCompactAnalysisPrompt("vi"),
+                promptBuilder.buildCompactJobMatchPrompt("en"),
+                promptBuilder.buildCompactJobMatchPrompt("vi"),
+                promptBuilder.buildCompactImprovementPrompt("summary"));
+        prompts.forEach(this::currentHandle);
+        log.info("Gemini context cache warmed: {} of {} system prompts cached", handles.size(), prompts.size());
+    }
+
+    /**
+     * cachedContents name to use for this system prompt, or null to send it inline
+     */
+    public String handleFor(String systemPrompt) {
+        GeminiCachedContent handle = enabled ? currentHandle(systemPrompt) : null;
+        if (handle == null) {
+            inlineRequests.increment();
+            return null;
+        }
+
+        cachedRequests.increment();
+        tokensSaved.increment(handle.getTokenCount());
+        return handle.getName();
+    }
+
+    private GeminiCachedContent currentHandle(String prompt) {
+        // Same key whether the prompt comes from the builder or a parsed ChatClient message
+        String systemPrompt = prompt.strip();
+        String key = DigestUtil.sha256Hex(systemPrompt);
+
+        Instant retryAt = unavailableUntil.get(key);
+        if (retryAt != null && Instant.now().isBefore(retryAt)) {
+            return null;
+        }
+
+        while (true) {
+            CompletableFuture<GeminiCachedContent> entry = handles.get(key);
+            if (entry != null) {
+                // Completes with null when the creation failed
+                GeminiCachedContent handle = entry.join();
+                if (handle == null || isFresh(handle)) {
+                    return handle;
+                }
+            }
+
+            // One creation per prompt even under concurrent first use or renewal
+            CompletableFuture<GeminiCachedContent> creation = new CompletableFuture<>();
+            boolean owner = entry == null
+                    ? handles.putIfAbsent(key, creation) == null
+                    : handles.replace(key, entry, creation);
+            if (owner) {
+                create(key, systemPrompt, creation);
+                return creation.join();
+            }
+        }
+    }
+
+    /**
+     * Create the cached content outside of any map operation and publish the
+     * result to the callers waiting on the future
+     */
+    private void create(String key, String systemPrompt, CompletableFuture<GeminiCachedContent> creation) {
+        try {
+            GeminiCachedContent created = geminiService.createCachedContent(systemPrompt, ttl).block();
+            unavailableUntil.remove(key);
+            log.info("Registered Gemini cached context {} ({} tokens)", created.getName(), created.getTokenCount());
+            creation.complete(created);
+        } catch (Exception e) {
+            log.warn("Gemini context caching unavailable, sending system prompt inline: {}", e.getMessage());
+            unavailableUntil.put(key, Instant.now().plus(RETRY_AFTER_FAILURE));
+        } finally {
+            // Never leave waiters blocked on a creation that did not produce a handle
+            if (!creation.isDone()) {
+                handles.remove(key, creation);
+                creation.complete(null);
+            }
+        }
+    }
+
+    private static boolean isFresh(GeminiCachedContent handle) {
+        return handle != null && Instant.now().plus(RENEW_BEFORE_EXPIRY).isBefore(handle.getExpireTime());
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String mode) {
+        return Counter.builder("gemini.context.cache.requests")
+                .description("Gemini requests by how the system prompt was sent")
+                .tag("mode", mode)
+                .register(registry);
+    }
+}
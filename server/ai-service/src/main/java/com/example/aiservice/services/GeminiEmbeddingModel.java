@@ -5,7 +5,7 @@ import org.springframework.ai.embedding.EmbeddingModel;
 import org.springframework.ai.embedding.EmbeddingRequest;
 import org.springframework.ai.embedding.EmbeddingResponse;
 import org.springframework.ai.embedding.Embedding;
-import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,23 +14,55 @@ import java.util.List;
 public class GeminiEmbeddingModel implements EmbeddingModel {
 
     private final GeminiService geminiService;
+    private final int batchSize;
+    private final int maxConcurrency;
 
     public GeminiEmbeddingModel(GeminiService geminiService) {
+        this(geminiService, 100, 4);
+    }
+
+    /**
+     * @param batchSize      max texts per batchEmbedContents request (Gemini caps this at 100)
+     * @param maxConcurrency max batch requests in flight at once
+     */
+    public GeminiEmbeddingModel(GeminiService geminiService, int batchSize, int maxConcurrency) {
         this.geminiService = geminiService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
     }
 
+    /**
+     * One round trip per chunk of {@code batchSize} texts, with at most
+     * {@code maxConcurrency} chunks in flight. Result order matches the input.
+     */
     @Override
     public EmbeddingResponse call(EmbeddingRequest request) {
-        List<Embedding> embeddings = new ArrayList<>();
+        List<String> texts = request.getInstructions();
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i += batchSize) {
+            chunks.add(texts.subList(i, Math.min(i + batchSize, texts.size())));
+        }
 
-        for (String text : request.getInstructions()) {
-            float[] vector = geminiService.generateEmbedding(text);
-            embeddings.add(new Embedding(vector, 0));
+        List<float[]> vectors = Flux.fromIterable(chunks)
+                .flatMapSequential(geminiService::batchEmbedContents, maxConcurrency)
+                .flatMapIterable(batch -> batch)
+                .collectList()
+                .block();
+
+        List<Embedding> embeddings = new ArrayList<>(vectors.size());
+        for (int i = 0; i < vectors.size(); i++) {
+            embeddings.add(new Embedding(vectors.get(i), i));
         }
 
         return new EmbeddingResponse(embeddings);
     }
 
+    @Override
+    public float[] embed(String text) {
+        return geminiService.generateEmbedding(text);
+    }
+
     @Override
     public float[] embed(Document document) {
         return geminiService.generateEmbedding(document.getText());
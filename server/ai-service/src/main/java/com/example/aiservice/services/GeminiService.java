@@ -1,15 +1,24 @@
 package com.example.aiservice.services;
 
+import com.example.aiservice.dtos.GeminiCachedContent;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
@@ -42,145 +51,300 @@ public class GeminiService {
     }
 
     public String generateContent(String prompt) {
-        try {
-            log.debug("Calling Gemini API with model: {}", model);
+        return generateContent(prompt, null, null);
+    }
 
-            // Build request body
-            JsonObject requestBody = new JsonObject();
-            JsonArray contents = new JsonArray();
-            JsonObject content = new JsonObject();
-            JsonArray parts = new JsonArray();
-            JsonObject part = new JsonObject();
-            part.addProperty("text", prompt);
-            parts.add(part);
-            content.add("parts", parts);
-            contents.add(content);
-            requestBody.add("contents", contents);
-
-            // Add generation config
-            // JsonObject generationConfig = new JsonObject();
-            // generationConfig.addProperty("temperature", temperature);
-            // generationConfig.addProperty("maxOutputTokens", maxTokens);
-            // requestBody.add("generationConfig", generationConfig);
-            JsonObject generationConfig = new JsonObject();
-            generationConfig.addProperty("temperature", 1.0); // CHANGED: Disable reasoning mode
-            generationConfig.addProperty("maxOutputTokens", maxTokens);
-            generationConfig.addProperty("topK", 40); // ADD: Limit diversity for speed
-            generationConfig.addProperty("topP", 0.95); // ADD: Nucleus sampling
-            requestBody.add("generationConfig", generationConfig);
-
-            // Call API
-            // String response = webClient.post()
-            //         .uri("/models/" + model + ":generateContent?key=" + apiKey)
-            //         .header("Content-Type", "application/json")
-            //         .bodyValue(gson.toJson(requestBody))
-            //         .retrieve()
-            //         .bodyToMono(String.class)
-            //         .block();
-            String response = webClient.post()
-                    .uri("/models/" + model + ":generateContent?key=" + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(gson.toJson(requestBody))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .timeout(timeout) // ADD THIS LINE
-                    .block();
-
-            log.debug("Received response from Gemini API: {}", response);
-
-            // Parse response
-            JsonObject responseJson = gson.fromJson(response, JsonObject.class);
-
-            // Check for API errors first
-            if (responseJson.has("error")) {
-                JsonObject error = responseJson.getAsJsonObject("error");
-                String errorMessage = error.has("message") ? error.get("message").getAsString() : "Unknown error";
-                log.error("Gemini API error: {}", errorMessage);
-                throw new RuntimeException("Gemini API error: " + errorMessage);
-            }
+    /**
+     * @param systemInstruction sent inline; ignored when cachedContent is set
+     * @param cachedContent     cachedContents/{id} holding the system instruction
+     */
+    public String generateContent(String prompt, String systemInstruction, String cachedContent) {
+        try {
+            return generateContentAsync(prompt, systemInstruction, cachedContent).block();
+        } catch (Exception e) {
+            log.error("Error calling Gemini API", e);
+            throw new RuntimeException("Failed to generate content: " + e.getMessage(), e);
+        }
+    }
 
-            JsonArray candidates = responseJson.getAsJsonArray("candidates");
+    /**
+     * Non-blocking generateContent: no thread is held while Gemini is working.
+     */
+    public Mono<String> generateContentAsync(String prompt) {
+        return generateContentAsync(prompt, null, null);
+    }
 
-            if (candidates != null && candidates.size() > 0) {
-                JsonObject candidate = candidates.get(0).getAsJsonObject();
+    public Mono<String> generateContentAsync(String prompt, String systemInstruction, String cachedContent) {
+        log.debug("Calling Gemini API with model: {}", model);
 
-                // Check for blocked content
-                if (candidate.has("finishReason")) {
-                    String finishReason = candidate.get("finishReason").getAsString();
-                    log.warn("Gemini finish reason: {}", finishReason);
+        return webClient.post()
+                .uri("/models/" + model + ":generateContent?key=" + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(gson.toJson(buildContentRequest(prompt, systemInstruction, cachedContent)))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .map(response -> {
+                    log.debug("Received response from Gemini API: {}", response);
 
-                    if (!"STOP".equals(finishReason)) {
-                        log.error("Content blocked or filtered. Reason: {}", finishReason);
-                        throw new RuntimeException("Content blocked by Gemini: " + finishReason);
+                    String text = extractCandidateText(gson.fromJson(response, JsonObject.class));
+                    if (text == null) {
+                        log.error("No valid response from Gemini API. Full response: {}", response);
+                        throw new RuntimeException("No valid response from Gemini API");
                     }
+                    return text;
+                });
+    }
+
+    /**
+     * Token streaming via the streamGenerateContent SSE endpoint.
+     * Emits the text of each partial response as soon as Gemini sends it.
+     */
+    public Flux<String> streamGenerateContent(String prompt) {
+        return streamGenerateContent(prompt, null, null);
+    }
+
+    public Flux<String> streamGenerateContent(String prompt, String systemInstruction, String cachedContent) {
+        log.debug("Streaming from Gemini API with model: {}", model);
+
+        return webClient.post()
+                .uri("/models/" + model + ":streamGenerateContent?alt=sse&key=" + apiKey)
+                .header("Content-Type", "application/json")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(gson.toJson(buildContentRequest(prompt, systemInstruction, cachedContent)))
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+                })
+                .timeout(timeout) // max gap between two chunks
+                .mapNotNull(ServerSentEvent::data)
+                .map(data -> {
+                    String text = extractCandidateText(gson.fromJson(data, JsonObject.class));
+                    return text != null ? text : "";
+                })
+                .filter(text -> !text.isEmpty());
+    }
+
+    /**
+     * Register a system instruction as cached context, so later requests can
+     * reference it by name instead of re-sending it.
+     */
+    public Mono<GeminiCachedContent> createCachedContent(String systemInstruction, Duration ttl) {
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("model", "models/" + model);
+        requestBody.add("systemInstruction", textContent(systemInstruction));
+        requestBody.addProperty("ttl", ttl.toSeconds() + "s");
+
+        return webClient.post()
+                .uri("/cachedContents?key=" + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(gson.toJson(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .map(response -> {
+                    JsonObject json = gson.fromJson(response, JsonObject.class);
+                    JsonObject usage = json.getAsJsonObject("usageMetadata");
+                    return new GeminiCachedContent(
+                            json.get("name").getAsString(),
+                            usage != null && usage.has("totalTokenCount") ? usage.get("totalTokenCount").getAsInt() : 0,
+                            json.has("expireTime")
+                                    ? Instant.parse(json.get("expireTime").getAsString())
+                                    : Instant.now().plus(ttl));
+                });
+    }
+
+    private JsonObject buildContentRequest(String prompt, String systemInstruction, String cachedContent) {
+        // Build request body
+        JsonObject requestBody = new JsonObject();
+        JsonArray contents = new JsonArray();
+        JsonObject content = textContent(prompt);
+        content.addProperty("role", "user");
+        contents.add(content);
+        requestBody.add("contents", contents);
+
+        // Static instructions: by cache handle when available, inline otherwise
+        if (cachedContent != null) {
+            requestBody.addProperty("cachedContent", cachedContent);
+        } else if (systemInstruction != null && !systemInstruction.isBlank()) {
+            requestBody.add("systemInstruction", textContent(systemInstruction));
+        }
+
+        // Add generation config
+        JsonObject generationConfig = new JsonObject();
+        generationConfig.addProperty("temperature", 1.0); // CHANGED: Disable reasoning mode
+        generationConfig.addProperty("maxOutputTokens", maxTokens);
+        generationConfig.addProperty("topK", 40); // ADD: Limit diversity for speed
+        generationConfig.addProperty("topP", 0.95); // ADD: Nucleus sampling
+        requestBody.add("generationConfig", generationConfig);
+
+        return requestBody;
+    }
+
+    private static JsonObject textContent(String text) {
+        JsonObject content = new JsonObject();
+        JsonArray parts = new JsonArray();
+        JsonObject part = new JsonObject();
+        part.addProperty("text", text);
+        parts.add(part);
+        content.add("parts", parts);
+        return content;
+    }
+
+    /**
+     * Text of the first candidate, or null when the response carries none
+     * (e.g. the trailing chunk of a stream that only has usage metadata).
+     */
+    private String extractCandidateText(JsonObject responseJson) {
+        // Check for API errors first
+        if (responseJson.has("error")) {
+            JsonObject error = responseJson.getAsJsonObject("error");
+            String errorMessage = error.has("message") ? error.get("message").getAsString() : "Unknown error";
+            log.error("Gemini API error: {}", errorMessage);
+            throw new RuntimeException("Gemini API error: " + errorMessage);
+        }
+
+        JsonArray candidates = responseJson.getAsJsonArray("candidates");
+
+        if (candidates != null && candidates.size() > 0) {
+            JsonObject candidate = candidates.get(0).getAsJsonObject();
+
+            // Check for blocked content
+            if (candidate.has("finishReason")) {
+                String finishReason = candidate.get("finishReason").getAsString();
+                log.debug("Gemini finish reason: {}", finishReason);
+
+                if (!"STOP".equals(finishReason)) {
+                    log.error("Content blocked or filtered. Reason: {}", finishReason);
+                    throw new RuntimeException("Content blocked by Gemini: " + finishReason);
                 }
+            }
 
-                if (candidate.has("content")) {
-                    JsonObject contentObj = candidate.getAsJsonObject("content");
+            if (candidate.has("content")) {
+                JsonObject contentObj = candidate.getAsJsonObject("content");
 
-                    if (contentObj.has("parts")) {
-                        JsonArray partsArray = contentObj.getAsJsonArray("parts");
-                        if (partsArray != null && partsArray.size() > 0) {
-                            JsonObject partObj = partsArray.get(0).getAsJsonObject();
-                            if (partObj.has("text")) {
-                                return partObj.get("text").getAsString();
-                            }
+                if (contentObj.has("parts")) {
+                    JsonArray partsArray = contentObj.getAsJsonArray("parts");
+                    if (partsArray != null && partsArray.size() > 0) {
+                        JsonObject partObj = partsArray.get(0).getAsJsonObject();
+                        if (partObj.has("text")) {
+                            return partObj.get("text").getAsString();
                         }
                     }
-
-                    log.error("Content object missing 'parts'. Content: {}", contentObj);
-                } else {
-                    log.error("Candidate missing 'content'. Candidate: {}", candidate);
                 }
+
+                log.debug("Content object missing 'parts'. Content: {}", contentObj);
+            } else {
+                log.debug("Candidate missing 'content'. Candidate: {}", candidate);
             }
+        }
 
-            log.error("No valid response from Gemini API. Full response: {}", response);
-            throw new RuntimeException("No valid response from Gemini API");
+        return null;
+    }
 
+    public float[] generateEmbedding(String text) {
+        try {
+            return generateEmbeddingAsync(text).block();
         } catch (Exception e) {
-            log.error("Error calling Gemini API", e);
-            throw new RuntimeException("Failed to generate content: " + e.getMessage(), e);
+            log.error("Error generating embedding", e);
+            throw new RuntimeException("Failed to generate embedding: " + e.getMessage(), e);
         }
     }
 
-    public float[] generateEmbedding(String text) {
-        try {
-            log.debug("Generating embedding for text");
+    public Mono<float[]> generateEmbeddingAsync(String text) {
+        log.debug("Generating embedding for text");
+
+        // Build request body
+        JsonObject requestBody = new JsonObject();
+        JsonObject content = new JsonObject();
+        JsonArray parts = new JsonArray();
+        JsonObject part = new JsonObject();
+        part.addProperty("text", text);
+        parts.add(part);
+        content.add("parts", parts);
+        requestBody.add("content", content);
+
+        // Call embedding API
+        return webClient.post()
+                .uri("/models/" + embeddingModel + ":embedContent?key=" + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(gson.toJson(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .map(response -> {
+                    // Parse response
+                    JsonObject responseJson = gson.fromJson(response, JsonObject.class);
+                    JsonObject embedding = responseJson.getAsJsonObject("embedding");
+                    JsonArray values = embedding.getAsJsonArray("values");
+
+                    float[] result = new float[values.size()];
+                    for (int i = 0; i < values.size(); i++) {
+                        result[i] = values.get(i).getAsFloat();
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Embed many texts in a single batchEmbedContents round trip.
+     * Vectors are returned in the same order as the input texts; callers run
+     * several batches concurrently.
+     */
+    public Mono<List<float[]>> batchEmbedContents(List<String> texts) {
+        if (texts.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        log.debug("Generating batch embedding for {} texts", texts.size());
+
+        // Build request body: one embedContent request per text
+        JsonObject requestBody = new JsonObject();
+        JsonArray requests = new JsonArray();
+        for (String text : texts) {
+            JsonObject request = new JsonObject();
+            request.addProperty("model", "models/" + embeddingModel);
 
-            // Build request body
-            JsonObject requestBody = new JsonObject();
             JsonObject content = new JsonObject();
             JsonArray parts = new JsonArray();
             JsonObject part = new JsonObject();
             part.addProperty("text", text);
             parts.add(part);
             content.add("parts", parts);
-            requestBody.add("content", content);
-
-            // Call embedding API
-            String response = webClient.post()
-                    .uri("/models/" + embeddingModel + ":embedContent?key=" + apiKey)
-                    .header("Content-Type", "application/json")
-                    .bodyValue(gson.toJson(requestBody))
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            // Parse response
-            JsonObject responseJson = gson.fromJson(response, JsonObject.class);
-            JsonObject embedding = responseJson.getAsJsonObject("embedding");
-            JsonArray values = embedding.getAsJsonArray("values");
-
-            float[] result = new float[values.size()];
-            for (int i = 0; i < values.size(); i++) {
-                result[i] = values.get(i).getAsFloat();
-            }
+            request.add("content", content);
 
-            return result;
+            requests.add(request);
+        }
+        requestBody.add("requests", requests);
 
-        } catch (Exception e) {
-            log.error("Error generating embedding", e);
-            throw new RuntimeException("Failed to generate embedding: " + e.getMessage(), e);
+        return webClient.post()
+                .uri("/models/" + embeddingModel + ":batchEmbedContents?key=" + apiKey)
+                .header("Content-Type", "application/json")
+                .bodyValue(gson.toJson(requestBody))
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout)
+                .map(response -> parseBatchEmbeddings(response, texts.size()));
+    }
+
+    private List<float[]> parseBatchEmbeddings(String response, int expected) {
+        JsonObject responseJson = gson.fromJson(response, JsonObject.class);
+        JsonArray embeddings = responseJson.getAsJsonArray("embeddings");
+
+        if (embeddings == null || embeddings.size() != expected) {
+            throw new RuntimeException("Gemini batch embedding returned "
+                    + (embeddings == null ? 0 : embeddings.size()) + " vectors for " + expected + " texts");
         }
+
+        List<float[]> result = new ArrayList<>(expected);
+        for (int i = 0; i < embeddings.size(); i++) {
+            JsonArray values = embeddings.get(i).getAsJsonObject().getAsJsonArray("values");
+            float[] vector = new float[values.size()];
+            for (int j = 0; j < values.size(); j++) {
+                vector[j] = values.get(j).getAsFloat();
+            }
+            result.add(vector);
+        }
+
+        return result;
     }
 }
@@ -0,0 +1,294 @@
+package com.example.aiservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * In-process VectorStore for the CV template knowledge base.
+ *
+ * The knowledge base is a few hundred read-mostly templates, so an exact flat
+ * scan over one contiguous float[] is faster than a JDBC round trip to
+ * pgvector and needs no approximate index. Vectors are L2-normalized on insert,
+ * which makes cosine similarity a plain dot product.
+ *
+ * Searches read an immutable snapshot without locking; writes rebuild the
+ * snapshot under a lock. CVKnowledgeBaseService fills the store from
+ * cv_templates at startup and keeps it in sync on add/update/delete.
+ */
+// Bean is created in VectorStoreConfig when rag.vector-store=memory
+@Slf4j
+public class InMemoryTemplateVectorStore implements VectorStore {
+
+    private final EmbeddingModel embeddingModel;
+    private final Object writeLock = new Object();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(List.of(), 0);
+
+    public InMemoryTemplateVectorStore(EmbeddingModel embeddingModel) {
+        this.embeddingModel = embeddingModel;
+    }
+
+    @Override
+    public String getName() {
+        return "InMemoryTemplateVectorStore";
+    }
+
+    /**
+     * Embed and upsert documents by id
+     */
+    @Override
+    public void add(List<Document> documents) {
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        add(documents, embeddingModel.embed(documents.stream().map(Document::getText).toList()));
+    }
+
+    /**
+     * Upsert documents with precomputed embeddings (e.g. persisted in cv_templates)
+     */
+    public void add(List<Document> documents, List<float[]> vectors) {
+        if (documents.isEmpty()) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            int dimensions = snapshot.dimensions;
+            for (int i = 0; i < documents.size(); i++) {
+                float[] vector = vectors.get(i);
+                if (dimensions == 0) {
+                    dimensions = vector.length;
+                } else if (vector.length != dimensions) {
+                    throw new IllegalArgumentException("Embedding dimension " + vector.length
+                            + " does not match index dimension " + dimensions);
+                }
+                Document document = documents.get(i);
+                entries.put(document.getId(), new Entry(document, normalize(vector)));
+            }
+            snapshot = new Snapshot(entries.values(), dimensions);
+        }
+
+        log.debug("Indexed {} documents, index size {}", documents.size(), snapshot.size);
+    }
+
+    @Override
+    public Optional<Boolean> delete(List<String> ids) {
+        synchronized (writeLock) {
+            boolean removed = false;
+            for (String id : ids) {
+                removed |= entries.remove(id) != null;
+            }
+            if (removed) {
+                snapshot = new Snapshot(entries.values(), snapshot.dimensions);
+            }
+        }
+        return Optional.of(true);
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        Snapshot current = snapshot;
+        if (current.size == 0 || request.getTopK() <= 0) {
+            return List.of();
+        }
+
+        float[] query = normalize(embeddingModel.embed(request.getQuery()));
+        if (query.length != current.dimensions) {
+            throw new IllegalStateException("Query dimension " + query.length
+                    + " does not match index dimension " + current.dimensions);
+        }
+
+        Filter.Expression filter = request.getFilterExpression();
+        double threshold = request.getSimilarityThreshold();
+        int topK = request.getTopK();
+
+        // Min-heap of the best topK (index, score) pairs seen so far
+        PriorityQueue<double[]> best = new PriorityQueue<>(topK + 1, (a, b) -> Double.compare(a[1], b[1]));
+        for (int i = 0; i < current.size; i++) {
+            if (filter != null && !matches(filter, current.documents[i].getMetadata())) {
+                continue;
+            }
+            double score = dot(query, current.vectors, i * current.dimensions);
+            if (score < threshold) {
+                continue;
+            }
+            if (best.size() < topK) {
+                best.add(new double[] { i, score });
+            } else if (score > best.peek()[1]) {
+                best.poll();
+                best.add(new double[] { i, score });
+            }
+        }
+
+        List<Document> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            double[] hit = best.poll();
+            results.add(0, withScore(current.documents[(int) hit[0]], hit[1]));
+        }
+        return results;
+    }
+
+    /**
+     * Number of indexed documents
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    /**
+     * Ids of all indexed documents
+     */
+    public Set<String> ids() {
+        Set<String> ids = new HashSet<>();
+        for (Document document : snapshot.documents) {
+            ids.add(document.getId());
+        }
+        return ids;
+    }
+
+    private static Document withScore(Document document, double score) {
+        Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+        metadata.put("distance", 1 - score); // same key PgVectorStore reports
+        return Document.builder()
+                .id(document.getId())
+                .text(document.getText())
+                .metadata(metadata)
+                .score(score)
+                .build();
+    }
+
+    private static double dot(float[] query, float[] vectors, int offset) {
+        float sum = 0f;
+        for (int d = 0; d < query.length; d++) {
+            sum += query[d] * vectors[offset + d];
+        }
+        return sum;
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+
+        float[] unit = new float[vector.length];
+        if (norm == 0) {
+            return unit;
+        }
+        for (int d = 0; d < vector.length; d++) {
+            unit[d] = (float) (vector[d] / norm);
+        }
+        return unit;
+    }
+
+    // ----- Metadata filtering (Spring AI portable filter expressions) -----
+
+    static boolean matches(Filter.Operand operand, Map<String, Object> metadata) {
+        if (operand instanceof Filter.Group group) {
+            return matches(group.content(), metadata);
+        }
+
+        Filter.Expression expression = (Filter.Expression) operand;
+        return switch (expression.type()) {
+            case AND -> matches(expression.left(), metadata) && matches(expression.right(), metadata);
+            case OR -> matches(expression.left(), metadata) || matches(expression.right(), metadata);
+            case NOT -> !matches(expression.left(), metadata);
+            case EQ -> compares(expression, metadata, c -> c == 0);
+            case NE -> !compares(expression, metadata, c -> c == 0);
+            case GT -> compares(expression, metadata, c -> c > 0);
+            case GTE -> compares(expression, metadata, c -> c >= 0);
+            case LT -> compares(expression, metadata, c -> c < 0);
+            case LTE -> compares(expression, metadata, c -> c <= 0);
+            case IN -> in(actual(expression, metadata), expected(expression));
+            case NIN -> !in(actual(expression, metadata), expected(expression));
+        };
+    }
+
+    private static boolean compares(Filter.Expression expression, Map<String, Object> metadata, IntPredicate test) {
+        Integer result = compare(actual(expression, metadata), expected(expression));
+        return result != null && test.test(result);
+    }
+
+    private static Object actual(Filter.Expression expression, Map<String, Object> metadata) {
+        String key = ((Filter.Key) expression.left()).key();
+        if (key.length() > 1 && (key.startsWith("\"") || key.startsWith("'"))) {
+            key = key.substring(1, key.length() - 1);
+        }
+        return metadata.get(key);
+    }
+
+    private static Object expected(Filter.Expression expression) {
+        return ((Filter.Value) expression.right()).value();
+    }
+
+    private static boolean in(Object actual, Object expected) {
+        if (!(expected instanceof Collection<?> values)) {
+            return Integer.valueOf(0).equals(compare(actual, expected));
+        }
+        return values.stream().anyMatch(value -> Integer.valueOf(0).equals(compare(actual, value)));
+    }
+
+    // null when the values are not comparable (e.g. missing metadata)
+    private static Integer compare(Object actual, Object expected) {
+        if (actual == null || expected == null) {
+            return null;
+        }
+        if (actual instanceof Number a && expected instanceof Number e) {
+            return Double.compare(a.doubleValue(), e.doubleValue());
+        }
+        if (actual instanceof Boolean || expected instanceof Boolean) {
+            return String.valueOf(actual).equalsIgnoreCase(String.valueOf(expected)) ? 0 : null;
+        }
+        return String.valueOf(actual).compareTo(String.valueOf(expected));
+    }
+
+    private static class Entry {
+        private final Document document;
+        private final float[] vector;
+
+        private Entry(Document document, float[] vector) {
+            this.document = document;
+            this.vector = vector;
+        }
+    }
+
+    // Row-major copy of all vectors so the scan walks one array
+    private static class Snapshot {
+        private final Document[] documents;
+        private final float[] vectors;
+        private final int dimensions;
+        private final int size;
+
+        private Snapshot(Collection<Entry> entries, int dimensions) {
+            this.size = entries.size();
+            this.dimensions = dimensions;
+            this.documents = new Document[size];
+            this.vectors = new float[size * dimensions];
+
+            int i = 0;
+            for (Entry entry : entries) {
+                documents[i] = entry.document;
+                System.arraycopy(entry.vector, 0, vectors, i * dimensions, dimensions);
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.aiservice.services;
+
+import com.example.aiservice.dtos.responses.AIResponseDto;
+import com.example.aiservice.services.utils.DigestUtil;
+import com.example.rediscommon.services.RedisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Result cache for analyze-with-JD.
+ *
+ * - Key: SHA-256 over the normalized CV content, JD text and language
+ * - Tiers: local "jdMatchCache" (Caffeine) + Redis, shared across replicas
+ * - Single-flight: concurrent identical requests wait on the first one
+ *   instead of each calling Gemini
+ */
+@Service
+@Slf4j
+public class JdMatchCacheService {
+
+    private static final String KEY_PREFIX = "jdmatch:";
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper;
+    private final Cache localCache;
+    private final long redisTtlMinutes;
+    private final ConcurrentHashMap<String, CompletableFuture<AIResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public JdMatchCacheService(
+            RedisService redisService,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${ai.jd-match-cache.ttl-minutes:60}") long redisTtlMinutes) {
+        this.redisService = redisService;
+        this.objectMapper = objectMapper;
+        this.localCache = cacheManager.getCache("jdMatchCache");
+        this.redisTtlMinutes = redisTtlMinutes;
+
+        this.hits = resultCounter(meterRegistry, "hit");
+        this.misses = resultCounter(meterRegistry, "miss");
+        this.coalesced = resultCounter(meterRegistry, "coalesced");
+    }
+
+    /**
+     * Canonical cache key. Whitespace runs are collapsed and the language is
+     * lower-cased, so cosmetic differences map to the same entry.
+     */
+    public String key(String cvContent, String jdText, String language) {
+        String canonical = normalize(cvContent)
+                + '\u0000' + normalize(jdText)
+                + '\u0000' + (language == null ? "" : language.trim().toLowerCase(Locale.ROOT));
+        return KEY_PREFIX + DigestUtil.sha256Hex(canonical);
+    }
+
+    /**
+     * Return the cached result, or run the loader once for all concurrent
+     * callers with the same key and cache its result.
+     */
+    public AIResponseDto getOrCompute(String key, Supplier<AIResponseDto> loader) {
+        AIResponseDto cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<AIResponseDto> own = new CompletableFuture<>();
+        CompletableFuture<AIResponseDto> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            coalesced.increment();
+            log.debug("Joining in-flight JD match for key {}", key);
+            return await(existing);
+        }
+
+        try {
+            // Another caller may have finished between lookup and registration
+            AIResponseDto result = lookup(key);
+            if (result == null) {
+                misses.increment();
+                result = loader.get();
+                store(key, result);
+            } else {
+                hits.increment();
+            }
+            own.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private AIResponseDto lookup(String key) {
+        AIResponseDto local = localCache.get(key, AIResponseDto.class);
+        if (local != null) {
+            return local;
+        }
+
+        try {
+            Object json = redisService.get(key);
+            if (json instanceof String s) {
+                AIResponseDto remote = objectMapper.readValue(s, AIResponseDto.class);
+                localCache.put(key, remote);
+                return remote;
+            }
+        } catch (Exception e) {
+            log.warn("JD match Redis lookup failed, treating as miss: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void store(String key, AIResponseDto result) {
+        localCache.put(key, result);
+        try {
+            redisService.set(key, objectMapper.writeValueAsString(result), redisTtlMinutes, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to write JD match result to Redis: {}", e.getMessage());
+        }
+    }
+
+    private AIResponseDto await(CompletableFuture<AIResponseDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+    }
+
+    private static Counter resultCounter(MeterRegistry registry, String result) {
+        return Counter.builder("ai.jdmatch.cache.requests")
+                .description("Analyze-with-JD requests by cache outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
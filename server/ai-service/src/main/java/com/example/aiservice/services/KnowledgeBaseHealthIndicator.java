@@ -0,0 +1,35 @@
+package com.example.aiservice.services;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Readiness of the template knowledge base ("knowledgeBase" health component).
+ * OUT_OF_SERVICE while the vector store is being synced at startup, so the
+ * readiness probe holds traffic without blocking application startup.
+ */
+@Component
+public class KnowledgeBaseHealthIndicator implements HealthIndicator {
+
+    private volatile Health health = Health.outOfService().withDetail("state", "STARTING").build();
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    public void syncing() {
+        health = Health.outOfService().withDetail("state", "SYNCING").build();
+    }
+
+    public void ready(Map<String, Object> details) {
+        health = Health.up().withDetail("state", "READY").withDetails(details).build();
+    }
+
+    public void failed(Exception e) {
+        health = Health.down(e).withDetail("state", "FAILED").build();
+    }
+}
@@ -5,7 +5,10 @@ import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.ai.document.Document;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import com.example.aiservice.dtos.*;
 import com.example.aiservice.dtos.requests.*;
@@ -18,6 +21,7 @@ import com.example.aiservice.services.feigns.UserFeignClient;
 import com.fasterxml.jackson.databind.*;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -37,6 +41,7 @@ public class AIApi extends BaseApi {
     private final EmbeddingService embeddingService; // Vector Search
     // Engineering
     private final CompactPromptBuilder promptBuilder;
+    private final JdMatchCacheService jdMatchCacheService;
 
     // Supporting Services
     private final FileParserService fileParserService;
@@ -51,6 +56,7 @@ public class AIApi extends BaseApi {
             ChatClient chatClient, // Inject từ RAGConfig
             EmbeddingService embeddingService,
             CompactPromptBuilder promptBuilder,
+            JdMatchCacheService jdMatchCacheService,
             FileParserService fileParserService,
             CVFeignClient cvFeignClient,
             UserFeignClient userFeignClient) {
@@ -58,6 +64,7 @@ public class AIApi extends BaseApi {
         this.chatClient = chatClient;
         this.embeddingService = embeddingService;
         this.promptBuilder = promptBuilder;
+        this.jdMatchCacheService = jdMatchCacheService;
         this.fileParserService = fileParserService;
         this.cvFeignClient = cvFeignClient;
         this.userFeignClient = userFeignClient;
@@ -200,7 +207,9 @@ public class AIApi extends BaseApi {
             // OPTIMIZED: Skip RAG for JD matching (too slow)
             long geminiStart = System.currentTimeMillis();
             logger.info("Starting Gemini call for analyzeCVWithJD");
-            AIResponseDto aiResponse = handleAnalyzeCVWithJDFast(cvDto, language, jdText);
+            String matchKey = jdMatchCacheService.key(formatCVCompact(cvDto), jdText, language);
+            AIResponseDto aiResponse = jdMatchCacheService.getOrCompute(matchKey,
+                    () -> handleAnalyzeCVWithJDFast(cvDto, language, jdText));
             long geminiEnd = System.currentTimeMillis();
             logger.info("Completed Gemini call for analyzeCVWithJD in {} ms", geminiEnd - geminiStart);
 
@@ -224,6 +233,65 @@ public class AIApi extends BaseApi {
         }
     }
 
+    /**
+     * API: Improve CV section (streaming)
+     */
+    public Flux<ServerSentEvent<String>> improveCVStream(String dataJson) {
+        Mono<ChatClient.ChatClientRequestSpec> requestSpec = Mono.fromCallable(() -> {
+            ImproveCVRequest request = objectMapper.readValue(dataJson, ImproveCVRequest.class);
+            String section = request.getSection();
+            String content = request.getContent();
+
+            String category = detectCategoryFromText(content);
+            String level = detectLevelFromText(content);
+
+            logger.info("Streaming improvement for section: {}, cat={}, lvl={}", section, category, level);
+            return prepareImproveRequest(section, content, category, level);
+        });
+
+        return streamWithResult(requestSpec, improved -> {
+            Response response = new Response();
+            response.setMessage("CV section improved successfully");
+            response.setImprovedSection(improved);
+            return response;
+        }, "improveCVStream");
+    }
+
+    /**
+     * API: Analyze CV (streaming)
+     */
+    public Flux<ServerSentEvent<String>> analyzeCVStream(String dataJson) {
+        Mono<ChatClient.ChatClientRequestSpec> requestSpec = Mono.fromCallable(() -> {
+            AnalyzeCVRequest request = objectMapper.readValue(dataJson, AnalyzeCVRequest.class);
+
+            CVDto cvDto = CVDto.builder()
+                    .title(request.getTitle())
+                    .personalInfo(request.getPersonalInfo())
+                    .experiences(request.getExperiences())
+                    .educations(request.getEducations())
+                    .skills(request.getSkills())
+                    .build();
+
+            String category = detectCategory(cvDto);
+            String level = detectLevel(cvDto);
+            String language = request.getLanguage() != null ? request.getLanguage() : "vi";
+
+            logger.info("Streaming CV analysis: title={}, cat={}, lvl={}, lang={}", request.getTitle(), category,
+                    level, language);
+            return prepareAnalyzeRequest(cvDto, category, level, language);
+        });
+
+        return streamWithResult(requestSpec, aiResponse -> {
+            AnalyzeResultDto analyzeResult = parseAnalyzeResult(aiResponse);
+
+            Response response = new Response();
+            response.setMessage("CV analyzed successfully");
+            response.setAnalyze(analyzeResult);
+            response.setSuggestions(analyzeResult.getSuggestions());
+            return response;
+        }, "analyzeCVStream");
+    }
+
     /**
      * API: Import CV from PDF
      */
@@ -322,35 +390,8 @@ public class AIApi extends BaseApi {
             logger.info("Starting FAST RAG analysis with language: {}...", language);
             long startTime = System.currentTimeMillis();
 
-            String cvContent = formatCVCompact(cv);
-
-            // OPTIMIZATION 1: Parallel vector search for multiple sections
-            Map<String, String> sectionQueries = new HashMap<>();
-
-            if (cv.getPersonalInfo() != null && cv.getPersonalInfo().getSummary() != null) {
-                sectionQueries.put("summary", cv.getPersonalInfo().getSummary());
-            }
-
-            if (cv.getExperiences() != null && !cv.getExperiences().isEmpty()) {
-                sectionQueries.put("experience", formatExperiencesCompact(cv.getExperiences()));
-            }
-
-            // Execute parallel search - reduces latency by 50-70%
-            Map<String, List<Document>> allExamples = embeddingService
-                    .searchMultipleSectionsParallel(sectionQueries, category, level, 1); // Only 1 example per section
-
-            logger.info("RAG retrieve phase: {}ms", System.currentTimeMillis() - startTime);
-
-            // OPTIMIZATION 2: Compact prompt with minimal examples
-            String systemPrompt = promptBuilder.buildCompactAnalysisPrompt(language);
-            String userPrompt = buildCompactAnalysisPrompt(cvContent, allExamples);
-
-            logger.info("Prompt built: {} chars", userPrompt.length());
-
             // OPTIMIZATION 3: Single Gemini call
-            String aiResponse = chatClient.prompt()
-                    .system(systemPrompt)
-                    .user(userPrompt)
+            String aiResponse = prepareAnalyzeRequest(cv, category, level, language)
                     .call()
                     .content();
 
@@ -384,21 +425,8 @@ public class AIApi extends BaseApi {
             logger.info("Starting FAST improvement for section: {}", section);
             long startTime = System.currentTimeMillis();
 
-            // OPTIMIZATION 1: Only 1 example (down from 3)
-            List<Document> examples = embeddingService.searchRelevantTemplates(
-                    content, section, category, level, 1);
-
-            logger.info("Retrieved {} example in {}ms",
-                    examples.size(), System.currentTimeMillis() - startTime);
-
-            // OPTIMIZATION 2: Ultra-compact prompt
-            String systemPrompt = promptBuilder.buildCompactImprovementPrompt(section);
-            String userPrompt = buildCompactImprovementPrompt(content, examples);
-
             // OPTIMIZATION 3: Single Gemini call
-            String improved = chatClient.prompt()
-                    .system(systemPrompt)
-                    .user(userPrompt)
+            String improved = prepareImproveRequest(section, content, category, level)
                     .call()
                     .content();
 
@@ -414,6 +442,105 @@ public class AIApi extends BaseApi {
         }
     }
 
+    /**
+     * RETRIEVE + AUGMENT for analysis; shared by the blocking and streaming flows
+     */
+    private ChatClient.ChatClientRequestSpec prepareAnalyzeRequest(
+            CVDto cv, String category, String level, String language) {
+        long startTime = System.currentTimeMillis();
+
+        String cvContent = formatCVCompact(cv);
+
+        // OPTIMIZATION 1: Parallel vector search for multiple sections
+        Map<String, String> sectionQueries = new HashMap<>();
+
+        if (cv.getPersonalInfo() != null && cv.getPersonalInfo().getSummary() != null) {
+            sectionQueries.put("summary", cv.getPersonalInfo().getSummary());
+        }
+
+        if (cv.getExperiences() != null && !cv.getExperiences().isEmpty()) {
+            sectionQueries.put("experience", formatExperiencesCompact(cv.getExperiences()));
+        }
+
+        // Execute parallel search - reduces latency by 50-70%
+        Map<String, List<Document>> allExamples = embeddingService
+                .searchMultipleSectionsParallel(sectionQueries, category, level, 1); // Only 1 example per section
+
+        logger.info("RAG retrieve phase: {}ms", System.currentTimeMillis() - startTime);
+
+        // OPTIMIZATION 2: Compact prompt with minimal examples
+        String systemPrompt = promptBuilder.buildCompactAnalysisPrompt(language);
+        String userPrompt = buildCompactAnalysisPrompt(cvContent, allExamples);
+
+        logger.info("Prompt built: {} chars", userPrompt.length());
+
+        return chatClient.prompt()
+                .system(systemPrompt)
+                .user(userPrompt);
+    }
+
+    /**
+     * RETRIEVE + AUGMENT for section improvement; shared by the blocking and
+     * streaming flows
+     */
+    private ChatClient.ChatClientRequestSpec prepareImproveRequest(
+            String section, String content, String category, String level) {
+        long startTime = System.currentTimeMillis();
+
+        // OPTIMIZATION 1: Only 1 example (down from 3)
+        List<Document> examples = embeddingService.searchRelevantTemplates(
+                content, section, category, level, 1);
+
+        logger.info("Retrieved {} example in {}ms",
+                examples.size(), System.currentTimeMillis() - startTime);
+
+        // OPTIMIZATION 2: Ultra-compact prompt
+        String systemPrompt = promptBuilder.buildCompactImprovementPrompt(section);
+        String userPrompt = buildCompactImprovementPrompt(content, examples);
+
+        return chatClient.prompt()
+                .system(systemPrompt)
+                .user(userPrompt);
+    }
+
+    /**
+     * Relay Gemini tokens as "chunk" events, then one "done" event carrying the
+     * same Response JSON the blocking endpoint returns. Failures become a
+     * single "error" event.
+     */
+    private Flux<ServerSentEvent<String>> streamWithResult(
+            Mono<ChatClient.ChatClientRequestSpec> requestSpec,
+            Function<String, Response> finisher,
+            String operation) {
+        return Flux.defer(() -> {
+            StringBuilder full = new StringBuilder();
+
+            return requestSpec
+                    .subscribeOn(Schedulers.boundedElastic()) // RAG retrieval is blocking I/O
+                    .flatMapMany(spec -> spec.stream().content())
+                    .doOnNext(full::append)
+                    .map(chunk -> ServerSentEvent.builder(chunk).event("chunk").build())
+                    .concatWith(Mono.fromCallable(() -> ServerSentEvent
+                            .builder(objectMapper.writeValueAsString(finisher.apply(full.toString())))
+                            .event("done")
+                            .build()));
+        }).onErrorResume(e -> {
+            logger.error("Error in {}: {}", operation, e.getMessage(), e);
+            Response error = e instanceof OurException oe
+                    ? buildErrorResponse(oe.getStatusCode(), oe.getMessage())
+                    : buildErrorResponse(500, e.getMessage());
+            try {
+                return Mono.just(ServerSentEvent.builder(objectMapper.writeValueAsString(error))
+                        .event("error")
+                        .build());
+            } catch (Exception ex) {
+                return Mono.just(ServerSentEvent.builder(String.valueOf(e.getMessage()))
+                        .event("error")
+                        .build());
+            }
+        });
+    }
+
     /**
      * RAG Flow 3: Analyze CV with Job Description
      * 
@@ -422,7 +549,6 @@ public class AIApi extends BaseApi {
      * 2. AUGMENT: Build matching prompt với examples
      * 3. GENERATE: Gemini tạo match analysis
      */
-    @Cacheable(value = "jdMatchCache", key = "#cv.personalInfo.fullname + '-' + #jdText.hashCode()")
     private AIResponseDto handleAnalyzeCVWithJDFast(
             CVDto cv, String language, String jdText) {
         try {
@@ -0,0 +1,97 @@
+package com.example.aiservice.services.utils;
+
+import java.io.Writer;
+
+/**
+ * Writer that cleans extracted document text in a single pass while it is
+ * being produced: lines are trimmed, blank lines dropped, CR treated as a line
+ * break, and output stops at maxChars. Extractors write straight into it, so
+ * no intermediate full-size String is built before cleaning.
+ */
+public class CleanTextWriter extends Writer {
+
+    private final StringBuilder out;
+    private final int maxChars;
+    // Whitespace seen inside the current line, emitted only if more text follows
+    private final StringBuilder pendingSpace = new StringBuilder();
+    private boolean pendingNewline;
+    private boolean truncated;
+
+    public CleanTextWriter(int maxChars) {
+        this.maxChars = maxChars;
+        this.out = new StringBuilder(Math.min(maxChars, 8192));
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) {
+        for (int i = offset; i < offset + length && !truncated; i++) {
+            accept(buffer[i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        for (int i = offset; i < offset + length && !truncated; i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    /**
+     * End the current line (e.g. between DOCX paragraphs)
+     */
+    public void newLine() {
+        accept('\n');
+    }
+
+    /**
+     * True once maxChars is reached; callers stop extracting
+     */
+    public boolean isFull() {
+        return truncated;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString().stripTrailing();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void accept(char c) {
+        if (c == '\n' || c == '\r') {
+            pendingSpace.setLength(0);
+            pendingNewline = out.length() > 0;
+            return;
+        }
+        // Same definition of whitespace as String.trim()
+        if (c <= ' ') {
+            pendingSpace.append(c);
+            return;
+        }
+
+        if (pendingNewline) {
+            emit('\n');
+            pendingNewline = false;
+        } else if (out.length() > 0) {
+            for (int i = 0; i < pendingSpace.length(); i++) {
+                emit(pendingSpace.charAt(i));
+            }
+        }
+        pendingSpace.setLength(0);
+        emit(c);
+    }
+
+    private void emit(char c) {
+        if (out.length() >= maxChars) {
+            truncated = true;
+            return;
+        }
+        out.append(c);
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.aiservice.services;
+
+import com.example.aiservice.entities.CVTemplateEntity;
+import com.example.aiservice.repositories.CVTemplateCommandRepository;
+import com.example.aiservice.repositories.CVTemplateQueryRepository;
+import com.example.aiservice.repositories.SimpleCVTemplateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.document.Document;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CVKnowledgeBaseServiceTest {
+
+    private static final float[] VECTOR = { 0.1f, 0.2f, 0.3f };
+
+    @Mock
+    private CVTemplateCommandRepository templateCommandRepository;
+
+    @Mock
+    private CVTemplateQueryRepository templateQueryRepository;
+
+    @Mock
+    private SimpleCVTemplateRepository simpleTemplateRepository;
+
+    @Mock
+    private EmbeddingService embeddingService;
+
+    @Mock
+    private CVTemplateDataProvider templateDataProvider;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private KnowledgeBaseHealthIndicator healthIndicator;
+    private CVKnowledgeBaseService knowledgeBaseService;
+
+    @BeforeEach
+    void setUp() {
+        healthIndicator = new KnowledgeBaseHealthIndicator();
+        knowledgeBaseService = new CVKnowledgeBaseService(
+                templateCommandRepository,
+                templateQueryRepository,
+                simpleTemplateRepository,
+                embeddingService,
+                templateDataProvider,
+                healthIndicator,
+                new TransactionTemplate(transactionManager));
+
+        when(templateQueryRepository.countAllTemplates()).thenReturn(3L);
+        when(embeddingService.embedAll(anyList())).thenAnswer(inv -> inv.<List<String>>getArgument(0)
+                .stream().map(text -> VECTOR).toList());
+    }
+
+    @Test
+    void testInitializeKnowledgeBase_UnchangedTemplatesAreNotReembedded() {
+        // Arrange
+        CVTemplateEntity template = indexed(template("t1", "Built Java microservices", 5));
+        when(templateQueryRepository.findAll()).thenReturn(List.of(template));
+        when(embeddingService.indexedTemplateIds()).thenReturn(Set.of("t1"));
+
+        // Act
+        knowledgeBaseService.initializeKnowledgeBase();
+
+        // Assert
+        verify(embeddingService, never()).embedAll(anyList());
+        verify(embeddingService, never()).ingestWithEmbeddings(anyList(), anyList());
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        assertEquals(1, healthIndicator.health().getDetails().get("unchanged"));
+    }
+
+    @Test
+    void testInitializeKnowledgeBase_OnlyChangedTemplatesAreEmbedded() {
+        // Arrange
+        CVTemplateEntity unchanged = indexed(template("t1", "Built Java microservices", 5));
+        CVTemplateEntity edited = indexed(template("t2", "Led migration", 4));
+        edited.setContent("Led Spring Boot 3 migration for 12 services");
+        CVTemplateEntity added = template("t3", "Mentored 4 engineers", 4);
+        when(templateQueryRepository.findAll()).thenReturn(List.of(unchanged, edited, added));
+        when(embeddingService.indexedTemplateIds()).thenReturn(Set.of("t1", "t2"));
+
+        // Act
+        knowledgeBaseService.initializeKnowledgeBase();
+
+        // Assert
+        verify(embeddingService).embedAll(List.of("Led Spring Boot 3 migration for 12 services", "Mentored 4 engineers"));
+        verify(templateCommandRepository).updateIndexState(eq("t2"), eq(CVKnowledgeBaseService.indexHash(edited)), any());
+        verify(templateCommandRepository).updateIndexState(eq("t3"), eq(CVKnowledgeBaseService.indexHash(added)), any());
+        verify(templateCommandRepository, never()).updateIndexState(eq("t1"), any(), any());
+    }
+
+    @Test
+    void testInitializeKnowledgeBase_RestoresMissingFromPersistedEmbedding() {
+        // Arrange
+        CVTemplateEntity template = indexed(template("t1", "Built Java microservices", 5));
+        when(templateQueryRepository.findAll()).thenReturn(List.of(template));
+        when(embeddingService.indexedTemplateIds()).thenReturn(Set.of());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<float[]>> vectors = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        knowledgeBaseService.initializeKnowledgeBase();
+
+        // Assert
+        verify(embeddingService, never()).embedAll(anyList());
+        verify(embeddingService).ingestWithEmbeddings(anyList(), vectors.capture());
+        assertArrayEquals(VECTOR, vectors.getValue().get(0));
+    }
+
+    @Test
+    void testInitializeKnowledgeBase_RemovesTemplatesNoLongerEligible() {
+        // Arrange
+        CVTemplateEntity deactivated = indexed(template("t1", "Old template", 5));
+        deactivated.setIsActive(false);
+        when(templateQueryRepository.findAll()).thenReturn(List.of(deactivated));
+        when(embeddingService.indexedTemplateIds()).thenReturn(Set.of("t1", "orphan"));
+
+        // Act
+        knowledgeBaseService.initializeKnowledgeBase();
+
+        // Assert
+        verify(embeddingService).deleteTemplates(argThat(ids -> Set.copyOf(ids).equals(Set.of("t1", "orphan"))));
+        verify(templateCommandRepository).updateIndexState("t1", null, null);
+    }
+
+    @Test
+    void testInitializeKnowledgeBase_FailureMarksHealthDown() {
+        // Arrange
+        when(templateQueryRepository.findAll()).thenThrow(new RuntimeException("db down"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> knowledgeBaseService.initializeKnowledgeBase());
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+        verify(embeddingService, never()).searchRelevantTemplates(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testAddTemplate_EmbedsAfterInsertCommits() {
+        // Arrange
+        CVTemplateEntity template = template("t9", "Cut p99 latency by 40%", 5);
+        when(templateQueryRepository.findTemplateById("t9")).thenReturn(Optional.of(template));
+
+        // Act
+        knowledgeBaseService.addTemplate(template);
+
+        // Assert
+        InOrder inOrder = inOrder(templateCommandRepository, transactionManager, embeddingService);
+        inOrder.verify(templateCommandRepository).insertTemplate(eq("t9"), any(), any(), any(), any(), any(), any(),
+                any(), any(), any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(embeddingService).embedAll(List.of("Cut p99 latency by 40%"));
+        inOrder.verify(templateCommandRepository).updateIndexState(eq("t9"), any(), any());
+    }
+
+    private static CVTemplateEntity template(String id, String content, int rating) {
+        return CVTemplateEntity.builder()
+                .id(id)
+                .category("tech")
+                .level("senior")
+                .section("experience")
+                .content(content)
+                .rating(rating)
+                .keywords(List.of("java"))
+                .isActive(true)
+                .build();
+    }
+
+    private static CVTemplateEntity indexed(CVTemplateEntity template) {
+        template.setContentHash(CVKnowledgeBaseService.indexHash(template));
+        template.setEmbedding(EmbeddingCacheService.encode(VECTOR));
+        return template;
+    }
+}
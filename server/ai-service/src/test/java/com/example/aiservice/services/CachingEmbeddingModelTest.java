@@ -0,0 +1,167 @@
+package com.example.aiservice.services;
+
+import com.example.rediscommon.services.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CachingEmbeddingModelTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @Mock
+    private EmbeddingModel delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddingCacheService cacheService;
+    private CachingEmbeddingModel model;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new EmbeddingCacheService(redisService, meterRegistry, 100, 30);
+        model = new CachingEmbeddingModel(delegate, cacheService, "text-embedding-004");
+
+        when(redisService.multiGetBytes(anyList())).thenAnswer(inv -> {
+            List<String> keys = inv.getArgument(0);
+            return new ArrayList<>(Arrays.asList(new byte[keys.size()][]));
+        });
+        when(delegate.embed(anyString())).thenAnswer(inv -> vectorFor(inv.getArgument(0)));
+        when(delegate.call(any(EmbeddingRequest.class))).thenAnswer(inv -> {
+            EmbeddingRequest request = inv.getArgument(0);
+            List<Embedding> results = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                results.add(new Embedding(vectorFor(request.getInstructions().get(i)), i));
+            }
+            return new EmbeddingResponse(results);
+        });
+    }
+
+    @Test
+    void testEmbed_SecondCallServedLocally() {
+        // Act
+        float[] first = model.embed("Senior Java developer");
+        float[] second = model.embed("Senior Java developer");
+
+        // Assert
+        assertArrayEquals(first, second);
+        verify(delegate, times(1)).embed("Senior Java developer");
+        verify(redisService).setBytes(startsWith("embedding:text-embedding-004:"), any(byte[].class), eq(30L), any());
+        assertEquals(1.0, lookups("local", "hit"));
+        assertEquals(1.0, lookups("none", "miss"));
+    }
+
+    @Test
+    void testEmbed_RedisHitSkipsDelegate() {
+        // Arrange
+        float[] stored = { 0.25f, -1.5f, 3.0f };
+        when(redisService.multiGetBytes(anyList())).thenReturn(
+                new ArrayList<>(List.of(EmbeddingCacheService.encode(stored))));
+
+        // Act
+        float[] vector = model.embed("query from another replica");
+
+        // Assert
+        assertArrayEquals(stored, vector);
+        verify(delegate, never()).embed(anyString());
+        assertEquals(1.0, lookups("redis", "hit"));
+    }
+
+    @Test
+    void testCall_OnlyMissesGoToDelegate() {
+        // Arrange
+        model.embed("cached text");
+
+        // Act
+        EmbeddingResponse response = model.call(new EmbeddingRequest(
+                List.of("new text 1", "cached text", "new text 2"), null));
+
+        // Assert
+        verify(delegate).call(argThat(request -> request.getInstructions().equals(List.of("new text 1", "new text 2"))));
+        assertEquals(3, response.getResults().size());
+        assertArrayEquals(vectorFor("cached text"), response.getResults().get(1).getOutput());
+        assertArrayEquals(vectorFor("new text 2"), response.getResults().get(2).getOutput());
+    }
+
+    @Test
+    void testSeed_PersistedVectorsServeLaterDocumentEmbedding() {
+        // Arrange
+        float[] persisted = { 0.5f, 0.25f, -0.75f };
+        model.seed(List.of("restored template"), List.of(persisted));
+
+        // Act
+        EmbeddingResponse response = model.call(new EmbeddingRequest(List.of("restored template"), null));
+
+        // Assert
+        verify(delegate, never()).call(any(EmbeddingRequest.class));
+        assertArrayEquals(persisted, response.getResults().get(0).getOutput());
+    }
+
+    @Test
+    void testEmbed_RedisDownFallsBackToDelegate() {
+        // Arrange
+        when(redisService.multiGetBytes(anyList())).thenThrow(new RuntimeException("connection refused"));
+        doThrow(new RuntimeException("connection refused")).when(redisService).setBytes(anyString(), any(), anyLong(), any());
+
+        // Act
+        float[] vector = model.embed("text");
+
+        // Assert
+        assertArrayEquals(vectorFor("text"), vector);
+        assertArrayEquals(vector, model.embed("text"));
+        verify(delegate, times(1)).embed("text");
+    }
+
+    @Test
+    void testKey_ContentAddressedPerModel() {
+        // Act & Assert
+        assertEquals(cacheService.key("m1", "same"), cacheService.key("m1", "same"));
+        assertNotEquals(cacheService.key("m1", "same"), cacheService.key("m2", "same"));
+        // "Aa" and "BB" share a String.hashCode()
+        assertNotEquals(cacheService.key("m1", "Aa"), cacheService.key("m1", "BB"));
+    }
+
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        // Arrange
+        float[] vector = new float[768];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) Math.sin(i);
+        }
+
+        // Act
+        byte[] bytes = EmbeddingCacheService.encode(vector);
+
+        // Assert
+        assertEquals(768 * Float.BYTES, bytes.length);
+        assertArrayEquals(vector, EmbeddingCacheService.decode(bytes));
+    }
+
+    private double lookups(String tier, String result) {
+        return meterRegistry.get("embedding.cache.lookups").tag("tier", tier).tag("result", result).counter().count();
+    }
+
+    private static float[] vectorFor(String text) {
+        return new float[] { text.length(), text.hashCode() % 100 };
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.aiservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EmbeddingServiceTest {
+
+    @Mock
+    private VectorStore vectorStore;
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService ragExecutor;
+    private EmbeddingService embeddingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ragExecutor = Executors.newFixedThreadPool(4);
+        embeddingService = new EmbeddingService(
+                vectorStore,
+                embeddingModel,
+                jdbcTemplate,
+                new ConcurrentMapCacheManager("searchCache"),
+                meterRegistry,
+                ragExecutor,
+                300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ragExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSearchRelevantTemplates_ConcurrentIdenticalSearchesHitVectorStoreOnce() throws Exception {
+        // Arrange
+        int callers = 32;
+        AtomicInteger vectorStoreCalls = new AtomicInteger();
+        CountDownLatch allWaiting = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            vectorStoreCalls.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new Document("t1", "Led a team of 5 engineers", Map.of()));
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // Act
+        List<Future<List<Document>>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(pool.submit(() -> {
+                allWaiting.countDown();
+                return embeddingService.searchRelevantTemplates("java backend", "experience", "IT", "senior", 2);
+            }));
+        }
+        allWaiting.await(5, TimeUnit.SECONDS);
+        Thread.sleep(100); // let every caller reach the in-flight map
+        release.countDown();
+
+        // Assert
+        for (Future<List<Document>> future : futures) {
+            assertEquals("t1", future.get(5, TimeUnit.SECONDS).get(0).getId());
+        }
+        pool.shutdown();
+        assertEquals(1, vectorStoreCalls.get());
+        assertEquals(1.0, searches("executed"));
+        assertEquals(callers - 1.0, searches("coalesced") + searches("cached"));
+    }
+
+    @Test
+    void testSearchMultipleSectionsParallel_SharesInFlightSearchWithSingleCaller() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new Document("s1", "Built REST APIs", Map.of()));
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        // Act
+        Future<Map<String, List<Document>>> parallel = pool.submit(() -> embeddingService.searchMultipleSectionsParallel(
+                Map.of("experience", "java backend"), "IT", "senior", 1));
+        while (searches("executed") < 1.0) {
+            Thread.sleep(10);
+        }
+        CompletableFuture<List<Document>> joined = embeddingService
+                .searchRelevantTemplatesAsync("java backend", "experience", "IT", "senior", 1, Runnable::run);
+        boolean doneBeforeRelease = joined.isDone();
+        release.countDown();
+
+        // Assert
+        assertFalse(doneBeforeRelease);
+        assertEquals("s1", parallel.get(5, TimeUnit.SECONDS).get("experience").get(0).getId());
+        assertEquals("s1", joined.get(5, TimeUnit.SECONDS).get(0).getId());
+        pool.shutdown();
+        verify(vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+        assertEquals(1.0, searches("coalesced"));
+    }
+
+    @Test
+    void testSearchMultipleSectionsParallel_SlowSectionFallsBackToEmpty() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            SearchRequest request = inv.getArgument(0);
+            if (request.getQuery().equals("slow")) {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of(new Document("late", "Late example", Map.of()));
+            }
+            return List.of(new Document("fast", "Fast example", Map.of()));
+        });
+
+        // Act
+        Map<String, List<Document>> results = embeddingService.searchMultipleSectionsParallel(
+                Map.of("summary", "fast", "experience", "slow"), "IT", "senior", 1);
+        release.countDown();
+
+        // Assert
+        assertEquals("fast", results.get("summary").get(0).getId());
+        assertTrue(results.get("experience").isEmpty());
+        assertEquals(1.0, meterRegistry.get("rag.search.section.timeouts").counter().count());
+    }
+
+    @Test
+    void testSearchMultipleSectionsParallel_TimedOutSearchStillCachedForNextCaller() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new Document("late", "Late example", Map.of()));
+        });
+        embeddingService.searchMultipleSectionsParallel(Map.of("experience", "slow"), "IT", "senior", 1);
+
+        // Act
+        release.countDown();
+        while (meterRegistry.get("rag.search.inflight").gauge().value() > 0) {
+            Thread.sleep(10);
+        }
+        List<Document> next = embeddingService.searchRelevantTemplates("slow", "experience", "IT", "senior", 1);
+
+        // Assert
+        assertEquals("late", next.get(0).getId());
+        verify(vectorStore, times(1)).similaritySearch(any(SearchRequest.class));
+    }
+
+    @Test
+    void testSearchRelevantTemplates_TopKIsPartOfKey() {
+        // Arrange
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+
+        // Act
+        embeddingService.searchRelevantTemplates("query", "skills", "IT", "junior", 1);
+        embeddingService.searchRelevantTemplates("query", "skills", "IT", "junior", 1);
+        embeddingService.searchRelevantTemplates("query", "skills", "IT", "junior", 3);
+
+        // Assert
+        verify(vectorStore, times(2)).similaritySearch(any(SearchRequest.class));
+        assertEquals(1.0, searches("cached"));
+    }
+
+    @Test
+    void testSearchRelevantTemplates_FailureIsNotCached() {
+        // Arrange
+        when(vectorStore.similaritySearch(any(SearchRequest.class)))
+                .thenThrow(new RuntimeException("pgvector down"))
+                .thenReturn(List.of(new Document("r1", "Recovered", Map.of())));
+
+        // Act
+        List<Document> failed = embeddingService.searchRelevantTemplates("query", "summary", "IT", "mid", 2);
+        List<Document> retried = embeddingService.searchRelevantTemplates("query", "summary", "IT", "mid", 2);
+
+        // Assert
+        assertTrue(failed.isEmpty());
+        assertEquals("r1", retried.get(0).getId());
+    }
+
+    private double searches(String outcome) {
+        return meterRegistry.get("rag.search.requests").tag("outcome", outcome).counter().count();
+    }
+}
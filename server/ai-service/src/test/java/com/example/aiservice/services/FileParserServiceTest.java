@@ -0,0 +1,113 @@
+package com.example.aiservice.services;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FileParserServiceTest {
+
+    @Mock
+    private ChatClient chatClient;
+
+    @Test
+    void testExtractTextFromFile_PdfStopsAtPageCap() throws Exception {
+        // Arrange
+        FileParserService service = new FileParserService(chatClient, 2, 50_000, 64 * 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", pdf(5));
+
+        // Act
+        String text = service.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Page 1 Java engineer\nPage 2 Java engineer", text);
+    }
+
+    @Test
+    void testExtractTextFromFile_PdfStopsAtCharCap() throws Exception {
+        // Arrange
+        FileParserService service = new FileParserService(chatClient, 20, 25, 64 * 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "cv.pdf", "application/pdf", pdf(5));
+
+        // Act
+        String text = service.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Page 1 Java engineer\nPage", text);
+    }
+
+    @Test
+    void testExtractTextFromFile_DocxParagraphsCleaned() throws Exception {
+        // Arrange
+        FileParserService service = new FileParserService(chatClient, 20, 50_000, 64 * 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "jd.docx",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                docx("  Senior Java Developer  ", "", "Requirements:\tSpring Boot "));
+
+        // Act
+        String text = service.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Senior Java Developer\nRequirements:\tSpring Boot", text);
+    }
+
+    @Test
+    void testExtractTextFromFile_TextNormalizedInOnePass() throws Exception {
+        // Arrange
+        FileParserService service = new FileParserService(chatClient, 20, 50_000, 64 * 1024);
+        MockMultipartFile file = new MockMultipartFile("file", "jd.txt", "text/plain",
+                "\n  Backend  engineer \r\n\r\n\n   \t\n  Java, SQL\rDocker  \n\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        String text = service.extractTextFromFile(file);
+
+        // Assert
+        assertEquals("Backend  engineer\nJava, SQL\nDocker", text);
+    }
+
+    private static byte[] pdf(int pages) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Page " + i + " Java engineer");
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] docx(String... paragraphs) throws Exception {
+        try (XWPFDocument document = new XWPFDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (String paragraph : paragraphs) {
+                document.createParagraph().createRun().setText(paragraph);
+            }
+            document.write(out);
+            return out.toByteArray();
+        }
+    }
+}
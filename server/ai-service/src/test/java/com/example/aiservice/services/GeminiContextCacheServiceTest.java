@@ -0,0 +1,214 @@
+package com.example.aiservice.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GeminiContextCacheService and GeminiChatModel against a local stub of
+ * the cachedContents and generateContent endpoints.
+ */
+class GeminiContextCacheServiceTest {
+
+    private static final String CACHE_NAME = "cachedContents/analysis-en";
+
+    private final Gson gson = new Gson();
+    private final List<JsonObject> cacheRequests = new CopyOnWriteArrayList<>();
+    private final List<JsonObject> generateRequests = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean cachingAvailable = new AtomicBoolean(true);
+    private volatile long creationDelayMillis;
+
+    private HttpServer server;
+    private MeterRegistry meterRegistry;
+    private CompactPromptBuilder promptBuilder;
+    private GeminiContextCacheService contextCache;
+    private GeminiChatModel chatModel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/cachedContents", exchange -> {
+            cacheRequests.add(readJson(exchange.getRequestBody().readAllBytes()));
+            sleep(creationDelayMillis);
+            if (!cachingAvailable.get()) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            respond(exchange, "{\"name\":\"" + CACHE_NAME + "\","
+                    + "\"usageMetadata\":{\"totalTokenCount\":1200},"
+                    + "\"expireTime\":\"2999-01-01T00:00:00Z\"}");
+        });
+        server.createContext("/models/", exchange -> {
+            generateRequests.add(readJson(exchange.getRequestBody().readAllBytes()));
+            respond(exchange, "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"ok\"}]},"
+                    + "\"finishReason\":\"STOP\"}]}");
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        GeminiService geminiService = new GeminiService(
+                "http://localhost:" + server.getAddress().getPort(),
+                "test-key",
+                "gemini-test",
+                "text-embedding-004",
+                1.0,
+                1024);
+        meterRegistry = new SimpleMeterRegistry();
+        promptBuilder = new CompactPromptBuilder();
+        contextCache = new GeminiContextCacheService(geminiService, promptBuilder, meterRegistry, true, 60);
+        chatModel = new GeminiChatModel(geminiService, contextCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCall_CachedContextCreatedOnceAndSentByHandle() {
+        // Arrange
+        Prompt prompt = analysisPrompt("Analyze this CV");
+
+        // Act
+        chatModel.call(prompt);
+        chatModel.call(prompt);
+
+        // Assert
+        assertEquals(1, cacheRequests.size());
+        assertEquals("models/gemini-test", cacheRequests.get(0).get("model").getAsString());
+        assertEquals("3600s", cacheRequests.get(0).get("ttl").getAsString());
+
+        assertEquals(2, generateRequests.size());
+        for (JsonObject request : generateRequests) {
+            assertEquals(CACHE_NAME, request.get("cachedContent").getAsString());
+            assertFalse(request.has("systemInstruction"));
+            assertEquals("Analyze this CV", request.getAsJsonArray("contents").get(0).getAsJsonObject()
+                    .getAsJsonArray("parts").get(0).getAsJsonObject().get("text").getAsString());
+        }
+    }
+
+    @Test
+    void testRegisterStaticPrompts_WarmedHandleReusedByChatModel() {
+        // Act
+        contextCache.registerStaticPrompts();
+        int registered = cacheRequests.size();
+        chatModel.call(analysisPrompt("Analyze this CV"));
+
+        // Assert
+        assertEquals(5, registered);
+        assertEquals(registered, cacheRequests.size());
+        assertEquals(CACHE_NAME, generateRequests.get(0).get("cachedContent").getAsString());
+    }
+
+    @Test
+    void testCall_CreationFails_SendsSystemInstructionInline() {
+        // Arrange
+        cachingAvailable.set(false);
+        Prompt prompt = analysisPrompt("Analyze this CV");
+
+        // Act
+        chatModel.call(prompt);
+        chatModel.call(prompt);
+
+        // Assert
+        assertEquals(1, cacheRequests.size(), "creation is not retried right after a failure");
+        for (JsonObject request : generateRequests) {
+            assertFalse(request.has("cachedContent"));
+            assertEquals(promptBuilder.buildCompactAnalysisPrompt("en").strip(),
+                    request.getAsJsonObject("systemInstruction").getAsJsonArray("parts")
+                            .get(0).getAsJsonObject().get("text").getAsString());
+        }
+        assertEquals(2, meterRegistry.counter("gemini.context.cache.requests", "mode", "inline").count());
+    }
+
+    @Test
+    void testHandleFor_ConcurrentFirstUseCreatesOnce() throws Exception {
+        // Arrange
+        creationDelayMillis = 200;
+        String systemPrompt = promptBuilder.buildCompactAnalysisPrompt("en");
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> handles = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            handles.add(callers.submit(() -> {
+                start.await();
+                return contextCache.handleFor(systemPrompt);
+            }));
+        }
+        start.countDown();
+        List<String> names = new ArrayList<>();
+        for (Future<String> handle : handles) {
+            names.add(handle.get(10, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+
+        // Assert
+        assertEquals(1, cacheRequests.size());
+        assertTrue(names.stream().allMatch(CACHE_NAME::equals));
+    }
+
+    @Test
+    void testHandleFor_CountsSavedTokens() {
+        // Act
+        contextCache.handleFor(promptBuilder.buildCompactAnalysisPrompt("en"));
+        contextCache.handleFor(promptBuilder.buildCompactAnalysisPrompt("en"));
+
+        // Assert
+        assertEquals(2, meterRegistry.counter("gemini.context.cache.requests", "mode", "cached").count());
+        assertEquals(2400, meterRegistry.counter("gemini.context.cache.tokens.saved").count());
+    }
+
+    private Prompt analysisPrompt(String userText) {
+        return new Prompt(List.of(
+                new SystemMessage(promptBuilder.buildCompactAnalysisPrompt("en")),
+                new UserMessage(userText)));
+    }
+
+    private JsonObject readJson(byte[] body) {
+        return gson.fromJson(new String(body, StandardCharsets.UTF_8), JsonObject.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
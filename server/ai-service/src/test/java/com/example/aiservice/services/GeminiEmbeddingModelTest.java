@@ -0,0 +1,188 @@
+package com.example.aiservice.services;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.TokenCountBatchingStrategy;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GeminiEmbeddingModel against a local stub of the Gemini embedding API
+ * and counts HTTP round trips.
+ */
+class GeminiEmbeddingModelTest {
+
+    private final Gson gson = new Gson();
+    private final AtomicInteger batchCalls = new AtomicInteger();
+    private final AtomicInteger singleCalls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/models/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            JsonObject response = new JsonObject();
+            JsonObject request = gson.fromJson(body, JsonObject.class);
+            if (path.endsWith(":batchEmbedContents")) {
+                batchCalls.incrementAndGet();
+                JsonArray embeddings = new JsonArray();
+                for (var item : request.getAsJsonArray("requests")) {
+                    embeddings.add(embeddingFor(item.getAsJsonObject()));
+                }
+                response.add("embeddings", embeddings);
+            } else {
+                singleCalls.incrementAndGet();
+                response.add("embedding", embeddingFor(request));
+            }
+            inFlight.decrementAndGet();
+
+            byte[] bytes = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        geminiService = new GeminiService(
+                "http://localhost:" + server.getAddress().getPort(),
+                "test-key",
+                "gemini-test",
+                "text-embedding-004",
+                1.0,
+                1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testCall_OneRoundTripPerBatch() {
+        // Arrange
+        GeminiEmbeddingModel model = new GeminiEmbeddingModel(geminiService, 50, 4);
+        List<String> texts = texts(230);
+
+        // Act
+        EmbeddingResponse response = model.embedForResponse(texts);
+
+        // Assert
+        assertEquals(5, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+        assertEquals(230, response.getResults().size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertEquals(i, response.getResults().get(i).getIndex());
+            assertEquals(texts.get(i).length(), response.getResults().get(i).getOutput()[0]);
+        }
+    }
+
+    @Test
+    void testCall_BoundedConcurrency() {
+        // Arrange
+        GeminiEmbeddingModel model = new GeminiEmbeddingModel(geminiService, 10, 2);
+
+        // Act
+        model.embedForResponse(texts(100));
+
+        // Assert
+        assertEquals(10, batchCalls.get());
+        assertTrue(maxInFlight.get() <= 2, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void testReingestKnowledgeBase_RoundTripsScaleWithBatches() {
+        // Arrange: same path PgVectorStore.add takes for each ingest batch
+        GeminiEmbeddingModel model = new GeminiEmbeddingModel(geminiService, 100, 4);
+        List<Document> documents = new ArrayList<>();
+        for (String text : texts(500)) {
+            documents.add(new Document(text, Map.of("section", "summary")));
+        }
+
+        // Act: EmbeddingService.batchIngestTemplates hands 50 documents per add()
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i += 50) {
+            vectors.addAll(model.embed(
+                    documents.subList(i, Math.min(i + 50, documents.size())),
+                    EmbeddingOptionsBuilder.builder().build(),
+                    new TokenCountBatchingStrategy()));
+        }
+
+        // Assert: O(N / batch) instead of O(N)
+        assertEquals(500, vectors.size());
+        assertEquals(10, batchCalls.get());
+        assertEquals(0, singleCalls.get());
+    }
+
+    @Test
+    void testEmbed_SingleTextUsesEmbedContent() {
+        // Arrange
+        GeminiEmbeddingModel model = new GeminiEmbeddingModel(geminiService, 50, 4);
+
+        // Act
+        float[] vector = model.embed("hello");
+
+        // Assert
+        assertEquals(5f, vector[0]);
+        assertEquals(1, singleCalls.get());
+        assertEquals(0, batchCalls.get());
+    }
+
+    private JsonObject embeddingFor(JsonObject request) {
+        String text = request.getAsJsonObject("content")
+                .getAsJsonArray("parts").get(0).getAsJsonObject()
+                .get("text").getAsString();
+        JsonArray values = new JsonArray();
+        values.add(text.length());
+        values.add(0.5);
+        JsonObject embedding = new JsonObject();
+        embedding.add("values", values);
+        return embedding;
+    }
+
+    private List<String> texts(int count) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            texts.add("template text " + i);
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.aiservice.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs GeminiService and GeminiChatModel against a local stub of the
+ * generateContent / streamGenerateContent endpoints.
+ */
+class GeminiServiceTest {
+
+    private HttpServer server;
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/models/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+
+            String body;
+            if (path.endsWith(":streamGenerateContent")) {
+                exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+                body = sse(candidate("Hello", null))
+                        + sse(candidate(", ", null))
+                        + sse(candidate("world", "STOP"))
+                        + sse("{\"usageMetadata\":{\"totalTokenCount\":7}}");
+            } else if (path.endsWith(":generateContent")) {
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                body = candidate("Hello, world", "STOP");
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        geminiService = new GeminiService(
+                "http://localhost:" + server.getAddress().getPort(),
+                "test-key",
+                "gemini-test",
+                "text-embedding-004",
+                1.0,
+                1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testGenerateContentAsync_Success() {
+        // Act
+        String text = geminiService.generateContentAsync("hi").block();
+
+        // Assert
+        assertEquals("Hello, world", text);
+    }
+
+    @Test
+    void testStreamGenerateContent_EmitsEachChunk() {
+        // Act
+        List<String> chunks = geminiService.streamGenerateContent("hi").collectList().block();
+
+        // Assert
+        assertEquals(List.of("Hello", ", ", "world"), chunks);
+    }
+
+    @Test
+    void testChatModelStream_OneResponsePerChunk() {
+        // Arrange
+        GeminiChatModel chatModel = new GeminiChatModel(geminiService);
+
+        // Act
+        List<ChatResponse> responses = chatModel.stream(new Prompt("hi")).collectList().block();
+
+        // Assert
+        assertEquals(3, responses.size());
+        assertEquals("Hello, world", responses.stream()
+                .map(r -> r.getResult().getOutput().getText())
+                .collect(Collectors.joining()));
+    }
+
+    private String candidate(String text, String finishReason) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}"
+                + (finishReason != null ? ",\"finishReason\":\"" + finishReason + "\"" : "")
+                + "}]}";
+    }
+
+    private String sse(String data) {
+        return "data: " + data + "\n\n";
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.aiservice.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InMemoryTemplateVectorStoreTest {
+
+    private static final Map<String, float[]> VECTORS = new HashMap<>();
+
+    static {
+        VECTORS.put("java backend", new float[] { 1f, 0f, 0f });
+        VECTORS.put("Built Java microservices", new float[] { 0.9f, 0.1f, 0f });
+        VECTORS.put("Led Spring Boot migration", new float[] { 0.8f, 0.3f, 0f });
+        VECTORS.put("Managed marketing campaigns", new float[] { 0f, 1f, 0f });
+        VECTORS.put("Summary: Java engineer", new float[] { 1f, 0f, 0.1f });
+    }
+
+    @Mock
+    private EmbeddingModel embeddingModel;
+
+    private InMemoryTemplateVectorStore vectorStore;
+
+    @BeforeEach
+    void setUp() {
+        when(embeddingModel.embed(anyString())).thenAnswer(inv -> VECTORS.get(inv.<String>getArgument(0)));
+        when(embeddingModel.embed(anyList())).thenAnswer(inv -> inv.<List<String>>getArgument(0)
+                .stream().map(VECTORS::get).toList());
+        vectorStore = new InMemoryTemplateVectorStore(embeddingModel);
+
+        vectorStore.add(List.of(
+                template("t1", "Built Java microservices", "experience", "tech", 5),
+                template("t2", "Led Spring Boot migration", "experience", "tech", 4),
+                template("t3", "Managed marketing campaigns", "experience", "marketing", 5),
+                template("t4", "Summary: Java engineer", "summary", "tech", 5)));
+    }
+
+    @Test
+    void testSimilaritySearch_RanksByCosineWithinFilter() {
+        // Act
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("java backend")
+                .topK(5)
+                .similarityThreshold(0.3)
+                .filterExpression("section == 'experience' AND rating >= 3")
+                .build());
+
+        // Assert
+        assertEquals(List.of("t1", "t2"), results.stream().map(Document::getId).toList());
+        assertTrue(results.get(0).getScore() > results.get(1).getScore());
+        assertEquals(1 - results.get(0).getScore(), (double) results.get(0).getMetadata().get("distance"), 1e-9);
+    }
+
+    @Test
+    void testSimilaritySearch_FiltersOnCategoryAndRating() {
+        // Act
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("java backend")
+                .topK(5)
+                .similarityThreshold(SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+                .filterExpression("section == 'experience' AND category == 'tech' AND rating >= 5")
+                .build());
+
+        // Assert
+        assertEquals(List.of("t1"), results.stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void testSimilaritySearch_TopKKeepsBest() {
+        // Act
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("java backend")
+                .topK(1)
+                .similarityThreshold(SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+                .build());
+
+        // Assert
+        assertEquals(List.of("t4"), results.stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void testSimilaritySearch_ThresholdDropsDissimilar() {
+        // Act
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("java backend")
+                .topK(5)
+                .similarityThreshold(0.3)
+                .filterExpression("category == 'marketing'")
+                .build());
+
+        // Assert
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void testAddAndDelete_IncrementalUpdates() {
+        // Arrange
+        SearchRequest request = SearchRequest.builder()
+                .query("java backend")
+                .topK(5)
+                .similarityThreshold(SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+                .filterExpression("section == 'experience'")
+                .build();
+
+        // Act
+        vectorStore.delete(List.of("t1"));
+        vectorStore.add(List.of(template("t2", "Managed marketing campaigns", "experience", "tech", 4)));
+        List<Document> results = vectorStore.similaritySearch(request);
+
+        // Assert
+        assertEquals(3, vectorStore.size());
+        assertFalse(results.stream().anyMatch(d -> d.getId().equals("t1")));
+        assertEquals("Managed marketing campaigns",
+                results.stream().filter(d -> d.getId().equals("t2")).findFirst().orElseThrow().getText());
+    }
+
+    @Test
+    void testSimilaritySearch_MissingMetadataNeverMatchesComparison() {
+        // Arrange
+        vectorStore.add(List.of(new Document("t5", "Built Java microservices", Map.of("section", "experience"))));
+
+        // Act
+        List<Document> results = vectorStore.similaritySearch(SearchRequest.builder()
+                .query("java backend")
+                .topK(10)
+                .similarityThreshold(SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+                .filterExpression("rating < 5")
+                .build());
+
+        // Assert
+        assertEquals(List.of("t2"), results.stream().map(Document::getId).toList());
+    }
+
+    @Test
+    void testSimilaritySearch_EmptyStoreSkipsEmbedding() {
+        // Arrange
+        InMemoryTemplateVectorStore empty = new InMemoryTemplateVectorStore(embeddingModel);
+
+        // Act
+        List<Document> results = empty.similaritySearch(SearchRequest.builder().query("java backend").build());
+
+        // Assert
+        assertTrue(results.isEmpty());
+        verify(embeddingModel, never()).embed(anyString());
+    }
+
+    private static Document template(String id, String content, String section, String category, int rating) {
+        return new Document(id, content, Map.of(
+                "section", section,
+                "category", category,
+                "level", "senior",
+                "rating", rating));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.aiservice.services;
+
+import com.example.aiservice.dtos.responses.AIResponseDto;
+import com.example.rediscommon.services.RedisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class JdMatchCacheServiceTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdMatchCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new JdMatchCacheService(
+                redisService,
+                new ObjectMapper(),
+                new ConcurrentMapCacheManager("jdMatchCache"),
+                meterRegistry,
+                60);
+    }
+
+    @Test
+    void testGetOrCompute_ConcurrentIdenticalRequestsCallLoaderOnce() throws Exception {
+        // Arrange
+        int callers = 16;
+        String key = cacheService.key("Jane | jane@example.com\nSkills: Java", "Backend engineer", "en");
+        AtomicInteger geminiCalls = new AtomicInteger();
+        CountDownLatch allWaiting = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+
+        // Act
+        List<Future<AIResponseDto>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(pool.submit(() -> {
+                allWaiting.countDown();
+                return cacheService.getOrCompute(key, () -> {
+                    geminiCalls.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return AIResponseDto.builder().matchScore(87.5).build();
+                });
+            }));
+        }
+        allWaiting.await(5, TimeUnit.SECONDS);
+        Thread.sleep(100); // let every caller reach the in-flight map
+        release.countDown();
+
+        // Assert
+        for (Future<AIResponseDto> future : futures) {
+            assertEquals(87.5, future.get(5, TimeUnit.SECONDS).getMatchScore());
+        }
+        pool.shutdown();
+        assertEquals(1, geminiCalls.get());
+        verify(redisService, times(1)).set(eq(key), anyString(), eq(60L), eq(TimeUnit.MINUTES));
+    }
+
+    @Test
+    void testGetOrCompute_LocalHitAfterFirstCall() {
+        // Arrange
+        String key = cacheService.key("cv", "jd", "vi");
+        AtomicInteger geminiCalls = new AtomicInteger();
+
+        // Act
+        cacheService.getOrCompute(key, () -> {
+            geminiCalls.incrementAndGet();
+            return AIResponseDto.builder().matchScore(50.0).build();
+        });
+        AIResponseDto second = cacheService.getOrCompute(key, () -> {
+            geminiCalls.incrementAndGet();
+            return AIResponseDto.builder().matchScore(0.0).build();
+        });
+
+        // Assert
+        assertEquals(1, geminiCalls.get());
+        assertEquals(50.0, second.getMatchScore());
+        assertEquals(1.0, meterRegistry.get("ai.jdmatch.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testGetOrCompute_RedisHitFromOtherReplica() {
+        // Arrange
+        String key = cacheService.key("cv", "jd", "en");
+        when(redisService.get(key)).thenReturn("{\"matchScore\":72.0,\"missingKeywords\":[\"Kafka\"]}");
+
+        // Act
+        AIResponseDto result = cacheService.getOrCompute(key, () -> {
+            throw new AssertionError("Gemini must not be called");
+        });
+
+        // Assert
+        assertEquals(72.0, result.getMatchScore());
+        assertEquals(List.of("Kafka"), result.getMissingKeywords());
+    }
+
+    @Test
+    void testGetOrCompute_FailureIsNotCached() {
+        // Arrange
+        String key = cacheService.key("cv", "jd", "en");
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> cacheService.getOrCompute(key, () -> {
+            throw new IllegalStateException("Gemini down");
+        }));
+        AIResponseDto retry = cacheService.getOrCompute(key, () -> AIResponseDto.builder().matchScore(10.0).build());
+        assertEquals(10.0, retry.getMatchScore());
+    }
+
+    @Test
+    void testKey_Canonical() {
+        // Act & Assert
+        assertEquals(
+                cacheService.key("Jane  Doe\n\nJava", " Senior   Java dev ", "EN"),
+                cacheService.key("Jane Doe Java", "Senior Java dev", "en"));
+        assertNotEquals(cacheService.key("cv", "jd", "en"), cacheService.key("cv", "jd", "vi"));
+        assertNotEquals(cacheService.key("cv", "jd A", "en"), cacheService.key("cv", "jd B", "en"));
+    }
+}
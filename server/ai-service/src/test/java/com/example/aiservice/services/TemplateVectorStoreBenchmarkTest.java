@@ -0,0 +1,168 @@
+package com.example.aiservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recall and latency of the in-memory template index against pgvector (HNSW),
+ * on synthetic 768-d vectors with the production filter shape.
+ *
+ * Needs a Postgres with the vector extension; runs only when
+ * PGVECTOR_BENCH_URL (plus PGVECTOR_BENCH_USER / PGVECTOR_BENCH_PASSWORD) is set:
+ *
+ *   PGVECTOR_BENCH_URL=jdbc:postgresql://localhost:5432/bench mvn test -Dtest=TemplateVectorStoreBenchmarkTest
+ */
+@EnabledIfEnvironmentVariable(named = "PGVECTOR_BENCH_URL", matches = ".+")
+class TemplateVectorStoreBenchmarkTest {
+
+    private static final int DIMENSIONS = 768;
+    private static final int TEMPLATES = 2000;
+    private static final int QUERIES = 200;
+    private static final int TOP_K = 5;
+    private static final String[] SECTIONS = { "summary", "experience", "education", "skills" };
+
+    @Test
+    void testCompareRecallAndLatency() {
+        // Arrange
+        Random random = new Random(42);
+        Map<String, float[]> vectors = new HashMap<>();
+        List<Document> documents = new ArrayList<>();
+        for (int i = 0; i < TEMPLATES; i++) {
+            String text = "template-" + i;
+            vectors.put(text, randomVector(random));
+            documents.add(new Document(UUID.nameUUIDFromBytes(text.getBytes()).toString(), text, Map.of(
+                    "section", SECTIONS[i % SECTIONS.length],
+                    "category", i % 3 == 0 ? "marketing" : "tech",
+                    "rating", 3 + i % 3)));
+        }
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            String text = "query-" + i;
+            vectors.put(text, randomVector(random));
+            queries.add(text);
+        }
+        EmbeddingModel embeddingModel = new LookupEmbeddingModel(vectors);
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("PGVECTOR_BENCH_URL"),
+                System.getenv().getOrDefault("PGVECTOR_BENCH_USER", "postgres"),
+                System.getenv().getOrDefault("PGVECTOR_BENCH_PASSWORD", "postgres"));
+        PgVectorStore pgVectorStore = PgVectorStore.builder(new JdbcTemplate(dataSource), embeddingModel)
+                .vectorTableName("template_bench_store")
+                .dimensions(DIMENSIONS)
+                .distanceType(PgVectorStore.PgDistanceType.COSINE_DISTANCE)
+                .indexType(PgVectorStore.PgIndexType.HNSW)
+                .initializeSchema(true)
+                .removeExistingVectorStoreTable(true)
+                .build();
+        pgVectorStore.afterPropertiesSet();
+        InMemoryTemplateVectorStore memoryStore = new InMemoryTemplateVectorStore(embeddingModel);
+
+        pgVectorStore.add(documents);
+        memoryStore.add(documents);
+
+        // Act
+        warmUp(pgVectorStore, queries);
+        warmUp(memoryStore, queries);
+        long pgNanos = 0;
+        long memoryNanos = 0;
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            SearchRequest request = request(queries.get(i), SECTIONS[i % SECTIONS.length]);
+
+            long start = System.nanoTime();
+            List<Document> pgResults = pgVectorStore.similaritySearch(request);
+            pgNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<Document> exact = memoryStore.similaritySearch(request);
+            memoryNanos += System.nanoTime() - start;
+
+            Set<String> exactIds = new HashSet<>(exact.stream().map(Document::getId).toList());
+            hits += (int) pgResults.stream().filter(d -> exactIds.contains(d.getId())).count();
+        }
+
+        // Assert
+        double pgRecall = hits / (double) (QUERIES * TOP_K);
+        System.out.printf("templates=%d queries=%d topK=%d%n", TEMPLATES, QUERIES, TOP_K);
+        System.out.printf("pgvector  avg %.3f ms, recall@%d vs exact %.3f%n", pgNanos / 1e6 / QUERIES, TOP_K, pgRecall);
+        System.out.printf("in-memory avg %.3f ms, recall 1.000 (exact scan)%n", memoryNanos / 1e6 / QUERIES);
+        assertTrue(pgRecall > 0.5, "pgvector HNSW recall unexpectedly low; check the index was built");
+
+        pgVectorStore.delete(documents.stream().map(Document::getId).toList());
+    }
+
+    private static void warmUp(VectorStore store, List<String> queries) {
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < queries.size(); i++) {
+                store.similaritySearch(request(queries.get(i), SECTIONS[i % SECTIONS.length]));
+            }
+        }
+    }
+
+    private static SearchRequest request(String query, String section) {
+        return SearchRequest.builder()
+                .query(query)
+                .topK(TOP_K)
+                .similarityThreshold(SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL)
+                .filterExpression("section == '" + section + "' AND rating >= 3")
+                .build();
+    }
+
+    private static float[] randomVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        for (int d = 0; d < DIMENSIONS; d++) {
+            vector[d] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    // Deterministic "embeddings" so both stores index identical vectors
+    private static class LookupEmbeddingModel implements EmbeddingModel {
+        private final Map<String, float[]> vectors;
+
+        private LookupEmbeddingModel(Map<String, float[]> vectors) {
+            this.vectors = vectors;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            List<Embedding> embeddings = new ArrayList<>();
+            for (int i = 0; i < request.getInstructions().size(); i++) {
+                embeddings.add(new Embedding(vectors.get(request.getInstructions().get(i)), i));
+            }
+            return new EmbeddingResponse(embeddings);
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            return vectors.get(document.getText());
+        }
+
+        @Override
+        public int dimensions() {
+            return DIMENSIONS;
+        }
+    }
+}
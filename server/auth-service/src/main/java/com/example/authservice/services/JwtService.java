@@ -76,6 +76,10 @@ public class JwtService {
     }
 
     public String generateAccessToken(String userId, String email, String role, String username) {
+        return generateAccessToken(userId, email, role, username, null);
+    }
+
+    public String generateAccessToken(String userId, String email, String role, String username, String planType) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("email", email);
@@ -83,6 +87,10 @@ public class JwtService {
             claims.put("username", username);
         }
         claims.put("role", role);
+        // Current plan, used by the gateway to apply per-plan limits on AI calls
+        if (planType != null) {
+            claims.put("planType", planType);
+        }
         claims.put("tokenType", "ACCESS");
 
         String subject = email != null ? email : username;
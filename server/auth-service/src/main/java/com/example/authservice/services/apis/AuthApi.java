@@ -92,7 +92,7 @@ public class AuthApi extends BaseApi {
             String username = user.getUsername();
             String role = user.getRole();
 
-            String accessToken = jwtService.generateAccessToken(userId, email, role, username);
+            String accessToken = jwtService.generateAccessToken(userId, email, role, username, user.getPlanType());
             String refreshToken = jwtService.generateRefreshToken(userId, email, username);
 
             Cookie accessTokenCookie = handleCreateCookie("access_token", accessToken, ACCESS_TOKEN_EXPIRATION_SECONDS);
@@ -505,7 +505,7 @@ public class AuthApi extends BaseApi {
 
             // Generate new access token
             String newAccessToken = jwtService.generateAccessToken(userId, email, user.getRole(),
-                    user.getUsername());
+                    user.getUsername(), user.getPlanType());
 
             // Set new access token in cookie and header
             Cookie accessTokenCookie = handleCreateCookie("access_token", newAccessToken, ACCESS_TOKEN_EXPIRATION_SECONDS); 
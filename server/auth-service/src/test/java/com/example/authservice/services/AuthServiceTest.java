@@ -85,7 +85,7 @@ class AuthServiceTest {
 
         AuthenticateUserRequest authRequest = new AuthenticateUserRequest("testuser", "password123");
         when(userFeignClient.authenticateUser("testuser", "password123")).thenReturn(mockUserResponse);
-        when(jwtUtil.generateAccessToken(anyString(), anyString(), anyString(), anyString()))
+        when(jwtUtil.generateAccessToken(anyString(), anyString(), anyString(), anyString(), any()))
                 .thenReturn("access_token");
         when(jwtUtil.generateRefreshToken(anyString(), anyString(), anyString()))
                 .thenReturn("refresh_token");
@@ -396,7 +396,7 @@ class AuthServiceTest {
         when(jwtUtil.extractEmail(anyString())).thenReturn("test@example.com");
         when(jwtUtil.extractUserId(anyString())).thenReturn("1");
         when(userFeignClient.findUserByEmail(anyString())).thenReturn(mockUserResponse);
-        when(jwtUtil.generateAccessToken(anyString(), anyString(), anyString(), anyString()))
+        when(jwtUtil.generateAccessToken(anyString(), anyString(), anyString(), anyString(), any()))
                 .thenReturn("new_access_token");
 
         // Act
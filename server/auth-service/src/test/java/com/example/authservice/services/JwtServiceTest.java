@@ -107,6 +107,19 @@ class JwtServiceTest {
         assertEquals(userId, extractedUserId);
     }
 
+    @Test
+    void testGenerateAccessToken_WithPlanType() {
+        // Arrange
+        String token = jwtService.generateAccessToken("123", "test@example.com", "USER", "testuser", "pro");
+
+        // Act
+        Claims claims = Jwts.parser().verifyWith(publicKey).build().parseSignedClaims(token).getPayload();
+
+        // Assert
+        assertEquals("pro", claims.get("planType", String.class));
+        assertEquals("ACCESS", claims.get("tokenType", String.class));
+    }
+
     @Test
     void testExtractEmail() {
         // Arrange
@@ -10,7 +10,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
 import com.example.securitycommon.configs.SecurityConfig;
 
 @SpringBootApplication
-@ComponentScan(basePackages = {"com.example.cvservice", "com.example.cloudinarycommon"})
+@ComponentScan(basePackages = {"com.example.cvservice", "com.example.cloudinarycommon", "com.example.rediscommon"})
 @Import({ SecurityConfig.class })
 @EnableFeignClients
 @EnableAsync
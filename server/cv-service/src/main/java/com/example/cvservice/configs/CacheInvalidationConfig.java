@@ -0,0 +1,34 @@
+package com.example.cvservice.configs;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.example.cvservice.services.CVDocumentCacheService;
+
+/**
+ * Lắng nghe kênh invalidate để xoá near-cache CV trên mọi replica
+ */
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cvCacheInvalidationListener(
+            RedisConnectionFactory connectionFactory,
+            RedisTemplate<String, Object> redisTemplate,
+            CVDocumentCacheService cvDocumentCacheService) {
+        // Message được publish qua RedisTemplate nên dùng cùng value serializer để đọc
+        RedisSerializer<?> serializer = redisTemplate.getValueSerializer();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cvDocumentCacheService.onInvalidation(String.valueOf(serializer.deserialize(message.getBody()))),
+                new ChannelTopic(CVDocumentCacheService.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
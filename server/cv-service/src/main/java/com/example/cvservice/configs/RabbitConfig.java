@@ -0,0 +1,9 @@
+package com.example.cvservice.configs;
+
+import org.springframework.context.annotation.Configuration;
+
+import com.example.rabbitcommon.configs.BaseRabbitConfig;
+
+@Configuration
+public class RabbitConfig extends BaseRabbitConfig {
+}
@@ -3,10 +3,13 @@ package com.example.cvservice.controllers;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.cvservice.dtos.responses.Response;
 import com.example.cvservice.services.apis.CVApi;
@@ -27,12 +30,34 @@ public class CVController {
     }
 
     @GetMapping
-    public ResponseEntity<Response> getAllCVs() {
-        Response response = cvService.getAllCVs();
+    public ResponseEntity<Response> getAllCVs(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        Response response = cvService.getAllCVs(cursor, limit);
 
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping("/public")
+    public ResponseEntity<Response> getPublicCVs(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        Response response = cvService.getPublicCVs(cursor, limit);
+
+        // Chỉ CV public: gateway được cache chung cho mọi người, trình duyệt revalidate bằng ETag
+        return ResponseEntity.status(response.getStatusCode())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .body(response);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<StreamingResponseBody> exportCVs() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cvService::exportCVs);
+    }
+
     @GetMapping("/{cvId}")
     @PreAuthorize("hasAnyAuthority('admin','user')")
     public ResponseEntity<Response> getCVById(@PathVariable("cvId") UUID cvId) {
@@ -68,6 +93,14 @@ public class CVController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @GetMapping("/{cvId}/autosave")
+    @PreAuthorize("hasAnyAuthority('admin','user')")
+    public ResponseEntity<Response> getAutosaveStatus(@PathVariable("cvId") UUID cvId) {
+        Response response = cvService.getAutosaveStatus(cvId);
+
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @DeleteMapping("/{cvId}")
     @PreAuthorize("hasAnyAuthority('admin','user')")
     public ResponseEntity<Response> deleteCV(@PathVariable("cvId") UUID cvId) {
@@ -0,0 +1,15 @@
+package com.example.cvservice.dtos;
+
+import lombok.*;
+
+/**
+ * Redis value of the CV document cache: the CV (null for a tombstone) and the
+ * version stamp (updatedAt in epoch millis) it was cached or invalidated at.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CVCacheEntry {
+    private long version;
+    private CVDto cv;
+}
@@ -0,0 +1,13 @@
+package com.example.cvservice.dtos.responses;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPagination {
+    private String nextCursor;
+    private boolean hasNext;
+    private int limit;
+}
@@ -10,7 +10,11 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "cvs")
+@Table(name = "cvs", indexes = {
+        // Keyset pagination (createdAt DESC, id DESC)
+        @Index(name = "idx_cvs_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_cvs_visibility_created_at_id", columnList = "isVisibility, createdAt, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
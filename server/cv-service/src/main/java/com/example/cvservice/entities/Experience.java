@@ -1,11 +1,18 @@
 package com.example.cvservice.entities;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import java.util.UUID;
 
+import org.springframework.data.domain.Persistable;
+
 import com.example.cvservice.dtos.ExperienceDto;
 
 @Entity
@@ -13,10 +20,18 @@ import com.example.cvservice.dtos.ExperienceDto;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Experience {
+public class Experience implements Persistable<UUID> {
+    // Id do ứng dụng gán (giữ id client gửi lên cho dòng mới) để autosave sau nhận ra đúng dòng
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
+    private UUID id = UUID.randomUUID();
+
+    // Id luôn có sẵn nên Spring Data không tự phân biệt được dòng mới: đánh dấu khi load/persist
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newRow = true;
 
     private UUID cvId;
 
@@ -37,10 +52,24 @@ public class Experience {
     }
     
     public Experience(ExperienceDto experienceDto) {
+        if (experienceDto.getId() != null) {
+            this.id = experienceDto.getId();
+        }
         this.company = experienceDto.getCompany();
         this.position = experienceDto.getPosition();
         this.startDate = experienceDto.getStartDate();
         this.endDate = experienceDto.getEndDate();
         this.description = experienceDto.getDescription();
     }
+
+    @Override
+    public boolean isNew() {
+        return newRow;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRow = false;
+    }
 }
@@ -92,6 +92,22 @@ public interface CVCommandRepository extends JpaRepository<CV, UUID> {
                      @Param("font") String font,
                      @Param("updatedAt") Instant updatedAt);
 
+    /**
+     * Cập nhật các cột scalar trong một câu UPDATE; tham số null giữ nguyên giá trị cũ
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CV c SET c.title = COALESCE(:title, c.title), c.color = COALESCE(:color, c.color), " +
+           "c.template = COALESCE(:template, c.template), c.font = COALESCE(:font, c.font), " +
+           "c.isVisibility = COALESCE(:isVisibility, c.isVisibility), c.updatedAt = :updatedAt WHERE c.id = :cvId")
+    int updateCVScalars(@Param("cvId") UUID cvId,
+                        @Param("title") String title,
+                        @Param("color") String color,
+                        @Param("template") String template,
+                        @Param("font") String font,
+                        @Param("isVisibility") Boolean isVisibility,
+                        @Param("updatedAt") Instant updatedAt);
+
     /**
      * Insert CV mới
      */
@@ -11,6 +11,7 @@ import com.example.cvservice.dtos.CVDto;
 import com.example.cvservice.entities.CV;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -29,6 +30,14 @@ public interface CVQueryRepository extends JpaRepository<CV, UUID> {
     @Query("SELECT c FROM CV c WHERE c.id = :id")
     Optional<CV> findCVById(@Param("id") UUID id);
 
+    /**
+     * Lấy skills của nhiều CV trong một query: mỗi dòng là [cvId, skill].
+     * Chỉ sắp theo cvId: skills của mỗi CV giữ đúng thứ tự join trả về (thứ tự lưu, như khi
+     * load bag lazy), không sắp theo giá trị để lần save sau không ghi đè thứ tự của user
+     */
+    @Query("SELECT c.id, s FROM CV c JOIN c.skills s WHERE c.id IN :cvIds ORDER BY c.id")
+    List<Object[]> findSkillsByCvIdIn(@Param("cvIds") Collection<UUID> cvIds);
+
     /**
      * Tìm CV theo title (trả về entity cho simple operations)
      */
@@ -86,6 +95,38 @@ public interface CVQueryRepository extends JpaRepository<CV, UUID> {
     @Query("SELECT c FROM CV c ORDER BY c.createdAt DESC")
     Page<CV> findRecentCVs(Pageable pageable);
 
+    /**
+     * Keyset pagination: trang đầu tiên, sắp xếp ổn định theo (createdAt, id)
+     */
+    @Query("SELECT c FROM CV c ORDER BY c.createdAt DESC, c.id DESC")
+    List<CV> findFirstPage(Pageable pageable);
+
+    /**
+     * Keyset pagination: các CV đứng sau cursor (createdAt, id)
+     */
+    @Query("SELECT c FROM CV c WHERE c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CV> findPageAfter(@Param("createdAt") Instant createdAt,
+                           @Param("id") UUID id,
+                           Pageable pageable);
+
+    /**
+     * Keyset pagination theo visibility: trang đầu tiên
+     */
+    @Query("SELECT c FROM CV c WHERE c.isVisibility = :isVisibility ORDER BY c.createdAt DESC, c.id DESC")
+    List<CV> findFirstPageByVisibility(@Param("isVisibility") boolean isVisibility, Pageable pageable);
+
+    /**
+     * Keyset pagination theo visibility: các CV đứng sau cursor (createdAt, id)
+     */
+    @Query("SELECT c FROM CV c WHERE c.isVisibility = :isVisibility "
+            + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CV> findPageByVisibilityAfter(@Param("isVisibility") boolean isVisibility,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable pageable);
+
     /**
      * Kiểm tra user có CV nào không
      */
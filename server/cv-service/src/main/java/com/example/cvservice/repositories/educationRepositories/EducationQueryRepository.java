@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.cvservice.entities.Education;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +23,12 @@ public interface EducationQueryRepository extends JpaRepository<Education, UUID>
     @Query("SELECT e FROM Education e WHERE e.cvId = :cvId ORDER BY e.startDate DESC")
     List<Education> findByCvId(@Param("cvId") UUID cvId);
 
+    /**
+     * Lấy educations của nhiều CV trong một query (batch assembly cho danh sách CV)
+     */
+    @Query("SELECT e FROM Education e WHERE e.cvId IN :cvIds ORDER BY e.startDate DESC")
+    List<Education> findByCvIdIn(@Param("cvIds") Collection<UUID> cvIds);
+
     /**
      * Đếm số educations của một CV
      */
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Repository;
 
 import com.example.cvservice.entities.Experience;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,6 +23,12 @@ public interface ExperienceQueryRepository extends JpaRepository<Experience, UUI
     @Query("SELECT e FROM Experience e WHERE e.cvId = :cvId ORDER BY e.startDate DESC")
     List<Experience> findByCvId(@Param("cvId") UUID cvId);
 
+    /**
+     * Lấy experiences của nhiều CV trong một query (batch assembly cho danh sách CV)
+     */
+    @Query("SELECT e FROM Experience e WHERE e.cvId IN :cvIds ORDER BY e.startDate DESC")
+    List<Experience> findByCvIdIn(@Param("cvIds") Collection<UUID> cvIds);
+
     /**
      * Đếm số experiences của một CV
      */
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Repository;
 
 import com.example.cvservice.entities.PersonalInfo;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,6 +24,12 @@ public interface PersonalInfoQueryRepository extends JpaRepository<PersonalInfo,
     @Query("SELECT p FROM PersonalInfo p WHERE p.cvId = :cvId")
     Optional<PersonalInfo> findByCvId(@Param("cvId") UUID cvId);
 
+    /**
+     * Lấy personal info của nhiều CV trong một query (batch assembly cho danh sách CV)
+     */
+    @Query("SELECT p FROM PersonalInfo p WHERE p.cvId IN :cvIds")
+    List<PersonalInfo> findByCvIdIn(@Param("cvIds") Collection<UUID> cvIds);
+
     /**
      * Tìm personal info theo email
      */
@@ -0,0 +1,280 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.PersonalInfoDto;
+import com.example.cvservice.dtos.requests.UpdateCVRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind queue cho autosave CV.
+ *
+ * - Các patch cho cùng một CV đến trong khoảng window được gộp lại (field mới hơn thắng)
+ * - Mỗi CV chỉ có tối đa một lần ghi đang chạy; các lần ghi được áp dụng theo thứ tự nhận
+ * - Patch có avatar được ghi ngay trong request thread vì MultipartFile không sống quá request
+ *
+ * Autosave là best-effort: request trả về trước khi patch được ghi. Kết quả ghi
+ * (version đã áp dụng, version lỗi gần nhất) được giữ trong status() trên replica
+ * đã nhận patch, để client hỏi lại hoặc nhận ở response của lần autosave sau.
+ */
+@Service
+@Slf4j
+public class CVAutosaveQueue {
+
+    /**
+     * Ghi một patch (đã gộp) xuống DB
+     */
+    @FunctionalInterface
+    public interface PatchWriter {
+        void write(UUID cvId, UpdateCVRequest patch, MultipartFile avatar);
+    }
+
+    private final ScheduledExecutorService executor;
+    private final long windowMillis;
+    private final ConcurrentHashMap<UUID, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Cache<UUID, AutosaveStatus> statuses = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    private final Counter submitted;
+    private final Counter merged;
+    private final Counter applied;
+    private final Counter failed;
+
+    public CVAutosaveQueue(
+            MeterRegistry meterRegistry,
+            @Value("${cv.autosave.window-ms:500}") long windowMillis,
+            @Value("${cv.autosave.threads:4}") int threads) {
+        this.windowMillis = windowMillis;
+        this.executor = Executors.newScheduledThreadPool(threads, Thread.ofPlatform()
+                .name("cv-autosave-", 1)
+                .daemon(true)
+                .factory());
+
+        this.submitted = patchCounter(meterRegistry, "submitted");
+        this.merged = patchCounter(meterRegistry, "merged");
+        this.applied = writeCounter(meterRegistry, "applied");
+        this.failed = writeCounter(meterRegistry, "failed");
+        Gauge.builder("cv.autosave.pending", slots, ConcurrentHashMap::size)
+                .description("CVs with autosave patches waiting or being written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Nhận một patch và trả về version của nó; version tăng dần theo thứ tự nhận
+     */
+    public long submit(UUID cvId, UpdateCVRequest patch, MultipartFile avatar, PatchWriter writer) {
+        boolean immediate = avatar != null && !avatar.isEmpty();
+        long[] version = new long[1];
+
+        slots.compute(cvId, (id, slot) -> {
+            Slot s = slot != null ? slot : new Slot();
+            // Cấp version bên trong compute để thứ tự version trùng thứ tự gộp
+            version[0] = versions.incrementAndGet();
+            if (s.pending != null) {
+                merged.increment();
+            }
+            s.pending = merge(s.pending, patch);
+            s.pendingVersion = version[0];
+            s.writer = writer;
+
+            if (immediate) {
+                s.flushes++;
+            } else if (!s.scheduled) {
+                s.scheduled = true;
+                s.flushes++;
+                executor.schedule(() -> flush(cvId, null), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            return s;
+        });
+        submitted.increment();
+
+        if (immediate) {
+            flush(cvId, avatar);
+        }
+        return version[0];
+    }
+
+    /**
+     * Trạng thái autosave của một CV trên replica này; version 0 nghĩa là chưa có
+     */
+    public AutosaveStatus status(UUID cvId) {
+        long[] pendingVersion = new long[1];
+        slots.computeIfPresent(cvId, (id, s) -> {
+            pendingVersion[0] = s.pending != null ? s.pendingVersion : 0;
+            return s;
+        });
+        AutosaveStatus recorded = statuses.getIfPresent(cvId);
+        if (recorded == null) {
+            return new AutosaveStatus(pendingVersion[0], 0, 0, null);
+        }
+        return new AutosaveStatus(pendingVersion[0], recorded.appliedVersion(), recorded.failedVersion(),
+                recorded.error());
+    }
+
+    /**
+     * Ghi ngay mọi patch đang chờ, dùng khi shutdown
+     */
+    public void flushAll() {
+        for (UUID cvId : slots.keySet()) {
+            Slot slot = slots.computeIfPresent(cvId, (id, s) -> {
+                s.flushes++;
+                return s;
+            });
+            if (slot != null) {
+                flush(cvId, null);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushAll();
+        executor.shutdown();
+    }
+
+    /**
+     * Các field của Slot chỉ được đọc/ghi bên trong slots.compute*, trừ lock.
+     * Mỗi lần gọi flush tương ứng đúng một lần tăng flushes; slot chỉ bị xoá khi
+     * không còn flush nào giữ tham chiếu, nên không thể có hai lock cho cùng một CV
+     */
+    private void flush(UUID cvId, MultipartFile avatar) {
+        Slot slot = slots.get(cvId);
+        slot.lock.lock();
+        try {
+            Batch batch = new Batch();
+            slots.computeIfPresent(cvId, (id, s) -> {
+                batch.patch = s.pending;
+                batch.version = s.pendingVersion;
+                batch.writer = s.writer;
+                s.pending = null;
+                s.scheduled = false;
+                return s;
+            });
+            if (batch.patch == null) {
+                return;
+            }
+
+            try {
+                batch.writer.write(cvId, batch.patch, avatar);
+                applied.increment();
+                statuses.asMap().merge(cvId, new AutosaveStatus(0, batch.version, 0, null),
+                        (old, now) -> new AutosaveStatus(0, batch.version, old.failedVersion(), old.error()));
+            } catch (RuntimeException e) {
+                failed.increment();
+                statuses.asMap().merge(cvId, new AutosaveStatus(0, 0, batch.version, e.getMessage()),
+                        (old, now) -> new AutosaveStatus(0, old.appliedVersion(), batch.version, e.getMessage()));
+                log.error("Autosave write failed for CV id={} version={}: {}", cvId, batch.version, e.getMessage(), e);
+                if (avatar != null) {
+                    throw e;
+                }
+            }
+        } finally {
+            slot.lock.unlock();
+            slots.computeIfPresent(cvId, (id, s) -> {
+                s.flushes--;
+                return s.flushes == 0 && s.pending == null ? null : s;
+            });
+        }
+    }
+
+    /**
+     * Gộp patch mới vào patch đang chờ: field khác null của patch mới ghi đè
+     */
+    static UpdateCVRequest merge(UpdateCVRequest base, UpdateCVRequest patch) {
+        UpdateCVRequest result = new UpdateCVRequest();
+        if (base != null) {
+            copyInto(result, base);
+        }
+        copyInto(result, patch);
+        return result;
+    }
+
+    private static void copyInto(UpdateCVRequest target, UpdateCVRequest source) {
+        target.setTitle(pick(source.getTitle(), target.getTitle()));
+        target.setExperiences(pick(source.getExperiences(), target.getExperiences()));
+        target.setEducations(pick(source.getEducations(), target.getEducations()));
+        target.setSkills(pick(source.getSkills(), target.getSkills()));
+        target.setIsVisibility(pick(source.getIsVisibility(), target.getIsVisibility()));
+        target.setColor(pick(source.getColor(), target.getColor()));
+        target.setTemplate(pick(source.getTemplate(), target.getTemplate()));
+        target.setFont(pick(source.getFont(), target.getFont()));
+
+        PersonalInfoDto incoming = source.getPersonalInfo();
+        if (incoming != null) {
+            PersonalInfoDto current = target.getPersonalInfo() != null ? target.getPersonalInfo() : new PersonalInfoDto();
+            target.setPersonalInfo(new PersonalInfoDto(
+                    pick(incoming.getId(), current.getId()),
+                    pick(incoming.getFullname(), current.getFullname()),
+                    pick(incoming.getEmail(), current.getEmail()),
+                    pick(incoming.getPhone(), current.getPhone()),
+                    pick(incoming.getLocation(), current.getLocation()),
+                    pick(incoming.getBirth(), current.getBirth()),
+                    pick(incoming.getSummary(), current.getSummary()),
+                    pick(incoming.getAvatarUrl(), current.getAvatarUrl()),
+                    pick(incoming.getAvatarPublicId(), current.getAvatarPublicId())));
+        }
+    }
+
+    private static <T> T pick(T newer, T older) {
+        return newer != null ? newer : older;
+    }
+
+    private static Counter patchCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cv.autosave.patches")
+                .description("Autosave patches received, and how many were folded into a pending patch")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter writeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("cv.autosave.writes")
+                .description("Merged autosave patches written to the database")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * pendingVersion: patch chờ ghi (0 nếu không có); failedVersion > appliedVersion
+     * nghĩa là lần ghi gần nhất thất bại và các field trong patch đó chưa được lưu
+     */
+    public record AutosaveStatus(long pendingVersion, long appliedVersion, long failedVersion, String error) {
+
+        public boolean hasUnresolvedFailure() {
+            return failedVersion > appliedVersion;
+        }
+    }
+
+    private static class Slot {
+        private final ReentrantLock lock = new ReentrantLock();
+        private UpdateCVRequest pending;
+        private long pendingVersion;
+        private PatchWriter writer;
+        private boolean scheduled;
+        private int flushes;
+    }
+
+    private static class Batch {
+        private UpdateCVRequest patch;
+        private long version;
+        private PatchWriter writer;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.CVCacheEntry;
+import com.example.cvservice.dtos.CVDto;
+import com.example.rediscommon.services.RedisService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache cho CVDto đã assemble đầy đủ children.
+ *
+ * - Tầng local: Caffeine near-cache trên mỗi replica
+ * - Tầng shared: Redis (qua RedisService), giá trị là CVCacheEntry kèm version stamp
+ * - Version stamp = updatedAt (epoch millis). Khi CV bị sửa/xoá, một tombstone
+ *   mang version mới được ghi vào Redis và publish lên kênh pub/sub để các
+ *   replica khác xoá near-cache; một lần đọc DB cũ hơn tombstone sẽ không
+ *   được ghi lại vào cache.
+ */
+@Service
+@Slf4j
+public class CVDocumentCacheService {
+
+    public static final String INVALIDATION_CHANNEL = "cv:cache:invalidate";
+    private static final String KEY_PREFIX = "cv:doc:";
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final RedisService redisService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<UUID, CVDto> localCache;
+    // Version stamps nhận qua pub/sub, chặn việc ghi lại bản đọc cũ vào near-cache
+    private final Cache<UUID, Long> localTombstones;
+    private final long redisTtlMinutes;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    public CVDocumentCacheService(
+            RedisService redisService,
+            MeterRegistry meterRegistry,
+            @Value("${cv.cache.local-max-size:10000}") long localMaxSize,
+            @Value("${cv.cache.local-ttl-minutes:10}") long localTtlMinutes,
+            @Value("${cv.cache.redis-ttl-minutes:60}") long redisTtlMinutes) {
+        this.redisService = redisService;
+        this.redisTtlMinutes = redisTtlMinutes;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+        this.localTombstones = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(localTtlMinutes))
+                .build();
+
+        this.localHits = requestCounter(meterRegistry, "local_hit");
+        this.redisHits = requestCounter(meterRegistry, "redis_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.invalidations = Counter.builder("cv.cache.invalidations")
+                .description("CV document cache invalidations issued by this replica")
+                .register(meterRegistry);
+        Gauge.builder("cv.cache.hit.ratio", this, CVDocumentCacheService::hitRatio)
+                .description("Share of CV document reads served from the local or Redis tier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Trả về CV từ cache, hoặc gọi loader (đọc DB) rồi cache kết quả
+     */
+    public Optional<CVDto> get(UUID cvId, Supplier<Optional<CVDto>> loader) {
+        CVDto local = localCache.getIfPresent(cvId);
+        if (local != null) {
+            localHits.increment();
+            return Optional.of(local);
+        }
+
+        CVCacheEntry entry = readRedis(cvId);
+        if (entry != null && entry.getCv() != null) {
+            redisHits.increment();
+            localCache.put(cvId, entry.getCv());
+            return Optional.of(entry.getCv());
+        }
+
+        misses.increment();
+        Optional<CVDto> loaded = loader.get();
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /**
+     * Ghi CV vào cả hai tầng, trừ khi đã có tombstone mới hơn bản này
+     */
+    public void put(CVDto cv) {
+        long version = versionOf(cv);
+        Long localTombstone = localTombstones.getIfPresent(cv.getId());
+        if (localTombstone != null && localTombstone > version) {
+            return;
+        }
+        // Đọc lại ngay trước khi ghi: tombstone có thể xuất hiện trong lúc đang đọc DB
+        CVCacheEntry current = readRedis(cv.getId());
+        if (current != null && current.getVersion() > version) {
+            log.debug("Skip caching stale CV id={} (version {} < {})", cv.getId(), version, current.getVersion());
+            return;
+        }
+
+        localCache.put(cv.getId(), cv);
+        writeRedis(cv.getId(), new CVCacheEntry(version, cv));
+    }
+
+    /**
+     * Invalidate sau khi CV được cập nhật tại thời điểm updatedAt
+     */
+    public void invalidateAfterCommit(UUID cvId, Instant updatedAt) {
+        afterCommit(() -> invalidate(cvId, updatedAt.toEpochMilli()));
+    }
+
+    /**
+     * Invalidate sau khi CV bị xoá; không cho phép ghi lại vào cache
+     */
+    public void evictDeletedAfterCommit(UUID cvId) {
+        afterCommit(() -> invalidate(cvId, DELETED));
+    }
+
+    /**
+     * Xử lý message "cvId:version" từ kênh pub/sub (kể cả message do chính replica này gửi)
+     */
+    public void onInvalidation(String message) {
+        try {
+            int separator = message.indexOf(':');
+            UUID cvId = UUID.fromString(message.substring(0, separator));
+            long version = Long.parseLong(message.substring(separator + 1));
+            evictLocal(cvId, version);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed CV cache invalidation message: {}", message);
+        }
+    }
+
+    private void invalidate(UUID cvId, long version) {
+        invalidations.increment();
+        evictLocal(cvId, version);
+        writeRedis(cvId, new CVCacheEntry(version, null));
+        try {
+            redisService.publish(INVALIDATION_CHANNEL, cvId + ":" + version);
+        } catch (Exception e) {
+            log.warn("Failed to publish CV cache invalidation for id={}: {}", cvId, e.getMessage());
+        }
+    }
+
+    private void evictLocal(UUID cvId, long version) {
+        localTombstones.asMap().merge(cvId, version, Math::max);
+        localCache.invalidate(cvId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private CVCacheEntry readRedis(UUID cvId) {
+        try {
+            Object json = redisService.get(KEY_PREFIX + cvId);
+            if (json instanceof String s) {
+                return objectMapper.readValue(s, CVCacheEntry.class);
+            }
+        } catch (Exception e) {
+            log.warn("CV cache Redis lookup failed, treating as miss: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private void writeRedis(UUID cvId, CVCacheEntry entry) {
+        try {
+            redisService.set(KEY_PREFIX + cvId, objectMapper.writeValueAsString(entry), redisTtlMinutes, TimeUnit.MINUTES);
+        } catch (Exception e) {
+            log.warn("Failed to write CV cache entry for id={} to Redis: {}", cvId, e.getMessage());
+        }
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static long versionOf(CVDto cv) {
+        return cv.getUpdatedAt() != null ? Instant.parse(cv.getUpdatedAt()).toEpochMilli() : 0;
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("cv.cache.requests")
+                .description("CV document reads by cache outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
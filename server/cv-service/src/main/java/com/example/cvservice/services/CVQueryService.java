@@ -12,14 +12,22 @@ import com.example.cvservice.repositories.cvRepositories.CVQueryRepository;
 import com.example.cvservice.repositories.educationRepositories.EducationQueryRepository;
 import com.example.cvservice.repositories.experienceRepositories.ExperienceQueryRepository;
 import com.example.cvservice.repositories.personalInfoRepositories.PersonalInfoQueryRepository;
+import com.example.cvservice.services.utils.CVCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,6 +42,9 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CVQueryService {
 
+    // Giới hạn số phần tử trong mỗi IN (:ids); danh sách dài hơn được chia thành nhiều lượt
+    static final int IN_CHUNK_SIZE = 500;
+
     private final CVQueryRepository cvQueryRepository;
     private final PersonalInfoQueryRepository personalInfoQueryRepository;
     private final ExperienceQueryRepository experienceQueryRepository;
@@ -44,68 +55,119 @@ public class CVQueryService {
      */
     public Optional<CVDto> findByIdWithChildren(UUID id) {
         return cvQueryRepository.findById(id)
-                .map(this::enrichCVWithChildren);
+                .map(cv -> withChildren(List.of(cv)).get(0));
     }
 
     /**
      * Tìm tất cả CV của user với children và phân trang
      */
     public Page<CVDto> findAllByUserIdWithChildren(UUID userId, Pageable pageable) {
-        Page<CV> cvPage = cvQueryRepository.findAllByUserId(userId, pageable);
-        List<CVDto> cvDtos = cvPage.getContent().stream()
-                .map(this::enrichCVWithChildren)
-                .collect(Collectors.toList());
-        return new PageImpl<>(cvDtos, pageable, cvPage.getTotalElements());
+        return withChildren(cvQueryRepository.findAllByUserId(userId, pageable), pageable);
     }
 
     /**
      * Lấy tất cả CVs với children và phân trang
      */
     public Page<CVDto> findAllWithChildren(Pageable pageable) {
-        Page<CV> cvPage = cvQueryRepository.findAllCVs(pageable);
-        List<CVDto> cvDtos = cvPage.getContent().stream()
-                .map(this::enrichCVWithChildren)
-                .collect(Collectors.toList());
-        return new PageImpl<>(cvDtos, pageable, cvPage.getTotalElements());
+        return withChildren(cvQueryRepository.findAllCVs(pageable), pageable);
     }
 
     /**
      * Lấy CVs theo visibility với children và phân trang
      */
     public Page<CVDto> findByVisibilityWithChildren(boolean isVisibility, Pageable pageable) {
-        Page<CV> cvPage = cvQueryRepository.findByVisibility(isVisibility, pageable);
-        List<CVDto> cvDtos = cvPage.getContent().stream()
-                .map(this::enrichCVWithChildren)
-                .collect(Collectors.toList());
-        return new PageImpl<>(cvDtos, pageable, cvPage.getTotalElements());
+        return withChildren(cvQueryRepository.findByVisibility(isVisibility, pageable), pageable);
     }
 
     /**
      * Lấy CVs mới nhất với children và phân trang
      */
     public Page<CVDto> findRecentCVsWithChildren(Pageable pageable) {
-        Page<CV> cvPage = cvQueryRepository.findRecentCVs(pageable);
-        List<CVDto> cvDtos = cvPage.getContent().stream()
-                .map(this::enrichCVWithChildren)
-                .collect(Collectors.toList());
-        return new PageImpl<>(cvDtos, pageable, cvPage.getTotalElements());
+        return withChildren(cvQueryRepository.findRecentCVs(pageable), pageable);
+    }
+
+    /**
+     * Keyset pagination theo (createdAt, id): lấy tối đa limit CV sau cursor,
+     * LIMIT được đẩy xuống SQL (lấy thêm 1 dòng để biết còn trang sau hay không).
+     * isVisibility null nghĩa là không lọc theo visibility.
+     */
+    public Slice<CVDto> findPageWithChildren(Boolean isVisibility, CVCursor cursor, int limit) {
+        Pageable probe = PageRequest.ofSize(limit + 1);
+        List<CV> cvs;
+        if (isVisibility == null) {
+            cvs = cursor == null
+                    ? cvQueryRepository.findFirstPage(probe)
+                    : cvQueryRepository.findPageAfter(cursor.getCreatedAt(), cursor.getId(), probe);
+        } else {
+            cvs = cursor == null
+                    ? cvQueryRepository.findFirstPageByVisibility(isVisibility, probe)
+                    : cvQueryRepository.findPageByVisibilityAfter(isVisibility, cursor.getCreatedAt(), cursor.getId(), probe);
+        }
+
+        boolean hasNext = cvs.size() > limit;
+        List<CV> page = hasNext ? cvs.subList(0, limit) : cvs;
+        return new SliceImpl<>(withChildren(page), PageRequest.ofSize(limit), hasNext);
+    }
+
+    /**
+     * Lấy CVs được tạo trong khoảng thời gian với children
+     */
+    public List<CVDto> findCreatedBetweenWithChildren(Instant startDate, Instant endDate) {
+        return withChildren(cvQueryRepository.findCVsCreatedBetween(startDate, endDate, Pageable.unpaged()).getContent());
+    }
+
+    private Page<CVDto> withChildren(Page<CV> cvPage, Pageable pageable) {
+        return new PageImpl<>(withChildren(cvPage.getContent()), pageable, cvPage.getTotalElements());
     }
 
     /**
-     * Helper method: Fetch children và build CVDto
-     * Thực hiện JOIN logic bằng cách query children theo cvId
+     * Batch assembly: mỗi bảng con được query một lần cho mỗi IN_CHUNK_SIZE CV với
+     * WHERE cv_id IN (:ids), group theo cvId trong memory rồi build CVDto theo đúng
+     * thứ tự của danh sách CV. Một trang bình thường chỉ có một chunk, nên số query
+     * không phụ thuộc vào số CV (thay cho 1 + 4N query khi enrich từng CV).
      */
-    private CVDto enrichCVWithChildren(CV cv) {
-        // Fetch PersonalInfo
-        PersonalInfo personalInfo = personalInfoQueryRepository.findByCvId(cv.getId())
-                .orElse(null);
-        
-        // Fetch Experiences
-        List<Experience> experiences = experienceQueryRepository.findByCvId(cv.getId());
-        
-        // Fetch Educations
-        List<Education> educations = educationQueryRepository.findByCvId(cv.getId());
+    private List<CVDto> withChildren(List<CV> cvs) {
+        if (cvs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> allIds = cvs.stream().map(CV::getId).collect(Collectors.toList());
+
+        Map<UUID, PersonalInfo> personalInfos = new HashMap<>();
+        Map<UUID, List<Experience>> experiences = new HashMap<>();
+        Map<UUID, List<Education>> educations = new HashMap<>();
+        Map<UUID, List<String>> skills = new HashMap<>();
+        for (int from = 0; from < allIds.size(); from += IN_CHUNK_SIZE) {
+            List<UUID> cvIds = allIds.subList(from, Math.min(from + IN_CHUNK_SIZE, allIds.size()));
 
+            for (PersonalInfo personalInfo : personalInfoQueryRepository.findByCvIdIn(cvIds)) {
+                personalInfos.putIfAbsent(personalInfo.getCvId(), personalInfo);
+            }
+            for (Experience experience : experienceQueryRepository.findByCvIdIn(cvIds)) {
+                experiences.computeIfAbsent(experience.getCvId(), id -> new ArrayList<>()).add(experience);
+            }
+            for (Education education : educationQueryRepository.findByCvIdIn(cvIds)) {
+                educations.computeIfAbsent(education.getCvId(), id -> new ArrayList<>()).add(education);
+            }
+            for (Object[] row : cvQueryRepository.findSkillsByCvIdIn(cvIds)) {
+                skills.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+
+        return cvs.stream()
+                .map(cv -> toDto(cv,
+                        personalInfos.get(cv.getId()),
+                        experiences.getOrDefault(cv.getId(), List.of()),
+                        educations.getOrDefault(cv.getId(), List.of()),
+                        skills.getOrDefault(cv.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Helper method: Build CVDto từ CV và children đã fetch sẵn
+     */
+    private CVDto toDto(CV cv, PersonalInfo personalInfo, List<Experience> experiences,
+            List<Education> educations, List<String> skills) {
         // Convert entities to DTOs
         PersonalInfoDto personalInfoDto = personalInfo != null ? convertToDto(personalInfo) : null;
         List<ExperienceDto> experienceDtos = experiences.stream()
@@ -123,7 +185,7 @@ public class CVQueryService {
                 .personalInfo(personalInfoDto)
                 .experiences(experienceDtos)
                 .educations(educationDtos)
-                .skills(cv.getSkills())
+                .skills(skills)
                 .isVisibility(cv.getIsVisibility())
                 .color(cv.getColor())
                 .template(cv.getTemplate())
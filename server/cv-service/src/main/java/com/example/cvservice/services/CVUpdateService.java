@@ -0,0 +1,128 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.EducationDto;
+import com.example.cvservice.dtos.ExperienceDto;
+import com.example.cvservice.entities.Education;
+import com.example.cvservice.entities.Experience;
+import com.example.cvservice.repositories.cvRepositories.CVCommandRepository;
+import com.example.cvservice.repositories.educationRepositories.EducationCommandRepository;
+import com.example.cvservice.repositories.educationRepositories.EducationQueryRepository;
+import com.example.cvservice.repositories.experienceRepositories.ExperienceCommandRepository;
+import com.example.cvservice.repositories.experienceRepositories.ExperienceQueryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * CVUpdateService - Áp dụng bản cập nhật CV với số câu lệnh tối thiểu
+ *
+ * - Các cột scalar (title, color, template, font, visibility, updatedAt) gộp vào một UPDATE
+ * - Experiences/Educations được diff theo id với dữ liệu đang lưu: chỉ INSERT dòng mới,
+ *   UPDATE dòng thay đổi (dirty checking) và DELETE dòng bị bỏ trong một câu.
+ *   Dòng mới giữ id client tạo (crypto.randomUUID) nên autosave kế tiếp khớp được dòng đó
+ *   thay vì xóa rồi INSERT lại.
+ *   INSERT/UPDATE được Hibernate gom thành JDBC batch (hibernate.jdbc.batch_size)
+ */
+@Service
+@RequiredArgsConstructor
+public class CVUpdateService {
+
+    private final CVCommandRepository cvCommandRepository;
+    private final ExperienceQueryRepository experienceQueryRepository;
+    private final ExperienceCommandRepository experienceCommandRepository;
+    private final EducationQueryRepository educationQueryRepository;
+    private final EducationCommandRepository educationCommandRepository;
+
+    /**
+     * Ghi các thay đổi của CV trong một transaction; tham số null nghĩa là không đổi
+     */
+    @Transactional
+    public void applyUpdate(UUID cvId,
+            String title,
+            String color,
+            String template,
+            String font,
+            Boolean isVisibility,
+            List<String> skills,
+            List<ExperienceDto> experiencesDto,
+            List<EducationDto> educationsDto,
+            Instant now) {
+        cvCommandRepository.updateCVScalars(cvId, blankToNull(title), blankToNull(color),
+                blankToNull(template), blankToNull(font), isVisibility, now);
+
+        // Skills là ElementCollection nên không gộp được vào UPDATE của bảng cvs
+        if (skills != null) {
+            cvCommandRepository.updateCVSkills(cvId, skills, now);
+        }
+        if (experiencesDto != null) {
+            syncExperiences(cvId, experiencesDto);
+        }
+        if (educationsDto != null) {
+            syncEducations(cvId, educationsDto);
+        }
+    }
+
+    private void syncExperiences(UUID cvId, List<ExperienceDto> experiencesDto) {
+        Map<UUID, Experience> stored = new HashMap<>();
+        experienceQueryRepository.findByCvId(cvId).forEach(e -> stored.put(e.getId(), e));
+
+        List<Experience> inserts = new ArrayList<>();
+        for (ExperienceDto dto : experiencesDto) {
+            Experience current = dto.getId() != null ? stored.remove(dto.getId()) : null;
+            if (current == null) {
+                Experience experience = new Experience(dto);
+                experience.setCvId(cvId);
+                inserts.add(experience);
+                continue;
+            }
+            // Entity đang managed: chỉ phát sinh UPDATE khi giá trị thực sự khác
+            current.setCompany(dto.getCompany());
+            current.setPosition(dto.getPosition());
+            current.setStartDate(dto.getStartDate());
+            current.setEndDate(dto.getEndDate());
+            current.setDescription(dto.getDescription());
+        }
+
+        if (!stored.isEmpty()) {
+            experienceCommandRepository.deleteAllByIdInBatch(stored.keySet());
+        }
+        experienceCommandRepository.saveAll(inserts);
+    }
+
+    private void syncEducations(UUID cvId, List<EducationDto> educationsDto) {
+        Map<UUID, Education> stored = new HashMap<>();
+        educationQueryRepository.findByCvId(cvId).forEach(e -> stored.put(e.getId(), e));
+
+        List<Education> inserts = new ArrayList<>();
+        for (EducationDto dto : educationsDto) {
+            Education current = dto.getId() != null ? stored.remove(dto.getId()) : null;
+            if (current == null) {
+                Education education = new Education(dto);
+                education.setCvId(cvId);
+                inserts.add(education);
+                continue;
+            }
+            current.setSchool(dto.getSchool());
+            current.setDegree(dto.getDegree());
+            current.setField(dto.getField());
+            current.setStartDate(dto.getStartDate());
+            current.setEndDate(dto.getEndDate());
+        }
+
+        if (!stored.isEmpty()) {
+            educationCommandRepository.deleteAllByIdInBatch(stored.keySet());
+        }
+        educationCommandRepository.saveAll(inserts);
+    }
+
+    private static String blankToNull(String value) {
+        return value != null && !value.trim().isEmpty() ? value : null;
+    }
+}
@@ -2,8 +2,10 @@ package com.example.cvservice.services.apis;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import com.example.cvservice.dtos.*;
 import com.example.cvservice.dtos.requests.*;
@@ -25,10 +27,23 @@ import com.example.cvservice.repositories.personalInfoRepositories.PersonalInfoQ
 import com.example.cvservice.repositories.personalInfoRepositories.PersonalInfoCommandRepository;
 import com.example.cloudinarycommon.CloudinaryService;
 import com.example.cvservice.services.feigns.UserFeignClient;
+import com.example.cvservice.services.CVAutosaveQueue;
+import com.example.cvservice.services.CVDocumentCacheService;
 import com.example.cvservice.services.CVQueryService;
+import com.example.cvservice.services.CVUpdateService;
+import com.example.cvservice.services.rabbitmqs.producers.CVStatsProducer;
+import com.example.cvservice.services.utils.CVCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.io.OutputStream;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -39,6 +54,10 @@ import java.util.stream.Collectors;
 
 @Service
 public class CVApi extends BaseApi {
+    private static final int DEFAULT_PAGE_LIMIT = 20;
+    private static final int MAX_PAGE_LIMIT = 100;
+    private static final int EXPORT_BATCH_SIZE = 200;
+
     private final SimpleCVRepository simpleCVRepository;
     private final CVQueryRepository cvQueryRepository;
     private final CVCommandRepository cvCommandRepository;
@@ -54,9 +73,14 @@ public class CVApi extends BaseApi {
     
     private final CVMapper cvMapper;
     private final CVQueryService cvQueryService;
+    private final CVDocumentCacheService cvDocumentCacheService;
+    private final CVUpdateService cvUpdateService;
+    private final CVAutosaveQueue cvAutosaveQueue;
+    private final CVStatsProducer cvStatsProducer;
     private final ObjectMapper objectMapper;
     private final CloudinaryService cloudinaryService;
     private final UserFeignClient userFeignClient;
+    private final TransactionTemplate transactionTemplate;
 
     public CVApi(
             SimpleCVRepository simpleCVRepository,
@@ -71,7 +95,12 @@ public class CVApi extends BaseApi {
             CloudinaryService cloudinaryService,
             CVMapper cvMapper,
             CVQueryService cvQueryService,
-            UserFeignClient userFeignClient) {
+            CVDocumentCacheService cvDocumentCacheService,
+            CVUpdateService cvUpdateService,
+            CVAutosaveQueue cvAutosaveQueue,
+            CVStatsProducer cvStatsProducer,
+            UserFeignClient userFeignClient,
+            PlatformTransactionManager transactionManager) {
         this.simpleCVRepository = simpleCVRepository;
         this.cvQueryRepository = cvQueryRepository;
         this.cvCommandRepository = cvCommandRepository;
@@ -83,8 +112,13 @@ public class CVApi extends BaseApi {
         this.personalInfoCommandRepository = personalInfoCommandRepository;
         this.cvMapper = cvMapper;
         this.cvQueryService = cvQueryService;
+        this.cvDocumentCacheService = cvDocumentCacheService;
+        this.cvUpdateService = cvUpdateService;
+        this.cvAutosaveQueue = cvAutosaveQueue;
+        this.cvStatsProducer = cvStatsProducer;
         this.cloudinaryService = cloudinaryService;
         this.userFeignClient = userFeignClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.objectMapper = new ObjectMapper();
     }
 
@@ -92,8 +126,8 @@ public class CVApi extends BaseApi {
     public CVDto handleGetCVById(UUID cvId) {
         logger.debug("Fetching CV by id={}", cvId);
         
-        // Sử dụng CVQueryService để fetch CV với đầy đủ children
-        CVDto cvDto = cvQueryService.findByIdWithChildren(cvId)
+        // Đọc qua cache (Caffeine -> Redis), miss mới fetch CV với đầy đủ children từ DB
+        CVDto cvDto = cvDocumentCacheService.get(cvId, () -> cvQueryService.findByIdWithChildren(cvId))
                 .orElseThrow(() -> new OurException("CV not found", 404));
         
         logger.debug("Found CV id={} userId={}", cvDto.getId(), cvDto.getUserId());
@@ -202,6 +236,10 @@ public class CVApi extends BaseApi {
         // Fetch the created CV to return
         CV saved = cvQueryRepository.findCVById(cvId)
                 .orElseThrow(() -> new OurException("Failed to create CV", 500));
+
+        // Chỉ gửi sau khi transaction commit, rollback sẽ không làm lệch counter
+        cvStatsProducer.cvCreated(visibility);
+        cvStatsProducer.cvCreatedActivity(cvId, userId, title);
         return cvMapper.toDto(saved);
     }
 
@@ -368,18 +406,17 @@ public class CVApi extends BaseApi {
         }
     }
 
-    @Transactional(readOnly = true)
-    public List<CVDto> handleGetAllCVs() {
-        // Sử dụng CVQueryService để fetch tất cả CV với children
-        return cvQueryService.findAllWithChildren(org.springframework.data.domain.Pageable.unpaged()).getContent();
+    public Slice<CVDto> handleGetAllCVs(String cursor, Integer limit) {
+        // Keyset pagination: chỉ fetch một trang CV (và children) mỗi request
+        return cvQueryService.findPageWithChildren(null, CVCursor.decode(cursor), clampLimit(limit));
     }
 
     public long handleGetTotalCVs() {
         return cvQueryRepository.countTotalCVs();
     }
 
-    public List<CVDto> handleGetCVsByVisibility(boolean isVisibility) {
-        return cvQueryService.findByVisibilityWithChildren(isVisibility, org.springframework.data.domain.Pageable.unpaged()).getContent();
+    public Slice<CVDto> handleGetCVsByVisibility(boolean isVisibility, String cursor, Integer limit) {
+        return cvQueryService.findPageWithChildren(isVisibility, CVCursor.decode(cursor), clampLimit(limit));
     }
 
     public long handleGetCVsCountByVisibility(boolean isVisibility) {
@@ -387,31 +424,95 @@ public class CVApi extends BaseApi {
     }
 
     public List<CVDto> handleGetCVsCreatedInRange(Instant startDate, Instant endDate) {
-        return cvQueryRepository.findCVsCreatedBetween(startDate, endDate, org.springframework.data.domain.Pageable.unpaged()).stream()
-                .map(cvMapper::toDto)
-                .collect(Collectors.toList());
+        return cvQueryService.findCreatedBetweenWithChildren(startDate, endDate);
     }
 
     public long handleGetCVsCountCreatedInRange(Instant startDate, Instant endDate) {
         return cvQueryRepository.countCVsCreatedBetween(startDate, endDate);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * CV mới nhất, tối đa MAX_PAGE_LIMIT bản ghi (trước đây không giới hạn trên).
+     * limit < 1 trả về danh sách rỗng như trước, không phải lỗi.
+     */
     public List<CVDto> handleGetRecentCVs(int limit) {
-        // Sử dụng CVQueryService để fetch recent CVs với children
-        return cvQueryService.findRecentCVsWithChildren(org.springframework.data.domain.Pageable.unpaged()).stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+        if (limit < 1) {
+            return new ArrayList<>();
+        }
+        // LIMIT được đẩy xuống SQL thay vì load toàn bộ CV rồi mới cắt
+        return cvQueryService.findPageWithChildren(null, null, clampLimit(limit)).getContent();
+    }
+
+    /**
+     * Ghi toàn bộ CV (kèm children) dạng NDJSON, mỗi dòng một CV.
+     * Đọc theo từng batch keyset, mỗi batch một transaction riêng,
+     * nên bộ nhớ không tăng theo kích thước bảng cvs.
+     */
+    public void exportCVs(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(CVDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        CVCursor cursor = null;
+        int exported = 0;
+        Slice<CVDto> batch;
+        do {
+            batch = cvQueryService.findPageWithChildren(null, cursor, EXPORT_BATCH_SIZE);
+            for (CVDto cv : batch.getContent()) {
+                writer.writeValue(outputStream, cv);
+                outputStream.write('\n');
+            }
+            outputStream.flush();
+            exported += batch.getNumberOfElements();
+            if (batch.hasContent()) {
+                cursor = CVCursor.after(batch.getContent().get(batch.getNumberOfElements() - 1));
+            }
+        } while (batch.hasNext());
+        logger.info("Exported {} CVs", exported);
+    }
+
+    private int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_LIMIT;
+        }
+        if (limit < 1) {
+            throw new OurException("Limit must be positive", 400);
+        }
+        return Math.min(limit, MAX_PAGE_LIMIT);
+    }
+
+    private static CursorPagination toCursorPagination(Slice<CVDto> page) {
+        String nextCursor = page.hasNext()
+                ? CVCursor.after(page.getContent().get(page.getNumberOfElements() - 1)).encode()
+                : null;
+        return new CursorPagination(nextCursor, page.hasNext(), page.getSize());
     }
 
-    public Response getAllCVs() {
+    public Response getAllCVs(String cursor, Integer limit) {
         Response response = new Response();
 
         try {
-            List<CVDto> cvsDto = handleGetAllCVs();
+            Slice<CVDto> page = handleGetAllCVs(cursor, limit);
 
             response.setMessage("Get all cvs successfully");
-            response.setCvs(cvsDto);
+            response.setCvs(page.getContent());
+            response.setPagination(toCursorPagination(page));
+            return response;
+        } catch (OurException e) {
+            return buildErrorResponse(e.getStatusCode(), e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return buildErrorResponse(500, e.getMessage());
+        }
+    }
+
+    public Response getPublicCVs(String cursor, Integer limit) {
+        Response response = new Response();
+
+        try {
+            Slice<CVDto> page = handleGetCVsByVisibility(true, cursor, limit);
+
+            response.setMessage("Get public cvs successfully");
+            response.setCvs(page.getContent());
+            response.setPagination(toCursorPagination(page));
             return response;
         } catch (OurException e) {
             return buildErrorResponse(e.getStatusCode(), e.getMessage());
@@ -499,9 +600,19 @@ public class CVApi extends BaseApi {
         }
     }
 
-    @Transactional
-    @Async
-    public void handleUpdateCV(UUID cvId,
+    /**
+     * Ghi một patch autosave trong một transaction. CVAutosaveQueue gọi trực tiếp
+     * (không qua proxy) nên transaction được mở bằng TransactionTemplate: personal
+     * info và phần CVUpdateService cùng commit hoặc cùng rollback
+     */
+    public void handleUpdateCV(UUID cvId, UpdateCVRequest request, MultipartFile avatar) {
+        transactionTemplate.executeWithoutResult(status -> handleUpdateCV(cvId, request.getTitle(),
+                request.getPersonalInfo(), avatar, request.getExperiences(), request.getEducations(),
+                request.getSkills(), request.getIsVisibility(), request.getColor(), request.getTemplate(),
+                request.getFont()));
+    }
+
+    private void handleUpdateCV(UUID cvId,
             String title,
             PersonalInfoDto personalInfoDto,
             MultipartFile avatar,
@@ -517,25 +628,9 @@ public class CVApi extends BaseApi {
                     .orElseThrow(() -> new OurException("CV not found", 404));
 
             Instant now = Instant.now();
-            boolean hasUpdates = false;
-
-            // Only update if not null
-            if (title != null && !title.trim().isEmpty()) {
-                cvCommandRepository.updateCVTitle(cvId, title, now);
-                hasUpdates = true;
-            }
-            if (color != null && !color.trim().isEmpty()) {
-                cvCommandRepository.updateCVColor(cvId, color, now);
-                hasUpdates = true;
-            }
-            if (template != null && !template.trim().isEmpty()) {
-                cvCommandRepository.updateCVTemplate(cvId, template, now);
-                hasUpdates = true;
-            }
-            if (font != null && !font.trim().isEmpty()) {
-                cvCommandRepository.updateCVFont(cvId, font, now);
-                hasUpdates = true;
-            }
+            boolean hasUpdates = StringUtils.hasText(title) || StringUtils.hasText(color)
+                    || StringUtils.hasText(template) || StringUtils.hasText(font)
+                    || experiencesDto != null || educationsDto != null || skills != null || isVisibility != null;
 
             // Update PersonalInfo separately
             if (personalInfoDto != null) {
@@ -601,71 +696,22 @@ public class CVApi extends BaseApi {
                 hasUpdates = true;
             }
 
-            // Update experiences separately
-            if (experiencesDto != null) {
-                // Delete old experiences
-                experienceCommandRepository.deleteAllByCvId(cvId);
-                
-                // Add new experiences
-                for (ExperienceDto e : experiencesDto) {
-                    Experience ex = new Experience(e);
-                    UUID expId = UUID.randomUUID();
-                    experienceCommandRepository.insertExperience(
-                        expId,
-                        cvId,
-                        ex.getCompany(),
-                        ex.getPosition(),
-                        ex.getStartDate(),
-                        ex.getEndDate(),
-                        ex.getDescription()
-                    );
-                }
-                hasUpdates = true;
-            }
-
-            // Update educations separately
-            if (educationsDto != null) {
-                // Delete old educations
-                educationCommandRepository.deleteAllByCvId(cvId);
-                
-                // Add new educations
-                for (EducationDto ed : educationsDto) {
-                    Education e = new Education(ed);
-                    UUID eduId = UUID.randomUUID();
-                    educationCommandRepository.insertEducation(
-                        eduId,
-                        cvId,
-                        e.getSchool(),
-                        e.getDegree(),
-                        e.getField(),
-                        e.getStartDate(),
-                        e.getEndDate()
-                    );
-                }
-                hasUpdates = true;
-            }
-
-            // Only update skills if provided
-            if (skills != null) {
-                cvCommandRepository.updateCVSkills(cvId, skills, now);
-                hasUpdates = true;
-            }
-
-            // Only update isVisibility if provided
-            if (isVisibility != null) {
-                cvCommandRepository.updateCVVisibility(cvId, isVisibility, now);
-                hasUpdates = true;
-            }
-
+            // Scalar columns + updatedAt gộp một UPDATE, children ghi theo diff
             if (hasUpdates) {
-                cvCommandRepository.updateCVUpdatedAt(cvId, now);
+                cvUpdateService.applyUpdate(cvId, title, color, template, font, isVisibility,
+                        skills, experiencesDto, educationsDto, now);
+                cvDocumentCacheService.invalidateAfterCommit(cvId, now);
+                if (isVisibility != null) {
+                    cvStatsProducer.visibilityChanged(existing.getIsVisibility(), isVisibility);
+                }
             }
 
-            logger.info("Async update completed for CV id={} (userId={})", cvId, existing.getUserId());
+            logger.info("Update applied for CV id={} (userId={})", cvId, existing.getUserId());
         } catch (OurException e) {
             throw e;
         } catch (Exception e) {
-            logger.error("Async update failed for CV id={}: {}", cvId, e.getMessage(), e);
+            // Để CVAutosaveQueue ghi nhận lần ghi thất bại
+            throw new OurException("Failed to update CV: " + e.getMessage(), 500);
         }
     }
 
@@ -674,22 +720,27 @@ public class CVApi extends BaseApi {
 
         try {
             UpdateCVRequest request = objectMapper.readValue(dataJson, UpdateCVRequest.class);
-            String title = request.getTitle();
-            PersonalInfoDto personalInfo = request.getPersonalInfo();
-            List<ExperienceDto> experiences = request.getExperiences();
-            List<EducationDto> educations = request.getEducations();
-            List<String> skills = request.getSkills();
-            Boolean isVisibility = request.getIsVisibility();
-            String color = request.getColor();
-            String template = request.getTemplate();
-            String font = request.getFont();
-
-            handleUpdateCV(cvId, title, personalInfo, avatar, experiences, educations, skills, isVisibility, color, template, font);
-            
-            logger.info("CV update initiated for cvId={} - processing asynchronously", cvId);
-           
+
+            if (!cvQueryRepository.existsById(cvId)) {
+                throw new OurException("CV not found", 404);
+            }
+
+            // Đưa vào hàng đợi autosave: các patch liên tiếp của cùng CV được gộp và ghi tuần tự
+            CVAutosaveQueue.AutosaveStatus previous = cvAutosaveQueue.status(cvId);
+            long version = cvAutosaveQueue.submit(cvId, request, avatar, this::handleUpdateCV);
+
+            logger.info("CV update queued for cvId={} version={}", cvId, version);
+
             response.setStatusCode(200);
             response.setMessage("CV update initiated successfully - processing in background");
+            Map<String, Object> data = new HashMap<>();
+            data.put("version", version);
+            // Lần ghi trước thất bại: báo cho client để gửi lại các field của patch đó
+            if (previous.hasUnresolvedFailure()) {
+                data.put("lastFailedVersion", previous.failedVersion());
+                data.put("lastError", previous.error());
+            }
+            response.setAdditionalData(data);
             return response;
         } catch (OurException e) {
             return buildErrorResponse(e.getStatusCode(), e.getMessage());
@@ -699,6 +750,28 @@ public class CVApi extends BaseApi {
         }
     }
 
+    /**
+     * Trạng thái autosave trên replica này (best-effort, xem CVAutosaveQueue)
+     */
+    public Response getAutosaveStatus(UUID cvId) {
+        try {
+            CVAutosaveQueue.AutosaveStatus status = cvAutosaveQueue.status(cvId);
+            Map<String, Object> data = new HashMap<>();
+            data.put("pendingVersion", status.pendingVersion());
+            data.put("appliedVersion", status.appliedVersion());
+            data.put("failedVersion", status.failedVersion());
+            if (status.error() != null) {
+                data.put("error", status.error());
+            }
+
+            Response response = new Response(200, "Get autosave status successfully");
+            response.setAdditionalData(data);
+            return response;
+        } catch (Exception e) {
+            return buildErrorResponse(500, e.getMessage());
+        }
+    }
+
     @Transactional
     public boolean handleDeleteCV(UUID cvId) {
         CV cv = cvQueryRepository.findCVById(cvId).orElseThrow(() -> new OurException("CV not found", 404));
@@ -716,6 +789,8 @@ public class CVApi extends BaseApi {
 
         // Delete the CV
         cvCommandRepository.deleteCVById(cvId);
+        cvDocumentCacheService.evictDeletedAfterCommit(cvId);
+        cvStatsProducer.cvDeleted(cv.getIsVisibility());
         return true;
     }
 
@@ -750,6 +825,9 @@ public class CVApi extends BaseApi {
                 existingCV.getFont()
             );
 
+        // Write-through: bản copy thường được mở ngay sau khi tạo
+        cvDocumentCacheService.put(newCV);
+
         logger.info("Duplicated CV id={} created new CV id={}", cvId, newCV.getId());
         return newCV;
     }
@@ -0,0 +1,96 @@
+package com.example.cvservice.services.rabbitmqs.producers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.rabbitcommon.constants.ActivityEvents;
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publish delta của các counter CV (tổng, theo visibility, số CV tạo mỗi ngày)
+ * và activity feed để stats-service không phải gọi lại cv-service mỗi lần build dashboard.
+ * Trong transaction, counter chỉ được gửi sau khi commit; rollback không gửi gì
+ */
+@Component
+@Slf4j
+public class CVStatsProducer {
+    private final RabbitTemplate rabbitTemplate;
+
+    public CVStatsProducer(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void cvCreated(boolean isPublic) {
+        send(Map.of(
+                StatsCounters.CVS_TOTAL, 1L,
+                StatsCounters.cvsByVisibility(isPublic), 1L,
+                StatsCounters.cvsCreatedOn(LocalDate.now(ZoneOffset.UTC)), 1L));
+    }
+
+    public void cvDeleted(boolean isPublic) {
+        send(Map.of(
+                StatsCounters.CVS_TOTAL, -1L,
+                StatsCounters.cvsByVisibility(isPublic), -1L));
+    }
+
+    public void visibilityChanged(boolean from, boolean to) {
+        if (from == to) {
+            return;
+        }
+        send(Map.of(StatsCounters.cvsByVisibility(from), -1L, StatsCounters.cvsByVisibility(to), 1L));
+    }
+
+    public void cvCreatedActivity(UUID cvId, UUID userId, String title) {
+        ActivityEvent event = ActivityEvents.of(ActivityEvents.CV_CREATED, userId, cvId, "New CV created: " + title);
+        afterCommit(() -> publishActivity(event));
+    }
+
+    private void publishActivity(ActivityEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(ActivityEvents.EXCHANGE, ActivityEvents.CV_ROUTING_KEY, event);
+        } catch (AmqpException e) {
+            log.warn("Failed to publish CV activity {}: {}", event.getType(), e.getMessage());
+        }
+    }
+
+    private void send(Map<String, Long> deltas) {
+        afterCommit(() -> publish(deltas));
+    }
+
+    private void publish(Map<String, Long> deltas) {
+        StatsCounterEvent event = new StatsCounterEvent(
+                UUID.randomUUID().toString(), "cv-service", Instant.now().toString(), deltas);
+        try {
+            rabbitTemplate.convertAndSend(StatsCounters.EXCHANGE, StatsCounters.CV_ROUTING_KEY, event);
+        } catch (AmqpException e) {
+            // Counter lệch cho tới lần rebuild tiếp theo, không làm hỏng thao tác ghi CV
+            log.warn("Failed to publish CV stats counters {}: {}", deltas, e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
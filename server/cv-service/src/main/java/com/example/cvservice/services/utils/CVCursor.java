@@ -0,0 +1,56 @@
+package com.example.cvservice.services.utils;
+
+import com.example.cvservice.dtos.CVDto;
+import com.example.cvservice.exceptions.OurException;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset cursor cho danh sách CV (sắp xếp createdAt DESC, id DESC).
+ * Client nhận cursor dạng chuỗi opaque và gửi lại để lấy trang tiếp theo.
+ */
+@Getter
+public class CVCursor {
+
+    private final Instant createdAt;
+    private final UUID id;
+
+    public CVCursor(Instant createdAt, UUID id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Cursor trỏ tới CV cuối cùng của trang hiện tại
+     */
+    public static CVCursor after(CVDto last) {
+        return new CVCursor(Instant.parse(last.getCreatedAt()), last.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode cursor từ request; null hoặc rỗng nghĩa là trang đầu tiên
+     */
+    public static CVCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new CVCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new OurException("Invalid cursor", 400);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.PersonalInfoDto;
+import com.example.cvservice.dtos.requests.UpdateCVRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CVAutosaveQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CVAutosaveQueue queue;
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    void testSubmit_ConcurrentPatchesLastWriteWinsWithoutLostUpdates() throws Exception {
+        // Arrange
+        queue = new CVAutosaveQueue(meterRegistry, 2, 4);
+        UUID cvId = UUID.randomUUID();
+        int patchesPerField = 300;
+        FakeStore store = new FakeStore();
+
+        // Each thread owns one field, so any dropped patch shows up as a wrong final value
+        Map<String, BiConsumer<UpdateCVRequest, String>> fields = Map.of(
+                "title", UpdateCVRequest::setTitle,
+                "color", UpdateCVRequest::setColor,
+                "template", UpdateCVRequest::setTemplate,
+                "font", UpdateCVRequest::setFont);
+        ExecutorService editors = Executors.newFixedThreadPool(fields.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        fields.forEach((field, setter) -> futures.add(editors.submit(() -> {
+            start.await();
+            long lastVersion = 0;
+            for (int i = 0; i < patchesPerField; i++) {
+                UpdateCVRequest patch = new UpdateCVRequest();
+                setter.accept(patch, field + "-" + i);
+                long version = queue.submit(cvId, patch, null, store::write);
+                assertTrue(version > lastVersion);
+                lastVersion = version;
+            }
+            return null;
+        })));
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        editors.shutdown();
+        queue.flushAll();
+
+        // Assert
+        for (String field : fields.keySet()) {
+            assertEquals(field + "-" + (patchesPerField - 1), store.values.get(field));
+        }
+        assertTrue(store.regressions.isEmpty(), "older value overwrote newer: " + store.regressions);
+        assertEquals(1, store.maxConcurrentWrites.get());
+
+        double submitted = patches("submitted");
+        double merged = patches("merged");
+        assertEquals(fields.size() * patchesPerField, submitted);
+        assertTrue(merged > 0);
+        assertEquals(submitted - merged, writes("applied"));
+        assertEquals(store.writes.get(), writes("applied"));
+    }
+
+    @Test
+    void testSubmit_MergesPatchesWithinWindow() {
+        // Arrange
+        queue = new CVAutosaveQueue(meterRegistry, 60_000, 1);
+        UUID cvId = UUID.randomUUID();
+        List<UpdateCVRequest> written = new CopyOnWriteArrayList<>();
+
+        // Act
+        queue.submit(cvId, patch("First", null), null, (id, p, avatar) -> written.add(p));
+        queue.submit(cvId, patch(null, "#000000"), null, (id, p, avatar) -> written.add(p));
+        queue.submit(cvId, patch("Second", null), null, (id, p, avatar) -> written.add(p));
+        assertTrue(written.isEmpty());
+        queue.flushAll();
+
+        // Assert
+        assertEquals(1, written.size());
+        assertEquals("Second", written.get(0).getTitle());
+        assertEquals("#000000", written.get(0).getColor());
+        assertEquals(2, patches("merged"));
+    }
+
+    @Test
+    void testStatus_ReportsFailedFlushUntilALaterWriteSucceeds() {
+        // Arrange
+        queue = new CVAutosaveQueue(meterRegistry, 60_000, 1);
+        UUID cvId = UUID.randomUUID();
+        CVAutosaveQueue.PatchWriter failing = (id, p, avatar) -> {
+            throw new IllegalStateException("db down");
+        };
+
+        // Act
+        long failedVersion = queue.submit(cvId, patch("Lost", null), null, failing);
+        assertEquals(failedVersion, queue.status(cvId).pendingVersion());
+        queue.flushAll();
+        CVAutosaveQueue.AutosaveStatus afterFailure = queue.status(cvId);
+        long appliedVersion = queue.submit(cvId, patch("Saved", null), null, (id, p, avatar) -> { });
+        queue.flushAll();
+        CVAutosaveQueue.AutosaveStatus afterRetry = queue.status(cvId);
+
+        // Assert
+        assertTrue(afterFailure.hasUnresolvedFailure());
+        assertEquals(failedVersion, afterFailure.failedVersion());
+        assertEquals("db down", afterFailure.error());
+        assertEquals(0, afterFailure.pendingVersion());
+        assertFalse(afterRetry.hasUnresolvedFailure());
+        assertEquals(appliedVersion, afterRetry.appliedVersion());
+    }
+
+    @Test
+    void testSubmit_AvatarPatchWrittenInCallerThread() {
+        // Arrange
+        queue = new CVAutosaveQueue(meterRegistry, 60_000, 1);
+        UUID cvId = UUID.randomUUID();
+        MultipartFile avatar = new MockMultipartFile("avatar", "a.png", "image/png", new byte[] { 1, 2, 3 });
+        List<String> writers = new ArrayList<>();
+        List<UpdateCVRequest> written = new ArrayList<>();
+        CVAutosaveQueue.PatchWriter writer = (id, p, file) -> {
+            writers.add(Thread.currentThread().getName());
+            written.add(p);
+            assertSame(avatar, file);
+        };
+
+        // Act
+        queue.submit(cvId, patch("Pending", null), null, writer);
+        queue.submit(cvId, patch(null, "#ffffff"), avatar, writer);
+
+        // Assert
+        assertEquals(List.of(Thread.currentThread().getName()), writers);
+        assertEquals("Pending", written.get(0).getTitle());
+        assertEquals("#ffffff", written.get(0).getColor());
+    }
+
+    @Test
+    void testMerge_PersonalInfoMergedFieldByField() {
+        // Arrange
+        queue = new CVAutosaveQueue(meterRegistry, 60_000, 1);
+        UpdateCVRequest older = new UpdateCVRequest();
+        older.setPersonalInfo(new PersonalInfoDto(null, "Old Name", "old@example.com", null, null, null, null, null, null));
+        UpdateCVRequest newer = new UpdateCVRequest();
+        newer.setPersonalInfo(new PersonalInfoDto(null, "New Name", null, "0123", null, null, null, null, null));
+
+        // Act
+        UpdateCVRequest merged = CVAutosaveQueue.merge(CVAutosaveQueue.merge(null, older), newer);
+
+        // Assert
+        assertEquals("New Name", merged.getPersonalInfo().getFullname());
+        assertEquals("old@example.com", merged.getPersonalInfo().getEmail());
+        assertEquals("0123", merged.getPersonalInfo().getPhone());
+        assertEquals("Old Name", older.getPersonalInfo().getFullname());
+    }
+
+    private static UpdateCVRequest patch(String title, String color) {
+        UpdateCVRequest request = new UpdateCVRequest();
+        request.setTitle(title);
+        request.setColor(color);
+        return request;
+    }
+
+    private double patches(String outcome) {
+        return meterRegistry.get("cv.autosave.patches").tag("outcome", outcome).counter().count();
+    }
+
+    private double writes(String outcome) {
+        return meterRegistry.get("cv.autosave.writes").tag("outcome", outcome).counter().count();
+    }
+
+    /**
+     * Stands in for the database: applies non-null fields and flags any write
+     * that moves a field back to an older value
+     */
+    private static class FakeStore {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+        private final List<String> regressions = new CopyOnWriteArrayList<>();
+        private final AtomicInteger activeWrites = new AtomicInteger();
+        private final AtomicInteger maxConcurrentWrites = new AtomicInteger();
+        private final AtomicInteger writes = new AtomicInteger();
+
+        void write(UUID cvId, UpdateCVRequest patch, MultipartFile avatar) {
+            maxConcurrentWrites.accumulateAndGet(activeWrites.incrementAndGet(), Math::max);
+            try {
+                apply("title", patch.getTitle());
+                apply("color", patch.getColor());
+                apply("template", patch.getTemplate());
+                apply("font", patch.getFont());
+                Thread.sleep(1);
+                writes.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                activeWrites.decrementAndGet();
+            }
+        }
+
+        private void apply(String field, String value) {
+            if (value == null) {
+                return;
+            }
+            String previous = values.put(field, value);
+            if (previous != null && index(previous) > index(value)) {
+                regressions.add(previous + " -> " + value);
+            }
+        }
+
+        private static int index(String value) {
+            return Integer.parseInt(value.substring(value.lastIndexOf('-') + 1));
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.CVDto;
+import com.example.rediscommon.services.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CVDocumentCacheServiceTest {
+
+    private static final Instant V1 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant V2 = Instant.parse("2024-01-01T00:05:00Z");
+
+    @Mock
+    private RedisService redisService;
+
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CVDocumentCacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(inv -> redis.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(redisService).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+        when(redisService.get(anyString())).thenAnswer(inv -> redis.get(inv.getArgument(0)));
+
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = newReplica();
+    }
+
+    @Test
+    void testGet_LoadsOnceThenServesFromLocalCache() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            cacheService.get(cvId, () -> {
+                loads.incrementAndGet();
+                return Optional.of(cv(cvId, "Title", V1));
+            });
+        }
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(1, requests("miss"));
+        assertEquals(2, requests("local_hit"));
+        assertEquals(2.0 / 3, meterRegistry.get("cv.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void testGet_OtherReplicaServedFromRedis() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        cacheService.get(cvId, () -> Optional.of(cv(cvId, "Title", V1)));
+        CVDocumentCacheService otherReplica = newReplica();
+
+        // Act
+        Optional<CVDto> result = otherReplica.get(cvId, () -> fail("should not hit the database"));
+
+        // Assert
+        assertEquals("Title", result.orElseThrow().getTitle());
+        assertEquals(1, requests("redis_hit"));
+    }
+
+    @Test
+    void testInvalidate_TombstoneRejectsStaleReload() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        cacheService.get(cvId, () -> Optional.of(cv(cvId, "Old", V1)));
+
+        // Act
+        cacheService.invalidateAfterCommit(cvId, V2);
+        // A reader that fetched the row before the update committed
+        cacheService.get(cvId, () -> Optional.of(cv(cvId, "Old", V1)));
+        Optional<CVDto> fresh = cacheService.get(cvId, () -> Optional.of(cv(cvId, "New", V2)));
+        Optional<CVDto> cached = cacheService.get(cvId, () -> fail("should be cached"));
+
+        // Assert
+        assertEquals("New", fresh.orElseThrow().getTitle());
+        assertEquals("New", cached.orElseThrow().getTitle());
+        assertEquals(1, meterRegistry.get("cv.cache.invalidations").counter().count());
+        verify(redisService).publish(CVDocumentCacheService.INVALIDATION_CHANNEL, cvId + ":" + V2.toEpochMilli());
+    }
+
+    @Test
+    void testEvictDeleted_NeverRecaches() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        cacheService.get(cvId, () -> Optional.of(cv(cvId, "Title", V1)));
+
+        // Act
+        cacheService.evictDeletedAfterCommit(cvId);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cacheService.get(cvId, () -> {
+                loads.incrementAndGet();
+                return Optional.of(cv(cvId, "Title", V2));
+            });
+        }
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testOnInvalidation_EvictsLocalEntryOnOtherReplica() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        CVDocumentCacheService otherReplica = newReplica();
+        otherReplica.get(cvId, () -> Optional.of(cv(cvId, "Old", V1)));
+        redis.clear();
+
+        // Act
+        otherReplica.onInvalidation(cvId + ":" + V2.toEpochMilli());
+        Optional<CVDto> result = otherReplica.get(cvId, () -> Optional.of(cv(cvId, "New", V2)));
+
+        // Assert
+        assertEquals("New", result.orElseThrow().getTitle());
+    }
+
+    @Test
+    void testGet_RedisFailureFallsBackToLoader() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        when(redisService.get(anyString())).thenThrow(new RuntimeException("Redis down"));
+
+        // Act
+        Optional<CVDto> result = cacheService.get(cvId, () -> Optional.of(cv(cvId, "Title", V1)));
+
+        // Assert
+        assertEquals("Title", result.orElseThrow().getTitle());
+        assertEquals(1, requests("miss"));
+    }
+
+    private CVDocumentCacheService newReplica() {
+        return new CVDocumentCacheService(redisService, meterRegistry, 100, 10, 60);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("cv.cache.requests").tag("result", result).counter().count();
+    }
+
+    private static CVDto cv(UUID cvId, String title, Instant updatedAt) {
+        CVDto cv = new CVDto(UUID.randomUUID(), title);
+        cv.setId(cvId);
+        cv.setUpdatedAt(updatedAt.toString());
+        return cv;
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.CVDto;
+import com.example.cvservice.entities.CV;
+import com.example.cvservice.entities.Education;
+import com.example.cvservice.entities.Experience;
+import com.example.cvservice.entities.PersonalInfo;
+import com.example.cvservice.repositories.cvRepositories.CVQueryRepository;
+import com.example.cvservice.repositories.educationRepositories.EducationQueryRepository;
+import com.example.cvservice.repositories.experienceRepositories.ExperienceQueryRepository;
+import com.example.cvservice.repositories.personalInfoRepositories.PersonalInfoQueryRepository;
+import com.example.cvservice.services.utils.CVCursor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs CVQueryService against an in-memory H2 schema and counts the SQL
+ * statements Hibernate prepares per listing call.
+ */
+class CVQueryServiceTest {
+
+    // 1 CV query + personal infos + experiences + educations + skills
+    private static final long STATEMENTS_PER_LISTING = 5;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private CVQueryService cvQueryService;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CV.class)
+                .addAnnotatedClass(PersonalInfo.class)
+                .addAnnotatedClass(Experience.class)
+                .addAnnotatedClass(Education.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:cv-query-" + UUID.randomUUID())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.globally_quoted_identifiers", "true")
+                .setProperty("hibernate.globally_quoted_identifiers_skip_column_definitions", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(session);
+        cvQueryService = new CVQueryService(
+                factory.getRepository(CVQueryRepository.class),
+                factory.getRepository(PersonalInfoQueryRepository.class),
+                factory.getRepository(ExperienceQueryRepository.class),
+                factory.getRepository(EducationQueryRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void testFindAllByUserIdWithChildren_ConstantStatementsForAnyPageSize() {
+        for (int size : new int[] { 1, 5, 25 }) {
+            // Arrange
+            UUID userId = UUID.randomUUID();
+            insertCVs(userId, size);
+
+            // Act
+            sessionFactory.getStatistics().clear();
+            List<CVDto> cvs = cvQueryService.findAllByUserIdWithChildren(userId, Pageable.unpaged()).getContent();
+
+            // Assert
+            assertEquals(size, cvs.size());
+            assertEquals(STATEMENTS_PER_LISTING, sessionFactory.getStatistics().getPrepareStatementCount(),
+                    "statements for " + size + " CVs");
+        }
+    }
+
+    @Test
+    void testFindAllByUserIdWithChildren_GroupsChildrenPerCV() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        List<CV> inserted = insertCVs(userId, 3);
+        CV bare = persist(new CV(userId, "Bare CV"));
+        session.clear();
+
+        // Act
+        List<CVDto> cvs = cvQueryService.findAllByUserIdWithChildren(userId, Pageable.unpaged()).getContent();
+
+        // Assert
+        assertEquals(4, cvs.size());
+        for (CV cv : inserted) {
+            CVDto dto = cvs.stream().filter(d -> d.getId().equals(cv.getId())).findFirst().orElseThrow();
+            assertEquals("Owner of " + cv.getTitle(), dto.getPersonalInfo().getFullname());
+            assertEquals(List.of("2021-01", "2019-01"),
+                    dto.getExperiences().stream().map(e -> e.getStartDate()).toList());
+            assertEquals(1, dto.getEducations().size());
+            assertEquals(List.of("Java", "SQL"), dto.getSkills());
+        }
+        CVDto bareDto = cvs.stream().filter(d -> d.getId().equals(bare.getId())).findFirst().orElseThrow();
+        assertNull(bareDto.getPersonalInfo());
+        assertTrue(bareDto.getExperiences().isEmpty());
+        assertTrue(bareDto.getEducations().isEmpty());
+        assertTrue(bareDto.getSkills().isEmpty());
+    }
+
+    @Test
+    void testFindCreatedBetweenWithChildren_ChunksLongIdLists() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        int count = CVQueryService.IN_CHUNK_SIZE + 1;
+        session.beginTransaction();
+        for (int i = 0; i < count; i++) {
+            session.persist(new CV(userId, "CV " + i, new ArrayList<>(List.of("SQL", "Java")),
+                    false, "#3498db", "modern", "Inter, sans-serif"));
+        }
+        session.getTransaction().commit();
+        session.clear();
+
+        // Act
+        sessionFactory.getStatistics().clear();
+        List<CVDto> cvs = cvQueryService.findCreatedBetweenWithChildren(Instant.EPOCH, Instant.now().plusSeconds(60));
+
+        // Assert
+        assertEquals(count, cvs.size());
+        assertEquals(1 + 2 * (STATEMENTS_PER_LISTING - 1), sessionFactory.getStatistics().getPrepareStatementCount());
+        assertTrue(cvs.stream().allMatch(dto -> dto.getSkills().equals(List.of("SQL", "Java"))));
+    }
+
+    @Test
+    void testFindByIdWithChildren_KeepsSavedSkillOrder() {
+        // Arrange
+        List<String> skills = List.of("TypeScript", "Java", "SQL", "Docker", "Angular");
+        CV cv = persist(new CV(UUID.randomUUID(), "Ordered skills", new ArrayList<>(skills),
+                false, "#3498db", "modern", "Inter, sans-serif"));
+        session.clear();
+
+        // Act
+        CVDto dto = cvQueryService.findByIdWithChildren(cv.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(skills, dto.getSkills());
+    }
+
+    @Test
+    void testFindByIdWithChildren_Success() {
+        // Arrange
+        CV cv = insertCVs(UUID.randomUUID(), 1).get(0);
+
+        // Act
+        CVDto dto = cvQueryService.findByIdWithChildren(cv.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(cv.getTitle(), dto.getTitle());
+        assertEquals(2, dto.getExperiences().size());
+    }
+
+    @Test
+    void testFindPageWithChildren_KeysetWalkVisitsEveryCVOnce() {
+        // Arrange
+        List<CV> inserted = insertCVs(UUID.randomUUID(), 7);
+        // Ties on createdAt must be broken by id
+        session.beginTransaction();
+        session.createMutationQuery("UPDATE CV c SET c.createdAt = :createdAt")
+                .setParameter("createdAt", Instant.parse("2024-01-01T00:00:00Z"))
+                .executeUpdate();
+        session.getTransaction().commit();
+        session.clear();
+
+        // Act
+        List<UUID> visited = new ArrayList<>();
+        List<Long> statements = new ArrayList<>();
+        CVCursor cursor = null;
+        Slice<CVDto> page;
+        do {
+            sessionFactory.getStatistics().clear();
+            page = cvQueryService.findPageWithChildren(null, cursor, 3);
+            statements.add(sessionFactory.getStatistics().getPrepareStatementCount());
+            page.getContent().forEach(cv -> visited.add(cv.getId()));
+            if (page.hasContent()) {
+                cursor = CVCursor.decode(CVCursor.after(page.getContent().get(page.getNumberOfElements() - 1)).encode());
+            }
+        } while (page.hasNext());
+
+        // Assert
+        assertEquals(3, statements.size());
+        assertEquals(7, visited.size());
+        assertEquals(inserted.stream().map(CV::getId).collect(Collectors.toSet()), new HashSet<>(visited));
+        statements.forEach(count -> assertEquals(STATEMENTS_PER_LISTING, count));
+    }
+
+    @Test
+    void testFindPageWithChildren_FiltersByVisibility() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        insertCVs(userId, 2);
+        CV visible = persist(new CV(userId, "Public CV", new ArrayList<>(), true, "#3498db", "modern", "Inter, sans-serif"));
+        session.clear();
+
+        // Act
+        Slice<CVDto> page = cvQueryService.findPageWithChildren(true, null, 10);
+
+        // Assert
+        assertEquals(List.of(visible.getId()), page.getContent().stream().map(CVDto::getId).toList());
+        assertFalse(page.hasNext());
+    }
+
+    private List<CV> insertCVs(UUID userId, int count) {
+        List<CV> cvs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CV cv = persist(new CV(userId, "CV " + i, new ArrayList<>(List.of("Java", "SQL")),
+                    false, "#3498db", "modern", "Inter, sans-serif"));
+
+            PersonalInfo personalInfo = new PersonalInfo("Owner of CV " + i, "cv" + i + "@example.com",
+                    "0123", "Hanoi", null, "Summary");
+            personalInfo.setCvId(cv.getId());
+            persist(personalInfo);
+
+            for (String startDate : List.of("2019-01", "2021-01")) {
+                Experience experience = new Experience("Company", "Engineer", startDate, null, "Built things");
+                experience.setCvId(cv.getId());
+                persist(experience);
+            }
+
+            Education education = new Education("University", "BSc", "Computer Science", "2015-09", "2019-06");
+            education.setCvId(cv.getId());
+            persist(education);
+
+            cvs.add(cv);
+        }
+        session.clear();
+        return cvs;
+    }
+
+    private <T> T persist(T entity) {
+        session.beginTransaction();
+        session.persist(entity);
+        session.getTransaction().commit();
+        return entity;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.cvservice.services;
+
+import com.example.cvservice.dtos.EducationDto;
+import com.example.cvservice.dtos.ExperienceDto;
+import com.example.cvservice.entities.CV;
+import com.example.cvservice.entities.Education;
+import com.example.cvservice.entities.Experience;
+import com.example.cvservice.entities.PersonalInfo;
+import com.example.cvservice.repositories.cvRepositories.CVCommandRepository;
+import com.example.cvservice.repositories.educationRepositories.EducationCommandRepository;
+import com.example.cvservice.repositories.educationRepositories.EducationQueryRepository;
+import com.example.cvservice.repositories.experienceRepositories.ExperienceCommandRepository;
+import com.example.cvservice.repositories.experienceRepositories.ExperienceQueryRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs CVUpdateService against an in-memory H2 schema with JDBC batching
+ * enabled and counts the SQL statements Hibernate prepares per update.
+ */
+class CVUpdateServiceTest {
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private CVUpdateService cvUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(CV.class)
+                .addAnnotatedClass(PersonalInfo.class)
+                .addAnnotatedClass(Experience.class)
+                .addAnnotatedClass(Education.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:cv-update-" + UUID.randomUUID())
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.globally_quoted_identifiers", "true")
+                .setProperty("hibernate.globally_quoted_identifiers_skip_column_definitions", "true")
+                .setProperty("hibernate.generate_statistics", "true")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+
+        JpaRepositoryFactory factory = new JpaRepositoryFactory(session);
+        cvUpdateService = new CVUpdateService(
+                factory.getRepository(CVCommandRepository.class),
+                factory.getRepository(ExperienceQueryRepository.class),
+                factory.getRepository(ExperienceCommandRepository.class),
+                factory.getRepository(EducationQueryRepository.class),
+                factory.getRepository(EducationCommandRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    void testApplyUpdate_DiffsExperiencesById() {
+        // Arrange
+        CV cv = persist(new CV(UUID.randomUUID(), "CV"));
+        List<Experience> stored = insertExperiences(cv.getId(), 3);
+        Experience kept = stored.get(0);
+        Experience edited = stored.get(1);
+        Experience removed = stored.get(2);
+
+        List<ExperienceDto> incoming = List.of(
+                toDto(kept),
+                new ExperienceDto(edited.getId(), "New Company", edited.getPosition(),
+                        edited.getStartDate(), edited.getEndDate(), edited.getDescription()),
+                new ExperienceDto(null, "Startup", "CTO", "2023-01", null, "Founded it"));
+
+        // Act
+        apply(cv.getId(), null, incoming, null);
+
+        // Assert
+        Map<UUID, Experience> rows = experiencesOf(cv.getId());
+        assertEquals(3, rows.size());
+        assertEquals(kept.getCompany(), rows.get(kept.getId()).getCompany());
+        assertEquals("New Company", rows.get(edited.getId()).getCompany());
+        assertFalse(rows.containsKey(removed.getId()));
+        assertTrue(rows.values().stream().anyMatch(e -> "Startup".equals(e.getCompany())));
+    }
+
+    @Test
+    void testApplyUpdate_ConstantStatementsForAnyListSize() {
+        List<Long> statements = new ArrayList<>();
+        for (int size : new int[] { 2, 20 }) {
+            // Arrange
+            CV cv = persist(new CV(UUID.randomUUID(), "CV"));
+            List<ExperienceDto> experiences = new ArrayList<>();
+            for (Experience e : insertExperiences(cv.getId(), size)) {
+                experiences.add(new ExperienceDto(e.getId(), e.getCompany(), e.getPosition(),
+                        e.getStartDate(), e.getEndDate(), "Rewritten"));
+                experiences.add(new ExperienceDto(null, "Company", "Engineer", "2024-01", null, "Added"));
+            }
+            List<EducationDto> educations = List.of(
+                    new EducationDto(null, "University", "MSc", "Computer Science", "2020-09", "2022-06"));
+
+            // Act
+            sessionFactory.getStatistics().clear();
+            apply(cv.getId(), "Renamed", experiences, educations);
+            statements.add(sessionFactory.getStatistics().getPrepareStatementCount());
+
+            // Assert
+            assertEquals(size * 2, experiencesOf(cv.getId()).size());
+        }
+        // scalar UPDATE + 2 child SELECTs + experience INSERT/UPDATE batches + education INSERT
+        assertEquals(6, statements.get(0));
+        assertEquals(statements.get(0), statements.get(1));
+    }
+
+    @Test
+    void testApplyUpdate_RepeatedAutosaveKeepsClientIdOfNewRow() {
+        // Arrange
+        CV cv = persist(new CV(UUID.randomUUID(), "CV"));
+        UUID clientId = UUID.randomUUID();
+        List<ExperienceDto> incoming = List.of(
+                new ExperienceDto(clientId, "Startup", "CTO", "2023-01", null, "Founded it"));
+        apply(cv.getId(), null, incoming, null);
+
+        // Act
+        sessionFactory.getStatistics().clear();
+        apply(cv.getId(), null, incoming, null);
+        long statements = sessionFactory.getStatistics().getPrepareStatementCount();
+
+        // Assert
+        // scalar UPDATE + experience SELECT, không DELETE/INSERT lại dòng vừa thêm
+        assertEquals(2, statements);
+        assertEquals(0, sessionFactory.getStatistics().getEntityInsertCount());
+        assertEquals(List.of(clientId), List.copyOf(experiencesOf(cv.getId()).keySet()));
+    }
+
+    @Test
+    void testApplyUpdate_FoldsScalarsAndKeepsOmittedColumns() {
+        // Arrange
+        CV cv = persist(new CV(UUID.randomUUID(), "Old title"));
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // Act
+        session.beginTransaction();
+        cvUpdateService.applyUpdate(cv.getId(), "New title", "   ", null, null, true,
+                null, null, null, now);
+        session.getTransaction().commit();
+        session.clear();
+
+        // Assert
+        CV updated = session.get(CV.class, cv.getId());
+        assertEquals("New title", updated.getTitle());
+        assertEquals("#3498db", updated.getColor());
+        assertEquals("modern", updated.getTemplate());
+        assertTrue(updated.getIsVisibility());
+        assertEquals(now, updated.getUpdatedAt());
+    }
+
+    private void apply(UUID cvId, String title, List<ExperienceDto> experiences, List<EducationDto> educations) {
+        session.beginTransaction();
+        cvUpdateService.applyUpdate(cvId, title, null, null, null, null,
+                null, experiences, educations, Instant.now());
+        session.getTransaction().commit();
+        session.clear();
+    }
+
+    private List<Experience> insertExperiences(UUID cvId, int count) {
+        List<Experience> experiences = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Experience experience = new Experience("Company " + i, "Engineer", "2019-0" + (i % 9 + 1), null, "Built things");
+            experience.setCvId(cvId);
+            experiences.add(persist(experience));
+        }
+        session.clear();
+        return experiences;
+    }
+
+    private Map<UUID, Experience> experiencesOf(UUID cvId) {
+        return session.createSelectionQuery("FROM Experience e WHERE e.cvId = :cvId", Experience.class)
+                .setParameter("cvId", cvId)
+                .getResultStream()
+                .collect(Collectors.toMap(Experience::getId, Function.identity()));
+    }
+
+    private static ExperienceDto toDto(Experience e) {
+        return new ExperienceDto(e.getId(), e.getCompany(), e.getPosition(), e.getStartDate(), e.getEndDate(), e.getDescription());
+    }
+
+    private <T> T persist(T entity) {
+        session.beginTransaction();
+        session.persist(entity);
+        session.getTransaction().commit();
+        return entity;
+    }
+}
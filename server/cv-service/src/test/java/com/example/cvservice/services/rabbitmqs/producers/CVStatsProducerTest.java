@@ -0,0 +1,86 @@
+package com.example.cvservice.services.rabbitmqs.producers;
+
+import com.example.rabbitcommon.constants.ActivityEvents;
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CVStatsProducerTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @InjectMocks
+    private CVStatsProducer cvStatsProducer;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testCvCreated_PublishesOnlyAfterCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cvStatsProducer.cvCreated(true);
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(eq(StatsCounters.EXCHANGE), eq(StatsCounters.CV_ROUTING_KEY),
+                any(StatsCounterEvent.class));
+    }
+
+    @Test
+    void testCvDeleted_RollbackPublishesNothing() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cvStatsProducer.cvDeleted(false);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Assert
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    void testCvCreatedActivity_PublishesDeterministicIdAfterCommit() {
+        // Arrange
+        UUID cvId = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        cvStatsProducer.cvCreatedActivity(cvId, UUID.randomUUID(), "Backend CV");
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(rabbitTemplate).convertAndSend(eq(ActivityEvents.EXCHANGE), eq(ActivityEvents.CV_ROUTING_KEY),
+                argThat((ActivityEvent event) -> ("cv_created:" + cvId).equals(event.getEventId())));
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.gatewayservice.filters;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
@@ -10,17 +13,27 @@ import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 
 import com.example.gatewayservice.utils.JwtUtil;
+import com.example.gatewayservice.utils.PathTrie;
+import com.example.gatewayservice.utils.TokenVerifier;
 
 import reactor.core.publisher.Mono;
 
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final TokenVerifier tokenVerifier;
+    private final PathTrie publicPaths;
 
-    public JwtAuthenticationFilter() {
+    public JwtAuthenticationFilter(
+            TokenVerifier tokenVerifier,
+            @Value("${gateway.auth.public-paths:/**/gateway/auth/login,/**/health/**,/**/eureka/**}") String publicPaths) {
         super(Config.class);
+        this.tokenVerifier = tokenVerifier;
+        // Compiled once; matching a path is a walk over its segments, not a scan per pattern
+        this.publicPaths = PathTrie.of(Arrays.asList(publicPaths.split(",")));
     }
 
     @Override
@@ -28,52 +41,44 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
         return (exchange, chain) -> {
             ServerHttpRequest request = exchange.getRequest();
 
-            // Skip auth for certain paths
-            String path = request.getURI().getPath();
-            if (path.contains("/gateway/auth/login") || 
-                path.contains("/health") || 
-                path.contains("/eureka")) {
+            // Skip auth for public paths
+            if (publicPaths.matches(request.getURI().getRawPath())) {
                 return chain.filter(exchange);
             }
 
-            if (!request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                return onError(exchange, "No Authorization header", HttpStatus.UNAUTHORIZED);
-            }
-
-            var authHeaders = request.getHeaders().get(HttpHeaders.AUTHORIZATION);
-            if (authHeaders == null || authHeaders.isEmpty()) {
+            String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (authHeader == null) {
                 return onError(exchange, "No Authorization header", HttpStatus.UNAUTHORIZED);
             }
-
-            String authHeader = authHeaders.get(0);
-            String token = null;
-
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-            } else {
+            if (!authHeader.startsWith(BEARER_PREFIX)) {
                 return onError(exchange, "Invalid Authorization header format", HttpStatus.UNAUTHORIZED);
             }
 
-            try {
-                String username = jwtUtil.extractUsername(token);
-                if (jwtUtil.validateToken(token, username)) {
-                    return chain.filter(exchange);
-                } else {
-                    return onError(exchange, "Invalid JWT token", HttpStatus.UNAUTHORIZED);
-                }
-            } catch (Exception e) {
-                return onError(exchange, "JWT validation failed", HttpStatus.UNAUTHORIZED);
-            }
+            // Malformed and cached tokens are answered here; only cache misses leave the event loop
+            return tokenVerifier.verify(authHeader.substring(BEARER_PREFIX.length()))
+                    .flatMap(verification -> {
+                        if (!verification.isValid()) {
+                            return onError(exchange, "Invalid JWT token", HttpStatus.UNAUTHORIZED);
+                        }
+                        // Later filters reuse the claims instead of parsing the token again
+                        exchange.getAttributes().put(JwtUtil.CLAIMS_ATTRIBUTE, verification.claims());
+                        return chain.filter(exchange);
+                    })
+                    .onErrorResume(RejectedExecutionException.class,
+                            e -> onError(exchange, "Token verification overloaded", HttpStatus.SERVICE_UNAVAILABLE));
         };
     }
 
     private Mono<Void> onError(org.springframework.web.server.ServerWebExchange exchange, String err, HttpStatus httpStatus) {
         ServerHttpResponse response = exchange.getResponse();
         response.setStatusCode(httpStatus);
+        if (httpStatus == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
         return response.setComplete();
     }
 
     public static class Config {
         // Configuration properties if needed
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,343 @@
+package com.example.gatewayservice.filters;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gatewayservice.utils.JwtUtil;
+import com.example.gatewayservice.utils.PathTrie;
+import com.example.gatewayservice.utils.TokenVerifier;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Admission control for expensive routes: a Redis token bucket per caller and a
+ * local cap on in-flight requests, both answering 429 with Retry-After.
+ *
+ * Configured per route, e.g.
+ *   filters[1].name=RequestAdmission
+ *   filters[1].args.paths=/api/v1/ai/analyze/**
+ *   filters[1].args.free-requests-per-minute=5
+ *   filters[1].args.max-in-flight=32
+ *
+ * - Callers are keyed by the verified user id, or by remote address without a
+ *   valid token; the plan comes from the planType claim ("free" or missing is free).
+ *   The claim is only written at login and refresh, so an upgrade is picked up
+ *   once the caller's current access token is refreshed, not the moment the
+ *   payment succeeds
+ * - The bucket lives in Redis so every gateway replica draws from the same
+ *   budget; refill and take run in one script on the Redis clock
+ * - In-flight requests are counted per replica and released when the response
+ *   completes or the client goes away; free callers may only use part of the
+ *   capacity so paid callers keep headroom
+ * - When Redis is slow or down the bucket is skipped (fail open) and only the
+ *   in-flight cap protects the backend
+ */
+@Component
+@Slf4j
+public class RequestAdmissionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<RequestAdmissionGatewayFilterFactory.Config> {
+
+    private static final String KEY_PREFIX = "gateway:ratelimit:";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String ACCESS_TOKEN_COOKIE = "access_token";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String FREE_PLAN = "free";
+    private static final String PAID_PLAN = "paid";
+
+    /**
+     * KEYS[1] bucket hash; ARGV rate (tokens per second), capacity, requested.
+     * Returns {allowed, tokens left, milliseconds until enough tokens}
+     */
+    private static final RedisScript<List<Long>> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local rate = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1])
+            local ts = tonumber(bucket[2])
+            if tokens == nil or ts == nil then
+              tokens = capacity
+              ts = now
+            end
+            tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)
+            local allowed = 0
+            local wait = 0
+            if tokens >= requested then
+              tokens = tokens - requested
+              allowed = 1
+            else
+              wait = math.ceil((requested - tokens) * 1000 / rate)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tokens, 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)
+            return {allowed, math.floor(tokens), wait}
+            """, longList());
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final TokenVerifier tokenVerifier;
+    private final MeterRegistry meterRegistry;
+    // One limiter per route, kept across route refreshes so in-flight counts stay accurate
+    private final ConcurrentHashMap<String, InFlightLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RequestAdmissionGatewayFilterFactory(
+            ReactiveStringRedisTemplate redisTemplate,
+            TokenVerifier tokenVerifier,
+            MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.redisTemplate = redisTemplate;
+        this.tokenVerifier = tokenVerifier;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathTrie paths = PathTrie.of(config.getPaths());
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Duration lookupTimeout = Duration.ofMillis(config.getLookupTimeoutMs());
+        InFlightLimiter limiter = limiters.compute(routeId, (id, existing) ->
+                existing != null && existing.hasLimits(config.getMaxInFlight(), config.getFreeMaxInFlight())
+                        ? existing
+                        : new InFlightLimiter(config.getMaxInFlight(), config.getFreeMaxInFlight()));
+        Gauge.builder("gateway.admission.in_flight", limiters, current -> current.get(routeId).inFlight())
+                .description("Requests admitted and not yet completed on this gateway replica")
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (!config.getPaths().isEmpty() && !paths.matches(exchange.getRequest().getURI().getRawPath())) {
+                return chain.filter(exchange);
+            }
+
+            return caller(exchange).flatMap(caller -> {
+                boolean paid = PAID_PLAN.equals(caller.plan());
+                // Local and cheap, so an overloaded backend is shed before any Redis round trip
+                if (!limiter.tryAcquire(paid)) {
+                    admissionCounter(routeId, caller.plan(), "shed").increment();
+                    return reject(exchange, config.getShedRetryAfterSeconds());
+                }
+
+                return takeToken(routeId, caller, config, lookupTimeout)
+                        .flatMap(decision -> {
+                            if (!decision.allowed()) {
+                                admissionCounter(routeId, caller.plan(), "rate_limited").increment();
+                                return reject(exchange, Math.max(1, (decision.waitMillis() + 999) / 1000));
+                            }
+                            admissionCounter(routeId, caller.plan(), decision.failedOpen() ? "fail_open" : "admitted")
+                                    .increment();
+                            if (decision.remaining() >= 0) {
+                                exchange.getResponse().getHeaders()
+                                        .set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+                            }
+                            return chain.filter(exchange);
+                        })
+                        // Covers completion, errors and cancelled streams alike
+                        .doFinally(signal -> limiter.release(paid));
+            });
+        };
+    }
+
+    /**
+     * Bucket key and plan of the caller; an invalid or missing token counts as
+     * a free caller keyed by its address
+     */
+    private Mono<Caller> caller(ServerWebExchange exchange) {
+        Claims verified = exchange.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE);
+        if (verified != null) {
+            return Mono.just(fromClaims(verified));
+        }
+        Caller anonymous = new Caller("ip:" + remoteAddress(exchange.getRequest()), FREE_PLAN);
+        String token = token(exchange.getRequest());
+        if (token == null) {
+            return Mono.just(anonymous);
+        }
+        return tokenVerifier.verify(token)
+                .map(verification -> verification.isValid() ? fromClaims(verification.claims()) : anonymous)
+                .onErrorReturn(anonymous);
+    }
+
+    private Mono<Decision> takeToken(String routeId, Caller caller, Config config, Duration timeout) {
+        boolean paid = PAID_PLAN.equals(caller.plan());
+        double perMinute = paid ? config.getPaidRequestsPerMinute() : config.getFreeRequestsPerMinute();
+        int burst = paid ? config.getPaidBurst() : config.getFreeBurst();
+        if (perMinute <= 0 || burst <= 0) {
+            return Mono.just(Decision.UNLIMITED);
+        }
+
+        String key = KEY_PREFIX + routeId + ":" + caller.key();
+        return redisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                        List.of(String.valueOf(perMinute / 60.0), String.valueOf(burst), "1"))
+                .next()
+                .timeout(timeout)
+                .map(RequestAdmissionGatewayFilterFactory::decision)
+                .defaultIfEmpty(Decision.FAIL_OPEN)
+                .onErrorResume(e -> {
+                    log.warn("Rate limiter unavailable for {}, admitting request: {}", key, e.getMessage());
+                    return Mono.just(Decision.FAIL_OPEN);
+                });
+    }
+
+    private static Decision decision(List<Long> result) {
+        if (result.size() < 3) {
+            return Decision.FAIL_OPEN;
+        }
+        return new Decision(result.get(0) == 1, result.get(1), result.get(2), false);
+    }
+
+    // Redis integer replies decode to Long; the erased List class stands in for List<Long>
+    @SuppressWarnings("unchecked")
+    private static Class<List<Long>> longList() {
+        return (Class<List<Long>>) (Class<?>) List.class;
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long retryAfterSeconds) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private static Caller fromClaims(Claims claims) {
+        String plan = claims.get("planType") instanceof String planType && !FREE_PLAN.equalsIgnoreCase(planType)
+                ? PAID_PLAN
+                : FREE_PLAN;
+        return new Caller("user:" + claims.get("userId"), plan);
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static String token(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            return authHeader.substring(BEARER_PREFIX.length());
+        }
+        HttpCookie cookie = request.getCookies().getFirst(ACCESS_TOKEN_COOKIE);
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    private Counter admissionCounter(String routeId, String plan, String outcome) {
+        return Counter.builder("gateway.admission.requests")
+                .description("Admission decisions by route, plan and outcome")
+                .tag("route", routeId)
+                .tag("plan", plan)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Caller(String key, String plan) {
+    }
+
+    /**
+     * Outcome of the token bucket; remaining is -1 when the bucket was skipped
+     */
+    private record Decision(boolean allowed, long remaining, long waitMillis, boolean failedOpen) {
+
+        static final Decision UNLIMITED = new Decision(true, -1, 0, false);
+        static final Decision FAIL_OPEN = new Decision(true, -1, 0, true);
+    }
+
+    /**
+     * Counts in-flight requests of one route; free callers are capped below the
+     * route capacity. A capacity of zero or less disables the check
+     */
+    static final class InFlightLimiter {
+
+        private final AtomicInteger total = new AtomicInteger();
+        private final AtomicInteger free = new AtomicInteger();
+        private final int maxInFlight;
+        private final int freeMaxInFlight;
+
+        InFlightLimiter(int maxInFlight, int freeMaxInFlight) {
+            this.maxInFlight = maxInFlight;
+            this.freeMaxInFlight = cappedFree(maxInFlight, freeMaxInFlight);
+        }
+
+        boolean hasLimits(int maxInFlight, int freeMaxInFlight) {
+            return this.maxInFlight == maxInFlight && this.freeMaxInFlight == cappedFree(maxInFlight, freeMaxInFlight);
+        }
+
+        private static int cappedFree(int maxInFlight, int freeMaxInFlight) {
+            return freeMaxInFlight > 0 ? Math.min(freeMaxInFlight, maxInFlight) : maxInFlight;
+        }
+
+        boolean tryAcquire(boolean paid) {
+            if (maxInFlight <= 0) {
+                return true;
+            }
+            if (!paid && free.incrementAndGet() > freeMaxInFlight) {
+                free.decrementAndGet();
+                return false;
+            }
+            if (total.incrementAndGet() > maxInFlight) {
+                total.decrementAndGet();
+                if (!paid) {
+                    free.decrementAndGet();
+                }
+                return false;
+            }
+            return true;
+        }
+
+        void release(boolean paid) {
+            if (maxInFlight <= 0) {
+                return;
+            }
+            total.decrementAndGet();
+            if (!paid) {
+                free.decrementAndGet();
+            }
+        }
+
+        int inFlight() {
+            return total.get();
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        // Requests the filter applies to (PathTrie syntax); empty means the whole route
+        private List<String> paths = new ArrayList<>();
+        // Sustained rate and bucket size per caller, by plan
+        private double freeRequestsPerMinute = 5;
+        private int freeBurst = 5;
+        private double paidRequestsPerMinute = 30;
+        private int paidBurst = 20;
+        // In-flight cap on this replica, and the part of it free callers may use
+        private int maxInFlight = 32;
+        private int freeMaxInFlight = 16;
+        private long shedRetryAfterSeconds = 5;
+        private long lookupTimeoutMs = 200;
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.gatewayservice.filters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gatewayservice.utils.JwtUtil;
+import com.example.gatewayservice.utils.PathTrie;
+import com.example.gatewayservice.utils.TokenVerifier;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches successful GET responses of a route in Redis, shared by all gateway replicas.
+ *
+ * Configured per route, e.g.
+ *   filters[1].name=ResponseCache
+ *   filters[1].args.ttl=30
+ *   filters[1].args.scope=principal
+ *   filters[1].args.paths=/api/v1/stats,/api/v1/stats/activities
+ *
+ * - Only GET requests on the listed paths (PathTrie syntax) are cached
+ * - scope=principal keys entries by the verified user id; scope=shared is for
+ *   responses that do not depend on the caller
+ * - Only 200 responses without Set-Cookie and below max-bytes are stored
+ * - The upstream Cache-Control is honoured: no-store is never stored, and
+ *   private is only stored under scope=principal, where the entry is per user
+ * - Every cached response carries an ETag; a matching If-None-Match gets 304
+ * - Requests with an invalid token or Cache-Control: no-cache bypass the cache
+ */
+@Component
+@Slf4j
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    private static final String KEY_PREFIX = "gateway:cache:";
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final String ACCESS_TOKEN_COOKIE = "access_token";
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final TokenVerifier tokenVerifier;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheGatewayFilterFactory(
+            ReactiveStringRedisTemplate redisTemplate,
+            TokenVerifier tokenVerifier,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.redisTemplate = redisTemplate;
+        this.tokenVerifier = tokenVerifier;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        PathTrie paths = PathTrie.of(config.getPaths());
+        Duration ttl = Duration.ofSeconds(config.getTtl());
+        Duration lookupTimeout = Duration.ofMillis(config.getLookupTimeoutMs());
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || !paths.matches(request.getURI().getRawPath())
+                    || noCache(request)) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = routeId(exchange);
+            return principal(exchange, config.getScope())
+                    .flatMap(principal -> {
+                        if (principal.isEmpty()) {
+                            // Invalid token: let the backend answer it, never from cache
+                            cacheCounter(routeId, "bypass").increment();
+                            return chain.filter(exchange);
+                        }
+                        String key = key(routeId, request, principal);
+                        // Optional keeps "no entry" apart from serveCached completing empty
+                        return lookup(key, lookupTimeout)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                .flatMap(cached -> {
+                                    if (cached.isPresent()) {
+                                        return serveCached(exchange, routeId, cached.get());
+                                    }
+                                    cacheCounter(routeId, "miss").increment();
+                                    return chain.filter(exchange.mutate()
+                                            .response(new CachingResponse(exchange, key, ttl, config.getMaxBytes(),
+                                                    shared(config.getScope())))
+                                            .build());
+                                });
+                    });
+        };
+    }
+
+    /**
+     * Who the entry belongs to: "" for an invalid token, "*" for shared routes
+     */
+    private Mono<String> principal(ServerWebExchange exchange, String scope) {
+        if (shared(scope)) {
+            return Mono.just("*");
+        }
+
+        Claims verified = exchange.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE);
+        if (verified != null) {
+            return Mono.just(String.valueOf(verified.get("userId")));
+        }
+        String token = token(exchange.getRequest());
+        if (token == null) {
+            return Mono.just(ANONYMOUS);
+        }
+        return tokenVerifier.verify(token)
+                .map(verification -> verification.isValid()
+                        ? String.valueOf(verification.claims().get("userId"))
+                        : "")
+                .onErrorReturn("");
+    }
+
+    private Mono<CachedResponse> lookup(String key, Duration timeout) {
+        return redisTemplate.opsForValue().get(key)
+                .timeout(timeout)
+                .flatMap(json -> {
+                    try {
+                        return Mono.just(objectMapper.readValue(json, CachedResponse.class));
+                    } catch (JsonProcessingException e) {
+                        return Mono.empty();
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.warn("Response cache lookup failed for {}: {}", key, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> serveCached(ServerWebExchange exchange, String routeId, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_STATUS_HEADER, "HIT");
+
+        if (matches(exchange.getRequest(), cached.etag())) {
+            cacheCounter(routeId, "not_modified").increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        cacheCounter(routeId, "hit").increment();
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        if (cached.cacheControl() != null) {
+            headers.set(HttpHeaders.CACHE_CONTROL, cached.cacheControl());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private void store(String key, CachedResponse entry, Duration ttl) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        redisTemplate.opsForValue().set(key, json, ttl)
+                .subscribe(stored -> { }, e -> log.warn("Failed to store cached response {}: {}", key, e.getMessage()));
+    }
+
+    private static boolean shared(String scope) {
+        return "shared".equalsIgnoreCase(scope);
+    }
+
+    /**
+     * Whether the upstream Cache-Control allows this gateway to keep the response
+     */
+    private static boolean storable(HttpHeaders headers, boolean shared) {
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return true;
+        }
+        String directives = cacheControl.toLowerCase();
+        return !directives.contains("no-store") && !(shared && directives.contains("private"));
+    }
+
+    private static boolean noCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static boolean matches(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        return ifNoneMatch.contains(etag) || ifNoneMatch.contains("*");
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, String principal) {
+        String query = request.getURI().getRawQuery();
+        String target = request.getURI().getRawPath() + (query != null ? "?" + query : "") + "|" + principal;
+        return KEY_PREFIX + routeId + ":" + hash(target.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String token(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            return authHeader.substring(BEARER_PREFIX.length());
+        }
+        HttpCookie cookie = request.getCookies().getFirst(ACCESS_TOKEN_COOKIE);
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Counter cacheCounter(String routeId, String result) {
+        return Counter.builder("gateway.cache.requests")
+                .description("Response cache lookups by route and result")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers a backend response so it can be stored and tagged with an ETag
+     * before it is written to the client
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String key;
+        private final Duration ttl;
+        private final int maxBytes;
+        private final boolean shared;
+
+        CachingResponse(ServerWebExchange exchange, String key, Duration ttl, int maxBytes, boolean shared) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.key = key;
+            this.ttl = ttl;
+            this.maxBytes = maxBytes;
+            this.shared = shared;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getStatusCode() != HttpStatus.OK || getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    || getHeaders().getContentLength() > maxBytes || !storable(getHeaders(), shared)) {
+                return super.writeWith(body);
+            }
+
+            return Flux.from(body).collectList().doOnDiscard(DataBuffer.class, DataBufferUtils::release).flatMap(buffers -> {
+                long size = 0;
+                for (DataBuffer buffer : buffers) {
+                    size += buffer.readableByteCount();
+                }
+                if (size > maxBytes) {
+                    return super.writeWith(Flux.fromIterable(buffers));
+                }
+
+                byte[] content = new byte[(int) size];
+                int offset = 0;
+                for (DataBuffer buffer : buffers) {
+                    int length = buffer.readableByteCount();
+                    buffer.read(content, offset, length);
+                    offset += length;
+                    DataBufferUtils.release(buffer);
+                }
+
+                String etag = "\"" + hash(content) + "\"";
+                store(key, new CachedResponse(getHeaders().getFirst(HttpHeaders.CONTENT_TYPE),
+                        getHeaders().getCacheControl(), etag, content), ttl);
+
+                getHeaders().setETag(etag);
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                if (matches(exchange.getRequest(), etag)) {
+                    setStatusCode(HttpStatus.NOT_MODIFIED);
+                    getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+                    getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+                    return getDelegate().setComplete();
+                }
+                getHeaders().setContentLength(content.length);
+                return super.writeWith(Mono.just(bufferFactory().wrap(content)));
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).flatMapSequential(p -> p));
+        }
+    }
+
+    /**
+     * Redis entry: the body is stored base64 encoded inside the JSON document
+     */
+    public record CachedResponse(String contentType, String cacheControl, String etag, byte[] body) {
+    }
+
+    @Data
+    public static class Config {
+        // Seconds an entry is served before the backend is asked again
+        private long ttl = 30;
+        // "principal" (per verified user) or "shared" (same entry for everyone)
+        private String scope = "principal";
+        private List<String> paths = new ArrayList<>();
+        private int maxBytes = 512 * 1024;
+        private long lookupTimeoutMs = 200;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.gatewayservice.filters;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gatewayservice.utils.IdentityHeaderSigner;
+import com.example.gatewayservice.utils.JwtUtil;
+import com.example.gatewayservice.utils.TokenVerifier;
+
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Trusted-edge mode: verify the access token once at the gateway and forward a
+ * signed identity instead, so downstream services check a cheap HMAC rather
+ * than the RSA signature again.
+ *
+ * - Identity headers sent by clients are always dropped
+ * - A valid token is replaced by X-Auth-Identity / X-Auth-Signature and removed
+ *   from the Authorization header and the access_token cookie
+ * - A missing or invalid token is forwarded untouched, so downstream services
+ *   answer exactly as they do without this mode
+ */
+@Component
+@Slf4j
+public class TrustedEdgeFilter implements GlobalFilter, Ordered {
+
+    private static final String ACCESS_TOKEN_COOKIE = "access_token";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenVerifier tokenVerifier;
+    private final IdentityHeaderSigner signer;
+    private final boolean enabled;
+
+    public TrustedEdgeFilter(
+            TokenVerifier tokenVerifier,
+            IdentityHeaderSigner signer,
+            @Value("${gateway.trusted-edge.enabled:false}") boolean enabled) {
+        this.tokenVerifier = tokenVerifier;
+        this.signer = signer;
+        this.enabled = enabled && signer.hasSecret();
+        if (enabled && !signer.hasSecret()) {
+            log.warn("Trusted-edge mode requested without TRUSTED_EDGE_SECRET, tokens are forwarded as is");
+        }
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!enabled) {
+            return chain.filter(withoutIdentityHeaders(exchange));
+        }
+
+        return verifiedClaims(exchange)
+                .map(claims -> withSignedIdentity(exchange, claims))
+                .switchIfEmpty(Mono.fromSupplier(() -> withoutIdentityHeaders(exchange)))
+                .flatMap(chain::filter);
+    }
+
+    @Override
+    public int getOrder() {
+        // After route filters, so a token JwtAuthenticationFilter already verified is not parsed again
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER + 1;
+    }
+
+    private Mono<Claims> verifiedClaims(ServerWebExchange exchange) {
+        Claims verified = exchange.getAttribute(JwtUtil.CLAIMS_ATTRIBUTE);
+        if (verified != null) {
+            return Mono.just(verified);
+        }
+
+        String token = token(exchange.getRequest());
+        if (token == null) {
+            return Mono.empty();
+        }
+        return tokenVerifier.verify(token)
+                .filter(TokenVerifier.Verification::isValid)
+                .map(TokenVerifier.Verification::claims)
+                // Saturated verifier: forward the token and let the downstream service check it
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Replace the token by signed identity headers; claims missing a field the
+     * identity needs are left for the downstream service to reject
+     */
+    private ServerWebExchange withSignedIdentity(ServerWebExchange exchange, Claims claims) {
+        String userId = claims.get("userId", String.class);
+        String role = claims.get("role", String.class);
+        String email = claims.get("email", String.class) != null
+                ? claims.get("email", String.class)
+                : claims.get("username", String.class);
+        if (userId == null || role == null || email == null) {
+            return withoutIdentityHeaders(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        String identity = signer.identity(userId, email, role);
+        String signature = signer.sign(identity);
+        String cookies = cookiesWithoutAccessToken(request);
+
+        ServerHttpRequest forwarded = request.mutate().headers(h -> {
+            h.remove(HttpHeaders.AUTHORIZATION);
+            h.remove(HttpHeaders.COOKIE);
+            if (!cookies.isEmpty()) {
+                h.set(HttpHeaders.COOKIE, cookies);
+            }
+            h.set(IdentityHeaderSigner.IDENTITY_HEADER, identity);
+            h.set(IdentityHeaderSigner.SIGNATURE_HEADER, signature);
+        }).build();
+        return exchange.mutate().request(forwarded).build();
+    }
+
+    /**
+     * Identity headers sent by clients are never forwarded
+     */
+    private static ServerWebExchange withoutIdentityHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(IdentityHeaderSigner.IDENTITY_HEADER)
+                && !headers.containsKey(IdentityHeaderSigner.SIGNATURE_HEADER)) {
+            return exchange;
+        }
+        return exchange.mutate().request(exchange.getRequest().mutate().headers(h -> {
+            h.remove(IdentityHeaderSigner.IDENTITY_HEADER);
+            h.remove(IdentityHeaderSigner.SIGNATURE_HEADER);
+        }).build()).build();
+    }
+
+    private static String token(ServerHttpRequest request) {
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            return authHeader.substring(BEARER_PREFIX.length());
+        }
+        HttpCookie cookie = request.getCookies().getFirst(ACCESS_TOKEN_COOKIE);
+        return cookie != null ? cookie.getValue() : null;
+    }
+
+    private static String cookiesWithoutAccessToken(ServerHttpRequest request) {
+        return request.getCookies().entrySet().stream()
+                .filter(entry -> !ACCESS_TOKEN_COOKIE.equals(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream())
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
+}
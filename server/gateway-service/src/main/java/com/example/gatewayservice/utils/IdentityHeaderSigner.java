@@ -0,0 +1,52 @@
+package com.example.gatewayservice.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the identity headers forwarded to downstream services in trusted-edge mode.
+ *
+ * - X-Auth-Identity: base64url("1\n{userId}\n{email}\n{role}\n{issuedAtMillis}")
+ * - X-Auth-Signature: base64url(HMAC-SHA256(TRUSTED_EDGE_SECRET, X-Auth-Identity))
+ *
+ * The format must stay in sync with TrustedIdentityVerifier in security-common.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    public static final String IDENTITY_HEADER = "X-Auth-Identity";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "1";
+
+    @Value("${TRUSTED_EDGE_SECRET:}")
+    private String secret;
+
+    public boolean hasSecret() {
+        return secret != null && !secret.isBlank();
+    }
+
+    public String identity(String userId, String email, String role) {
+        String payload = String.join("\n", VERSION, userId, email, role, String.valueOf(System.currentTimeMillis()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String sign(String identity) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            byte[] signature = mac.doFinal(identity.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign identity header", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.gatewayservice.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 
@@ -11,19 +13,27 @@ import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
-import java.util.Date;
-import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    // Exchange attribute holding the claims once a filter has verified the token
+    public static final String CLAIMS_ATTRIBUTE = JwtUtil.class.getName() + ".claims";
+
+    private static final String TOKEN_TYPE_ACCESS = "ACCESS";
+
     @Value("${JWT_PUBLIC_KEY}")
     private String publicKeyStr;
     private PublicKey publicKey;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.publicKey = getPublicKey(publicKeyStr);
+        // The parser is immutable and thread-safe, build it once
+        this.parser = Jwts.parser()
+                .verifyWith(publicKey)
+                .build();
     }
 
     private PublicKey getPublicKey(String key) {
@@ -37,37 +47,17 @@ public class JwtUtil {
         }
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(publicKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public Boolean validateToken(String token, String username) {
-        try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token));
-        } catch (Exception e) {
-            return false;
+    /**
+     * Verify the signature and expiry of an access token in a single parse
+     * and return its claims
+     *
+     * @throws JwtException when the token is invalid, expired or not an access token
+     */
+    public Claims validateAccessToken(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (!TOKEN_TYPE_ACCESS.equals(claims.get("tokenType", String.class))) {
+            throw new JwtException("Unsupported token type");
         }
+        return claims;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.example.gatewayservice.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Segment trie of path patterns, built once and matched without allocating.
+ *
+ * Patterns are split on '/':
+ * - a literal segment matches itself
+ * - "*" matches exactly one segment
+ * - "**" matches zero or more segments
+ *
+ * e.g. "/eureka/**" matches "/eureka" and "/eureka/apps/gateway", and
+ * "/api/v1/users/*" matches "/api/v1/users/health" but not "/api/v1/users/a/b".
+ */
+public final class PathTrie {
+
+    private final Node root = new Node();
+
+    public static PathTrie of(Collection<String> patterns) {
+        PathTrie trie = new PathTrie();
+        for (String pattern : patterns) {
+            if (pattern != null && !pattern.isBlank()) {
+                trie.add(pattern.trim());
+            }
+        }
+        return trie;
+    }
+
+    private void add(String pattern) {
+        Node node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if ("**".equals(segment)) {
+                if (node.anySegments == null) {
+                    node.anySegments = new Node();
+                }
+                node = node.anySegments;
+            } else if ("*".equals(segment)) {
+                if (node.oneSegment == null) {
+                    node.oneSegment = new Node();
+                }
+                node = node.oneSegment;
+            } else {
+                node = node.literal(segment);
+            }
+        }
+        node.terminal = true;
+    }
+
+    public boolean matches(String path) {
+        return path != null && matches(root, path, 0);
+    }
+
+    private static boolean matches(Node node, String path, int from) {
+        int start = from;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+
+        if (node.anySegments != null) {
+            // Try "**" as zero, one, two... segments
+            int boundary = start;
+            while (true) {
+                if (node.anySegments.terminal || matches(node.anySegments, path, boundary)) {
+                    return true;
+                }
+                if (boundary >= path.length()) {
+                    break;
+                }
+                int next = path.indexOf('/', boundary);
+                boundary = next < 0 ? path.length() : next + 1;
+            }
+        }
+
+        if (start >= path.length()) {
+            return node.terminal;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - start;
+
+        for (int i = 0; i < node.names.size(); i++) {
+            String name = node.names.get(i);
+            if (name.length() == length && path.regionMatches(start, name, 0, length)
+                    && matches(node.children.get(i), path, end)) {
+                return true;
+            }
+        }
+        return node.oneSegment != null && matches(node.oneSegment, path, end);
+    }
+
+    private static final class Node {
+        // Few children per node, a linear scan beats hashing a substring
+        private final List<String> names = new ArrayList<>(2);
+        private final List<Node> children = new ArrayList<>(2);
+        private Node oneSegment;
+        private Node anySegments;
+        private boolean terminal;
+
+        private Node literal(String name) {
+            int index = names.indexOf(name);
+            if (index >= 0) {
+                return children.get(index);
+            }
+            Node child = new Node();
+            names.add(name);
+            children.add(child);
+            return child;
+        }
+    }
+}
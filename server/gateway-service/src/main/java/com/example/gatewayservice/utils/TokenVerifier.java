@@ -0,0 +1,223 @@
+package com.example.gatewayservice.utils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies access tokens for gateway filters without blocking the event loop.
+ *
+ * - Tokens that cannot be a compact JWS are rejected before any cryptography
+ * - Verdicts are cached by token digest: valid tokens until their exp,
+ *   rejected ones for negative-ttl, so a replayed bad token costs one lookup.
+ *   Rejections live in their own, smaller cache, so a flood of forged tokens
+ *   cannot push valid verdicts out
+ * - Cache misses run the RSA check on a small bounded pool; when its queue
+ *   is full, verify fails with a RejectedExecutionException
+ *
+ * Invalid tokens complete with an invalid Verification instead of an error.
+ */
+@Component
+public class TokenVerifier {
+
+    private static final int MIN_TOKEN_LENGTH = 16;
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private final JwtUtil jwtUtil;
+    // null when caching is disabled (max-size <= 0)
+    private final Cache<String, Verification> verdicts;
+    private final Cache<String, Verification> rejections;
+    private final long negativeTtlMillis;
+    private final ThreadPoolExecutor executor;
+    private final Scheduler scheduler;
+    private final Counter cachedCounter;
+    private final Counter verifiedCounter;
+    private final Counter malformedCounter;
+    private final Counter invalidCounter;
+
+    public TokenVerifier(
+            JwtUtil jwtUtil,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.auth.cache.max-size:10000}") int cacheMaxSize,
+            @Value("${gateway.auth.cache.negative-max-size:1000}") int negativeMaxSize,
+            @Value("${gateway.auth.cache.negative-ttl-seconds:60}") long negativeTtlSeconds,
+            @Value("${gateway.auth.verify.threads:0}") int threads,
+            @Value("${gateway.auth.verify.queue-capacity:256}") int queueCapacity) {
+        this.jwtUtil = jwtUtil;
+        this.negativeTtlMillis = TimeUnit.SECONDS.toMillis(negativeTtlSeconds);
+        this.verdicts = cacheMaxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilExpiry())
+                .build();
+        this.rejections = cacheMaxSize <= 0 || negativeMaxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfter(new UntilExpiry())
+                .build();
+
+        // RSA verification is CPU bound: one thread per core unless configured
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("jwt-verify-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "jwt-verify");
+
+        this.cachedCounter = verificationCounter(meterRegistry, "cached");
+        this.verifiedCounter = verificationCounter(meterRegistry, "verified");
+        this.malformedCounter = verificationCounter(meterRegistry, "malformed");
+        this.invalidCounter = verificationCounter(meterRegistry, "invalid");
+    }
+
+    public Mono<Verification> verify(String token) {
+        if (!isWellFormed(token)) {
+            malformedCounter.increment();
+            return Mono.just(Verification.INVALID);
+        }
+
+        String key = digest(token);
+        Verification cached = lookup(key);
+        if (cached != null) {
+            cachedCounter.increment();
+            return Mono.just(cached);
+        }
+
+        return Mono.fromCallable(() -> verifyNow(key, token)).subscribeOn(scheduler);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.dispose();
+    }
+
+    private Verification verifyNow(String key, String token) {
+        Verification verification;
+        try {
+            Claims claims = jwtUtil.validateAccessToken(token);
+            if (claims.getExpiration() == null) {
+                // Never cached: without exp there is no safe point to drop it
+                verifiedCounter.increment();
+                return new Verification(claims, 0);
+            }
+            verification = new Verification(claims, claims.getExpiration().getTime());
+            verifiedCounter.increment();
+        } catch (JwtException | IllegalArgumentException e) {
+            verification = new Verification(null, System.currentTimeMillis() + negativeTtlMillis);
+            invalidCounter.increment();
+        }
+        remember(key, verification);
+        return verification;
+    }
+
+    private Verification lookup(String key) {
+        Verification cached = verdicts != null ? verdicts.getIfPresent(key) : null;
+        if (cached == null && rejections != null) {
+            cached = rejections.getIfPresent(key);
+        }
+        return cached;
+    }
+
+    private void remember(String key, Verification verification) {
+        Cache<String, Verification> cache = verification.isValid() ? verdicts : rejections;
+        if (cache != null) {
+            cache.put(key, verification);
+        }
+    }
+
+    /**
+     * Cheap shape check of a compact JWS: three base64url parts, a JSON header
+     * ("eyJ") and a bounded length. Runs on the event loop without allocating
+     */
+    static boolean isWellFormed(String token) {
+        if (token == null || token.length() < MIN_TOKEN_LENGTH || token.length() > MAX_TOKEN_LENGTH
+                || !token.startsWith("eyJ")) {
+            return false;
+        }
+        int dots = 0;
+        int lastDot = -1;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                // Empty header or payload
+                if (i == lastDot + 1) {
+                    return false;
+                }
+                dots++;
+                lastDot = i;
+            } else if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        // An unsigned token has an empty third part, which is never accepted
+        return dots == 2 && lastDot < token.length() - 1;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter verificationCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.auth.verifications")
+                .description("Access token checks at the gateway by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    // Entries live until the verdict's own expiresAtMillis; reads never extend it
+    private static class UntilExpiry implements Expiry<String, Verification> {
+
+        @Override
+        public long expireAfterCreate(String key, Verification verification, long currentTime) {
+            long remaining = verification.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Verification verification, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, verification, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Verification verification, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Outcome of a token check; claims is null when the token was rejected
+     */
+    public record Verification(Claims claims, long expiresAtMillis) {
+
+        static final Verification INVALID = new Verification(null, 0);
+
+        public boolean isValid() {
+            return claims != null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.gatewayservice.filters;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.gatewayservice.utils.JwtUtil;
+import com.example.gatewayservice.utils.TokenVerifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RequestAdmissionGatewayFilterFactoryTest {
+
+    private static final String ANALYZE_PATH = "/api/v1/ai/analyze";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private TokenVerifier tokenVerifier;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private RequestAdmissionGatewayFilterFactory factory;
+    private RequestAdmissionGatewayFilterFactory.Config config;
+
+    @BeforeEach
+    void setUp() {
+        factory = new RequestAdmissionGatewayFilterFactory(redisTemplate, tokenVerifier, meterRegistry);
+        config = new RequestAdmissionGatewayFilterFactory.Config();
+        config.setRouteId("ai-service");
+        config.setPaths(List.of("/api/v1/ai/analyze/**"));
+    }
+
+    @Test
+    void testFilter_AdmitsWithinBucketAndKeysByUser() {
+        // Arrange
+        bucketReturns(1L, 19L, 0L);
+        MockServerWebExchange exchange = exchange("pro");
+
+        // Act
+        factory.apply(config).filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(1, backendCalls.get());
+        assertEquals("19", exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        verify(redisTemplate).execute(anyScript(), eq(List.of("gateway:ratelimit:ai-service:user:42")),
+                eq(List.of("0.5", "20", "1")));
+        assertEquals(1.0, meterRegistry.get("gateway.admission.requests")
+                .tags("route", "ai-service", "plan", "paid", "outcome", "admitted").counter().count());
+    }
+
+    @Test
+    void testFilter_EmptyBucketReturns429WithRetryAfter() {
+        // Arrange
+        bucketReturns(0L, 0L, 11_500L);
+        MockServerWebExchange exchange = exchange("free");
+
+        // Act
+        factory.apply(config).filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(0, backendCalls.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exchange.getResponse().getStatusCode());
+        assertEquals("12", exchange.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("gateway.admission.requests")
+                .tags("plan", "free", "outcome", "rate_limited").counter().count());
+    }
+
+    @Test
+    void testFilter_ShedsWhenInFlightCapReachedAndReleasesOnCancel() {
+        // Arrange
+        bucketReturns(1L, 4L, 0L);
+        config.setMaxInFlight(1);
+        GatewayFilter filter = factory.apply(config);
+        GatewayFilterChain hangingBackend = exchange -> Mono.never();
+
+        // Act
+        Disposable pending = filter.filter(exchange("free"), hangingBackend).subscribe();
+        MockServerWebExchange shed = exchange("pro");
+        filter.filter(shed, backend()).block();
+        double inFlight = meterRegistry.get("gateway.admission.in_flight").tags("route", "ai-service").gauge().value();
+        pending.dispose();
+        filter.filter(exchange("pro"), backend()).block();
+
+        // Assert
+        assertEquals(1.0, inFlight);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, shed.getResponse().getStatusCode());
+        assertEquals("5", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, backendCalls.get());
+        assertEquals(0.0, meterRegistry.get("gateway.admission.in_flight").gauge().value());
+    }
+
+    @Test
+    void testFilter_RedisFailureFailsOpen() {
+        // Arrange
+        when(redisTemplate.execute(anyScript(), anyList(), anyList()))
+                .thenReturn(Flux.error(new RedisConnectionFailureException("down")));
+        MockServerWebExchange exchange = exchange("free");
+
+        // Act
+        factory.apply(config).filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(1, backendCalls.get());
+        assertNull(exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+        assertEquals(1.0, meterRegistry.get("gateway.admission.requests")
+                .tags("outcome", "fail_open").counter().count());
+    }
+
+    @Test
+    void testFilter_OtherPathsPassThrough() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/ai/health"));
+
+        // Act
+        factory.apply(config).filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(1, backendCalls.get());
+        verifyNoInteractions(redisTemplate, tokenVerifier);
+    }
+
+    private void bucketReturns(long allowed, long remaining, long waitMillis) {
+        when(redisTemplate.execute(anyScript(), anyList(), anyList()))
+                .thenReturn(Flux.just(List.of(allowed, remaining, waitMillis)));
+    }
+
+    private static RedisScript<List<Long>> anyScript() {
+        return any();
+    }
+
+    private static MockServerWebExchange exchange(String planType) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post(ANALYZE_PATH));
+        Claims claims = Jwts.claims().add(Map.of("userId", "42", "planType", planType)).build();
+        exchange.getAttributes().put(JwtUtil.CLAIMS_ATTRIBUTE, claims);
+        return exchange;
+    }
+
+    private GatewayFilterChain backend() {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
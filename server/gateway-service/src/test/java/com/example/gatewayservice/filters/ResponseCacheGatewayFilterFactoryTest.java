@@ -0,0 +1,189 @@
+package com.example.gatewayservice.filters;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import com.example.gatewayservice.utils.TokenVerifier;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private static final String BODY = "{\"cvs\":[]}";
+
+    @Mock
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Mock
+    private ReactiveValueOperations<String, String> valueOperations;
+
+    @Mock
+    private TokenVerifier tokenVerifier;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger backendCalls = new AtomicInteger();
+    private ResponseCacheGatewayFilterFactory factory;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.set(anyString(), anyString(), any(Duration.class))).thenReturn(Mono.just(true));
+
+        factory = new ResponseCacheGatewayFilterFactory(
+                redisTemplate, tokenVerifier, objectMapper, new SimpleMeterRegistry());
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setScope("shared");
+        config.setPaths(List.of("/api/v1/cvs/public"));
+        filter = factory.apply(config);
+    }
+
+    @Test
+    void testFilter_MissStoresResponseWithEtag() throws Exception {
+        // Arrange
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/cvs/public?limit=10"));
+
+        // Act
+        filter.filter(exchange, backend()).block();
+
+        // Assert
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(startsWith("gateway:cache:"), stored.capture(), eq(Duration.ofSeconds(30)));
+        ResponseCacheGatewayFilterFactory.CachedResponse entry = objectMapper.readValue(stored.getValue(),
+                ResponseCacheGatewayFilterFactory.CachedResponse.class);
+        assertEquals(BODY, new String(entry.body(), StandardCharsets.UTF_8));
+        assertEquals(entry.etag(), exchange.getResponse().getHeaders().getETag());
+        assertEquals("MISS", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+        assertEquals(1, backendCalls.get());
+    }
+
+    @Test
+    void testFilter_HitWithMatchingEtagReturnsNotModified() throws Exception {
+        // Arrange
+        String cached = objectMapper.writeValueAsString(new ResponseCacheGatewayFilterFactory.CachedResponse(
+                MediaType.APPLICATION_JSON_VALUE, "no-cache", "\"abc\"", BODY.getBytes(StandardCharsets.UTF_8)));
+        when(valueOperations.get(anyString())).thenReturn(Mono.just(cached));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/cvs/public")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""));
+
+        // Act
+        filter.filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, exchange.getResponse().getStatusCode());
+        assertEquals("HIT", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        assertEquals(0, backendCalls.get());
+    }
+
+    @Test
+    void testFilter_HitServesCachedBodyWithoutBackend() throws Exception {
+        // Arrange
+        String cached = objectMapper.writeValueAsString(new ResponseCacheGatewayFilterFactory.CachedResponse(
+                MediaType.APPLICATION_JSON_VALUE, "no-cache", "\"abc\"", BODY.getBytes(StandardCharsets.UTF_8)));
+        when(valueOperations.get(anyString())).thenReturn(Mono.just(cached));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/cvs/public"));
+
+        // Act
+        filter.filter(exchange, backend()).block();
+
+        // Assert
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+        assertEquals("no-cache", exchange.getResponse().getHeaders().getCacheControl());
+        assertEquals(0, backendCalls.get());
+    }
+
+    @Test
+    void testFilter_SharedScopeDoesNotStorePrivateOrNoStoreResponses() {
+        // Arrange
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+
+        for (String cacheControl : List.of("private, max-age=60", "no-cache, no-store, max-age=0, must-revalidate")) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/cvs/public"));
+
+            // Act
+            filter.filter(exchange, backend(cacheControl)).block();
+
+            // Assert
+            assertEquals(BODY, exchange.getResponse().getBodyAsString().block());
+            assertNull(exchange.getResponse().getHeaders().getFirst("X-Cache"));
+        }
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void testFilter_PrincipalScopeStoresPrivateResponse() {
+        // Arrange
+        when(valueOperations.get(anyString())).thenReturn(Mono.empty());
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setPaths(List.of("/api/v1/stats"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/stats"));
+
+        // Act
+        factory.apply(config).filter(exchange, backend("private, no-cache")).block();
+
+        // Assert
+        verify(valueOperations).set(startsWith("gateway:cache:"), anyString(), eq(Duration.ofSeconds(30)));
+        assertEquals("MISS", exchange.getResponse().getHeaders().getFirst("X-Cache"));
+    }
+
+    @Test
+    void testFilter_SkipsPathsOutsideConfiguredList() {
+        // Arrange
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/cvs/export"));
+
+        // Act
+        filter.filter(exchange, backend()).block();
+
+        // Assert
+        verify(valueOperations, never()).get(anyString());
+        assertEquals(1, backendCalls.get());
+    }
+
+    private GatewayFilterChain backend() {
+        return backend(null);
+    }
+
+    private GatewayFilterChain backend(String cacheControl) {
+        return exchange -> {
+            backendCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (cacheControl != null) {
+                exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            }
+            byte[] bytes = BODY.getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+        };
+    }
+}
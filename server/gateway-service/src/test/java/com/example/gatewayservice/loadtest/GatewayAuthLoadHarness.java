@@ -0,0 +1,270 @@
+package com.example.gatewayservice.loadtest;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import com.example.gatewayservice.GatewayServiceApplication;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.EventLoopGroup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Load harness for the gateway auth filter, not part of the regular test run.
+ *
+ * Boots the gateway with JwtAuthenticationFilter as a default filter in front of a
+ * local stub backend, then sends a mix of valid, forged and malformed tokens
+ * while a probe measures how long tasks wait on the server event loops.
+ *
+ * Run with:
+ *   mvn test -Dtest=GatewayAuthLoadHarness -Dload.requests=20000 -Dload.concurrency=256
+ *
+ * Other knobs: -Dload.users (distinct valid tokens), -Dload.forged-ratio,
+ * -Dload.malformed-ratio and -Dload.gateway-args (comma separated --key=value
+ * overrides for the gateway).
+ */
+class GatewayAuthLoadHarness {
+
+    private static final String PATH = "/api/v1/users/profile";
+
+    @Test
+    void runLoad() throws Exception {
+        int requests = Integer.getInteger("load.requests", 20_000);
+        int concurrency = Integer.getInteger("load.concurrency", 256);
+        int users = Integer.getInteger("load.users", 500);
+        double forgedRatio = Double.parseDouble(System.getProperty("load.forged-ratio", "0.1"));
+        double malformedRatio = Double.parseDouble(System.getProperty("load.malformed-ratio", "0.1"));
+
+        KeyPair keyPair = rsaKeyPair();
+        KeyPair otherKeyPair = rsaKeyPair();
+        List<String> validTokens = tokens(keyPair, users);
+        List<String> forgedTokens = tokens(otherKeyPair, 50);
+
+        // The stub gets its own loops so its work never shows up as gateway lag
+        LoopResources backendLoops = LoopResources.create("load-backend", 2, true);
+        DisposableServer backend = HttpServer.create()
+                .runOn(backendLoops)
+                .port(0)
+                .route(routes -> routes.route(request -> true,
+                        (request, response) -> response.sendString(Mono.just("ok"))))
+                .bindNow();
+
+        System.setProperty("dotenv.required", "false");
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.cloud.gateway.default-filters[0]=JwtAuthenticationFilter",
+                "--logging.level.com.example.gatewayservice=INFO",
+                "--logging.level.org.springframework.cloud.gateway=INFO"));
+        // e.g. -Dload.gateway-args=--gateway.auth.cache.max-size=0 to measure the miss path only
+        for (String arg : System.getProperty("load.gateway-args", "").split(",")) {
+            if (!arg.isBlank()) {
+                args.add(arg.trim());
+            }
+        }
+        ConfigurableApplicationContext gateway = new SpringApplicationBuilder(GatewayServiceApplication.class)
+                .properties(gatewayProperties(backend.port(), keyPair))
+                .run(args.toArray(String[]::new));
+
+        LoopResources clientLoops = LoopResources.create("load-client", 4, true);
+        try {
+            int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+            HttpClient client = HttpClient.create(ConnectionProvider.create("load", concurrency * 2))
+                    .runOn(clientLoops)
+                    .baseUrl("http://localhost:" + port);
+
+            EventLoopGroup serverLoops = gateway.getBean(ReactorResourceFactory.class)
+                    .getLoopResources().onServer(true);
+
+            // Warm up JIT, connections and the token cache outside the measurement
+            fire(client, Math.min(2_000, requests), concurrency, validTokens, forgedTokens, 0, 0, new Stats());
+
+            EventLoopProbe probe = new EventLoopProbe(serverLoops);
+            probe.start();
+            Stats stats = new Stats();
+            long start = System.nanoTime();
+            fire(client, requests, concurrency, validTokens, forgedTokens, forgedRatio, malformedRatio, stats);
+            long elapsedNanos = System.nanoTime() - start;
+            probe.stop();
+
+            System.out.printf("%n=== Gateway auth load: %d requests, concurrency %d ===%n", requests, concurrency);
+            System.out.printf("Throughput        : %.0f req/s%n", requests / (elapsedNanos / 1e9));
+            System.out.printf("Status codes      : %s%n", stats.statusCounts());
+            System.out.println("Request latency   : " + percentiles(stats.latencies));
+            System.out.println("Event-loop lag    : " + percentiles(probe.lags));
+            MeterRegistry meterRegistry = gateway.getBean(MeterRegistry.class);
+            meterRegistry.find("gateway.auth.verifications").counters().forEach(counter -> System.out.printf(
+                    "Verifications %-9s: %.0f%n", counter.getId().getTag("result"), counter.count()));
+        } finally {
+            gateway.close();
+            backend.disposeNow();
+            backendLoops.disposeLater().block(Duration.ofSeconds(5));
+            clientLoops.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    private static void fire(HttpClient client, int requests, int concurrency, List<String> validTokens,
+            List<String> forgedTokens, double forgedRatio, double malformedRatio, Stats stats) {
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    String token = pickToken(validTokens, forgedTokens, forgedRatio, malformedRatio);
+                    long sent = System.nanoTime();
+                    return client.headers(headers -> headers.set("Authorization", "Bearer " + token))
+                            .get()
+                            .uri(PATH)
+                            .responseSingle((response, body) -> body.then(Mono.just(response.status().code())))
+                            .doOnNext(status -> stats.record(status, System.nanoTime() - sent))
+                            .onErrorResume(e -> {
+                                stats.record(-1, System.nanoTime() - sent);
+                                return Mono.empty();
+                            });
+                }, concurrency)
+                .blockLast(Duration.ofMinutes(10));
+    }
+
+    private static String pickToken(List<String> validTokens, List<String> forgedTokens,
+            double forgedRatio, double malformedRatio) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+        if (roll < malformedRatio) {
+            return "garbage-" + random.nextInt(1_000_000);
+        }
+        if (roll < malformedRatio + forgedRatio) {
+            return forgedTokens.get(random.nextInt(forgedTokens.size()));
+        }
+        return validTokens.get(random.nextInt(validTokens.size()));
+    }
+
+    private static Map<String, Object> gatewayProperties(int backendPort, KeyPair keyPair) {
+        String backendUrl = "http://localhost:" + backendPort;
+        Map<String, Object> properties = new ConcurrentHashMap<>();
+        properties.put("SERVER_PORT", "0");
+        properties.put("CORS_ALLOWED_ORIGIN", "http://localhost");
+        properties.put("REDIS_URL", System.getProperty("load.redis-url", "redis://localhost:6379"));
+        properties.put("JWT_PUBLIC_KEY", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        for (String service : List.of("AUTH", "USER", "CV", "AI", "MAIL", "STATS", "PAYMENT", "CONTACT")) {
+            properties.put(service + "_SERVICE_URL", backendUrl);
+        }
+        return properties;
+    }
+
+    private static List<String> tokens(KeyPair keyPair, int count) {
+        List<String> tokens = new ArrayList<>(count);
+        Date expiration = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1));
+        for (int i = 0; i < count; i++) {
+            tokens.add(Jwts.builder()
+                    .claim("userId", UUID.randomUUID().toString())
+                    .claim("email", "load" + i + "@example.com")
+                    .claim("role", "user")
+                    .claim("tokenType", "ACCESS")
+                    .expiration(expiration)
+                    .signWith(keyPair.getPrivate())
+                    .compact());
+        }
+        return tokens;
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static String percentiles(ConcurrentLinkedQueue<Long> samples) {
+        List<Long> sorted = new ArrayList<>(samples);
+        if (sorted.isEmpty()) {
+            return "no samples";
+        }
+        Collections.sort(sorted);
+        return String.format("p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms (%d samples)",
+                at(sorted, 0.50), at(sorted, 0.99), at(sorted, 0.999),
+                sorted.get(sorted.size() - 1) / 1e6, sorted.size());
+    }
+
+    private static double at(List<Long> sorted, double quantile) {
+        int index = (int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1);
+        return sorted.get(Math.max(0, index)) / 1e6;
+    }
+
+    private static final class Stats {
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        void record(int status, long latencyNanos) {
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            latencies.add(latencyNanos);
+        }
+
+        Map<Integer, Long> statusCounts() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+    }
+
+    /**
+     * Submits a timestamped no-op to the server event loops every millisecond and
+     * records how long it waited to run; blocking work on a loop shows up as lag
+     */
+    private static final class EventLoopProbe {
+        private final EventLoopGroup loops;
+        private final ConcurrentLinkedQueue<Long> lags = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean running = new AtomicBoolean(true);
+        private final Thread thread;
+
+        EventLoopProbe(EventLoopGroup loops) {
+            this.loops = loops;
+            this.thread = Thread.ofPlatform().name("event-loop-probe").daemon(true).unstarted(this::run);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running.set(false);
+            thread.join();
+        }
+
+        private void run() {
+            while (running.get()) {
+                loops.forEach(loop -> {
+                    long submitted = System.nanoTime();
+                    loop.execute(() -> lags.add(System.nanoTime() - submitted));
+                });
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
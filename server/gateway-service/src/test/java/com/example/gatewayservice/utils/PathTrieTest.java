@@ -0,0 +1,39 @@
+package com.example.gatewayservice.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PathTrieTest {
+
+    private final PathTrie trie = PathTrie.of(List.of(
+            "/**/gateway/auth/login",
+            "/**/health/**",
+            "/eureka/**",
+            "/api/v1/cvs/*/public"));
+
+    @Test
+    void testMatches_LiteralAndWildcardPatterns() {
+        // Assert
+        assertTrue(trie.matches("/gateway/auth/login"));
+        assertTrue(trie.matches("/api/gateway/auth/login"));
+        assertTrue(trie.matches("/health"));
+        assertTrue(trie.matches("/actuator/health/liveness"));
+        assertTrue(trie.matches("/eureka"));
+        assertTrue(trie.matches("/eureka/apps/gateway"));
+        assertTrue(trie.matches("/api/v1/cvs/123/public"));
+    }
+
+    @Test
+    void testMatches_RejectsPartialSegments() {
+        // Assert
+        assertFalse(trie.matches("/api/v1/users/healthy"));
+        assertFalse(trie.matches("/gateway/auth/login-as-admin"));
+        assertFalse(trie.matches("/api/v1/cvs/123/private"));
+        assertFalse(trie.matches("/api/v1/cvs/123/456/public"));
+        assertFalse(trie.matches("/api/v1/eureka"));
+        assertFalse(trie.matches("/"));
+    }
+}
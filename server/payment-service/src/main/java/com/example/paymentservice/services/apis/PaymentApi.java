@@ -18,6 +18,7 @@ import com.example.paymentservice.repositories.*;
 import com.example.paymentservice.configs.*;
 import com.example.paymentservice.services.utils.*;
 import com.example.paymentservice.services.feigns.*;
+import com.example.paymentservice.services.rabbitmqs.producers.PaymentActivityProducer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paypal.api.payments.*;
 import com.paypal.base.rest.*;
@@ -52,6 +53,7 @@ public class PaymentApi extends BaseApi {
     private final PayPalConfig payPalConfig;
     private final VNPayConfig vnPayConfig;
     private final UserFeignClient userFeignClient;
+    private final PaymentActivityProducer paymentActivityProducer;
 
     public PaymentApi(
             SimpleInvoiceRepository simpleInvoiceRepository,
@@ -61,7 +63,8 @@ public class PaymentApi extends BaseApi {
             MoMoConfig moMoConfig,
             PayPalConfig payPalConfig,
             VNPayConfig vnPayConfig,
-            UserFeignClient userFeignClient) {
+            UserFeignClient userFeignClient,
+            PaymentActivityProducer paymentActivityProducer) {
         this.simpleInvoiceRepository = simpleInvoiceRepository;
         this.invoiceQueryRepository = invoiceQueryRepository;
         this.invoiceCommandRepository = invoiceCommandRepository;
@@ -70,6 +73,7 @@ public class PaymentApi extends BaseApi {
         this.payPalConfig = payPalConfig;
         this.vnPayConfig = vnPayConfig;
         this.userFeignClient = userFeignClient;
+        this.paymentActivityProducer = paymentActivityProducer;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -766,6 +770,8 @@ public class PaymentApi extends BaseApi {
     }
 
     private void handleUpdateUserPlanAfterPayment(Invoice invoice) {
+        paymentActivityProducer.paymentSucceeded(invoice);
+
         try {
             logger.info("Updating user plan after successful payment for userId: {}", invoice.getUserId());
 
@@ -0,0 +1,35 @@
+package com.example.paymentservice.services.rabbitmqs.producers;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.paymentservice.entities.Invoice;
+import com.example.rabbitcommon.constants.ActivityEvents;
+import com.example.rabbitcommon.dtos.ActivityEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes successful payments to the activity feed kept by stats-service
+ */
+@Component
+@Slf4j
+public class PaymentActivityProducer {
+    private final RabbitTemplate rabbitTemplate;
+
+    public PaymentActivityProducer(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void paymentSucceeded(Invoice invoice) {
+        ActivityEvent event = ActivityEvents.of(ActivityEvents.PAYMENT_SUCCEEDED, invoice.getUserId(), invoice.getId(),
+                "Payment received: " + invoice.getPlanTitle() + " (" + invoice.getAmount() + " " + invoice.getCurrency() + ")");
+        try {
+            rabbitTemplate.convertAndSend(ActivityEvents.EXCHANGE, ActivityEvents.PAYMENT_ROUTING_KEY, event);
+        } catch (AmqpException e) {
+            // The payment itself already succeeded, the feed just misses one entry
+            log.warn("Failed to publish payment activity for invoice {}: {}", invoice.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.rabbitcommon.constants;
+
+import java.time.Instant;
+
+import com.example.rabbitcommon.dtos.ActivityEvent;
+
+/**
+ * Exchange, routing keys and event types of the activity feed that
+ * stats-service appends to its time-bucketed log
+ */
+public final class ActivityEvents {
+
+    public static final String EXCHANGE = "activity.exchange";
+    public static final String QUEUE = "activity.queue";
+    public static final String USER_ROUTING_KEY = "user.activity";
+    public static final String CV_ROUTING_KEY = "cv.activity";
+    public static final String PAYMENT_ROUTING_KEY = "payment.activity";
+    public static final String ROUTING_PATTERN = "*.activity";
+
+    public static final String USER_REGISTERED = "user_registered";
+    public static final String CV_CREATED = "cv_created";
+    public static final String PAYMENT_SUCCEEDED = "payment_succeeded";
+
+    private ActivityEvents() {
+    }
+
+    /**
+     * Each event type happens at most once per subject, so the eventId is
+     * derived from both; a retried callback or a replayed IPN then yields
+     * the same id and is dropped by the consumer's dedupe
+     */
+    public static ActivityEvent of(String type, Object userId, Object subjectId, String description) {
+        return new ActivityEvent(eventId(type, subjectId), type, Instant.now().toString(),
+                String.valueOf(userId), String.valueOf(subjectId), description);
+    }
+
+    public static String eventId(String type, Object subjectId) {
+        return type + ":" + subjectId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.rabbitcommon.constants;
+
+import java.time.LocalDate;
+
+/**
+ * Exchange, routing keys and counter names shared by the services that
+ * publish stats counter deltas and the stats-service that materializes them
+ */
+public final class StatsCounters {
+
+    public static final String EXCHANGE = "stats.counters.exchange";
+    public static final String QUEUE = "stats.counters.queue";
+    public static final String USER_ROUTING_KEY = "user.stats.counters";
+    public static final String CV_ROUTING_KEY = "cv.stats.counters";
+    public static final String ROUTING_PATTERN = "*.stats.counters";
+
+    public static final String USERS_TOTAL = "users.total";
+    public static final String CVS_TOTAL = "cvs.total";
+
+    // Day buckets look like "users.created.2024-06-03"
+    public static final String USERS_CREATED_PREFIX = "users.created.";
+    public static final String CVS_CREATED_PREFIX = "cvs.created.";
+
+    private StatsCounters() {
+    }
+
+    public static String usersByStatus(String status) {
+        return "users.status." + status;
+    }
+
+    public static String usersByPlan(String planType) {
+        return "users.plan." + planType;
+    }
+
+    public static String cvsByVisibility(boolean isPublic) {
+        return "cvs.visibility." + (isPublic ? "public" : "private");
+    }
+
+    public static String usersCreatedOn(LocalDate day) {
+        return USERS_CREATED_PREFIX + day;
+    }
+
+    public static String cvsCreatedOn(LocalDate day) {
+        return CVS_CREATED_PREFIX + day;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.rabbitcommon.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the activity feed, published by the service where it happened
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityEvent {
+    private String eventId;
+    private String type;
+    // ISO-8601 instant of the domain change, not of delivery
+    private String occurredAt;
+    private String userId;
+    private String subjectId;
+    private String description;
+}
@@ -0,0 +1,22 @@
+package com.example.rabbitcommon.dtos;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter deltas emitted by a write path and materialized by stats-service.
+ * Keys come from {@link com.example.rabbitcommon.constants.StatsCounters}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsCounterEvent {
+    // Used by the consumer to drop redelivered events
+    private String eventId;
+    private String source;
+    private String occurredAt;
+    private Map<String, Long> deltas;
+}
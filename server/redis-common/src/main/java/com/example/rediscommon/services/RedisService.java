@@ -2,9 +2,21 @@ package com.example.rediscommon.services;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -16,7 +28,34 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class RedisService {
 
+    /**
+     * KEYS: marker, then the streams. ARGV: marker TTL in seconds ("0" without a
+     * marker), max stream length, stream TTL in seconds, then field and value pairs.
+     * The marker is written last, so a failed run can be redelivered
+     */
+    private static final RedisScript<Long> STREAM_ADD_ONCE_SCRIPT = RedisScript.of("""
+            if ARGV[1] ~= '0' and redis.call('EXISTS', KEYS[1]) == 1 then
+              return 0
+            end
+            local entry = {}
+            for i = 4, #ARGV do
+              entry[#entry + 1] = ARGV[i]
+            end
+            for i = 2, #KEYS do
+              redis.call('XADD', KEYS[i], 'MAXLEN', '~', ARGV[2], '*', unpack(entry))
+              redis.call('EXPIRE', KEYS[i], ARGV[3])
+            end
+            if ARGV[1] ~= '0' then
+              redis.call('SET', KEYS[1], '1', 'EX', ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    // Same encoding as the template's hash values, so streamReverseRange reads the entries back
+    private static final RedisSerializer<Object> STREAM_VALUE_SERIALIZER = RedisSerializer.json();
+
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
 
     /**
      * Set a key-value pair in Redis
@@ -56,6 +95,45 @@ public class RedisService {
         }
     }
 
+    /**
+     * Set a raw binary value with expiration time
+     */
+    public void setBytes(String key, byte[] value, long timeout, TimeUnit unit) {
+        try {
+            binaryRedisTemplate.opsForValue().set(key, value, timeout, unit);
+            log.debug("Set binary key: {} ({} bytes) with expiration: {} {}", key, value.length, timeout, unit);
+        } catch (Exception e) {
+            log.error("Error setting binary key: {}", key, e);
+            throw new RuntimeException("Failed to set binary key in Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get raw binary value by key
+     */
+    public byte[] getBytes(String key) {
+        try {
+            return binaryRedisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.error("Error getting binary key: {}", key, e);
+            throw new RuntimeException("Failed to get binary key from Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get raw binary values for several keys in one round trip.
+     * Missing keys yield null at the same position.
+     */
+    public List<byte[]> multiGetBytes(List<String> keys) {
+        try {
+            List<byte[]> values = binaryRedisTemplate.opsForValue().multiGet(keys);
+            return values != null ? values : new ArrayList<>(Collections.nCopies(keys.size(), null));
+        } catch (Exception e) {
+            log.error("Error getting binary keys: {}", keys.size(), e);
+            throw new RuntimeException("Failed to get binary keys from Redis: " + e.getMessage());
+        }
+    }
+
     /**
      * Delete a key
      */
@@ -70,6 +148,19 @@ public class RedisService {
         }
     }
 
+    /**
+     * Publish a message on a pub/sub channel (serialized like regular values)
+     */
+    public void publish(String channel, Object message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+            log.debug("Published to channel: {}", channel);
+        } catch (Exception e) {
+            log.error("Error publishing to channel: {}", channel, e);
+            throw new RuntimeException("Failed to publish to Redis channel: " + e.getMessage());
+        }
+    }
+
     /**
      * Check if key exists
      */
@@ -155,4 +246,115 @@ public class RedisService {
             throw new RuntimeException("Failed to decrement key in Redis: " + e.getMessage());
         }
     }
+
+    /**
+     * Set a key only if it does not exist yet, with expiration time
+     */
+    public boolean setIfAbsent(String key, Object value, long timeout, TimeUnit unit) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, unit));
+        } catch (Exception e) {
+            log.error("Error setting key if absent: {}", key, e);
+            throw new RuntimeException("Failed to set key if absent in Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Increment a numeric hash field by delta
+     */
+    public Long hashIncrement(String key, String field, long delta) {
+        try {
+            return redisTemplate.opsForHash().increment(key, field, delta);
+        } catch (Exception e) {
+            log.error("Error incrementing hash field: {} {} by delta: {}", key, field, delta, e);
+            throw new RuntimeException("Failed to increment hash field in Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Run a Lua script atomically. Arguments are sent as plain strings rather than
+     * JSON, so the script can use them as numbers and hash values directly
+     */
+    public Long executeScript(RedisScript<Long> script, List<String> keys, List<String> args) {
+        try {
+            return redisTemplate.execute(script, RedisSerializer.string(),
+                    new GenericToStringSerializer<>(Long.class), keys, args.toArray());
+        } catch (Exception e) {
+            log.error("Error executing script on keys: {}", keys, e);
+            throw new RuntimeException("Failed to execute script in Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get all fields of a hash (empty map if the key does not exist).
+     * Fields written with hashIncrement come back as Integer or Long
+     */
+    public Map<Object, Object> hashEntries(String key) {
+        try {
+            return redisTemplate.opsForHash().entries(key);
+        } catch (Exception e) {
+            log.error("Error getting hash entries: {}", key, e);
+            throw new RuntimeException("Failed to get hash entries from Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append an entry to a stream and trim it to about maxLength entries
+     */
+    public String streamAdd(String key, Map<String, Object> fields, long maxLength) {
+        try {
+            RecordId id = redisTemplate.opsForStream().add(key, fields);
+            redisTemplate.opsForStream().trim(key, maxLength, true);
+            return id != null ? id.getValue() : null;
+        } catch (Exception e) {
+            log.error("Error appending to stream: {}", key, e);
+            throw new RuntimeException("Failed to append to stream in Redis: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Append one entry to every stream in a single script, trimmed to about maxLength
+     * entries and expiring after streamTtl. With a markerKey the entry is written at
+     * most once per markerTtl; returns false when the marker was already set
+     */
+    public boolean streamAddOnce(String markerKey, long markerTtl, List<String> streamKeys,
+            Map<String, Object> fields, long maxLength, long streamTtl, TimeUnit unit) {
+        List<String> keys = new ArrayList<>();
+        keys.add(markerKey != null ? markerKey : "none");
+        keys.addAll(streamKeys);
+        List<byte[]> args = new ArrayList<>();
+        args.add(bytes(markerKey != null ? String.valueOf(unit.toSeconds(markerTtl)) : "0"));
+        args.add(bytes(String.valueOf(maxLength)));
+        args.add(bytes(String.valueOf(unit.toSeconds(streamTtl))));
+        fields.forEach((field, value) -> {
+            args.add(bytes(field));
+            args.add(STREAM_VALUE_SERIALIZER.serialize(value));
+        });
+        try {
+            Long added = redisTemplate.execute(STREAM_ADD_ONCE_SCRIPT, RedisSerializer.byteArray(),
+                    new GenericToStringSerializer<>(Long.class), keys, args.toArray());
+            return added != null && added == 1L;
+        } catch (Exception e) {
+            log.error("Error appending to streams: {}", streamKeys, e);
+            throw new RuntimeException("Failed to append to streams in Redis: " + e.getMessage());
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read up to count stream entries, newest first, with ids at or below maxId ("+" for the newest)
+     */
+    public List<MapRecord<String, Object, Object>> streamReverseRange(String key, String maxId, long count) {
+        try {
+            List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream()
+                    .reverseRange(key, Range.closed("-", maxId), Limit.limit().count((int) count));
+            return records != null ? records : Collections.emptyList();
+        } catch (Exception e) {
+            log.error("Error reading stream: {}", key, e);
+            throw new RuntimeException("Failed to read stream from Redis: " + e.getMessage());
+        }
+    }
 }
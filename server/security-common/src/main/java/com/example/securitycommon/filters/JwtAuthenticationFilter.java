@@ -11,6 +11,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.securitycommon.exceptions.JwtValidationException;
 import com.example.securitycommon.jwts.JwtTokenProvider;
+import com.example.securitycommon.jwts.TrustedIdentityVerifier;
 import com.example.securitycommon.models.AuthenticatedUser;
 
 import jakarta.servlet.FilterChain;
@@ -22,15 +23,32 @@ import jakarta.servlet.http.HttpServletResponse;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
+    private final TrustedIdentityVerifier identityVerifier;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, TrustedIdentityVerifier identityVerifier) {
         this.tokenProvider = tokenProvider;
+        this.identityVerifier = identityVerifier;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        // Identity already verified by the gateway (trusted-edge mode), no token to check
+        String identity = request.getHeader(TrustedIdentityVerifier.IDENTITY_HEADER);
+        if (identity != null && identityVerifier.isEnabled()) {
+            try {
+                AuthenticatedUser principal = identityVerifier.verify(identity,
+                        request.getHeader(TrustedIdentityVerifier.SIGNATURE_HEADER));
+                authenticate(request, principal, null);
+            } catch (JwtValidationException ex) {
+                writeUnauthorized(request, response, ex);
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Try to get token from Authorization header first
         String token = null;
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -56,27 +74,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             AuthenticatedUser principal = tokenProvider.validateAndExtract(token);
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    principal,
-                    token,
-                    principal.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            authenticate(request, principal, token);
         } catch (JwtValidationException ex) {
-            SecurityContextHolder.clearContext();
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json;charset=UTF-8");
-            
-            String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Invalid token";
-            String jsonResponse = String.format(
-                "{\"statusCode\":401,\"message\":\"Invalid or expired token\",\"error\":\"%s\",\"path\":\"%s\"}",
-                errorMessage.replace("\"", "\\\""),
-                request.getRequestURI()
-            );
-            response.getWriter().write(jsonResponse);
+            writeUnauthorized(request, response, ex);
             return;
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(HttpServletRequest request, AuthenticatedUser principal, String token) {
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                principal,
+                token,
+                principal.getAuthorities());
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private void writeUnauthorized(HttpServletRequest request, HttpServletResponse response,
+            JwtValidationException ex) throws IOException {
+        SecurityContextHolder.clearContext();
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("application/json;charset=UTF-8");
+
+        String errorMessage = ex.getMessage() != null ? ex.getMessage() : "Invalid token";
+        String jsonResponse = String.format(
+            "{\"statusCode\":401,\"message\":\"Invalid or expired token\",\"error\":\"%s\",\"path\":\"%s\"}",
+            errorMessage.replace("\"", "\\\""),
+            request.getRequestURI()
+        );
+        response.getWriter().write(jsonResponse);
+    }
 }
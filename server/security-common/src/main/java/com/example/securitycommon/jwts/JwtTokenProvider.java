@@ -15,6 +15,7 @@ import com.example.securitycommon.exceptions.JwtValidationException;
 import com.example.securitycommon.models.AuthenticatedUser;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
@@ -27,8 +28,16 @@ public class JwtTokenProvider {
     @Value("${JWT_PUBLIC_KEY}")
     private String publicKeyStr;
 
+    // Verified tokens kept in memory; 0 disables the cache
+    @Value("${security.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
     private PublicKey publicKey;
 
+    private JwtParser parser;
+
+    private VerifiedTokenCache verifiedTokens;
+
     @PostConstruct
     public void init() {
         try {
@@ -40,9 +49,24 @@ public class JwtTokenProvider {
         } catch (Exception ex) {
             throw new JwtValidationException("Unable to load JWT public key", ex);
         }
+        // The parser is immutable and thread-safe, build it once
+        this.parser = Jwts.parser()
+                .verifyWith(publicKey)
+                .build();
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxSize, System::currentTimeMillis);
     }
 
+    /**
+     * Validate an access token and extract its principal. A token verified
+     * before is served from memory until its exp instead of re-checking the
+     * RSA signature on every request.
+     */
     public AuthenticatedUser validateAndExtract(String token) {
+        AuthenticatedUser cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
         Claims claims = parseClaims(token);
 
         String tokenType = claims.get("tokenType", String.class);
@@ -64,19 +88,24 @@ public class JwtTokenProvider {
             throw new JwtValidationException("Token has expired");
         }
 
+        AuthenticatedUser principal;
         try {
             String principalEmail = email != null ? email : username;
-            return new AuthenticatedUser(UUID.fromString(userId), principalEmail, role);
+            principal = new AuthenticatedUser(UUID.fromString(userId), principalEmail, role);
         } catch (IllegalArgumentException ex) {
             throw new JwtValidationException("Invalid user id in token", ex);
         }
+
+        // Tokens without exp are never cached, they are verified every time
+        if (expiration != null) {
+            verifiedTokens.put(token, principal, expiration.getTime());
+        }
+        return principal;
     }
 
     private Claims parseClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(publicKey)
-                    .build()
+            return parser
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (JwtException | IllegalArgumentException ex) {
@@ -0,0 +1,99 @@
+package com.example.securitycommon.jwts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.securitycommon.exceptions.JwtValidationException;
+import com.example.securitycommon.models.AuthenticatedUser;
+
+/**
+ * Verifies the identity headers forwarded by the gateway in trusted-edge mode.
+ *
+ * The gateway checks the access token once and replaces it with:
+ * - X-Auth-Identity: base64url("1\n{userId}\n{email}\n{role}\n{issuedAtMillis}")
+ * - X-Auth-Signature: base64url(HMAC-SHA256(TRUSTED_EDGE_SECRET, X-Auth-Identity))
+ *
+ * The format must stay in sync with IdentityHeaderSigner in gateway-service.
+ * Without TRUSTED_EDGE_SECRET the headers are never trusted.
+ */
+@Component
+public class TrustedIdentityVerifier {
+
+    public static final String IDENTITY_HEADER = "X-Auth-Identity";
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "1";
+    private static final long CLOCK_SKEW_MILLIS = 5_000;
+
+    @Value("${TRUSTED_EDGE_SECRET:}")
+    private String secret;
+
+    // Headers older than this are rejected, limiting replay of a leaked pair
+    @Value("${TRUSTED_EDGE_MAX_AGE_SECONDS:30}")
+    private long maxAgeSeconds;
+
+    public boolean isEnabled() {
+        return secret != null && !secret.isBlank();
+    }
+
+    public AuthenticatedUser verify(String identity, String signature) {
+        if (!isEnabled()) {
+            throw new JwtValidationException("Trusted identity headers are not accepted");
+        }
+        if (identity == null || signature == null) {
+            throw new JwtValidationException("Missing identity signature");
+        }
+
+        byte[] expected = sign(identity);
+        byte[] actual;
+        try {
+            actual = Base64.getUrlDecoder().decode(signature);
+        } catch (IllegalArgumentException ex) {
+            throw new JwtValidationException("Invalid identity signature", ex);
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new JwtValidationException("Invalid identity signature");
+        }
+
+        String[] fields;
+        try {
+            fields = new String(Base64.getUrlDecoder().decode(identity), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException ex) {
+            throw new JwtValidationException("Invalid identity header", ex);
+        }
+        if (fields.length != 5 || !VERSION.equals(fields[0])) {
+            throw new JwtValidationException("Unsupported identity header");
+        }
+
+        try {
+            long issuedAt = Long.parseLong(fields[4]);
+            long now = System.currentTimeMillis();
+            if (issuedAt > now + CLOCK_SKEW_MILLIS || now - issuedAt > maxAgeSeconds * 1000) {
+                throw new JwtValidationException("Identity header has expired");
+            }
+            return new AuthenticatedUser(UUID.fromString(fields[1]), fields[2], fields[3]);
+        } catch (IllegalArgumentException ex) {
+            throw new JwtValidationException("Invalid identity header", ex);
+        }
+    }
+
+    private byte[] sign(String identity) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+            return mac.doFinal(identity.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new JwtValidationException("Unable to verify identity signature", ex);
+        }
+    }
+}
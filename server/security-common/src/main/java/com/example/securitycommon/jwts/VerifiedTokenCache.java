@@ -0,0 +1,93 @@
+package com.example.securitycommon.jwts;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.example.securitycommon.models.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of access tokens whose signature and claims were already verified.
+ *
+ * Entries are keyed by the SHA-256 digest of the token, so raw tokens are never
+ * kept in memory, and each entry expires at the token's exp. When the cache is
+ * full, Caffeine evicts by frequency, so tokens in active use are kept.
+ */
+class VerifiedTokenCache {
+
+    // null when the cache is disabled (maxSize <= 0)
+    private final Cache<String, Entry> entries;
+    private final LongSupplier clock;
+
+    VerifiedTokenCache(int maxSize, LongSupplier clock) {
+        this.clock = clock;
+        this.entries = maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .build();
+    }
+
+    /**
+     * Get the principal of a verified token, or null when absent or expired
+     */
+    AuthenticatedUser get(String token) {
+        if (entries == null) {
+            return null;
+        }
+        Entry entry = entries.getIfPresent(digest(token));
+        return entry != null ? entry.principal() : null;
+    }
+
+    void put(String token, AuthenticatedUser principal, long expiresAtMillis) {
+        if (entries == null || expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        entries.put(digest(token), new Entry(principal, expiresAtMillis));
+    }
+
+    int size() {
+        if (entries == null) {
+            return 0;
+        }
+        entries.cleanUp();
+        return (int) entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private record Entry(AuthenticatedUser principal, long expiresAtMillis) {
+    }
+
+    // Lifetime is fixed at insert: reads and overwrites never extend it past exp
+    private class UntilTokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis() - clock.getAsLong()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.securitycommon.jwts;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.Jwts;
+
+/**
+ * Per-request cost of JwtTokenProvider#validateAndExtract with and without the
+ * verified token cache, on RS256 tokens signed with a 2048-bit key. Not part of
+ * the regular test run.
+ *
+ * Each round validates a fixed set of tokens in turn, so every token is seen many
+ * times, like a user making repeated requests within one access token lifetime.
+ *
+ * Run with:
+ *   mvn test -Dtest=JwtTokenProviderBenchmark -Dbench.iterations=20000
+ *
+ * Other knobs: -Dbench.warmup (iterations before measuring, per mode) and
+ * -Dbench.tokens (distinct tokens cycled through).
+ */
+class JwtTokenProviderBenchmark {
+
+    @Test
+    void runBenchmark() throws Exception {
+        int iterations = Integer.getInteger("bench.iterations", 20_000);
+        int warmup = Integer.getInteger("bench.warmup", 5_000);
+        int tokenCount = Integer.getInteger("bench.tokens", 100);
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < tokenCount; i++) {
+            tokens.add(accessToken(keyPair, UUID.randomUUID()));
+        }
+
+        JwtTokenProvider uncached = provider(keyPair, 0);
+        JwtTokenProvider cached = provider(keyPair, 10_000);
+
+        run(uncached, tokens, warmup);
+        run(cached, tokens, warmup);
+        double uncachedNanos = run(uncached, tokens, iterations);
+        double cachedNanos = run(cached, tokens, iterations);
+
+        System.out.printf("%n=== validateAndExtract: %d iterations over %d RS256 (2048-bit) tokens ===%n",
+                iterations, tokenCount);
+        System.out.printf("Uncached : %,10.0f ns/op (%,.0f ops/s)%n", uncachedNanos, 1e9 / uncachedNanos);
+        System.out.printf("Cached   : %,10.0f ns/op (%,.0f ops/s)%n", cachedNanos, 1e9 / cachedNanos);
+        System.out.printf("Speedup  : %.1fx%n", uncachedNanos / cachedNanos);
+    }
+
+    /**
+     * Average nanoseconds per call over the given number of iterations
+     */
+    private static double run(JwtTokenProvider provider, List<String> tokens, int iterations) {
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += provider.validateAndExtract(tokens.get(i % tokens.size())).getRole().length();
+        }
+        long elapsed = System.nanoTime() - start;
+        // Keeps the JIT from dropping the loop body
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        return (double) elapsed / iterations;
+    }
+
+    private static JwtTokenProvider provider(KeyPair keyPair, int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "publicKeyStr",
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    private static String accessToken(KeyPair keyPair, UUID userId) {
+        return Jwts.builder()
+                .claim("tokenType", "ACCESS")
+                .claim("role", "user")
+                .claim("email", "a@example.com")
+                .claim("userId", userId.toString())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+}
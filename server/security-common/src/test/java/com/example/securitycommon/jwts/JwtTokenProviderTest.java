@@ -0,0 +1,115 @@
+package com.example.securitycommon.jwts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.securitycommon.exceptions.JwtValidationException;
+import com.example.securitycommon.models.AuthenticatedUser;
+
+import io.jsonwebtoken.Jwts;
+
+class JwtTokenProviderTest {
+
+    private KeyPair keyPair;
+    private JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "publicKeyStr",
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 100);
+        tokenProvider.init();
+    }
+
+    @Test
+    void testValidateAndExtract_ServesRepeatedTokenFromCache() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        String token = accessToken(userId, new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        AuthenticatedUser first = tokenProvider.validateAndExtract(token);
+        AuthenticatedUser second = tokenProvider.validateAndExtract(token);
+
+        // Assert
+        assertEquals(userId, first.getUserId());
+        assertEquals("user", first.getRole());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testValidateAndExtract_RejectsTamperedTokenAfterOriginalWasCached() {
+        // Arrange
+        String token = accessToken(UUID.randomUUID(), new Date(System.currentTimeMillis() + 60_000));
+        tokenProvider.validateAndExtract(token);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        // Act & Assert
+        assertThrows(JwtValidationException.class, () -> tokenProvider.validateAndExtract(tampered));
+    }
+
+    @Test
+    void testVerifiedTokenCache_DropsEntryAtExpiry() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, now::get);
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "a@example.com", "user");
+        cache.put("token", principal, 2_000);
+
+        // Act
+        AuthenticatedUser beforeExpiry = cache.get("token");
+        now.set(2_000);
+        AuthenticatedUser atExpiry = cache.get("token");
+
+        // Assert
+        assertSame(principal, beforeExpiry);
+        assertNull(atExpiry);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testVerifiedTokenCache_StaysWithinMaxSize() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(3, now::get);
+        AuthenticatedUser principal = new AuthenticatedUser(UUID.randomUUID(), "a@example.com", "user");
+        cache.put("expired-soon", principal, 1_500);
+        cache.put("token-1", principal, 10_000);
+        cache.put("token-2", principal, 10_000);
+        now.set(1_500);
+
+        // Act
+        cache.put("token-3", principal, 10_000);
+        cache.put("token-4", principal, 10_000);
+
+        // Assert
+        assertEquals(3, cache.size());
+        assertNull(cache.get("expired-soon"));
+    }
+
+    private String accessToken(UUID userId, Date expiration) {
+        return Jwts.builder()
+                .claim("tokenType", "ACCESS")
+                .claim("role", "user")
+                .claim("email", "a@example.com")
+                .claim("userId", userId.toString())
+                .expiration(expiration)
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.securitycommon.jwts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.securitycommon.exceptions.JwtValidationException;
+import com.example.securitycommon.models.AuthenticatedUser;
+
+class TrustedIdentityVerifierTest {
+
+    private static final String SECRET = "edge-secret";
+
+    private TrustedIdentityVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new TrustedIdentityVerifier();
+        ReflectionTestUtils.setField(verifier, "secret", SECRET);
+        ReflectionTestUtils.setField(verifier, "maxAgeSeconds", 30L);
+    }
+
+    @Test
+    void testVerify_AcceptsSignedIdentity() throws Exception {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        String identity = identity(userId, "admin", System.currentTimeMillis());
+
+        // Act
+        AuthenticatedUser principal = verifier.verify(identity, sign(identity, SECRET));
+
+        // Assert
+        assertEquals(userId, principal.getUserId());
+        assertEquals("a@example.com", principal.getEmail());
+        assertTrue(principal.hasRole("admin"));
+    }
+
+    @Test
+    void testVerify_RejectsIdentitySignedWithAnotherSecret() throws Exception {
+        // Arrange
+        String identity = identity(UUID.randomUUID(), "admin", System.currentTimeMillis());
+        String signature = sign(identity, "other-secret");
+
+        // Act & Assert
+        assertThrows(JwtValidationException.class, () -> verifier.verify(identity, signature));
+    }
+
+    @Test
+    void testVerify_RejectsStaleIdentity() throws Exception {
+        // Arrange
+        String identity = identity(UUID.randomUUID(), "user", System.currentTimeMillis() - 60_000);
+        String signature = sign(identity, SECRET);
+
+        // Act & Assert
+        assertThrows(JwtValidationException.class, () -> verifier.verify(identity, signature));
+    }
+
+    @Test
+    void testVerify_RejectsHeadersWhenSecretIsNotConfigured() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(verifier, "secret", "");
+        String identity = identity(UUID.randomUUID(), "user", System.currentTimeMillis());
+        String signature = sign(identity, "");
+
+        // Act & Assert
+        assertFalse(verifier.isEnabled());
+        assertThrows(JwtValidationException.class, () -> verifier.verify(identity, signature));
+    }
+
+    private static String identity(UUID userId, String role, long issuedAt) {
+        String payload = String.join("\n", "1", userId.toString(), "a@example.com", role, String.valueOf(issuedAt));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sign(String identity, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec((secret.isEmpty() ? "x" : secret).getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(identity.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -3,15 +3,27 @@ package com.example.statsservice.controllers;
 import com.example.statsservice.dtos.responses.Response;
 import com.example.statsservice.services.apis.StatsApi;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/v1/stats")
 public class StatsController {
 
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+
     @Autowired
     private StatsApi statsService;
 
@@ -20,17 +32,60 @@ public class StatsController {
     public ResponseEntity<Response> getDashboardStats() {
         Response response = statsService.getDashboardStats();
 
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+        // Per-admin data: the gateway may keep it per principal, browsers revalidate by ETag
+        return ResponseEntity.status(response.getStatusCode())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
+    }
+
+    @GetMapping("/activities")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<Response> getActivities(
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        Response response = statsService.getActivities(type, cursor, limit);
+
+        return ResponseEntity.status(response.getStatusCode())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
     }
 
     @GetMapping("/report")
     @PreAuthorize("hasAuthority('admin')")
-    public ResponseEntity<Response> getStatsReport() {
-        Response response = statsService.getStatsReport();
+    public CompletableFuture<ResponseEntity<?>> getStatsReport() {
+        return statsService.getStatsReport()
+                .<ResponseEntity<?>>thenApply(pdf -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"dashboard-report.pdf\"")
+                        .contentLength(pdf.length)
+                        .body(pdf))
+                .exceptionally(this::reportError);
+    }
+
+    @PostMapping("/counters/rebuild")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<Response> rebuildCounters() {
+        Response response = statsService.rebuildCounters();
 
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    private ResponseEntity<?> reportError(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            // Report pool saturated: let the client back off instead of queueing
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(new Response(503, "Report generation is busy, please retry shortly"));
+        }
+        logger.error("Error generating stats report: {}", cause.getMessage(), cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new Response(500, "Failed to generate stats report"));
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Response> health() {
         Response response = new Response(200, "Stats Service is running");
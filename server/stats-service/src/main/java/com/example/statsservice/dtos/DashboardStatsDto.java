@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Data
 @Builder
@@ -18,6 +19,7 @@ public class DashboardStatsDto {
     private long pendingUsers;
     private long bannedUsers;
     private long usersCreatedThisMonth;
+    private Map<String, Long> usersByPlan;
 
     // CV statistics
     private long totalCVs;
@@ -30,4 +32,8 @@ public class DashboardStatsDto {
 
     // Recent activities
     private List<ActivityDto> recentActivities;
+
+    // True when some sources missed their deadline or failed and fallbacks were used
+    private boolean degraded;
+    private List<String> degradedSources;
 }
@@ -3,6 +3,7 @@ package com.example.statsservice.dtos.responses;
 import java.util.List;
 import java.util.Map;
 
+import com.example.statsservice.dtos.ActivityDto;
 import com.example.statsservice.dtos.DashboardStatsDto;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -17,7 +18,7 @@ public class Response {
     private String message;
 
     private DashboardStatsDto dashboardStats;
-    private byte[] statsReport;
+    private List<ActivityDto> activities;
     private List<Map<String, Object>> cvs;
     private List<Map<String, Object>> users;
 
@@ -0,0 +1,163 @@
+package com.example.statsservice.services;
+
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.rediscommon.services.RedisService;
+import com.example.statsservice.dtos.ActivityDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only activity log kept in Redis streams, one stream per UTC day.
+ *
+ * - stats:activity:{yyyy-MM-dd} holds every event of that day
+ * - stats:activity:{type}:{yyyy-MM-dd} holds the same events for one type,
+ *   so filtered pages never skip over other types
+ *
+ * A page walks the day streams newest first with XREVRANGE ... COUNT, so it
+ * costs O(limit) entries plus one round trip per empty day in the window.
+ */
+@Service
+@Slf4j
+public class ActivityLogStore {
+
+    private static final String KEY_PREFIX = "stats:activity:";
+    private static final String EVENT_KEY_PREFIX = "stats:activity:event:";
+    private static final String CURSOR_SEPARATOR = "/";
+
+    private final RedisService redisService;
+    private final int retentionDays;
+    private final long maxPerDay;
+
+    public ActivityLogStore(
+            RedisService redisService,
+            @Value("${stats.activity.retention-days:30}") int retentionDays,
+            @Value("${stats.activity.max-per-day:10000}") long maxPerDay) {
+        this.redisService = redisService;
+        this.retentionDays = retentionDays;
+        this.maxPerDay = maxPerDay;
+    }
+
+    /**
+     * Append one event to its day streams; redelivered events are skipped by eventId.
+     * Event ids are deterministic per subject, so the marker lives as long as the
+     * window to also drop a payment callback replayed days later. Both streams and
+     * the marker are written in one script, so a failed append can be retried
+     */
+    public void append(ActivityEvent event) {
+        LocalDate day = dayOf(event.getOccurredAt());
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("eventId", String.valueOf(event.getEventId()));
+        fields.put("type", event.getType());
+        fields.put("occurredAt", event.getOccurredAt());
+        fields.put("userId", String.valueOf(event.getUserId()));
+        fields.put("subjectId", String.valueOf(event.getSubjectId()));
+        fields.put("description", String.valueOf(event.getDescription()));
+
+        String marker = event.getEventId() != null ? EVENT_KEY_PREFIX + event.getEventId() : null;
+        // Keep a day for as long as the window can still page into it
+        boolean added = redisService.streamAddOnce(marker, retentionDays,
+                List.of(key(null, day), key(event.getType(), day)), fields, maxPerDay,
+                retentionDays + 1L, TimeUnit.DAYS);
+        if (!added) {
+            log.debug("Skipping duplicate activity event {}", event.getEventId());
+        }
+    }
+
+    /**
+     * Read one page of activities, newest first, optionally of a single type.
+     * The cursor is the nextCursor of the previous page, null for the first page
+     */
+    public ActivityPage page(String type, String cursor, int limit) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate oldest = today.minusDays(retentionDays);
+        LocalDate day = today;
+        String maxId = "+";
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split(CURSOR_SEPARATOR, 2);
+            try {
+                day = LocalDate.parse(parts[0]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid activity cursor: " + cursor);
+            }
+            if (parts.length != 2 || !parts[1].matches("\\d+-\\d+")) {
+                throw new IllegalArgumentException("Invalid activity cursor: " + cursor);
+            }
+            maxId = previousId(parts[1]);
+        }
+
+        List<ActivityDto> items = new ArrayList<>();
+        String lastDay = null;
+        // One extra entry tells whether another page exists
+        while (!day.isBefore(oldest) && items.size() <= limit) {
+            List<MapRecord<String, Object, Object>> records = maxId == null ? List.of()
+                    : redisService.streamReverseRange(key(type, day), maxId, limit + 1L - items.size());
+            for (MapRecord<String, Object, Object> record : records) {
+                items.add(toActivity(record));
+                if (items.size() <= limit) {
+                    lastDay = day.toString();
+                }
+            }
+            day = day.minusDays(1);
+            maxId = "+";
+        }
+
+        if (items.size() <= limit) {
+            return new ActivityPage(items, null);
+        }
+        List<ActivityDto> page = new ArrayList<>(items.subList(0, limit));
+        return new ActivityPage(page, lastDay + CURSOR_SEPARATOR + page.get(limit - 1).getId());
+    }
+
+    private static ActivityDto toActivity(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> value = record.getValue();
+        return ActivityDto.builder()
+                .id(record.getId().getValue())
+                .type(String.valueOf(value.get("type")))
+                .description(String.valueOf(value.get("description")))
+                .timestamp(String.valueOf(value.get("occurredAt")))
+                .userId(String.valueOf(value.get("userId")))
+                .build();
+    }
+
+    private static String key(String type, LocalDate day) {
+        return type == null || type.isBlank() ? KEY_PREFIX + day : KEY_PREFIX + type + ":" + day;
+    }
+
+    private static LocalDate dayOf(String occurredAt) {
+        try {
+            return Instant.parse(occurredAt).atZone(ZoneOffset.UTC).toLocalDate();
+        } catch (RuntimeException e) {
+            return LocalDate.now(ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Largest stream id strictly below the given one, so XREVRANGE can resume
+     * after the last entry already returned. Null when nothing can be below it
+     */
+    static String previousId(String id) {
+        int dash = id.indexOf('-');
+        long millis = Long.parseLong(id.substring(0, dash));
+        String seq = id.substring(dash + 1);
+        if (!"0".equals(seq)) {
+            return millis + "-" + Long.toUnsignedString(Long.parseUnsignedLong(seq) - 1);
+        }
+        return millis == 0 ? null : (millis - 1) + "-" + Long.toUnsignedString(-1L);
+    }
+
+    public record ActivityPage(List<ActivityDto> items, String nextCursor) {
+    }
+}
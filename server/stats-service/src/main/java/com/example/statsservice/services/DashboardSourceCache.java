@@ -0,0 +1,221 @@
+package com.example.statsservice.services;
+
+import com.example.rediscommon.services.RedisService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Refresh-ahead cache for the slow parts of the dashboard, one Redis entry per source.
+ *
+ * - An entry younger than refresh-after is served as is
+ * - An older entry is served stale while one background refresh runs
+ * - Only the replica holding the Redis lease for a source reloads it; the
+ *   others keep serving the stale entry or wait briefly for the new one
+ *
+ * Sources are cached and refreshed independently, so one slow service never
+ * holds back another source.
+ */
+@Service
+@Slf4j
+public class DashboardSourceCache {
+
+    private static final String KEY_PREFIX = "stats:dashboard:";
+    private static final String LEASE_SUFFIX = ":lease";
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private final RedisService redisService;
+    private final MeterRegistry meterRegistry;
+    private final long refreshAfterMillis;
+    private final long expireAfterMinutes;
+    private final long leaseSeconds;
+    private final long missWaitMillis;
+    private final String owner = UUID.randomUUID().toString();
+    private final ExecutorService refresher;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public DashboardSourceCache(
+            RedisService redisService,
+            MeterRegistry meterRegistry,
+            @Value("${stats.cache.refresh-after-seconds:60}") long refreshAfterSeconds,
+            @Value("${stats.cache.expire-after-minutes:30}") long expireAfterMinutes,
+            @Value("${stats.cache.lease-seconds:30}") long leaseSeconds,
+            @Value("${stats.cache.miss-wait-ms:2000}") long missWaitMillis) {
+        this.redisService = redisService;
+        this.meterRegistry = meterRegistry;
+        this.refreshAfterMillis = TimeUnit.SECONDS.toMillis(refreshAfterSeconds);
+        this.expireAfterMinutes = expireAfterMinutes;
+        this.leaseSeconds = leaseSeconds;
+        this.missWaitMillis = missWaitMillis;
+        this.refresher = Executors.newFixedThreadPool(2, Thread.ofPlatform()
+                .name("stats-refresh-", 1)
+                .daemon(true)
+                .factory());
+    }
+
+    /**
+     * Get a source value, loading it at most once across replicas when absent
+     * and refreshing it in the background when stale
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String source, Supplier<T> loader) {
+        CachedSource entry = read(source);
+
+        if (entry != null) {
+            if (System.currentTimeMillis() - entry.getRefreshedAt() < refreshAfterMillis) {
+                requestCounter(source, "fresh").increment();
+            } else {
+                requestCounter(source, "stale").increment();
+                refresh(source, loader);
+            }
+            return (T) entry.getValue();
+        }
+
+        requestCounter(source, "miss").increment();
+        Object loaded = refresh(source, loader).join();
+        if (loaded != null) {
+            return (T) loaded;
+        }
+
+        // Another replica holds the lease: give it a moment to publish before loading ourselves
+        long deadline = System.currentTimeMillis() + missWaitMillis;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            entry = read(source);
+            if (entry != null) {
+                return (T) entry.getValue();
+            }
+        }
+        log.warn("Timed out waiting for dashboard source {}, loading without cache", source);
+        return loader.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Reload a source unless a refresh is already running here or on another replica.
+     * Completes with null when another replica holds the lease
+     */
+    private CompletableFuture<Object> refresh(String source, Supplier<?> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(source, future);
+        if (running != null) {
+            return running;
+        }
+
+        try {
+            refresher.execute(() -> {
+                try {
+                    future.complete(reload(source, loader));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(source, future);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(source, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private Object reload(String source, Supplier<?> loader) {
+        String leaseKey = KEY_PREFIX + source + LEASE_SUFFIX;
+        try {
+            if (!redisService.setIfAbsent(leaseKey, owner, leaseSeconds, TimeUnit.SECONDS)) {
+                return null;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Redis unavailable, loading dashboard source {} without cache: {}", source, e.getMessage());
+            return loader.get();
+        }
+
+        Object value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            releaseLease(leaseKey);
+            refreshCounter(source, "failure").increment();
+            log.warn("Failed to refresh dashboard source {}: {}", source, e.getMessage());
+            throw e;
+        }
+
+        try {
+            redisService.set(KEY_PREFIX + source, new CachedSource(value, System.currentTimeMillis()),
+                    expireAfterMinutes, TimeUnit.MINUTES);
+            refreshCounter(source, "success").increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to store dashboard source {}: {}", source, e.getMessage());
+        } finally {
+            releaseLease(leaseKey);
+        }
+        return value;
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            // Not atomic, but the lease TTL bounds the damage if it expired mid-load
+            if (owner.equals(redisService.get(leaseKey))) {
+                redisService.delete(leaseKey);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lease {}: {}", leaseKey, e.getMessage());
+        }
+    }
+
+    private CachedSource read(String source) {
+        try {
+            return (CachedSource) redisService.get(KEY_PREFIX + source);
+        } catch (Exception e) {
+            log.warn("Failed to read dashboard source {} from cache: {}", source, e.getMessage());
+            return null;
+        }
+    }
+
+    private Counter requestCounter(String source, String result) {
+        return Counter.builder("stats.cache.requests")
+                .description("Dashboard source lookups by freshness")
+                .tag("source", source)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Counter refreshCounter(String source, String outcome) {
+        return Counter.builder("stats.cache.refreshes")
+                .description("Dashboard source reloads performed by this replica")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CachedSource {
+        private Object value;
+        private long refreshedAt;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.statsservice.services;
+
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+import com.example.rediscommon.services.RedisService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialized dashboard counters kept in Redis hashes.
+ *
+ * - stats:counters holds running totals (users by status/plan, CVs by visibility)
+ * - stats:counters:{yyyy-MM} holds daily creation buckets for one month
+ *
+ * Counters are moved by deltas from user-service and cv-service, so reading
+ * the dashboard never scans a table.
+ *
+ * Seeding replaces the counters with absolute values from the source services.
+ * One replica seeds at a time (Redis lease); events that occur while its
+ * snapshot is taken are journaled and folded into the absolute values, so they
+ * are neither lost nor applied twice. Events that occur while the snapshot
+ * queries run may still be counted twice; a later rebuild corrects that.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsCounterStore {
+
+    static final String TOTALS_KEY = "stats:counters";
+    static final String MONTH_KEY_PREFIX = "stats:counters:";
+    static final String SEEDED_KEY = "stats:counters:seeded";
+    static final String SEED_LEASE_KEY = "stats:counters:seed:lease";
+    static final String SEED_JOURNAL_KEY = "stats:counters:seed:journal";
+    private static final String EVENT_KEY_PREFIX = "stats:counters:event:";
+    private static final long EVENT_TTL_HOURS = 24;
+    private static final long SEED_LEASE_SECONDS = 120;
+    // Month-to-date creations known at seed time, before any daily bucket existed
+    private static final String SEED_BUCKET = "seed";
+
+    /**
+     * KEYS: event marker, seed journal, then one hash per delta.
+     * ARGV: marker TTL in seconds ("0" without eventId), occurredAt millis, then
+     * field and delta per hash. The marker is written last, so a failed run can
+     * be redelivered
+     */
+    private static final RedisScript<Long> APPLY_SCRIPT = RedisScript.of("""
+            if ARGV[1] ~= '0' and redis.call('EXISTS', KEYS[1]) == 1 then
+              return 0
+            end
+            local since = tonumber(redis.call('HGET', KEYS[2], '_since'))
+            local journal = since ~= nil and tonumber(ARGV[2]) >= since
+            for i = 3, #KEYS do
+              local field = ARGV[i * 2 - 3]
+              local delta = ARGV[i * 2 - 2]
+              redis.call('HINCRBY', KEYS[i], field, delta)
+              if journal then
+                redis.call('HINCRBY', KEYS[2], KEYS[i] .. '|' .. field, delta)
+              end
+            end
+            if ARGV[1] ~= '0' then
+              redis.call('SET', KEYS[1], '1', 'EX', ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: seed journal. ARGV: snapshot start millis, journal TTL in seconds
+     */
+    private static final RedisScript<Long> BEGIN_SEED_SCRIPT = RedisScript.of("""
+            redis.call('DEL', KEYS[1])
+            redis.call('HSET', KEYS[1], '_since', ARGV[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: totals, month buckets, seeded marker, seed journal.
+     * ARGV: seeded marker value, then field and absolute value pairs for the
+     * month buckets (2 pairs) and the totals. Journaled deltas of both hashes are
+     * added on top; returns the number of folded journal entries
+     */
+    private static final RedisScript<Long> SEED_SCRIPT = RedisScript.of("""
+            redis.call('DEL', KEYS[1], KEYS[2])
+            redis.call('HSET', KEYS[2], ARGV[2], ARGV[3], ARGV[4], ARGV[5])
+            for i = 6, #ARGV, 2 do
+              redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            local journal = redis.call('HGETALL', KEYS[4])
+            local folded = 0
+            for i = 1, #journal, 2 do
+              local sep = string.find(journal[i], '|', 1, true)
+              if sep then
+                local key = string.sub(journal[i], 1, sep - 1)
+                if key == KEYS[1] or key == KEYS[2] then
+                  redis.call('HINCRBY', key, string.sub(journal[i], sep + 1), journal[i + 1])
+                  folded = folded + 1
+                end
+              end
+            end
+            redis.call('DEL', KEYS[4])
+            redis.call('SET', KEYS[3], ARGV[1])
+            return folded
+            """, Long.class);
+
+    private final RedisService redisService;
+    private final String owner = UUID.randomUUID().toString();
+
+    /**
+     * Apply one event's deltas; redelivered events are skipped by eventId
+     */
+    public void apply(StatsCounterEvent event) {
+        if (event.getDeltas() == null || event.getDeltas().isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>();
+        keys.add(EVENT_KEY_PREFIX + (event.getEventId() != null ? event.getEventId() : "none"));
+        keys.add(SEED_JOURNAL_KEY);
+        List<String> args = new ArrayList<>();
+        args.add(event.getEventId() != null ? String.valueOf(TimeUnit.HOURS.toSeconds(EVENT_TTL_HOURS)) : "0");
+        args.add(String.valueOf(occurredAtMillis(event)));
+        event.getDeltas().forEach((counter, delta) -> {
+            keys.add(hashFor(counter));
+            args.add(counter);
+            args.add(String.valueOf(delta));
+        });
+
+        Long applied = redisService.executeScript(APPLY_SCRIPT, keys, args);
+        if (applied != null && applied == 0) {
+            log.debug("Skipping duplicate stats event {}", event.getEventId());
+        }
+    }
+
+    public boolean isSeeded() {
+        return redisService.hasKey(SEEDED_KEY);
+    }
+
+    /**
+     * Take the seed lease and start journaling events; call before taking the
+     * snapshot. Returns false when another seed is running
+     */
+    public boolean beginSeed() {
+        if (!redisService.setIfAbsent(SEED_LEASE_KEY, owner, SEED_LEASE_SECONDS, TimeUnit.SECONDS)) {
+            return false;
+        }
+        try {
+            redisService.executeScript(BEGIN_SEED_SCRIPT, List.of(SEED_JOURNAL_KEY),
+                    List.of(String.valueOf(System.currentTimeMillis()), String.valueOf(SEED_LEASE_SECONDS)));
+            return true;
+        } catch (RuntimeException e) {
+            releaseSeedLease();
+            throw e;
+        }
+    }
+
+    /**
+     * Replace the counters with absolute values computed from the source services,
+     * in one atomic step, and release the seed lease
+     */
+    public void seed(Map<String, Long> totals, YearMonth month, long usersCreated, long cvsCreated) {
+        try {
+            List<String> args = new ArrayList<>();
+            args.add("\"" + Instant.now() + "\"");
+            args.add(StatsCounters.USERS_CREATED_PREFIX + SEED_BUCKET);
+            args.add(String.valueOf(usersCreated));
+            args.add(StatsCounters.CVS_CREATED_PREFIX + SEED_BUCKET);
+            args.add(String.valueOf(cvsCreated));
+            totals.forEach((counter, value) -> {
+                args.add(counter);
+                args.add(String.valueOf(value));
+            });
+
+            Long folded = redisService.executeScript(SEED_SCRIPT,
+                    List.of(TOTALS_KEY, monthKey(month), SEEDED_KEY, SEED_JOURNAL_KEY), args);
+            log.info("Seeded stats counters: {} ({} journaled deltas folded in)", totals, folded);
+        } finally {
+            releaseSeedLease();
+        }
+    }
+
+    /**
+     * Give up a seed started with beginSeed, e.g. when a source service failed
+     */
+    public void abortSeed() {
+        try {
+            redisService.delete(SEED_JOURNAL_KEY);
+        } finally {
+            releaseSeedLease();
+        }
+    }
+
+    public Map<String, Long> totals() {
+        return toLongs(redisService.hashEntries(TOTALS_KEY));
+    }
+
+    public Map<String, Long> monthBuckets(YearMonth month) {
+        return toLongs(redisService.hashEntries(monthKey(month)));
+    }
+
+    /**
+     * Sum the daily buckets of one month for a prefix such as "users.created."
+     */
+    public static long sumBuckets(Map<String, Long> monthBuckets, String prefix) {
+        return monthBuckets.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private void releaseSeedLease() {
+        try {
+            // Not atomic, but the lease TTL bounds the damage if it expired mid-seed
+            if (owner.equals(redisService.get(SEED_LEASE_KEY))) {
+                redisService.delete(SEED_LEASE_KEY);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to release seed lease: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Event time in epoch millis; unknown times count as "now" so a running seed journals them
+     */
+    private static long occurredAtMillis(StatsCounterEvent event) {
+        if (event.getOccurredAt() != null) {
+            try {
+                return Instant.parse(event.getOccurredAt()).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                log.debug("Unparseable occurredAt {} on stats event {}", event.getOccurredAt(), event.getEventId());
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    private static String hashFor(String counter) {
+        for (String prefix : new String[] { StatsCounters.USERS_CREATED_PREFIX, StatsCounters.CVS_CREATED_PREFIX }) {
+            if (counter.startsWith(prefix)) {
+                // "users.created.2024-06-03" -> stats:counters:2024-06
+                return MONTH_KEY_PREFIX + counter.substring(prefix.length(), prefix.length() + 7);
+            }
+        }
+        return TOTALS_KEY;
+    }
+
+    private static String monthKey(YearMonth month) {
+        return MONTH_KEY_PREFIX + month;
+    }
+
+    private static Map<String, Long> toLongs(Map<Object, Object> entries) {
+        Map<String, Long> result = new HashMap<>();
+        entries.forEach((field, value) -> {
+            if (value instanceof Number number) {
+                result.put(field.toString(), number.longValue());
+            }
+        });
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.statsservice.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the blocking downstream calls of stats-service off the common pool.
+ *
+ * Every call gets its own virtual thread, a global concurrency cap, and the
+ * deadline configured for its downstream. A call that misses its deadline
+ * completes with a TimeoutException; the caller substitutes a fallback and
+ * reports the result as degraded instead of waiting on the slow service.
+ */
+@Service
+@Slf4j
+public class StatsFanout {
+
+    public static final String USER_SERVICE = "user-service";
+    public static final String CV_SERVICE = "cv-service";
+    public static final String PAYMENT_SERVICE = "payment-service";
+    private static final long DEFAULT_TIMEOUT_MILLIS = 2000;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("stats-fanout-", 1).factory());
+    private final Semaphore permits;
+    private final Map<String, Long> timeoutsMillis;
+    private final MeterRegistry meterRegistry;
+
+    public StatsFanout(
+            MeterRegistry meterRegistry,
+            @Value("${stats.fanout.max-concurrency:64}") int maxConcurrency,
+            @Value("${stats.fanout.user-service.timeout-ms:2000}") long userServiceTimeout,
+            @Value("${stats.fanout.cv-service.timeout-ms:2000}") long cvServiceTimeout,
+            @Value("${stats.fanout.payment-service.timeout-ms:3000}") long paymentServiceTimeout) {
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConcurrency);
+        this.timeoutsMillis = Map.of(
+                USER_SERVICE, userServiceTimeout,
+                CV_SERVICE, cvServiceTimeout,
+                PAYMENT_SERVICE, paymentServiceTimeout);
+    }
+
+    /**
+     * Start a call to a downstream, bounded by that downstream's deadline
+     */
+    public <T> CompletableFuture<T> call(String downstream, Supplier<T> call) {
+        long start = System.nanoTime();
+        long timeout = timeoutsMillis.getOrDefault(downstream, DEFAULT_TIMEOUT_MILLIS);
+        return CompletableFuture.supplyAsync(() -> {
+            // Waiting for a permit counts against the deadline, so nested legs cannot wedge the cap
+            if (!tryAcquire(timeout)) {
+                throw new RejectedExecutionException("Fan-out concurrency limit reached for " + downstream);
+            }
+            try {
+                return call.get();
+            } finally {
+                permits.release();
+            }
+        }, executor)
+                .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .whenComplete((value, error) -> callTimer(downstream, outcome(error))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Wait for a call and fall back when it failed or timed out, recording the
+     * source as degraded
+     */
+    public <T> T resultOrFallback(String source, CompletableFuture<T> future, T fallback, Collection<String> degraded) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.warn("Dashboard source {} unavailable, using fallback: {}", source,
+                    cause instanceof TimeoutException ? "deadline exceeded" : cause.getMessage());
+            degraded.add(source);
+            return fallback;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean tryAcquire(long timeoutMillis) {
+        try {
+            return permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "timeout" : "failure";
+    }
+
+    private Timer callTimer(String downstream, String outcome) {
+        return Timer.builder("stats.downstream.calls")
+                .description("Latency of stats-service calls to downstream services")
+                .tag("downstream", downstream)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
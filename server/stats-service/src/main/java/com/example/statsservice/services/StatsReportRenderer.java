@@ -0,0 +1,122 @@
+package com.example.statsservice.services;
+
+import com.example.statsservice.dtos.DashboardStatsDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jasperreports.engine.JRDataSource;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperExportManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Renders the dashboard PDF report.
+ *
+ * The template is compiled once at startup and shared by every fill. Fills run
+ * on a small bounded pool; when it is saturated, render fails fast with a
+ * RejectedExecutionException instead of queueing unbounded work. The last PDF
+ * is reused while the dashboard snapshot it was rendered from is unchanged.
+ */
+@Service
+@Slf4j
+public class StatsReportRenderer {
+
+    private static final String TEMPLATE = "reports/dashboard-report.jrxml";
+    private static final DateTimeFormatter REPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+    private final JasperReport jasperReport;
+    private final ThreadPoolExecutor executor;
+    private final String logoPath;
+    private final long reuseMillis;
+    private final AtomicReference<RenderedReport> lastReport = new AtomicReference<>();
+
+    public StatsReportRenderer(
+            @Value("${LOGO_PATH}") String logoPath,
+            @Value("${stats.report.threads:2}") int threads,
+            @Value("${stats.report.queue-capacity:8}") int queueCapacity,
+            @Value("${stats.cache.refresh-after-seconds:60}") long reuseSeconds) throws IOException, JRException {
+        this.logoPath = logoPath;
+        this.reuseMillis = TimeUnit.SECONDS.toMillis(reuseSeconds);
+
+        try (InputStream template = new ClassPathResource(TEMPLATE).getInputStream()) {
+            this.jasperReport = JasperCompileManager.compileReport(template);
+        }
+        log.info("Compiled report template {}", TEMPLATE);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("stats-report-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Render the report for a dashboard snapshot off the request thread
+     */
+    public CompletableFuture<byte[]> render(DashboardStatsDto stats) {
+        RenderedReport cached = lastReport.get();
+        if (cached != null && cached.stats().equals(stats)
+                && System.currentTimeMillis() - cached.renderedAt() < reuseMillis) {
+            return CompletableFuture.completedFuture(cached.pdf());
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                byte[] pdf = fill(stats);
+                lastReport.set(new RenderedReport(stats, pdf, System.currentTimeMillis()));
+                return pdf;
+            } catch (JRException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private byte[] fill(DashboardStatsDto stats) throws JRException {
+        // Cast long to Integer for JasperReports compatibility
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("LOGO_PATH", logoPath);
+        parameters.put("REPORT_DATE", LocalDateTime.now().format(REPORT_DATE_FORMAT));
+        parameters.put("TOTAL_USERS", (int) stats.getTotalUsers());
+        parameters.put("ACTIVE_USERS", (int) stats.getActiveUsers());
+        parameters.put("PENDING_USERS", (int) stats.getPendingUsers());
+        parameters.put("BANNED_USERS", (int) stats.getBannedUsers());
+        parameters.put("USERS_CREATED_THIS_MONTH", (int) stats.getUsersCreatedThisMonth());
+        parameters.put("TOTAL_CVS", (int) stats.getTotalCVs());
+        parameters.put("PUBLIC_CVS", (int) stats.getPublicCVs());
+        parameters.put("PRIVATE_CVS", (int) stats.getPrivateCVs());
+        parameters.put("CVS_CREATED_THIS_MONTH", (int) stats.getCvsCreatedThisMonth());
+
+        JRDataSource dataSource = new JRBeanCollectionDataSource(
+                stats.getRecentActivities() != null ? stats.getRecentActivities() : Collections.emptyList());
+
+        JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+        return JasperExportManager.exportReportToPdf(jasperPrint);
+    }
+
+    private record RenderedReport(DashboardStatsDto stats, byte[] pdf, long renderedAt) {
+    }
+}
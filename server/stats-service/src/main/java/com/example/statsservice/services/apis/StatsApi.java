@@ -1,213 +1,226 @@
 package com.example.statsservice.services.apis;
 
-import com.example.rediscommon.services.RedisService;
+import com.example.rabbitcommon.constants.StatsCounters;
 import com.example.statsservice.dtos.ActivityDto;
 import com.example.statsservice.dtos.DashboardStatsDto;
 import com.example.statsservice.dtos.RevenueStatsDto;
+import com.example.statsservice.services.ActivityLogStore;
+import com.example.statsservice.services.DashboardSourceCache;
+import com.example.statsservice.services.StatsCounterStore;
+import com.example.statsservice.services.StatsFanout;
+import com.example.statsservice.services.StatsReportRenderer;
 import com.example.statsservice.services.feigns.UserFeignClient;
 import com.example.statsservice.services.feigns.CVFeignClient;
 import com.example.statsservice.services.feigns.PaymentFeignClient;
 import com.example.statsservice.dtos.responses.Response;
 
-import net.sf.jasperreports.engine.JRDataSource;
-import net.sf.jasperreports.engine.JasperCompileManager;
-import net.sf.jasperreports.engine.JasperExportManager;
-import net.sf.jasperreports.engine.JasperFillManager;
-import net.sf.jasperreports.engine.JasperPrint;
-import net.sf.jasperreports.engine.JasperReport;
-import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
-import java.io.InputStream;
-import java.time.Instant;
-import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
 
 @Service
 public class StatsApi extends BaseApi {
 
+    private static final String ACTIVITIES_SOURCE = "activities";
+    private static final String REVENUE_SOURCE = "revenue";
+    private static final String COUNTERS_SOURCE = "counters";
+    private static final List<String> PLAN_TYPES = List.of("free", "pro", "ultra");
+    private static final int DASHBOARD_ACTIVITY_LIMIT = 10;
+    private static final int DEFAULT_ACTIVITY_LIMIT = 20;
+    private static final int MAX_ACTIVITY_LIMIT = 100;
+    private static final Pattern ACTIVITY_TYPE_PATTERN = Pattern.compile("[a-z_]{1,40}");
+
     private final UserFeignClient userFeignClient;
     private final CVFeignClient cvFeignClient;
     private final PaymentFeignClient paymentFeignClient;
-    private final RedisService redisService;
-
-    @Value("${LOGO_PATH}")
-    private String logoPath;
+    private final StatsCounterStore statsCounterStore;
+    private final DashboardSourceCache dashboardSourceCache;
+    private final StatsReportRenderer statsReportRenderer;
+    private final StatsFanout statsFanout;
+    private final ActivityLogStore activityLogStore;
 
     public StatsApi(
             UserFeignClient userFeignClient,
             CVFeignClient cvFeignClient,
             PaymentFeignClient paymentFeignClient,
-            RedisService redisService) {
+            StatsCounterStore statsCounterStore,
+            DashboardSourceCache dashboardSourceCache,
+            StatsReportRenderer statsReportRenderer,
+            StatsFanout statsFanout,
+            ActivityLogStore activityLogStore) {
         this.userFeignClient = userFeignClient;
         this.cvFeignClient = cvFeignClient;
         this.paymentFeignClient = paymentFeignClient;
-        this.redisService = redisService;
+        this.statsCounterStore = statsCounterStore;
+        this.dashboardSourceCache = dashboardSourceCache;
+        this.statsReportRenderer = statsReportRenderer;
+        this.statsFanout = statsFanout;
+        this.activityLogStore = activityLogStore;
     }
 
     /**
-     * Get dashboard statistics from cache or compute if not available
+     * Build dashboard statistics from the counters maintained by StatsCounterStore.
+     * Recent activities come from the activity log; only revenue still goes to
+     * a source service.
      */
-    private DashboardStatsDto getDashboardStatsFromCacheOrCompute() {
-        String cacheKey = "dashboard_stats";
+    private DashboardStatsDto computeDashboardStats() {
+        List<String> degraded = new CopyOnWriteArrayList<>();
 
-        // Try to get from cache first
-        if (redisService.hasKey(cacheKey)) {
-            logger.info("Retrieving dashboard statistics from Redis cache");
+        if (!statsCounterStore.isSeeded()) {
             try {
-                return (DashboardStatsDto) redisService.get(cacheKey);
+                if (!seedCounters(false)) {
+                    // Another request or replica is seeding; its counters land shortly
+                    degraded.add(COUNTERS_SOURCE);
+                }
             } catch (Exception e) {
-                logger.warn("Failed to retrieve dashboard stats from cache, computing fresh data: {}", e.getMessage());
+                // Counters still move with events; the next request retries the seed
+                logger.warn("Failed to seed stats counters: {}", e.getMessage());
+                degraded.add(COUNTERS_SOURCE);
             }
         }
 
-        // Compute fresh data
-        logger.info("Computing fresh dashboard statistics");
-        DashboardStatsDto stats = computeDashboardStats();
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
 
-        // Cache the result for 10 minutes
-        try {
-            redisService.set(cacheKey, stats, 10, TimeUnit.MINUTES);
-            logger.info("Dashboard statistics cached in Redis for 10 minutes");
-        } catch (Exception e) {
-            logger.warn("Failed to cache dashboard stats: {}", e.getMessage());
+        // Revenue is cached and refreshed on its own, a stale value is served meanwhile
+        CompletableFuture<RevenueStatsDto> revenueStatsFuture = statsFanout.call(StatsFanout.PAYMENT_SERVICE,
+                () -> dashboardSourceCache.get(REVENUE_SOURCE, paymentFeignClient::getRevenueStats));
+
+        Map<String, Long> counters = statsCounterStore.totals();
+        Map<String, Long> monthBuckets = statsCounterStore.monthBuckets(currentMonth);
+
+        Map<String, Long> usersByPlan = new HashMap<>();
+        for (String plan : PLAN_TYPES) {
+            usersByPlan.put(plan, counter(counters, StatsCounters.usersByPlan(plan)));
         }
 
+        DashboardStatsDto stats = DashboardStatsDto.builder()
+                .totalUsers(counter(counters, StatsCounters.USERS_TOTAL))
+                .activeUsers(counter(counters, StatsCounters.usersByStatus("active")))
+                .pendingUsers(counter(counters, StatsCounters.usersByStatus("pending")))
+                .bannedUsers(counter(counters, StatsCounters.usersByStatus("banned")))
+                .usersCreatedThisMonth(StatsCounterStore.sumBuckets(monthBuckets, StatsCounters.USERS_CREATED_PREFIX))
+                .usersByPlan(usersByPlan)
+                .totalCVs(counter(counters, StatsCounters.CVS_TOTAL))
+                .publicCVs(counter(counters, StatsCounters.cvsByVisibility(true)))
+                .privateCVs(counter(counters, StatsCounters.cvsByVisibility(false)))
+                .cvsCreatedThisMonth(StatsCounterStore.sumBuckets(monthBuckets, StatsCounters.CVS_CREATED_PREFIX))
+                .revenueStats(statsFanout.resultOrFallback(REVENUE_SOURCE, revenueStatsFuture, null, degraded))
+                .recentActivities(recentActivities(degraded))
+                .build();
+        stats.setDegraded(!degraded.isEmpty());
+        stats.setDegradedSources(degraded.isEmpty() ? null : new ArrayList<>(degraded));
+
+        logger.info("Dashboard statistics built from counters (degraded sources: {})", degraded);
         return stats;
     }
 
     /**
-     * Compute dashboard statistics from gRPC calls (optimized with parallel
-     * execution)
+     * Latest entries of the activity log; O(limit) reads, no downstream calls
      */
-    private DashboardStatsDto computeDashboardStats() {
-        logger.info("Fetching dashboard statistics with parallel execution...");
-
-        // Get this month's date range
-        YearMonth currentMonth = YearMonth.now();
-        Instant startOfMonth = currentMonth.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
-        Instant endOfMonth = currentMonth.atEndOfMonth().atTime(23, 59, 59).toInstant(ZoneOffset.UTC);
-        String startDateStr = startOfMonth.toString();
-        String endDateStr = endOfMonth.toString();
-
-        // Execute all Feign calls in parallel
-        CompletableFuture<Response> userStatsFuture = CompletableFuture
-                .supplyAsync(() -> userFeignClient.getUserStats());
-
-        CompletableFuture<Response> totalCVsFuture = CompletableFuture
-                .supplyAsync(() -> cvFeignClient.getTotalCVs());
-
-        CompletableFuture<Response> publicCVsFuture = CompletableFuture
-                .supplyAsync(() -> cvFeignClient.getCVsByVisibility(true));
-
-        CompletableFuture<Response> privateCVsFuture = CompletableFuture
-                .supplyAsync(() -> cvFeignClient.getCVsByVisibility(false));
-
-        CompletableFuture<Response> usersThisMonthFuture = CompletableFuture
-                .supplyAsync(() -> userFeignClient.getUsersCreatedInRange(startDateStr, endDateStr));
-
-        CompletableFuture<Response> cvsThisMonthFuture = CompletableFuture
-                .supplyAsync(() -> cvFeignClient.getCVsCreatedInRange(startDateStr, endDateStr));
-
-        CompletableFuture<List<ActivityDto>> recentActivitiesFuture = CompletableFuture
-                .supplyAsync(() -> handleGetRecentActivities());
-
-        CompletableFuture<RevenueStatsDto> revenueStatsFuture = CompletableFuture
-                .supplyAsync(() -> {
-                    try {
-                        return paymentFeignClient.getRevenueStats();
-                    } catch (Exception e) {
-                        logger.warn("Failed to fetch revenue stats: {}", e.getMessage());
-                        return null;
-                    }
-                });
-
-        // Wait for all futures to complete and get results
-        Response userStatsResponse = userStatsFuture.join();
-        Response totalCVsResponse = totalCVsFuture.join();
-        Response publicCVsResponse = publicCVsFuture.join();
-        Response privateCVsResponse = privateCVsFuture.join();
-        Response usersThisMonthResponse = usersThisMonthFuture.join();
-        Response cvsThisMonthResponse = cvsThisMonthFuture.join();
-        List<ActivityDto> recentActivities = recentActivitiesFuture.join();
-        RevenueStatsDto revenueStats = revenueStatsFuture.join();
-
-        // Build dashboard stats
-        DashboardStatsDto stats = DashboardStatsDto.builder()
-                .totalUsers(toLong(userStatsResponse.getAdditionalData().get("totalUsers")))
-                .activeUsers(toLong(userStatsResponse.getAdditionalData().get("activeUsers")))
-                .pendingUsers(toLong(userStatsResponse.getAdditionalData().get("pendingUsers")))
-                .bannedUsers(toLong(userStatsResponse.getAdditionalData().get("bannedUsers")))
-                .usersCreatedThisMonth(toLong(usersThisMonthResponse.getAdditionalData().get("count")))
-                .totalCVs(toLong(totalCVsResponse.getAdditionalData().get("total")))
-                .publicCVs(toLong(publicCVsResponse.getAdditionalData().get("count")))
-                .privateCVs(toLong(privateCVsResponse.getAdditionalData().get("count")))
-                .cvsCreatedThisMonth(toLong(cvsThisMonthResponse.getAdditionalData().get("count")))
-                .revenueStats(revenueStats)
-                .recentActivities(recentActivities)
-                .build();
+    private List<ActivityDto> recentActivities(List<String> degraded) {
+        try {
+            return new ArrayList<>(activityLogStore.page(null, null, DASHBOARD_ACTIVITY_LIMIT).items());
+        } catch (Exception e) {
+            logger.warn("Failed to read activity log: {}", e.getMessage());
+            degraded.add(ACTIVITIES_SOURCE);
+            return new ArrayList<>();
+        }
+    }
 
-        logger.info("Dashboard statistics fetched successfully");
-        return stats;
+    /**
+     * Compute absolute counts once from user-service and cv-service and store
+     * them as the starting point for the event-driven counters.
+     * Returns false when another seed holds the lease; without force, also
+     * skips the seed when one finished in the meantime
+     */
+    private boolean seedCounters(boolean force) {
+        if (!statsCounterStore.beginSeed()) {
+            logger.info("Stats counters are being seeded elsewhere, skipping");
+            return false;
+        }
+        try {
+            if (!force && statsCounterStore.isSeeded()) {
+                statsCounterStore.abortSeed();
+                return true;
+            }
+            takeSeedSnapshot();
+            return true;
+        } catch (RuntimeException e) {
+            statsCounterStore.abortSeed();
+            throw e;
+        }
     }
 
-    public byte[] handleGetStatsReport() throws Exception {
-        logger.info("Generating dashboard statistics report...");
+    private void takeSeedSnapshot() {
+        logger.info("Seeding stats counters from source services...");
+
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        String startDateStr = currentMonth.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toString();
+        String endDateStr = currentMonth.atEndOfMonth().atTime(23, 59, 59).toInstant(ZoneOffset.UTC).toString();
+
+        // Any failed or late leg aborts the seed: partial absolute counts would be wrong forever
+        CompletableFuture<Response> userStatsFuture = statsFanout.call(StatsFanout.USER_SERVICE,
+                () -> userFeignClient.getUserStats());
+
+        CompletableFuture<Response> totalCVsFuture = statsFanout.call(StatsFanout.CV_SERVICE,
+                () -> cvFeignClient.getTotalCVs());
+
+        CompletableFuture<Response> publicCVsFuture = statsFanout.call(StatsFanout.CV_SERVICE,
+                () -> cvFeignClient.getCVsByVisibility(true));
 
-        // Fetch dashboard stats from your service
-        DashboardStatsDto dashboardStats = getDashboardStatsFromCacheOrCompute();
-
-        // Load the report template
-        ClassPathResource templateResource = new ClassPathResource("reports/dashboard-report.jrxml");
-        InputStream reportStream = templateResource.getInputStream();
-        JasperReport jasperReport = JasperCompileManager.compileReport(reportStream);
-
-        // Set report parameters - Cast long to Integer for JasperReports compatibility
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("LOGO_PATH", logoPath);
-        parameters.put("REPORT_DATE", LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
-        parameters.put("TOTAL_USERS", (int) dashboardStats.getTotalUsers());
-        parameters.put("ACTIVE_USERS", (int) dashboardStats.getActiveUsers());
-        parameters.put("PENDING_USERS", (int) dashboardStats.getPendingUsers());
-        parameters.put("BANNED_USERS", (int) dashboardStats.getBannedUsers());
-        parameters.put("USERS_CREATED_THIS_MONTH", (int) dashboardStats.getUsersCreatedThisMonth());
-        parameters.put("TOTAL_CVS", (int) dashboardStats.getTotalCVs());
-        parameters.put("PUBLIC_CVS", (int) dashboardStats.getPublicCVs());
-        parameters.put("PRIVATE_CVS", (int) dashboardStats.getPrivateCVs());
-        parameters.put("CVS_CREATED_THIS_MONTH", (int) dashboardStats.getCvsCreatedThisMonth());
-
-        // Create JRBeanCollectionDataSource from activities
-        JRDataSource dataSource = new JRBeanCollectionDataSource(
-                dashboardStats.getRecentActivities() != null ? dashboardStats.getRecentActivities()
-                        : Collections.emptyList());
-
-        // Compile and fill report
-        JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
-
-        // Export to PDF
-        byte[] pdfBytes = JasperExportManager.exportReportToPdf(jasperPrint);
-
-        logger.info("Dashboard statistics report generated successfully");
-        return pdfBytes;
+        CompletableFuture<Response> privateCVsFuture = statsFanout.call(StatsFanout.CV_SERVICE,
+                () -> cvFeignClient.getCVsByVisibility(false));
+
+        CompletableFuture<Response> usersThisMonthFuture = statsFanout.call(StatsFanout.USER_SERVICE,
+                () -> userFeignClient.getUsersCreatedInRange(startDateStr, endDateStr));
+
+        CompletableFuture<Response> cvsThisMonthFuture = statsFanout.call(StatsFanout.CV_SERVICE,
+                () -> cvFeignClient.getCVsCreatedInRange(startDateStr, endDateStr));
+
+        Map<String, Object> userStats = userStatsFuture.join().getAdditionalData();
+
+        Map<String, Long> totals = new HashMap<>();
+        totals.put(StatsCounters.USERS_TOTAL, toLong(userStats.get("totalUsers")));
+        totals.put(StatsCounters.usersByStatus("active"), toLong(userStats.get("activeUsers")));
+        totals.put(StatsCounters.usersByStatus("pending"), toLong(userStats.get("pendingUsers")));
+        totals.put(StatsCounters.usersByStatus("banned"), toLong(userStats.get("bannedUsers")));
+        for (String plan : PLAN_TYPES) {
+            totals.put(StatsCounters.usersByPlan(plan), toLong(userStats.get(plan + "Users")));
+        }
+        totals.put(StatsCounters.CVS_TOTAL, toLong(totalCVsFuture.join().getAdditionalData().get("total")));
+        totals.put(StatsCounters.cvsByVisibility(true), toLong(publicCVsFuture.join().getAdditionalData().get("count")));
+        totals.put(StatsCounters.cvsByVisibility(false), toLong(privateCVsFuture.join().getAdditionalData().get("count")));
+
+        statsCounterStore.seed(totals, currentMonth,
+                toLong(usersThisMonthFuture.join().getAdditionalData().get("count")),
+                toLong(cvsThisMonthFuture.join().getAdditionalData().get("count")));
+    }
+
+    /**
+     * Render the PDF report for the current dashboard snapshot on the report executor
+     */
+    public CompletableFuture<byte[]> getStatsReport() {
+        logger.info("Generating dashboard statistics report...");
+        try {
+            return statsReportRenderer.render(computeDashboardStats());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     public Response getDashboardStats() {
         Response response = new Response();
 
         try {
-            DashboardStatsDto stats = getDashboardStatsFromCacheOrCompute();
+            DashboardStatsDto stats = computeDashboardStats();
 
             response.setStatusCode(200);
             response.setMessage("Dashboard statistics retrieved successfully");
@@ -219,74 +232,45 @@ public class StatsApi extends BaseApi {
         }
     }
 
-    public Response getStatsReport() {
-        Response response = new Response();
-
+    public Response rebuildCounters() {
         try {
-            byte[] report = handleGetStatsReport();
-
-            response.setStatusCode(200);
-            response.setMessage("Stats report retrieved successfully");
-            response.setStatsReport(report);
-            return response;
+            if (!seedCounters(true)) {
+                return buildErrorResponse(409, "Stats counters are already being rebuilt");
+            }
+            return new Response(200, "Stats counters rebuilt successfully");
         } catch (Exception e) {
-            logger.error("Error fetching dashboard stats: {}", e.getMessage(), e);
-            return buildErrorResponse(500, "Failed to fetch dashboard statistics");
+            logger.error("Error rebuilding stats counters: {}", e.getMessage(), e);
+            return buildErrorResponse(500, "Failed to rebuild stats counters");
         }
     }
 
-    private List<ActivityDto> handleGetRecentActivities() {
-        List<ActivityDto> activities = new ArrayList<>();
-
+    public Response getActivities(String type, String cursor, Integer limit) {
         try {
-            // Get recent users
-            Response recentUsersResponse = userFeignClient.getRecentUsers(5);
-
-            // Add user registration activities
-            for (Map<String, Object> user : recentUsersResponse.getUsers()) {
-                activities.add(ActivityDto.builder()
-                        .id("user-" + user.get("id").toString())
-                        .type("user_registered")
-                        .description("New user registered: " + (String) user.get("fullname"))
-                        .timestamp(Instant.now().toString()) // Since we don't have created_at
-                        .userId(user.get("id").toString())
-                        .build());
+            if (type != null && !type.isBlank() && !ACTIVITY_TYPE_PATTERN.matcher(type).matches()) {
+                return buildErrorResponse(400, "Invalid activity type");
             }
-
-            // Get recent CVs
-            Response recentCVsResponse = cvFeignClient.getRecentCVs(5);
-
-            // Add CV creation activities
-            for (Map<String, Object> cv : recentCVsResponse.getCvs()) {
-                activities.add(ActivityDto.builder()
-                        .id("cv-" + cv.get("id").toString())
-                        .type("cv_created")
-                        .description("New CV created: " + (String) cv.get("title"))
-                        .timestamp((String) cv.get("createdAt"))
-                        .userId(cv.get("userId").toString())
-                        .build());
-            }
-
-            // Sort by timestamp descending and limit to 10
-            activities.sort((a, b) -> {
-                try {
-                    Instant timeA = Instant.parse(a.getTimestamp());
-                    Instant timeB = Instant.parse(b.getTimestamp());
-                    return timeB.compareTo(timeA);
-                } catch (Exception e) {
-                    return 0;
-                }
-            });
-
-            // Convert subList to ArrayList to avoid Redis serialization issues
-            int limit = Math.min(10, activities.size());
-            return new ArrayList<>(activities.subList(0, limit));
+            int pageSize = limit == null ? DEFAULT_ACTIVITY_LIMIT : Math.max(1, Math.min(limit, MAX_ACTIVITY_LIMIT));
+            ActivityLogStore.ActivityPage page = activityLogStore.page(type, cursor, pageSize);
+
+            Response response = new Response(200, "Activities retrieved successfully");
+            response.setActivities(page.items());
+            response.setPagination(Map.of(
+                    "hasNext", page.nextCursor() != null,
+                    "nextCursor", page.nextCursor() != null ? page.nextCursor() : "",
+                    "limit", pageSize));
+            return response;
+        } catch (IllegalArgumentException e) {
+            return buildErrorResponse(400, e.getMessage());
         } catch (Exception e) {
-            logger.warn("Error fetching recent activities: {}", e.getMessage());
-            return activities; // Return partial results
+            logger.error("Error fetching activities: {}", e.getMessage(), e);
+            return buildErrorResponse(500, "Failed to fetch activities");
         }
     }
 
+    private static long counter(Map<String, Long> counters, String name) {
+        return Math.max(0L, counters.getOrDefault(name, 0L));
+    }
+
     /**
      * Safely convert Number to Long
      */
@@ -0,0 +1,29 @@
+package com.example.statsservice.services.rabbitmqs.consumers;
+
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import com.example.rabbitcommon.constants.ActivityEvents;
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.statsservice.services.ActivityLogStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityEventConsumer {
+
+    private final ActivityLogStore activityLogStore;
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(name = ActivityEvents.QUEUE, durable = "true", autoDelete = "false"), exchange = @Exchange(name = ActivityEvents.EXCHANGE, type = "topic", durable = "true"), key = ActivityEvents.ROUTING_PATTERN))
+    public void appendActivity(@Payload ActivityEvent event) {
+        log.debug("Received activity {} for user {}", event.getType(), event.getUserId());
+        activityLogStore.append(event);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.statsservice.services.rabbitmqs.consumers;
+
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+import com.example.statsservice.services.StatsCounterStore;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatsCounterConsumer {
+
+    private final StatsCounterStore statsCounterStore;
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(name = StatsCounters.QUEUE, durable = "true", autoDelete = "false"), exchange = @Exchange(name = StatsCounters.EXCHANGE, type = "topic", durable = "true"), key = StatsCounters.ROUTING_PATTERN))
+    public void applyCounters(@Payload StatsCounterEvent event) {
+        log.debug("Received stats counters from {}: {}", event.getSource(), event.getDeltas());
+        statsCounterStore.apply(event);
+    }
+}
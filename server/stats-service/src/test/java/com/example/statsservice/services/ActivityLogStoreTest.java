@@ -0,0 +1,170 @@
+package com.example.statsservice.services;
+
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.rediscommon.services.RedisService;
+import com.example.statsservice.dtos.ActivityDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ActivityLogStoreTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private ActivityLogStore activityLogStore;
+
+    @BeforeEach
+    void setUp() {
+        activityLogStore = new ActivityLogStore(redisService, 30, 10000);
+        when(redisService.streamReverseRange(anyString(), anyString(), anyLong())).thenReturn(List.of());
+    }
+
+    @Test
+    void testAppend_WritesDayAndTypeStreamsInOneScript() {
+        // Arrange
+        when(redisService.streamAddOnce(anyString(), anyLong(), anyList(), anyMap(), anyLong(), anyLong(),
+                any(TimeUnit.class))).thenReturn(true);
+        ActivityEvent event = new ActivityEvent("evt-1", "cv_created", "2024-06-03T10:00:00Z",
+                "user-1", "cv-1", "New CV created: Backend");
+
+        // Act
+        activityLogStore.append(event);
+
+        // Assert
+        verify(redisService).streamAddOnce(eq("stats:activity:event:evt-1"), eq(30L),
+                eq(List.of("stats:activity:2024-06-03", "stats:activity:cv_created:2024-06-03")),
+                anyMap(), eq(10000L), eq(31L), eq(TimeUnit.DAYS));
+        verify(redisService, never()).setIfAbsent(anyString(), any(), anyLong(), any(TimeUnit.class));
+        verify(redisService, never()).streamAdd(anyString(), anyMap(), anyLong());
+    }
+
+    @Test
+    void testAppend_RetriesAfterFailedAppend() {
+        // Arrange
+        when(redisService.streamAddOnce(eq("stats:activity:event:evt-1"), anyLong(), anyList(), anyMap(),
+                anyLong(), anyLong(), any(TimeUnit.class)))
+                .thenThrow(new RuntimeException("Failed to append to streams in Redis: timeout"))
+                .thenReturn(true);
+        ActivityEvent event = new ActivityEvent("evt-1", "cv_created", "2024-06-03T10:00:00Z",
+                "user-1", "cv-1", "New CV created: Backend");
+
+        // Act
+        assertThrows(RuntimeException.class, () -> activityLogStore.append(event));
+        activityLogStore.append(event);
+
+        // Assert
+        // The marker is only written by the script, so the failed run left nothing to skip the retry
+        verify(redisService, times(2)).streamAddOnce(eq("stats:activity:event:evt-1"), eq(30L),
+                eq(List.of("stats:activity:2024-06-03", "stats:activity:cv_created:2024-06-03")),
+                anyMap(), eq(10000L), eq(31L), eq(TimeUnit.DAYS));
+        verify(redisService, never()).setIfAbsent(anyString(), any(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void testAppend_RepeatedPaymentForSameInvoiceSharesMarker() {
+        // Arrange
+        when(redisService.streamAddOnce(anyString(), anyLong(), anyList(), anyMap(), anyLong(), anyLong(),
+                any(TimeUnit.class))).thenReturn(true, false);
+        ActivityEvent first = new ActivityEvent("payment_succeeded:inv-1", "payment_succeeded",
+                "2024-06-03T10:00:00Z", "user-1", "inv-1", "Payment succeeded");
+        ActivityEvent replayed = new ActivityEvent("payment_succeeded:inv-1", "payment_succeeded",
+                "2024-06-03T10:05:00Z", "user-1", "inv-1", "Payment succeeded");
+
+        // Act
+        activityLogStore.append(first);
+        activityLogStore.append(replayed);
+
+        // Assert
+        verify(redisService, times(2)).streamAddOnce(eq("stats:activity:event:payment_succeeded:inv-1"), eq(30L),
+                anyList(), anyMap(), anyLong(), anyLong(), eq(TimeUnit.DAYS));
+    }
+
+    @Test
+    void testAppend_WithoutEventIdSkipsMarker() {
+        // Arrange
+        when(redisService.streamAddOnce(isNull(), anyLong(), anyList(), anyMap(), anyLong(), anyLong(),
+                any(TimeUnit.class))).thenReturn(true);
+        ActivityEvent event = new ActivityEvent(null, "user_registered", "2024-06-03T10:00:00Z",
+                "user-1", "user-1", "New user registered: Alice");
+
+        // Act
+        activityLogStore.append(event);
+
+        // Assert
+        verify(redisService).streamAddOnce(isNull(), anyLong(),
+                eq(List.of("stats:activity:2024-06-03", "stats:activity:user_registered:2024-06-03")),
+                anyMap(), anyLong(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void testPage_ContinuesIntoEarlierDaysAndResumesFromCursor() {
+        // Arrange
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate yesterday = today.minusDays(1);
+        when(redisService.streamReverseRange(eq("stats:activity:" + today), eq("+"), anyLong()))
+                .thenReturn(List.of(record("300-0"), record("200-0")));
+        when(redisService.streamReverseRange(eq("stats:activity:" + yesterday), eq("+"), anyLong()))
+                .thenReturn(List.of(record("100-1"), record("100-0")));
+
+        // Act
+        ActivityLogStore.ActivityPage first = activityLogStore.page(null, null, 3);
+
+        // Assert
+        assertEquals(List.of("300-0", "200-0", "100-1"), first.items().stream().map(ActivityDto::getId).toList());
+        assertEquals(yesterday + "/100-1", first.nextCursor());
+
+        // Arrange
+        when(redisService.streamReverseRange(eq("stats:activity:" + yesterday), eq("100-0"), anyLong()))
+                .thenReturn(List.of(record("100-0")));
+
+        // Act
+        ActivityLogStore.ActivityPage second = activityLogStore.page(null, first.nextCursor(), 3);
+
+        // Assert
+        assertEquals(List.of("100-0"), second.items().stream().map(ActivityDto::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void testPage_RejectsMalformedCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> activityLogStore.page(null, "yesterday/abc", 10));
+        assertThrows(IllegalArgumentException.class, () -> activityLogStore.page(null, "2024-06-03", 10));
+    }
+
+    @Test
+    void testPreviousId_StepsBelowGivenId() {
+        // Assert
+        assertEquals("100-4", ActivityLogStore.previousId("100-5"));
+        assertEquals("99-18446744073709551615", ActivityLogStore.previousId("100-0"));
+        assertNull(ActivityLogStore.previousId("0-0"));
+    }
+
+    private static MapRecord<String, Object, Object> record(String id) {
+        return StreamRecords.newRecord()
+                .in("stats:activity")
+                .withId(RecordId.of(id))
+                .ofMap(Map.<Object, Object>of("type", "cv_created", "description", "New CV",
+                        "occurredAt", "2024-06-03T10:00:00Z", "userId", "user-1"));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.statsservice.services;
+
+import com.example.rediscommon.services.RedisService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DashboardSourceCacheTest {
+
+    @Mock
+    private RedisService redisService;
+
+    private final Map<String, Object> redis = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DashboardSourceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Back the mocked RedisService with a map so leases behave like SET NX
+        when(redisService.get(anyString())).thenAnswer(inv -> redis.get(inv.<String>getArgument(0)));
+        when(redisService.setIfAbsent(anyString(), any(), anyLong(), any(TimeUnit.class)))
+                .thenAnswer(inv -> redis.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null);
+        doAnswer(inv -> redis.put(inv.getArgument(0), inv.getArgument(1)))
+                .when(redisService).set(anyString(), any(), anyLong(), any(TimeUnit.class));
+        when(redisService.delete(anyString())).thenAnswer(inv -> redis.remove(inv.<String>getArgument(0)) != null);
+
+        cache = new DashboardSourceCache(redisService, meterRegistry, 60, 30, 30, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void testGet_FreshEntryServedWithoutLoading() {
+        // Arrange
+        redis.put("stats:dashboard:revenue", new DashboardSourceCache.CachedSource("cached", System.currentTimeMillis()));
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String value = cache.get("revenue", () -> "loaded-" + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("cached", value);
+        assertEquals(0, loads.get());
+        assertEquals(1, requests("revenue", "fresh"));
+    }
+
+    @Test
+    void testGet_ConcurrentMissesLoadOnce() throws Exception {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<String>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 16; i++) {
+            results.add(callers.submit(() -> {
+                start.await();
+                return cache.get("activities", () -> {
+                    loads.incrementAndGet();
+                    sleep(100);
+                    return "loaded";
+                });
+            }));
+        }
+        start.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+        assertEquals(1, loads.get());
+        assertFalse(redis.containsKey("stats:dashboard:activities:lease"));
+    }
+
+    @Test
+    void testGet_StaleEntryServedWhileRefreshing() throws Exception {
+        // Arrange
+        long stale = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
+        redis.put("stats:dashboard:revenue", new DashboardSourceCache.CachedSource("old", stale));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        List<String> served = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            served.add(cache.get("revenue", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "new";
+            }));
+        }
+        release.countDown();
+        waitUntil(() -> "new".equals(((DashboardSourceCache.CachedSource) redis.get("stats:dashboard:revenue")).getValue()));
+
+        // Assert
+        assertEquals(List.of("old", "old", "old", "old", "old"), served);
+        assertEquals(1, loads.get());
+        assertEquals(5, requests("revenue", "stale"));
+    }
+
+    @Test
+    void testGet_MissWaitsForReplicaHoldingLease() {
+        // Arrange
+        redis.put("stats:dashboard:revenue:lease", "other-replica");
+        AtomicInteger loads = new AtomicInteger();
+        ScheduledExecutorService otherReplica = Executors.newSingleThreadScheduledExecutor();
+        otherReplica.schedule(() -> redis.put("stats:dashboard:revenue",
+                new DashboardSourceCache.CachedSource("from-other", System.currentTimeMillis())), 100, TimeUnit.MILLISECONDS);
+
+        // Act
+        String value = cache.get("revenue", () -> "loaded-" + loads.incrementAndGet());
+
+        // Assert
+        otherReplica.shutdown();
+        assertEquals("from-other", value);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void testGet_FailedRefreshKeepsStaleEntry() throws Exception {
+        // Arrange
+        long stale = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(5);
+        redis.put("stats:dashboard:revenue", new DashboardSourceCache.CachedSource("old", stale));
+
+        // Act
+        String value = cache.get("revenue", () -> {
+            throw new IllegalStateException("payment-service down");
+        });
+        waitUntil(() -> refreshes("revenue", "failure") == 1);
+
+        // Assert
+        assertEquals("old", value);
+        assertEquals("old", ((DashboardSourceCache.CachedSource) redis.get("stats:dashboard:revenue")).getValue());
+        assertFalse(redis.containsKey("stats:dashboard:revenue:lease"));
+    }
+
+    private double requests(String source, String result) {
+        return meterRegistry.get("stats.cache.requests").tag("source", source).tag("result", result).counter().count();
+    }
+
+    private double refreshes(String source, String outcome) {
+        var counter = meterRegistry.find("stats.cache.refreshes").tag("source", source).tag("outcome", outcome).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
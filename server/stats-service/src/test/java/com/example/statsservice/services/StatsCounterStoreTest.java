@@ -0,0 +1,115 @@
+package com.example.statsservice.services;
+
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+import com.example.rediscommon.services.RedisService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StatsCounterStoreTest {
+
+    @Mock
+    private RedisService redisService;
+
+    @InjectMocks
+    private StatsCounterStore statsCounterStore;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApply_RoutesTotalsAndDailyBucketsInOneScript() {
+        // Arrange
+        when(redisService.executeScript(any(), anyList(), anyList())).thenReturn(1L);
+        String day = StatsCounters.usersCreatedOn(LocalDate.of(2024, 6, 3));
+        StatsCounterEvent event = new StatsCounterEvent("evt-1", "user-service", "2024-06-03T10:00:00Z",
+                new LinkedHashMap<>(Map.of(StatsCounters.USERS_TOTAL, 1L)));
+        event.getDeltas().put(day, 1L);
+
+        // Act
+        statsCounterStore.apply(event);
+
+        // Assert
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisService).executeScript(any(), keys.capture(), args.capture());
+        assertEquals(List.of("stats:counters:event:evt-1", StatsCounterStore.SEED_JOURNAL_KEY,
+                StatsCounterStore.TOTALS_KEY, "stats:counters:2024-06"), keys.getValue());
+        assertEquals(List.of("86400", "1717408800000", StatsCounters.USERS_TOTAL, "1", day, "1"), args.getValue());
+        verify(redisService, never()).hashIncrement(anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    void testBeginSeed_ReturnsFalseWhileAnotherSeedHoldsTheLease() {
+        // Arrange
+        when(redisService.setIfAbsent(eq(StatsCounterStore.SEED_LEASE_KEY), any(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(false);
+
+        // Act
+        boolean started = statsCounterStore.beginSeed();
+
+        // Assert
+        assertFalse(started);
+        verify(redisService, never()).executeScript(any(), anyList(), anyList());
+    }
+
+    @Test
+    void testMonthBuckets_SumsDailyCreationsPerPrefix() {
+        // Arrange
+        YearMonth month = YearMonth.of(2024, 6);
+        when(redisService.hashEntries("stats:counters:2024-06")).thenReturn(Map.of(
+                "users.created.seed", 40,
+                "users.created.2024-06-03", 2L,
+                "cvs.created.2024-06-03", 5));
+
+        // Act
+        Map<String, Long> buckets = statsCounterStore.monthBuckets(month);
+
+        // Assert
+        assertEquals(42L, StatsCounterStore.sumBuckets(buckets, StatsCounters.USERS_CREATED_PREFIX));
+        assertEquals(5L, StatsCounterStore.sumBuckets(buckets, StatsCounters.CVS_CREATED_PREFIX));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSeed_WritesAbsoluteValuesAtomicallyAndReleasesLease() {
+        // Arrange
+        YearMonth month = YearMonth.of(2024, 6);
+        when(redisService.setIfAbsent(eq(StatsCounterStore.SEED_LEASE_KEY), anyString(), anyLong(), any(TimeUnit.class)))
+                .thenReturn(true);
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+
+        // Act
+        assertTrue(statsCounterStore.beginSeed());
+        verify(redisService).setIfAbsent(eq(StatsCounterStore.SEED_LEASE_KEY), owner.capture(), anyLong(),
+                any(TimeUnit.class));
+        when(redisService.get(StatsCounterStore.SEED_LEASE_KEY)).thenReturn(owner.getValue());
+        statsCounterStore.seed(Map.of(StatsCounters.USERS_TOTAL, 120L), month, 7L, 3L);
+
+        // Assert
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(redisService).executeScript(any(), eq(List.of(StatsCounterStore.TOTALS_KEY, "stats:counters:2024-06",
+                StatsCounterStore.SEEDED_KEY, StatsCounterStore.SEED_JOURNAL_KEY)), args.capture());
+        assertEquals(List.of("users.created.seed", "7", "cvs.created.seed", "3", StatsCounters.USERS_TOTAL, "120"),
+                args.getValue().subList(1, 7));
+        verify(redisService, never()).hashIncrement(anyString(), anyString(), anyLong());
+        verify(redisService).delete(StatsCounterStore.SEED_LEASE_KEY);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.statsservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsFanoutTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StatsFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        fanout = new StatsFanout(meterRegistry, 2, 200, 200, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanout.shutdown();
+    }
+
+    @Test
+    void testResultOrFallback_SlowDownstreamDegradesWithoutBlockingOthers() {
+        // Arrange
+        CountDownLatch never = new CountDownLatch(1);
+        List<String> degraded = new ArrayList<>();
+        long start = System.nanoTime();
+
+        // Act
+        CompletableFuture<String> slow = fanout.call(StatsFanout.PAYMENT_SERVICE, () -> {
+            await(never);
+            return "revenue";
+        });
+        CompletableFuture<String> fast = fanout.call(StatsFanout.USER_SERVICE, () -> "users");
+        String revenue = fanout.resultOrFallback("revenue", slow, "fallback", degraded);
+        String users = fanout.resultOrFallback("users", fast, "fallback", degraded);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals("fallback", revenue);
+        assertEquals("users", users);
+        assertEquals(List.of("revenue"), degraded);
+        assertTrue(elapsedMillis < 1000, "waited " + elapsedMillis + " ms");
+        assertEquals(1, calls(StatsFanout.PAYMENT_SERVICE, "timeout"));
+        assertEquals(1, calls(StatsFanout.USER_SERVICE, "success"));
+    }
+
+    @Test
+    void testResultOrFallback_FailedCallUsesFallback() {
+        // Arrange
+        List<String> degraded = new ArrayList<>();
+
+        // Act
+        CompletableFuture<Integer> failing = fanout.call(StatsFanout.CV_SERVICE, () -> {
+            throw new IllegalStateException("cv-service down");
+        });
+        Integer value = fanout.resultOrFallback("cvs", failing, 0, degraded);
+
+        // Assert
+        assertEquals(0, value);
+        assertEquals(List.of("cvs"), degraded);
+        assertEquals(1, calls(StatsFanout.CV_SERVICE, "failure"));
+    }
+
+    @Test
+    void testCall_ConcurrencyCapRejectsAfterDeadline() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            fanout.call(StatsFanout.USER_SERVICE, () -> {
+                await(release);
+                return "held";
+            });
+        }
+        List<String> degraded = new ArrayList<>();
+
+        // Act
+        String value = fanout.resultOrFallback("queued",
+                fanout.call(StatsFanout.CV_SERVICE, () -> "ran"), "fallback", degraded);
+        release.countDown();
+
+        // Assert
+        assertEquals("fallback", value);
+        assertEquals(List.of("queued"), degraded);
+        assertEquals(1, calls(StatsFanout.CV_SERVICE, "failure") + calls(StatsFanout.CV_SERVICE, "timeout"));
+    }
+
+    private double calls(String downstream, String outcome) {
+        var timer = meterRegistry.find("stats.downstream.calls").tag("downstream", downstream).tag("outcome", outcome)
+                .timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
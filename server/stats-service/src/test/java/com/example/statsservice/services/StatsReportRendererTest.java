@@ -0,0 +1,80 @@
+package com.example.statsservice.services;
+
+import com.example.statsservice.dtos.ActivityDto;
+import com.example.statsservice.dtos.DashboardStatsDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsReportRendererTest {
+
+    private StatsReportRenderer renderer;
+
+    @AfterEach
+    void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Test
+    void testRender_ProducesPdfAndReusesItForSameSnapshot() throws Exception {
+        // Arrange
+        renderer = new StatsReportRenderer("", 1, 4, 60);
+        DashboardStatsDto stats = stats(10);
+
+        // Act
+        byte[] first = renderer.render(stats).get(30, TimeUnit.SECONDS);
+        byte[] second = renderer.render(stats(10)).get(30, TimeUnit.SECONDS);
+        byte[] changed = renderer.render(stats(11)).get(30, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("%PDF", new String(first, 0, 4, StandardCharsets.US_ASCII));
+        assertSame(first, second);
+        assertNotSame(first, changed);
+    }
+
+    @Test
+    void testRender_RejectsWhenPoolSaturated() throws Exception {
+        // Arrange
+        renderer = new StatsReportRenderer("", 1, 1, 0);
+
+        // Act
+        List<CompletableFuture<byte[]>> renders = new ArrayList<>();
+        RejectedExecutionException rejected = null;
+        for (int i = 0; i < 10 && rejected == null; i++) {
+            try {
+                renders.add(renderer.render(stats(i)));
+            } catch (RejectedExecutionException e) {
+                rejected = e;
+            }
+        }
+
+        // Assert
+        assertNotNull(rejected);
+        for (CompletableFuture<byte[]> render : renders) {
+            assertTrue(render.get(30, TimeUnit.SECONDS).length > 0);
+        }
+    }
+
+    private static DashboardStatsDto stats(long totalUsers) {
+        return DashboardStatsDto.builder()
+                .totalUsers(totalUsers)
+                .activeUsers(totalUsers - 1)
+                .totalCVs(3)
+                .recentActivities(new ArrayList<>(List.of(ActivityDto.builder()
+                        .id("cv-1")
+                        .type("cv_created")
+                        .description("New CV created: Backend")
+                        .timestamp("2024-06-03T10:00:00Z")
+                        .userId("u-1")
+                        .build())))
+                .build();
+    }
+}
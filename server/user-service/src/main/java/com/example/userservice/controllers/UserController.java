@@ -7,6 +7,7 @@ import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -83,7 +84,10 @@ public class UserController {
     public ResponseEntity<Response> getUserStats() {
         Response response = userApi.getUserStats();
 
-        return ResponseEntity.status(response.getStatusCode()).body(response);
+        // Gateway caches this per principal; browsers revalidate by ETag
+        return ResponseEntity.status(response.getStatusCode())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(response);
     }
 
     @GetMapping("/stats/status/{status}")
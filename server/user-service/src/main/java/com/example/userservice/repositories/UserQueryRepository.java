@@ -38,6 +38,9 @@ public interface UserQueryRepository extends JpaRepository<User, UUID> {
         @Query("SELECT COUNT(u) FROM User u WHERE u.status = :status")
         long countByStatus(@Param("status") UserStatus status);
 
+        @Query("SELECT COUNT(u) FROM User u WHERE u.planType = :planType")
+        long countByPlanType(@Param("planType") User.PlanType planType);
+
         @Query("SELECT COUNT(u) FROM User u WHERE u.createdAt BETWEEN :startDate AND :endDate")
         long countUsersCreatedBetween(@Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate);
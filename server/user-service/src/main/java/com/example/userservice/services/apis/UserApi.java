@@ -13,18 +13,22 @@ import com.example.userservice.entities.User.UserStatus;
 import com.example.userservice.exceptions.OurException;
 import com.example.userservice.mappers.UserMapper;
 import com.example.userservice.repositories.*;
+import com.example.userservice.services.rabbitmqs.producers.UserStatsProducer;
 import com.example.cloudinarycommon.CloudinaryService;
 import com.example.securitycommon.utils.SecurityUtils;
 import com.example.securitycommon.models.AuthenticatedUser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.security.SecureRandom;
 import java.util.List;
@@ -41,6 +45,7 @@ public class UserApi extends BaseApi {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final CloudinaryService cloudinaryService;
+    private final UserStatsProducer userStatsProducer;
     private final SecureRandom random = new SecureRandom();
     private final ObjectMapper objectMapper;
 
@@ -56,13 +61,15 @@ public class UserApi extends BaseApi {
             UserCommandRepository userCommandRepository,
             PasswordEncoder passwordEncoder,
             UserMapper userMapper,
-            CloudinaryService cloudinaryService) {
+            CloudinaryService cloudinaryService,
+            UserStatsProducer userStatsProducer) {
         this.simpleUserRepository = simpleUserRepository;
         this.userQueryRepository = userQueryRepository;
         this.userCommandRepository = userCommandRepository;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
         this.cloudinaryService = cloudinaryService;
+        this.userStatsProducer = userStatsProducer;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -189,9 +196,16 @@ public class UserApi extends BaseApi {
                     now,
                     now);
 
+            // insertUser does not carry plan columns
+            if (user.getPlanType() != User.PlanType.free || user.getPlanExpiration() != null) {
+                userCommandRepository.updateUserPlan(userId, user.getPlanType(), user.getPlanExpiration(), now);
+            }
+
             // Fetch created user to return
             User savedUser = userQueryRepository.findUserById(userId)
                     .orElseThrow(() -> new OurException("Failed to create user", 500));
+            userStatsProducer.userCreated(savedUser.getStatus().name(), savedUser.getPlanType().name());
+            userStatsProducer.userRegistered(savedUser.getId(), savedUser.getFullname());
             logger.info("User created successfully with ID: {}", savedUser.getId());
             return userMapper.toDto(savedUser);
         } catch (OurException e) {
@@ -220,6 +234,7 @@ public class UserApi extends BaseApi {
 
             // Update status using command repository
             userCommandRepository.updateUserStatusByEmail(email, UserStatus.active, LocalDateTime.now());
+            userStatsProducer.statusChanged(user.getStatus().name(), UserStatus.active.name());
 
             // Fetch updated user
             user = userQueryRepository.findByEmail(email)
@@ -444,6 +459,7 @@ public class UserApi extends BaseApi {
 
             User existingUser = userQueryRepository.findUserById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
+            UserStatus previousStatus = existingUser.getStatus();
 
             AuthenticatedUser currentUser = SecurityUtils.getCurrentUser();
             boolean privilegedChangeAllowed = currentUser == null || currentUser.hasRole("ADMIN");
@@ -520,6 +536,7 @@ public class UserApi extends BaseApi {
                     existingUser.getRole(),
                     existingUser.getStatus(),
                     LocalDateTime.now());
+            userStatsProducer.statusChanged(previousStatus.name(), existingUser.getStatus().name());
 
             // Fetch updated user
             User updatedUser = userQueryRepository.findUserById(userId)
@@ -578,6 +595,7 @@ public class UserApi extends BaseApi {
             }
 
             userCommandRepository.deleteUserById(userId);
+            userStatsProducer.userDeleted(user.getStatus(), user.getPlanType());
             logger.info("User deleted successfully: {}", userId);
             return true;
         } catch (OurException e) {
@@ -678,9 +696,13 @@ public class UserApi extends BaseApi {
      */
     public long handleGetUsersByStatus(String status) {
         try {
-            return userQueryRepository.findAllUsers(Pageable.unpaged()).stream()
-                    .filter(user -> user.getStatus().toString().equalsIgnoreCase(status))
-                    .count();
+            UserStatus userStatus;
+            try {
+                userStatus = UserStatus.valueOf(status.toLowerCase());
+            } catch (IllegalArgumentException e) {
+                return 0;
+            }
+            return userQueryRepository.countByStatus(userStatus);
         } catch (Exception e) {
             logger.error("Error in handleGetUsersByStatus: {}", e.getMessage(), e);
             throw new OurException("Failed to get users by status", 500);
@@ -692,11 +714,9 @@ public class UserApi extends BaseApi {
      */
     public long handleGetUsersCreatedInRange(String startDate, String endDate) {
         try {
-            // Note: User entity doesn't have createdAt field in current implementation
-            // This is a placeholder implementation
-            // TODO: Add createdAt field to User entity for proper tracking
-            logger.warn("handleGetUsersCreatedInRange called but User entity doesn't have createdAt field");
-            return 0;
+            LocalDateTime start = LocalDateTime.ofInstant(Instant.parse(startDate), ZoneOffset.UTC);
+            LocalDateTime end = LocalDateTime.ofInstant(Instant.parse(endDate), ZoneOffset.UTC);
+            return userQueryRepository.countUsersCreatedBetween(start, end);
         } catch (Exception e) {
             logger.error("Error in handleGetUsersCreatedInRange: {}", e.getMessage(), e);
             throw new OurException("Failed to get users created in range", 500);
@@ -708,10 +728,7 @@ public class UserApi extends BaseApi {
      */
     public List<UserDto> handleGetRecentUsers(int limit) {
         try {
-            // Note: User entity doesn't have createdAt field in current implementation
-            // This returns first N users instead
-            return userQueryRepository.findAllUsers(Pageable.unpaged()).stream()
-                    .limit(limit)
+            return userQueryRepository.findRecentUsers(PageRequest.of(0, limit)).stream()
                     .map(userMapper::toDto)
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -732,7 +749,10 @@ public class UserApi extends BaseApi {
                     "totalUsers", totalUsers,
                     "activeUsers", activeUsers,
                     "pendingUsers", pendingUsers,
-                    "bannedUsers", bannedUsers));
+                    "bannedUsers", bannedUsers,
+                    "freeUsers", userQueryRepository.countByPlanType(User.PlanType.free),
+                    "proUsers", userQueryRepository.countByPlanType(User.PlanType.pro),
+                    "ultraUsers", userQueryRepository.countByPlanType(User.PlanType.ultra)));
             return response;
         } catch (Exception e) {
             logger.error("Error in getUserStats: {}", e.getMessage(), e);
@@ -952,6 +972,7 @@ public class UserApi extends BaseApi {
         try {
             User user = userQueryRepository.findUserById(userId)
                     .orElseThrow(() -> new OurException("User not found", 404));
+            User.PlanType previousPlan = user.getPlanType();
 
             Map<String, Object> planData = objectMapper.readValue(dataJson, Map.class);
             String planType = (String) planData.get("planType");
@@ -975,18 +996,9 @@ public class UserApi extends BaseApi {
                 user.setPlanExpiration(planExpiration);
             }
 
-            userCommandRepository.updateUserAllFields(
-                    userId,
-                    user.getFullname(),
-                    user.getPhone(),
-                    user.getLocation(),
-                    user.getBirth(),
-                    user.getSummary(),
-                    user.getAvatarUrl(),
-                    user.getAvatarPublicId(),
-                    user.getRole(),
-                    user.getStatus(),
+            userCommandRepository.updateUserPlan(userId, user.getPlanType(), user.getPlanExpiration(),
                     LocalDateTime.now());
+            userStatsProducer.planChanged(previousPlan.name(), user.getPlanType().name());
 
             User updatedUser = userQueryRepository.findUserById(userId)
                     .orElseThrow(() -> new OurException("User not found", 404));
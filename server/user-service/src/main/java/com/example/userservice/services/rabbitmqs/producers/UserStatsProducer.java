@@ -0,0 +1,85 @@
+package com.example.userservice.services.rabbitmqs.producers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.rabbitcommon.constants.ActivityEvents;
+import com.example.rabbitcommon.constants.StatsCounters;
+import com.example.rabbitcommon.dtos.ActivityEvent;
+import com.example.rabbitcommon.dtos.StatsCounterEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes user counter deltas (total, by status, by plan, daily sign-ups)
+ * and activity feed entries so stats-service never has to scan the users table
+ */
+@Component
+@Slf4j
+public class UserStatsProducer {
+    private final RabbitTemplate rabbitTemplate;
+
+    public UserStatsProducer(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public void userCreated(String status, String planType) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(StatsCounters.USERS_TOTAL, 1L);
+        deltas.put(StatsCounters.usersByStatus(status), 1L);
+        deltas.put(StatsCounters.usersByPlan(planType), 1L);
+        deltas.put(StatsCounters.usersCreatedOn(LocalDate.now(ZoneOffset.UTC)), 1L);
+        send(deltas);
+    }
+
+    public void userDeleted(String status, String planType) {
+        Map<String, Long> deltas = new HashMap<>();
+        deltas.put(StatsCounters.USERS_TOTAL, -1L);
+        deltas.put(StatsCounters.usersByStatus(status), -1L);
+        deltas.put(StatsCounters.usersByPlan(planType), -1L);
+        send(deltas);
+    }
+
+    public void statusChanged(String from, String to) {
+        if (from.equals(to)) {
+            return;
+        }
+        send(Map.of(StatsCounters.usersByStatus(from), -1L, StatsCounters.usersByStatus(to), 1L));
+    }
+
+    public void planChanged(String from, String to) {
+        if (from.equals(to)) {
+            return;
+        }
+        send(Map.of(StatsCounters.usersByPlan(from), -1L, StatsCounters.usersByPlan(to), 1L));
+    }
+
+    public void userRegistered(UUID userId, String fullname) {
+        ActivityEvent event = ActivityEvents.of(ActivityEvents.USER_REGISTERED, userId, userId,
+                "New user registered: " + fullname);
+        try {
+            rabbitTemplate.convertAndSend(ActivityEvents.EXCHANGE, ActivityEvents.USER_ROUTING_KEY, event);
+        } catch (AmqpException e) {
+            log.warn("Failed to publish user activity {}: {}", event.getType(), e.getMessage());
+        }
+    }
+
+    private void send(Map<String, Long> deltas) {
+        StatsCounterEvent event = new StatsCounterEvent(
+                UUID.randomUUID().toString(), "user-service", Instant.now().toString(), deltas);
+        try {
+            rabbitTemplate.convertAndSend(StatsCounters.EXCHANGE, StatsCounters.USER_ROUTING_KEY, event);
+        } catch (AmqpException e) {
+            // Counters drift until the next rebuild, the user write itself must not fail
+            log.warn("Failed to publish user stats counters {}: {}", deltas, e.getMessage());
+        }
+    }
+}